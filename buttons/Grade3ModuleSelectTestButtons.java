@@ -24,7 +24,13 @@ import java.io.IOException;
 import project.constants.DifficultyLevel;
 import project.interfaces.EnumerableButtonFactory;
 import project.interfaces.ModuleSelectButtonInterface;
+import project.run.GUIManager;
+import project.screens.DifficultySelectScreen;
 import project.screens.ModuleSelectScreen;
+import project.tests.GradeArithmeticGenerator;
+import project.tests.GradeFractionsGenerator;
+import project.tests.GradeTestFractions;
+import project.tests.TestArithmetic;
 import project.tools.ContentPane;
 import project.tools.ImageLoader;
 
@@ -159,32 +165,60 @@ public class Grade3ModuleSelectTestButtons implements EnumerableButtonFactory{
 		 * The Fractions Grade3-4 Test module button.
 		 */
 		FRACTIONS  ("Fractions", "3_fractions.png" , 303, 400) {
-
+			private GUIManager manager;
+			private DifficultySelectScreen difficultyScreen;
+			
 			@Override
 			public void doAction(ModuleSelectScreen screen) {
-				System.out.println("Opening the " + getName() + " Test!");
-				
+				System.out.println("Opening the DifficultySelectScreen!");
+				this.manager = screen.getManager();
+				screen.tearDown();
+				try {
+					difficultyScreen = new DifficultySelectScreen(manager, this);
+				} catch (IOException e) {
+					manager.handleException(e);
+				}
 			}
 
 			@Override
 			public void difficultySelected(DifficultyLevel level) {
-				// TODO Auto-generated method stub
-				
+				System.out.println("Opening the " + level.getName() + " " + getName() + " Test!");
+				difficultyScreen.tearDown();
+				try {
+					new GradeTestFractions(manager, this, GradeFractionsGenerator.Module.GRADE_3_FRACTIONS, false, level);
+				} catch (IOException e) {
+					manager.handleException(e);
+				}
 			}
 		},
 		/**
 		 * The Decimals Grade3-4 Test module button.
 		 */
 		DECIMALS ("Decimals","4_decimals.png", 593, 400) {
+			private GUIManager manager;
+			private DifficultySelectScreen difficultyScreen;
+			
 			@Override
 			public void doAction(ModuleSelectScreen screen) {
-				System.out.println("Opening the " + getName() + " Test!");
+				System.out.println("Opening the DifficultySelectScreen!");
+				this.manager = screen.getManager();
+				screen.tearDown();
+				try {
+					difficultyScreen = new DifficultySelectScreen(manager, this);
+				} catch (IOException e) {
+					manager.handleException(e);
+				}
 			}
 
 			@Override
 			public void difficultySelected(DifficultyLevel level) {
-				// TODO Auto-generated method stub
-				
+				System.out.println("Opening the " + level.getName() + " " + getName() + " Test!");
+				difficultyScreen.tearDown();
+				try {
+					new GradeTestFractions(manager, this, GradeFractionsGenerator.Module.GRADE_3_DECIMALS, false, level);
+				} catch (IOException e) {
+					manager.handleException(e);
+				}
 			}
 		},
 		/**
@@ -252,15 +286,31 @@ public class Grade3ModuleSelectTestButtons implements EnumerableButtonFactory{
 		 * The Arithmetic Grade3-4 Test module button.
 		 */
 		ARITHMETIC ("Arithmetic",     "9_arithmetic.png"     , 300, 225) {
+			private GUIManager manager;
+			private DifficultySelectScreen difficultyScreen;
+			
 			@Override
 			public void doAction(ModuleSelectScreen screen) {
-				System.out.println("Opening the " + getName() + " Test!");
+				System.out.println("Opening the DifficultySelectScreen!");
+				this.manager = screen.getManager();
+				screen.tearDown();
+				try {
+					difficultyScreen = new DifficultySelectScreen(manager, this);
+				} catch (IOException e) {
+					manager.handleException(e);
+				}
 			}
 
 			@Override
 			public void difficultySelected(DifficultyLevel level) {
-				// TODO Auto-generated method stub
-				
+				System.out.println("Opening the " + level.getName() + " " + getName() + " Test!");
+				difficultyScreen.tearDown();
+				try {
+					new TestArithmetic(manager, this, GradeArithmeticGenerator.factory(GradeArithmeticGenerator.GRADE_3),
+							false, level);
+				} catch (IOException e) {
+					manager.handleException(e);
+				}
 			}
 		},
 		/**
@@ -27,13 +27,14 @@ import project.interfaces.ModuleSelectButtonInterface;
 import project.run.GUIManager;
 import project.screens.DifficultySelectScreen;
 import project.screens.ModuleSelectScreen;
-import project.tests.PreKTestArithmetic;
+import project.tests.PreKArithmeticGenerator;
 import project.tests.PreKTestCoins;
 import project.tests.PreKTestComparison;
 import project.tests.PreKTestCounting;
 import project.tests.PreKTestFractions;
 import project.tests.PreKTestMatching;
 import project.tests.PreKTestSequences;
+import project.tests.TestArithmetic;
 import project.tools.ContentPane;
 import project.tools.ImageLoader;
 
@@ -321,7 +322,8 @@ public class PreKModuleSelectPracticeButtons implements EnumerableButtonFactory{
 				System.out.println("Opening the " + level.getName() + " " + getName() + " Practice!");
 				difficultyScreen.tearDown();
 				try {
-					new PreKTestArithmetic(manager, true, level);
+					new TestArithmetic(manager, PreKModuleSelectTestButtons.Button.ARITHMETIC,
+							PreKArithmeticGenerator.FACTORY, true, level);
 				} catch (IOException e) {
 					manager.handleException(e);
 				}
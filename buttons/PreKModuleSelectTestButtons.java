@@ -27,13 +27,14 @@ import project.interfaces.ModuleSelectButtonInterface;
 import project.run.GUIManager;
 import project.screens.DifficultySelectScreen;
 import project.screens.ModuleSelectScreen;
-import project.tests.PreKTestArithmetic;
+import project.tests.PreKArithmeticGenerator;
 import project.tests.PreKTestCoins;
 import project.tests.PreKTestComparison;
 import project.tests.PreKTestCounting;
 import project.tests.PreKTestFractions;
 import project.tests.PreKTestMatching;
 import project.tests.PreKTestSequences;
+import project.tests.TestArithmetic;
 import project.tools.ContentPane;
 import project.tools.ImageLoader;
 
@@ -334,7 +335,7 @@ public class PreKModuleSelectTestButtons implements EnumerableButtonFactory{
 				System.out.println("Opening the " + level.getName() + " " + getName() + " Test!");
 				difficultyScreen.tearDown();
 				try {
-					new PreKTestArithmetic(manager, false, level);
+					new TestArithmetic(manager, this, PreKArithmeticGenerator.FACTORY, false, level);
 				} catch (IOException e) {
 					manager.handleException(e);
 				}
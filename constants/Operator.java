@@ -18,10 +18,12 @@
  */
 package project.constants;
 
+import project.tools.Fraction;
+
 /**
  * This enum is used to define basic arithmetic operators. It provides String names, symbol
  *  representations, and operations on two operands for Addition, Subtraction, Multiplication,
- *  and Division.
+ *  and Division. Each operation may be performed on ints, or exactly on Fractions.
  * @author Kenneth Chin
  */
 public enum Operator{
@@ -33,6 +35,11 @@ public enum Operator{
 		public int doAction(int operand1, int operand2){
 			return (operand1 + operand2);
 		}
+		
+		@Override
+		public Fraction doAction(Fraction operand1, Fraction operand2){
+			return operand1.add(operand2);
+		}
 	},
 	/**
 	 * The Subtraction operator.
@@ -45,6 +52,11 @@ public enum Operator{
 		public int doAction(int operand1, int operand2){
 			return (operand1 - operand2);
 		}
+		
+		@Override
+		public Fraction doAction(Fraction operand1, Fraction operand2){
+			return operand1.subtract(operand2);
+		}
 	},
 	/**
 	 * The Multiplication operator.
@@ -52,7 +64,12 @@ public enum Operator{
 	MULTIPLY("Multiply", "X") {
 		@Override
 		public int doAction(int operand1, int operand2) {
-			return (operand1 * operand1);
+			return (operand1 * operand2);
+		}
+		
+		@Override
+		public Fraction doAction(Fraction operand1, Fraction operand2){
+			return operand1.multiply(operand2);
 		}
 	},
 	/**
@@ -68,6 +85,14 @@ public enum Operator{
 				throw new ArithmeticException("Operator.DIVIDE: operand2 is zero. Can not divide by zero.");
 			return (operand1 / operand2);
 		}
+		
+		@Override
+		/**
+		 * Divides operand1 by operand2. Throws an ArithmeticException if operand2 is zero.
+		 */
+		public Fraction doAction(Fraction operand1, Fraction operand2){
+			return operand1.divide(operand2);
+		}
 	};
 	
 	private String name;
@@ -106,4 +131,12 @@ public enum Operator{
 	 * @return An int indicating the result of operand1 operator operand2 for this Operator.
 	 */
 	public abstract int doAction(int operand1, int operand2);
+	
+	/**
+	 * Performs the action operand1 operator operand2 for this Operator, exactly.
+	 * @param operand1 A Fraction. The left operand.
+	 * @param operand2 A Fraction. The right operand.
+	 * @return A Fraction, in lowest terms, indicating the result of operand1 operator operand2 for this Operator.
+	 */
+	public abstract Fraction doAction(Fraction operand1, Fraction operand2);
 }
\ No newline at end of file
@@ -0,0 +1,541 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import project.constants.DifficultyLevel;
+import project.interfaces.ModuleSelectButtonInterface;
+
+/**
+ * This class is an append-only log of every attempt at every formal test, kept per student and module.
+ *  Each student has a directory (named by the hex digits of the UTF-8 username), holding one file per
+ *  module: "gradeLevel"-"test ordinal".hist.
+ * A file is FILE_MAGIC, followed by a sequence of blocks. Each block is a BLOCK_HEADER_LENGTH byte header:
+ *  [int payload length][int number of attempts][long earliest timestamp][long latest timestamp][int CRC32]
+ *  followed by its attempts. The CRC32 covers the rest of the header. Each attempt is stored as varints:
+ *  the zig-zag encoded difference between its timestamp and the previous attempt's timestamp (the first
+ *  attempt of a block stores its whole timestamp), the difficulty level's ordinal, numCorrect, maxGrade,
+ *  and durationMillis. A typical attempt takes 8 to 10 bytes. An attempt with a seed has SEED_FLAG set on
+ *  its difficulty level's ordinal, and is followed by its seed, as 8 bytes, highest first.
+ * New attempts are appended to the last block until its payload reaches BLOCK_CAPACITY, when a new block
+ *  is started. An attempt is written before its block's header is updated, so an attempt that is cut short
+ *  by a crash is never read, and is overwritten by the next attempt. The last block of recently used files
+ *  is kept in memory, so that an attempt is appended without reading the file's headers.
+ * A header that fails its checksum (ex. a crash during its write) is rebuilt from the block's attempts,
+ *  which need no header to be decoded. Bytes that are neither are skipped, up to the next valid header.
+ * A query for a time window reads only the headers of blocks outside the window, and decodes only the
+ *  blocks that overlap it, so it does not load a student's full history.
+ * @author Kenneth Chin
+ */
+public class AttemptHistory {
+
+	static final int FILE_MAGIC          = 0x4D484148; //"MHAH". Begins every history file.
+	static final int FILE_HEADER_LENGTH  = 4;    //The number of bytes before the first block.
+	static final int BLOCK_HEADER_LENGTH = 28;   //The number of bytes in a block header.
+	static final int BLOCK_CAPACITY      = 4096; //The payload size, in bytes, after which a new block is started.
+	static final int SEED_FLAG           = 0x40; //Set on the stored difficulty level ordinal of an attempt with a seed.
+
+	private static final int MAX_ATTEMPT_LENGTH = 64;  //More than the largest encoded attempt.
+	private static final int CACHED_FILES       = 64;  //The number of files whose last block is kept in memory.
+	private static final String FILE_SUFFIX = ".hist";
+
+	private final File directory; //The directory holding every student's directory.
+
+	//The last block of each recently appended file, least recently used first.
+	private final Map<File, Block> lastBlocks = new LinkedHashMap<File, Block>(16, 0.75f, true){
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<File, Block> eldest){
+			return size() > CACHED_FILES;
+		}
+	};
+
+	/**
+	 * Creates an AttemptHistory in the specified directory, creating the directory if it does not exist.
+	 * @param directoryPath A String describing the path of the directory that holds the history.
+	 * @throws IOException Thrown if the directory can not be created.
+	 */
+	public AttemptHistory(String directoryPath) throws IOException{
+		directory = new File(directoryPath);
+		if(!directory.exists() && !directory.mkdirs())
+			throw new IOException("AttemptHistory: Could not create the directory " + directory + ".");
+	}
+
+
+/*****************
+ * Write methods *
+ *****************/
+
+	/**
+	 * Used to append an attempt to a student's history of a test.
+	 * @param userName The String that is used as the database's key for the student.
+	 * @param gradeLevel An int indicating the grade level (0, 1, or 2) that the test belongs to.
+	 * @param test The ModuleSelectButtonInterface of the test that was attempted.
+	 * @param attempt The TestAttempt to be appended.
+	 * @throws IOException Thrown if the history file can not be written.
+	 */
+	public synchronized void record(String userName, int gradeLevel, ModuleSelectButtonInterface test,
+			TestAttempt attempt) throws IOException{
+		File file = getFile(userName, gradeLevel, test);
+		File studentDirectory = file.getParentFile();
+		if(!studentDirectory.exists() && !studentDirectory.mkdirs())
+			throw new IOException("AttemptHistory: Could not create the directory " + studentDirectory + ".");
+		//Removed until the attempt is written, so a failed write is never trusted.
+		Block last = lastBlocks.remove(file);
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try{
+			if(last == null || raf.length() != last.getEnd())
+				last = findLastBlock(raf);
+			last = append(raf, last, attempt);
+		}finally{
+			raf.close();
+		}
+		lastBlocks.put(file, last);
+	}
+
+	/**
+	 * A helper method used to find the block that the next attempt is appended to, when it is not kept in
+	 *  memory. Headers that were rebuilt are written again, and the file is started if it is new.
+	 * @param raf The RandomAccessFile of the history file.
+	 * @return The last Block of the file, or null if the file has no blocks.
+	 * @throws IOException Thrown if the file can not be read or written.
+	 */
+	private static Block findLastBlock(RandomAccessFile raf) throws IOException{
+		if(raf.length() < FILE_HEADER_LENGTH){
+			raf.setLength(0);
+			raf.writeInt(FILE_MAGIC);
+			return null;
+		}
+		List<Block> blocks = readBlocks(raf);
+		for(Block block: blocks){
+			if(block.isRebuilt){
+				raf.seek(block.start);
+				raf.write(makeHeader(block));
+			}
+		}
+		if(blocks.isEmpty())
+			return null;
+		Block last = blocks.get(blocks.size() - 1);
+		if(!last.isRebuilt){
+			List<TestAttempt> attempts = new ArrayList<TestAttempt>(last.count);
+			decodeBlock(raf, last, Long.MIN_VALUE, Long.MAX_VALUE, attempts);
+			last.lastTimestamp = attempts.get(attempts.size() - 1).getTimestamp();
+		}
+		return last;
+	}
+
+	/**
+	 * A helper method used to append an attempt to the last block of a file, or to a new block if there is
+	 *  none or it is full. Bytes after the last block are the remains of an attempt that was cut short, and
+	 *  are overwritten. The header is written in one write, once the attempt is in place.
+	 * @param raf The RandomAccessFile of the history file.
+	 * @param last The last Block of the file, or null if the file has no blocks. It is updated.
+	 * @param attempt The TestAttempt to be appended.
+	 * @return The Block that the attempt was appended to.
+	 * @throws IOException Thrown if the file can not be written.
+	 */
+	private static Block append(RandomAccessFile raf, Block last, TestAttempt attempt) throws IOException{
+		if(last == null || last.length >= BLOCK_CAPACITY)
+			last = new Block((last == null) ? FILE_HEADER_LENGTH : last.getEnd());
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+		encode(bytes, attempt, last.lastTimestamp);
+		raf.setLength(last.getEnd());
+		raf.seek(last.getEnd());
+		raf.write(bytes.toByteArray());
+
+		last.length += bytes.size();
+		last.count++;
+		last.earliest      = Math.min(last.earliest, attempt.getTimestamp());
+		last.latest        = Math.max(last.latest, attempt.getTimestamp());
+		last.lastTimestamp = attempt.getTimestamp();
+		raf.seek(last.start);
+		raf.write(makeHeader(last));
+		return last;
+	}
+
+	/**
+	 * A helper method used to build a block header, ending with the checksum of its other fields.
+	 * @param block The Block whose header is built.
+	 * @return A byte array holding the header.
+	 */
+	private static byte[] makeHeader(Block block){
+		ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_LENGTH);
+		header.putInt(block.length);
+		header.putInt(block.count);
+		header.putLong(block.earliest);
+		header.putLong(block.latest);
+		CRC32 crc = new CRC32();
+		crc.update(header.array(), 0, BLOCK_HEADER_LENGTH - 4);
+		header.putInt((int)crc.getValue());
+		return header.array();
+	}
+
+	/**
+	 * A helper method used to encode an attempt.
+	 * @param out The ByteArrayOutputStream that the attempt is written to.
+	 * @param attempt The TestAttempt to be encoded.
+	 * @param previous A long indicating the timestamp that the attempt's timestamp is stored relative to.
+	 */
+	private static void encode(ByteArrayOutputStream out, TestAttempt attempt, long previous){
+		long delta = attempt.getTimestamp() - previous;
+		writeVarLong(out, (delta << 1) ^ (delta >> 63)); //zig-zag, so that a clock change costs one byte.
+		writeVarLong(out, attempt.getDifficulty().ordinal() | (attempt.hasSeed() ? SEED_FLAG : 0));
+		writeVarLong(out, attempt.getNumCorrect());
+		writeVarLong(out, attempt.getMaxGrade());
+		writeVarLong(out, attempt.getDurationMillis());
+		if(attempt.hasSeed()){
+			for(int shift = 56; shift >= 0; shift -= 8)
+				out.write((int)(attempt.getSeed() >>> shift));
+		}
+	}
+
+	/**
+	 * A helper method used to write an unsigned variable-length long: 7 bits per byte, lowest bits first,
+	 *  with the high bit set on every byte but the last.
+	 * @param out The ByteArrayOutputStream that the value is written to.
+	 * @param value The long value to be written, treated as unsigned.
+	 */
+	static void writeVarLong(ByteArrayOutputStream out, long value){
+		while((value & ~0x7FL) != 0){
+			out.write((int)((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int)value);
+	}
+
+
+/****************
+ * Read methods *
+ ****************/
+
+	/**
+	 * Used to obtain every attempt in a student's history of a test, oldest first.
+	 * @param userName The String that is used as the database's key for the student.
+	 * @param gradeLevel An int indicating the grade level (0, 1, or 2) that the test belongs to.
+	 * @param test The ModuleSelectButtonInterface of the test.
+	 * @return A List of every TestAttempt, in the order they were recorded.
+	 * @throws IOException Thrown if the history file can not be read.
+	 */
+	public List<TestAttempt> getAttempts(String userName, int gradeLevel, ModuleSelectButtonInterface test) throws IOException{
+		return getAttempts(userName, gradeLevel, test, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Used to obtain the attempts in a student's history of a test that were finished within a time window.
+	 *  Blocks that lie outside the window are skipped by their headers, without being decoded.
+	 * @param userName The String that is used as the database's key for the student.
+	 * @param gradeLevel An int indicating the grade level (0, 1, or 2) that the test belongs to.
+	 * @param test The ModuleSelectButtonInterface of the test.
+	 * @param fromMillis A long indicating the start of the window (inclusive), in milliseconds since the epoch.
+	 * @param toMillis A long indicating the end of the window (exclusive), in milliseconds since the epoch.
+	 * @return A List of the TestAttempts within the window, in the order they were recorded.
+	 * @throws IOException Thrown if the history file can not be read.
+	 */
+	public synchronized List<TestAttempt> getAttempts(String userName, int gradeLevel, ModuleSelectButtonInterface test,
+			long fromMillis, long toMillis) throws IOException{
+		List<TestAttempt> attempts = new ArrayList<TestAttempt>();
+		File file = getFile(userName, gradeLevel, test);
+		if(!file.exists() || fromMillis >= toMillis)
+			return attempts;
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try{
+			for(Block block: readBlocks(raf)){
+				if(block.latest >= fromMillis && block.earliest < toMillis)
+					decodeBlock(raf, block, fromMillis, toMillis, attempts);
+			}
+		}finally{
+			raf.close();
+		}
+		return attempts;
+	}
+
+	/**
+	 * A helper method used to read the header of every block of a file. A block whose header is damaged is
+	 *  rebuilt from its attempts, and bytes that are neither a block nor the attempts of one are skipped, up
+	 *  to the next valid header.
+	 * @param raf The RandomAccessFile of the history file.
+	 * @return A List of every Block of the file, in order.
+	 * @throws IOException Thrown if the file can not be read.
+	 */
+	private static List<Block> readBlocks(RandomAccessFile raf) throws IOException{
+		List<Block> blocks = new ArrayList<Block>();
+		long fileLength = raf.length();
+		long position   = FILE_HEADER_LENGTH;
+		byte[] header   = new byte[BLOCK_HEADER_LENGTH];
+		while(position + BLOCK_HEADER_LENGTH <= fileLength){
+			raf.seek(position);
+			raf.readFully(header);
+			Block block = readHeader(header, 0, position, fileLength);
+			if(block == null){
+				block = rebuildBlock(raf, position, fileLength);
+				if(block != null)
+					blocks.add(block);
+				if(block == null || !block.isFollowedByBlock){
+					position = findHeader(raf, (block == null) ? position + 1 : block.getEnd(), fileLength, fileLength);
+					if(position < 0)
+						break;
+					continue;
+				}
+			}else{
+				blocks.add(block);
+			}
+			position = block.getEnd();
+		}
+		return blocks;
+	}
+
+	/**
+	 * A helper method used to read a block header.
+	 * @param bytes A byte array holding the header.
+	 * @param offset An int indicating the position of the header in bytes.
+	 * @param position A long indicating the position of the header in the file.
+	 * @param fileLength A long indicating the length of the file.
+	 * @return The Block described by the header, or null if the header is damaged, or its attempts run
+	 *  past the end of the file.
+	 */
+	private static Block readHeader(byte[] bytes, int offset, long position, long fileLength){
+		ByteBuffer header = ByteBuffer.wrap(bytes, offset, BLOCK_HEADER_LENGTH);
+		Block block     = new Block(position);
+		block.length    = header.getInt();
+		block.count     = header.getInt();
+		block.earliest  = header.getLong();
+		block.latest    = header.getLong();
+		CRC32 crc = new CRC32();
+		crc.update(bytes, offset, BLOCK_HEADER_LENGTH - 4);
+		if(header.getInt() != (int)crc.getValue())
+			return null;
+		if(block.length < 0 || block.getEnd() > fileLength)
+			return null;
+		return block;
+	}
+
+	/**
+	 * A helper method used to rebuild a block whose header is damaged, by decoding its attempts. A block is
+	 *  only ever appended to until its payload reaches BLOCK_CAPACITY, so it ends there, or where the next
+	 *  valid header begins. If there is no next header, it is the last block, and it ends where the attempts
+	 *  can no longer be decoded.
+	 * @param raf The RandomAccessFile of the history file.
+	 * @param position A long indicating the position of the damaged header.
+	 * @param fileLength A long indicating the length of the file.
+	 * @return The rebuilt Block, or null if its attempts can not be decoded, or do not end where it must end.
+	 * @throws IOException Thrown if the file can not be read.
+	 */
+	private static Block rebuildBlock(RandomAccessFile raf, long position, long fileLength) throws IOException{
+		Block block = new Block(position);
+		long maxEnd = Math.min(fileLength, block.payloadStart + BLOCK_CAPACITY + MAX_ATTEMPT_LENGTH);
+		long next   = findHeader(raf, position + 1, maxEnd, fileLength);
+		long end    = (next < 0) ? maxEnd : next;
+		if(end <= block.payloadStart)
+			return null;
+		byte[] payload = new byte[(int)(end - block.payloadStart)];
+		raf.seek(block.payloadStart);
+		raf.readFully(payload);
+		DifficultyLevel[] levels = DifficultyLevel.values();
+		int[] offset = {0};
+		while(offset[0] < payload.length && block.length < BLOCK_CAPACITY){
+			TestAttempt attempt;
+			try {
+				attempt = decodeAttempt(payload, offset, block.lastTimestamp, levels);
+			} catch (IOException e) {
+				break; //Not an attempt.
+			}
+			block.length = offset[0];
+			block.count++;
+			block.earliest      = Math.min(block.earliest, attempt.getTimestamp());
+			block.latest        = Math.max(block.latest, attempt.getTimestamp());
+			block.lastTimestamp = attempt.getTimestamp();
+		}
+		block.isFollowedByBlock = (block.length >= BLOCK_CAPACITY || block.getEnd() == next);
+		if(block.count == 0 || (next >= 0 && !block.isFollowedByBlock))
+			return null;
+		block.isRebuilt = true;
+		return block;
+	}
+
+	/**
+	 * A helper method used to find the next valid block header, after bytes that can not be read.
+	 * @param raf The RandomAccessFile of the history file.
+	 * @param from A long indicating the first position that is checked.
+	 * @param to A long indicating the position that the header must begin before.
+	 * @param fileLength A long indicating the length of the file.
+	 * @return A long indicating the position of the next valid header, or -1 if there is none.
+	 * @throws IOException Thrown if the file can not be read.
+	 */
+	private static long findHeader(RandomAccessFile raf, long from, long to, long fileLength) throws IOException{
+		long last = Math.min(to, fileLength - BLOCK_HEADER_LENGTH + 1);
+		if(from >= last)
+			return -1;
+		byte[] bytes = new byte[(int)(last - from) + BLOCK_HEADER_LENGTH - 1];
+		raf.seek(from);
+		raf.readFully(bytes);
+		for(int offset = 0; from + offset < last; offset++){
+			if(readHeader(bytes, offset, from + offset, fileLength) != null)
+				return from + offset;
+		}
+		return -1;
+	}
+
+	/**
+	 * A helper method used to decode the attempts of a block that lie within a time window.
+	 * @param raf The RandomAccessFile of the history file.
+	 * @param block The Block to be decoded.
+	 * @param fromMillis A long indicating the start of the window (inclusive).
+	 * @param toMillis A long indicating the end of the window (exclusive).
+	 * @param attempts The List that the decoded attempts are added to.
+	 * @throws IOException Thrown if the block can not be read, or is damaged.
+	 */
+	private static void decodeBlock(RandomAccessFile raf, Block block, long fromMillis, long toMillis,
+			List<TestAttempt> attempts) throws IOException{
+		byte[] payload = new byte[block.length];
+		raf.seek(block.payloadStart);
+		raf.readFully(payload);
+		DifficultyLevel[] levels = DifficultyLevel.values();
+		int[] position = {0};
+		long timestamp = 0; //The first attempt of a block stores its whole timestamp.
+		for(int i = 0; i < block.count; i++){
+			TestAttempt attempt = decodeAttempt(payload, position, timestamp, levels);
+			timestamp = attempt.getTimestamp();
+			if(timestamp >= fromMillis && timestamp < toMillis)
+				attempts.add(attempt);
+		}
+	}
+
+	/**
+	 * A helper method used to decode a single attempt.
+	 * @param payload The byte array holding the attempt.
+	 * @param position An int array whose first element holds the position of the attempt. It is advanced
+	 *  past the attempt.
+	 * @param previous A long indicating the timestamp that the attempt's timestamp is stored relative to.
+	 * @param levels The DifficultyLevels, as returned by DifficultyLevel.values().
+	 * @return The decoded TestAttempt.
+	 * @throws IOException Thrown if the attempt is cut short, or is damaged.
+	 */
+	private static TestAttempt decodeAttempt(byte[] payload, int[] position, long previous, DifficultyLevel[] levels)
+			throws IOException{
+		long zigzag     = readVarLong(payload, position);
+		long timestamp  = previous + ((zigzag >>> 1) ^ -(zigzag & 1));
+		int level       = (int)readVarLong(payload, position);
+		boolean hasSeed = (level & SEED_FLAG) != 0;
+		level &= ~SEED_FLAG;
+		if(level < 0 || level >= levels.length)
+			throw new IOException("AttemptHistory: The difficulty level " + level + " does not exist.");
+		int numCorrect  = (int)readVarLong(payload, position);
+		int maxGrade    = (int)readVarLong(payload, position);
+		long duration   = readVarLong(payload, position);
+		if(!hasSeed)
+			return new TestAttempt(timestamp, levels[level], numCorrect, maxGrade, duration);
+		if(position[0] + 8 > payload.length)
+			throw new EOFException("AttemptHistory: An attempt was cut short.");
+		long seed = 0;
+		for(int b = 0; b < 8; b++)
+			seed = (seed << 8) | (payload[position[0]++] & 0xFF);
+		return new TestAttempt(timestamp, levels[level], numCorrect, maxGrade, duration, seed);
+	}
+
+	/**
+	 * A helper method used to read a value written by writeVarLong(ByteArrayOutputStream, long).
+	 * @param bytes The byte array holding the value.
+	 * @param position An int array whose first element holds the position of the value. It is advanced
+	 *  past the value.
+	 * @return The long value that was read.
+	 * @throws IOException Thrown if the value runs past the end of the array, or is longer than a long.
+	 */
+	static long readVarLong(byte[] bytes, int[] position) throws IOException{
+		long value = 0;
+		for(int shift = 0; shift < 64; shift += 7){
+			if(position[0] >= bytes.length)
+				throw new EOFException("AttemptHistory: An attempt was cut short.");
+			int b = bytes[position[0]++];
+			value |= (long)(b & 0x7F) << shift;
+			if((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("AttemptHistory: A value is longer than a long.");
+	}
+
+
+/*******************
+ * File management *
+ *******************/
+
+	/**
+	 * A helper method used to obtain the history file of a student's test.
+	 * @param userName The String that is used as the database's key for the student.
+	 * @param gradeLevel An int indicating the grade level that the test belongs to.
+	 * @param test The ModuleSelectButtonInterface of the test.
+	 * @return The File holding the history.
+	 */
+	private File getFile(String userName, int gradeLevel, ModuleSelectButtonInterface test){
+		StringBuilder name = new StringBuilder();
+		for(byte b: userName.getBytes(Charset.forName("UTF-8")))
+			name.append(String.format("%02x", b & 0xFF));
+		File studentDirectory = new File(directory, name.toString());
+		return new File(studentDirectory, gradeLevel + "-" + test.getOrdinal() + FILE_SUFFIX);
+	}
+
+
+/***************
+ * Block class *
+ ***************/
+
+	/**
+	 * This class describes a block of a history file: the values of its header, and where its attempts are.
+	 */
+	private static final class Block {
+		final long start;        //The position of the block's header.
+		final long payloadStart; //The position of the block's first attempt.
+		int length = 0;      //The number of bytes of attempts.
+		int count  = 0;      //The number of attempts.
+		long earliest = Long.MAX_VALUE; //The earliest timestamp of the block's attempts.
+		long latest   = Long.MIN_VALUE; //The latest timestamp of the block's attempts.
+		long lastTimestamp = 0; //The timestamp of the last attempt, once known. The next attempt is stored relative to it.
+		boolean isRebuilt = false;          //true if the header was damaged, and was rebuilt from the attempts.
+		boolean isFollowedByBlock = false;  //true if a rebuilt block is known to end where the next block begins.
+
+		/**
+		 * Creates an empty Block.
+		 * @param start A long indicating the position of the block's header.
+		 */
+		Block(long start){
+			this.start        = start;
+			this.payloadStart = start + BLOCK_HEADER_LENGTH;
+		}
+
+		/**
+		 * Used to obtain the position just after the block's last attempt.
+		 * @return A long indicating the position where the next block, or attempt, begins.
+		 */
+		long getEnd(){
+			return payloadStart + length;
+		}
+	}
+}
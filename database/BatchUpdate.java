@@ -0,0 +1,221 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import project.interfaces.UserChangeListener;
+
+/**
+ * This class makes administrative changes to many students of a UserDatabase at once: promoting a cohort
+ *  to a new grade level, resetting grades, and setting passwords. Making the same changes one setter at a
+ *  time would take one change, one index update and one journal record per student, each seen on its own
+ *  by snapshots and other sessions.
+ * Each operation is a single batch (see UserDatabase): the new states of its students are made on a pool
+ *  of threads, and committed as one step, which snapshots see in full or not at all. No other change can be
+ *  made while the batch is committed. Students that do not exist are skipped, and counted by
+ *  getSkippedUsers().
+ * Nothing is written to disk; once an operation is done, the caller writes the database (or the users in
+ *  getChangedUsers()) in a single pass. The time taken and the number of students changed per second by the
+ *  last operation are described by getStatistics().
+ * @author Kenneth Chin
+ */
+public class BatchUpdate {
+
+	private final UserDatabase database; //The database that is changed.
+	private final int threads;           //The number of threads that new states are made on.
+
+	private List<String> changed = new ArrayList<String>(); //The users changed by the last operation.
+	private String operation = "none"; //Describes the last operation.
+	private int requested = 0;         //The number of distinct users the last operation was given.
+	private int skipped   = 0;         //The number of those users that do not exist.
+	private long elapsedNanos = 0;     //The time taken by the last operation.
+
+	/**
+	 * Creates a BatchUpdate that makes new states on one thread per processor.
+	 * @param database The UserDatabase that is changed.
+	 */
+	public BatchUpdate(UserDatabase database){
+		this(database, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a BatchUpdate.
+	 * @param database The UserDatabase that is changed.
+	 * @param threads An int indicating the number of threads that new states are made on.
+	 */
+	public BatchUpdate(UserDatabase database, int threads){
+		this.database = database;
+		this.threads  = Math.max(1, threads);
+	}
+
+
+/*********************
+ * Operation methods *
+ *********************/
+
+	/**
+	 * Used to promote students to a new grade level. Each student's report card is replaced with the empty
+	 *  report card of the new grade level (see ReportCard.getHashMap(int)), and their last active test is
+	 *  set to the first test. Students that are already in the new grade level are not changed.
+	 * @param userNames The usernames of the students to be promoted.
+	 * @param gradeLevel An int indicating the new grade level. Must be 0, 1, or 2.
+	 * @return An int indicating the number of students that were promoted.
+	 * @throws IOException Thrown if a student's record can not be read. No student is changed.
+	 */
+	public int promoteCohort(Collection<String> userNames, final int gradeLevel) throws IOException{
+		if(gradeLevel < 0 || gradeLevel > 2)
+			throw new IllegalArgumentException("BatchUpdate: The gradeLevel \"" + gradeLevel + "\" does not exist.");
+		return apply("promote to grade level " + gradeLevel, userNames, new Change() {
+			public UserVersion apply(String userName, UserVersion state){
+				if(state.gradeLevel == gradeLevel)
+					return null;
+				return state.withGradeLevel(gradeLevel).withLastActiveTest(1)
+						.withReportCard(ReportCard.getPackedReportCard(gradeLevel));
+			}
+		}, UserChangeListener.GRADE_LEVEL | UserChangeListener.LAST_ACTIVE_TEST | UserChangeListener.GRADES
+				| UserChangeListener.LAST_ACTIVE_TEST_RESET | UserChangeListener.GRADES_RESET);
+	}
+
+	/**
+	 * Used to reset the grades of students. Each student's report card is replaced with the empty report card
+	 *  of their grade level. Their last active test is kept, so tests that were unlocked stay unlocked.
+	 * @param userNames The usernames of the students whose grades are reset.
+	 * @return An int indicating the number of students whose grades were reset.
+	 * @throws IOException Thrown if a student's record can not be read. No student is changed.
+	 */
+	public int resetGrades(Collection<String> userNames) throws IOException{
+		return apply("reset grades", userNames, new Change() {
+			public UserVersion apply(String userName, UserVersion state){
+				return state.withReportCard(ReportCard.getPackedReportCard(state.gradeLevel));
+			}
+		}, UserChangeListener.GRADES | UserChangeListener.GRADES_RESET);
+	}
+
+	/**
+	 * Used to set the passwords of students.
+	 * @param passwords A Map of each student's username to their new password.
+	 * @return An int indicating the number of students whose passwords were set.
+	 * @throws IOException Thrown if a student's record can not be read. No student is changed.
+	 */
+	public int setPasswords(final Map<String, String> passwords) throws IOException{
+		return apply("set passwords", passwords.keySet(), new Change() {
+			public UserVersion apply(String userName, UserVersion state){
+				return state.withPassword(passwords.get(userName));
+			}
+		}, UserChangeListener.PASSWORD);
+	}
+
+	/**
+	 * A helper method used to commit one operation as a batch, and record its results.
+	 * @param description A String describing the operation.
+	 * @param userNames The usernames of the students to be changed. Duplicates are changed once.
+	 * @param change The Change that makes each student's new state.
+	 * @param fields An int holding the UserChangeListener flags of the fields that the change sets.
+	 * @return An int indicating the number of students that were changed.
+	 * @throws IOException Thrown if a student's record can not be read.
+	 */
+	private int apply(String description, Collection<String> userNames, Change change, int fields) throws IOException{
+		List<String> distinct = new ArrayList<String>(new LinkedHashSet<String>(userNames));
+		long start = System.nanoTime();
+		List<String> result = database.commitBatch(distinct, change, fields, threads);
+		elapsedNanos = System.nanoTime() - start;
+		operation = description;
+		requested = distinct.size();
+		changed   = result;
+		skipped   = 0;
+		for(String userName: distinct)
+			if(!database.containsUser(userName))
+				skipped++;
+		return changed.size();
+	}
+
+
+/******************
+ * Result getters *
+ ******************/
+
+	/**
+	 * Used to obtain the students that were changed by the last operation.
+	 * @return A List of the changed usernames, in the order they were given.
+	 */
+	public List<String> getChangedUsers(){
+		return Collections.unmodifiableList(changed);
+	}
+
+	/**
+	 * Used to obtain the number of students given to the last operation that do not exist.
+	 * @return An int indicating the number of skipped students.
+	 */
+	public int getSkippedUsers(){
+		return skipped;
+	}
+
+	/**
+	 * Used to obtain the time taken by the last operation, from the first new state made to the commit.
+	 * @return A long indicating the time, in nanoseconds.
+	 */
+	public long getElapsedNanos(){
+		return elapsedNanos;
+	}
+
+	/**
+	 * Used to obtain the throughput of the last operation.
+	 * @return A double indicating the number of students changed per second, or 0 if none were changed.
+	 */
+	public double getUsersPerSecond(){
+		return (elapsedNanos == 0) ? 0 : changed.size() / (elapsedNanos / 1e9);
+	}
+
+	/**
+	 * Used to obtain a description of the last operation's results.
+	 * @return A String describing the operation, the number of students changed and skipped, the time taken,
+	 *  and the throughput.
+	 */
+	public String getStatistics(){
+		return String.format("%s: %d of %d users changed, %d skipped, %.1f ms on %d threads (%.0f users/s)",
+				operation, changed.size(), requested, skipped, elapsedNanos / 1e6, threads, getUsersPerSecond());
+	}
+
+
+/*****************
+ * Change object *
+ *****************/
+
+	/**
+	 * The change that an operation makes to each student. Called on the batch's threads, once per student,
+	 *  while the batch holds every lock of the database.
+	 */
+	interface Change {
+		/**
+		 * Used to make a student's new state.
+		 * @param userName The String that is used as the database's key for the student.
+		 * @param state The student's current state. It must not be changed.
+		 * @return The student's new state, made from a with...() method of state, or null (or state) if the
+		 *  student is not changed.
+		 */
+		UserVersion apply(String userName, UserVersion state);
+	}
+}
@@ -0,0 +1,728 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import project.constants.DifficultyLevel;
+import project.interfaces.ModuleSelectButtonInterface;
+
+/**
+ * This class is an optional storage engine for very large numbers of students. It offers the same
+ *  operations as UserDatabase, but keeps every student in memory-mapped files instead of UserEntry
+ *  objects, so the Java heap used per student is near zero, and garbage collection does not grow with
+ *  the number of students. A store is reopened by mapping its files; nothing is read up front.
+ * A store is a directory of columns, each a file holding one fixed-width value per student (row):
+ *  gradeLevel (1 byte), lastActiveTest (4 bytes), grades (GRADE_INTS ints, in the layout described by
+ *  PackedReportCard, padded to the grade level with the most tests), and names (4 ints: the offsets of
+ *  the userName, password, firstName and lastName within the string heap, or -1 for null).
+ * The string heap holds each distinct string once, as [int length][UTF-8 bytes], so the first and last
+ *  names shared by many students are stored once. Two open-addressing hash tables, also memory-mapped,
+ *  map a string's bytes to its heap offset, and a userName to its row. Each slot is [int value + 1][int hash].
+ * Changes are made in place. force() (and close()) writes them to disk; changes that were not forced may
+ *  be lost by a crash. Strings that are no longer used are not removed from the heap.
+ * NOTE: Every method is synchronized, as growing a column replaces its mapping. Each file is limited to
+ *  2 GB, which limits a store to about 8 million students.
+ * NOTE: Changing a student's gradeLevel clears their grades, as the tests of the old grade level do not
+ *  belong to the new one.
+ * @author Kenneth Chin
+ */
+public class ColumnarUserStore {
+
+	public static final int MAGIC   = 0x4D48434F; //"MHCO". Identifies a store's meta file.
+	public static final int VERSION = 1;          //The format version written by this class.
+
+	private static final String META_FILE        = "store.meta";
+	private static final String GRADE_LEVEL_FILE = "gradeLevel.col";
+	private static final String LAST_TEST_FILE   = "lastActiveTest.col";
+	private static final String GRADES_FILE      = "grades.col";
+	private static final String NAMES_FILE       = "names.col";
+	private static final String HEAP_FILE        = "strings.heap";
+	private static final String STRINGS_FILE     = "strings.idx";
+	private static final String USERS_FILE       = "users.idx";
+
+	//The offsets of the values held by the meta file.
+	private static final int META_MAGIC = 0, META_VERSION = 4, META_GRADE_INTS = 8, META_ROWS = 12,
+			META_HEAP_END = 16, META_STRINGS = 20, META_STRING_SLOTS = 24, META_USER_SLOTS = 28, META_LENGTH = 32;
+
+	private static final int INITIAL_ROWS  = 1024;      //The number of rows that new columns are sized for.
+	private static final int INITIAL_SLOTS = 2048;      //The number of slots in a new hash table.
+	private static final int INITIAL_HEAP  = 64 * 1024; //The size of a new string heap, in bytes.
+	private static final int SLOT_BYTES    = 8;         //The size of a hash table slot.
+	private static final int NAME_INTS     = 4;         //The number of string offsets held by each row.
+	private static final int USER_NAME = 0, PASSWORD = 1, FIRST_NAME = 2, LAST_NAME = 3; //Name column offsets.
+
+	//The number of grade ints held by each row: enough for the grade level with the most tests.
+	static final int GRADE_INTS = Math.max(ReportCard.getTests(0).length,
+			Math.max(ReportCard.getTests(1).length, ReportCard.getTests(2).length)) * PackedReportCard.SUMMARY_INTS;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private final File directory; //The directory holding every file of the store.
+	private final MappedFile meta;
+	private final MappedFile gradeLevels;
+	private final MappedFile lastActiveTests;
+	private final MappedFile grades;
+	private final MappedFile names;
+	private final MappedFile heap;
+	private final MappedFile strings; //The string heap's hash table: string bytes -> heap offset.
+	private final MappedFile users;   //The userName hash table: userName -> row.
+
+	private int rows;        //The number of students.
+	private int heapEnd;     //The number of bytes used by the string heap.
+	private int stringCount; //The number of distinct strings in the string heap.
+	private int stringSlots; //The number of slots in the string hash table. A power of 2.
+	private int userSlots;   //The number of slots in the userName hash table. A power of 2.
+
+	/**
+	 * Opens the store in the specified directory, creating the directory and an empty store if they do
+	 *  not exist. The files are mapped, but not read.
+	 * @param directoryPath A String describing the path of the directory that holds the store.
+	 * @throws IOException Thrown if the store can not be created or opened, or was written by a
+	 *  different version of this class.
+	 */
+	public ColumnarUserStore(String directoryPath) throws IOException{
+		directory = new File(directoryPath);
+		if(!directory.exists() && !directory.mkdirs())
+			throw new IOException("ColumnarUserStore: Could not create the directory " + directory + ".");
+		boolean isNew = !exists(directoryPath);
+		meta            = new MappedFile(new File(directory, META_FILE), META_LENGTH);
+		gradeLevels     = new MappedFile(new File(directory, GRADE_LEVEL_FILE), INITIAL_ROWS);
+		lastActiveTests = new MappedFile(new File(directory, LAST_TEST_FILE), INITIAL_ROWS * 4);
+		grades          = new MappedFile(new File(directory, GRADES_FILE), INITIAL_ROWS * GRADE_INTS * 4);
+		names           = new MappedFile(new File(directory, NAMES_FILE), INITIAL_ROWS * NAME_INTS * 4);
+		heap            = new MappedFile(new File(directory, HEAP_FILE), INITIAL_HEAP);
+		strings         = new MappedFile(new File(directory, STRINGS_FILE), INITIAL_SLOTS * SLOT_BYTES);
+		users           = new MappedFile(new File(directory, USERS_FILE), INITIAL_SLOTS * SLOT_BYTES);
+		if(isNew){
+			stringSlots = INITIAL_SLOTS;
+			userSlots   = INITIAL_SLOTS;
+			meta.buffer.putInt(META_MAGIC, MAGIC);
+			meta.buffer.putInt(META_VERSION, VERSION);
+			meta.buffer.putInt(META_GRADE_INTS, GRADE_INTS);
+			writeMeta();
+			meta.force();
+		}else{
+			if(meta.buffer.getInt(META_MAGIC) != MAGIC)
+				throw new IOException("ColumnarUserStore: " + directory + " does not hold a store.");
+			if(meta.buffer.getInt(META_VERSION) != VERSION || meta.buffer.getInt(META_GRADE_INTS) != GRADE_INTS)
+				throw new IOException("ColumnarUserStore: The store in " + directory + " is not a supported version.");
+			rows        = meta.buffer.getInt(META_ROWS);
+			heapEnd     = meta.buffer.getInt(META_HEAP_END);
+			stringCount = meta.buffer.getInt(META_STRINGS);
+			stringSlots = meta.buffer.getInt(META_STRING_SLOTS);
+			userSlots   = meta.buffer.getInt(META_USER_SLOTS);
+		}
+	}
+
+	/**
+	 * Used to check if a store exists in the specified directory.
+	 * @param directoryPath A String describing the path of the directory that may hold a store.
+	 * @return A boolean indicating true if the directory holds a store's meta file; false otherwise.
+	 */
+	public static boolean exists(String directoryPath){
+		return new File(directoryPath, META_FILE).length() >= META_LENGTH;
+	}
+
+	/**
+	 * Used to copy every user of a UserDatabase into this store, replacing any user of the same name.
+	 * @param database The UserDatabase to be copied.
+	 * @throws IOException Thrown if the store can not grow.
+	 */
+	public synchronized void copyFrom(UserDatabase database) throws IOException{
+		for(String userName: database.getUserNames()){
+			int row = putUser(userName, database.getPassword(userName), database.getFirstName(userName),
+					database.getLastName(userName), database.getGradeLevel(userName));
+			lastActiveTests.buffer.putInt(row * 4, database.getLastActiveTest(userName));
+			writeGrades(row, database.getGradeLevel(userName), database.getPackedReportCard(userName));
+		}
+	}
+
+	/**
+	 * Used to write every change to disk.
+	 */
+	public synchronized void force(){
+		gradeLevels.force();
+		lastActiveTests.force();
+		grades.force();
+		names.force();
+		heap.force();
+		strings.force();
+		users.force();
+		meta.force();
+	}
+
+	/**
+	 * Used to write every change to disk and close the store. The store must not be used afterwards.
+	 * @throws IOException Thrown if a file can not be closed.
+	 */
+	public synchronized void close() throws IOException{
+		force();
+		for(MappedFile file: new MappedFile[]{gradeLevels, lastActiveTests, grades, names, heap, strings, users, meta})
+			file.close();
+	}
+
+
+/***************
+ * User access *
+ ***************/
+
+	/*method returns the number of users*/
+	public synchronized int size(){
+		return rows;
+	}
+
+	/*method returns every user name, in the order the users were added*/
+	public synchronized Set<String> getUserNames(){
+		LinkedHashSet<String> userNames = new LinkedHashSet<String>((int)(rows / 0.75f) + 1);
+		for(int row = 0; row < rows; row++)
+			userNames.add(getName(row, USER_NAME));
+		return userNames;
+	}
+
+	/*method adds a user with an empty report card, replacing any previous user of the same name*/
+	public synchronized void addUser(String userName, String password, String firstName, String lastName,
+			int gradeLevel) throws IOException{
+		addUser(userName, password, firstName, lastName, gradeLevel, null);
+	}
+
+	/*method adds a user with the specified report card, replacing any previous user of the same name.
+	 *A null report card is treated as empty*/
+	public synchronized void addUser(String userName, String password, String firstName, String lastName,
+			int gradeLevel, HashMap<ModuleSelectButtonInterface, ModuleReportSummary> reportCard) throws IOException{
+		int row = putUser(userName, password, firstName, lastName, gradeLevel);
+		lastActiveTests.buffer.putInt(row * 4, 1);
+		writeGrades(row, gradeLevel, PackedReportCard.fromHashMap(gradeLevel, reportCard));
+	}
+
+	/* method returns true if the user name is a key in the store*/
+	public synchronized boolean containsUser(String userName){
+		byte[] bytes = encode(userName);
+		return findUser(bytes, hash(bytes)) >= 0;
+	}
+
+	/* method returns password value*/
+	public synchronized String getPassword(String userName){
+		return getName(getRow(userName), PASSWORD);
+	}
+
+	/* method returns First name value */
+	public synchronized String getFirstName(String userName){
+		return getName(getRow(userName), FIRST_NAME);
+	}
+
+	/*method returns Last name value*/
+	public synchronized String getLastName(String userName){
+		return getName(getRow(userName), LAST_NAME);
+	}
+
+	/*method returns Grade level value*/
+	public synchronized int getGradeLevel(String userName){
+		return gradeLevels.buffer.get(getRow(userName));
+	}
+
+	/*method returns test values*/
+	public synchronized int getLastActiveTest(String userName){
+		return lastActiveTests.buffer.getInt(getRow(userName) * 4);
+	}
+
+	/*method returns a copy of the report card. Changes to the copy must be stored with setReportCard*/
+	public synchronized HashMap<ModuleSelectButtonInterface, ModuleReportSummary> getReportCard(String userName){
+		return getPackedReportCard(userName).toHashMap();
+	}
+
+	/*method returns a copy of the report card in its packed form*/
+	public synchronized PackedReportCard getPackedReportCard(String userName){
+		int row = getRow(userName);
+		int gradeLevel = gradeLevels.buffer.get(row);
+		int[] packed = new int[ReportCard.getTests(gradeLevel).length * PackedReportCard.SUMMARY_INTS];
+		int offset = row * GRADE_INTS * 4;
+		for(int i = 0; i < packed.length; i++)
+			packed[i] = grades.buffer.getInt(offset + (i * 4));
+		return PackedReportCard.fromArray(gradeLevel, packed);
+	}
+
+	/*method returns the grade of one test and difficulty level*/
+	public synchronized int getGrade(String userName, ModuleSelectButtonInterface test, DifficultyLevel difficulty){
+		return grades.buffer.getInt(getGradeOffset(getRow(userName), test, difficulty));
+	}
+
+	/*method sets the grade and maximum grade of one test and difficulty level*/
+	public synchronized void setGrade(String userName, ModuleSelectButtonInterface test, int grade, int maxGrade,
+			DifficultyLevel difficulty){
+		int offset = getGradeOffset(getRow(userName), test, difficulty);
+		grades.buffer.putInt(offset, grade);
+		grades.buffer.putInt(offset + 4, maxGrade);
+	}
+
+	/*method sets the grade and maximum grade of one test and difficulty level, only if the grade is
+	 *higher than the current grade. Returns true if the grade was set*/
+	public synchronized boolean setGradeIfHigher(String userName, ModuleSelectButtonInterface test, int grade,
+			int maxGrade, DifficultyLevel difficulty){
+		int offset = getGradeOffset(getRow(userName), test, difficulty);
+		if(grade <= grades.buffer.getInt(offset))
+			return false;
+		grades.buffer.putInt(offset, grade);
+		grades.buffer.putInt(offset + 4, maxGrade);
+		return true;
+	}
+
+	/*method sets password value*/
+	public synchronized void setPassword(String userName, String password) throws IOException{
+		setName(getRow(userName), PASSWORD, password);
+	}
+
+	/* method sets First name value*/
+	public synchronized void setFirstName(String userName, String firstName) throws IOException{
+		setName(getRow(userName), FIRST_NAME, firstName);
+	}
+
+	/*method sets Last name value*/
+	public synchronized void setLastName(String userName, String lastName) throws IOException{
+		setName(getRow(userName), LAST_NAME, lastName);
+	}
+
+	/*method sets Grade level value. If it changes, the user's grades are cleared*/
+	public synchronized void setGradeLevel(String userName, int gradeLevel){
+		int row = getRow(userName);
+		if(gradeLevels.buffer.get(row) == gradeLevel)
+			return;
+		writeGrades(row, gradeLevel, new PackedReportCard(gradeLevel));
+		gradeLevels.buffer.put(row, (byte)gradeLevel);
+	}
+
+	/*method sets last taken test value*/
+	public synchronized void setLastActiveTest(String userName, int lastActiveTest){
+		lastActiveTests.buffer.putInt(getRow(userName) * 4, lastActiveTest);
+	}
+
+	/*method sets last taken test value, only if it is higher than the current value. Returns true if
+	 *the value was set*/
+	public synchronized boolean setLastActiveTestIfHigher(String userName, int lastActiveTest){
+		int offset = getRow(userName) * 4;
+		if(lastActiveTest <= lastActiveTests.buffer.getInt(offset))
+			return false;
+		lastActiveTests.buffer.putInt(offset, lastActiveTest);
+		return true;
+	}
+
+	/*method sets report card values*/
+	public synchronized void setReportCard(String userName,
+			HashMap<ModuleSelectButtonInterface, ModuleReportSummary> reportCard){
+		int row = getRow(userName);
+		int gradeLevel = gradeLevels.buffer.get(row);
+		writeGrades(row, gradeLevel, PackedReportCard.fromHashMap(gradeLevel, reportCard));
+	}
+
+
+/***********
+ * Queries *
+ ***********/
+
+	/*method returns the user names of a grade level, ordered by last active test. Only the gradeLevel
+	 *column is scanned; the names of matching users are read*/
+	public synchronized List<String> getUsersInGrade(int gradeLevel){
+		return getUsersByProgress(gradeLevel, Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	/*method returns the user names of a grade level whose last active test is at least fromTest and
+	 *less than toTest, ordered by last active test*/
+	public synchronized List<String> getUsersByProgress(int gradeLevel, int fromTest, int toTest){
+		List<UserIndex.ProgressKey> keys = new ArrayList<UserIndex.ProgressKey>();
+		for(int row = 0; row < rows; row++){
+			if(gradeLevels.buffer.get(row) != gradeLevel)
+				continue;
+			int lastActiveTest = lastActiveTests.buffer.getInt(row * 4);
+			if(lastActiveTest >= fromTest && lastActiveTest < toTest)
+				keys.add(new UserIndex.ProgressKey(gradeLevel, lastActiveTest, getName(row, USER_NAME)));
+		}
+		Collections.sort(keys);
+		List<String> userNames = new ArrayList<String>(keys.size());
+		for(UserIndex.ProgressKey key: keys)
+			userNames.add(key.userName);
+		return userNames;
+	}
+
+	/*method returns every user name, ordered by last name and then first name*/
+	public synchronized List<String> getUsersByName(){
+		return getUsersByLastName("");
+	}
+
+	/*method returns the user names whose last name starts with prefix (ignoring case), ordered by last
+	 *name and then first name*/
+	public synchronized List<String> getUsersByLastName(String prefix){
+		List<UserIndex.NameKey> keys = new ArrayList<UserIndex.NameKey>();
+		for(int row = 0; row < rows; row++){
+			String lastName = getName(row, LAST_NAME);
+			String last = (lastName == null) ? "" : lastName;
+			if(last.regionMatches(true, 0, prefix, 0, prefix.length()))
+				keys.add(new UserIndex.NameKey(lastName, getName(row, FIRST_NAME), getName(row, USER_NAME)));
+		}
+		Collections.sort(keys);
+		List<String> userNames = new ArrayList<String>(keys.size());
+		for(UserIndex.NameKey key: keys)
+			userNames.add(key.userName);
+		return userNames;
+	}
+
+
+/***************
+ * Row methods *
+ ***************/
+
+	/**
+	 * A helper method used to find the row of a user that must exist.
+	 * @param userName The String that is used as the store's key for the user.
+	 * @return An int indicating the user's row.
+	 * @throws IllegalArgumentException Thrown if the user does not exist.
+	 */
+	private int getRow(String userName){
+		byte[] bytes = encode(userName);
+		int row = findUser(bytes, hash(bytes));
+		if(row < 0)
+			throw new IllegalArgumentException("ColumnarUserStore: The user \"" + userName + "\" does not exist.");
+		return row;
+	}
+
+	/**
+	 * A helper method used to add a user's row, or reuse the row of an existing user of the same name,
+	 *  and set its names & gradeLevel. The caller sets its lastActiveTest & grades.
+	 * @param userName The String that is used as the store's key for the user.
+	 * @param password The user's password.
+	 * @param firstName The user's first name.
+	 * @param lastName The user's last name.
+	 * @param gradeLevel An int indicating the user's grade level (0, 1, or 2).
+	 * @return An int indicating the user's row.
+	 * @throws IOException Thrown if the store can not grow.
+	 */
+	private int putUser(String userName, String password, String firstName, String lastName, int gradeLevel)
+			throws IOException{
+		if(gradeLevel > 2 || gradeLevel < 0)
+			throw new IndexOutOfBoundsException("The gradeLevel \"" + gradeLevel + "\" does not exist.");
+		byte[] bytes = encode(userName);
+		int hash = hash(bytes);
+		int row  = findUser(bytes, hash);
+		if(row < 0){
+			row = rows;
+			gradeLevels.ensure(row + 1L);
+			lastActiveTests.ensure((row + 1L) * 4);
+			grades.ensure((row + 1L) * GRADE_INTS * 4);
+			names.ensure((row + 1L) * NAME_INTS * 4);
+			setName(row, USER_NAME, userName);
+			insert(users, userSlots, row, hash);
+			rows++;
+			if(rows * 2L > userSlots)
+				userSlots = rehash(users, userSlots);
+		}
+		setName(row, PASSWORD, password);
+		setName(row, FIRST_NAME, firstName);
+		setName(row, LAST_NAME, lastName);
+		gradeLevels.buffer.put(row, (byte)gradeLevel);
+		writeMeta();
+		return row;
+	}
+
+	/**
+	 * A helper method used to write a report card to a row's grades, filling the padding with "not taken".
+	 * @param row An int indicating the user's row.
+	 * @param gradeLevel An int indicating the user's grade level.
+	 * @param reportCard The PackedReportCard to be written. Its grade level must be gradeLevel.
+	 */
+	private void writeGrades(int row, int gradeLevel, PackedReportCard reportCard){
+		if(reportCard == null || reportCard.getGradeLevel() != gradeLevel)
+			reportCard = new PackedReportCard(gradeLevel);
+		int[] packed = reportCard.toArray();
+		int offset = row * GRADE_INTS * 4;
+		for(int i = 0; i < GRADE_INTS; i++)
+			grades.buffer.putInt(offset + (i * 4), (i < packed.length) ? packed[i] : -1);
+	}
+
+	/**
+	 * A helper method used to find the position of a grade within the grades column.
+	 * @param row An int indicating the user's row.
+	 * @param test The ModuleSelectButtonInterface of the test.
+	 * @param difficulty The DifficultyLevel of the grade.
+	 * @return An int indicating the byte position of the grade. The maximum grade follows it.
+	 * @throws IndexOutOfBoundsException Thrown if the test is not a test of the user's grade level.
+	 */
+	private int getGradeOffset(int row, ModuleSelectButtonInterface test, DifficultyLevel difficulty){
+		int tests = ReportCard.getTests(gradeLevels.buffer.get(row)).length;
+		if(test.getOrdinal() >= tests)
+			throw new IndexOutOfBoundsException("ColumnarUserStore: " + test + " is not a test of the user's grade level.");
+		int index = (test.getOrdinal() * PackedReportCard.SUMMARY_INTS) + (difficulty.ordinal() * 2);
+		return ((row * GRADE_INTS) + index) * 4;
+	}
+
+	/**
+	 * A helper method used to read one of a row's strings.
+	 * @param row An int indicating the user's row.
+	 * @param field An int indicating the string (USER_NAME, PASSWORD, FIRST_NAME, or LAST_NAME).
+	 * @return The String, or null.
+	 */
+	private String getName(int row, int field){
+		int offset = names.buffer.getInt(((row * NAME_INTS) + field) * 4);
+		return (offset < 0) ? null : new String(readHeapBytes(offset), UTF_8);
+	}
+
+	/**
+	 * A helper method used to set one of a row's strings, adding it to the string heap if needed.
+	 * @param row An int indicating the user's row.
+	 * @param field An int indicating the string (USER_NAME, PASSWORD, FIRST_NAME, or LAST_NAME).
+	 * @param value The String to be set. May be null.
+	 * @throws IOException Thrown if the string heap can not grow.
+	 */
+	private void setName(int row, int field, String value) throws IOException{
+		names.buffer.putInt(((row * NAME_INTS) + field) * 4, intern(value));
+	}
+
+
+/****************
+ * String heap *
+ ****************/
+
+	/**
+	 * A helper method used to find a string in the string heap, adding it if it is not there.
+	 * @param value The String to be found. May be null.
+	 * @return An int indicating the string's heap offset, or -1 for null.
+	 * @throws IOException Thrown if the string heap can not grow.
+	 */
+	private int intern(String value) throws IOException{
+		if(value == null)
+			return -1;
+		byte[] bytes = encode(value);
+		int hash = hash(bytes);
+		int mask = stringSlots - 1;
+		for(int slot = hash & mask; ; slot = (slot + 1) & mask){
+			int stored = strings.buffer.getInt(slot * SLOT_BYTES);
+			if(stored == 0)
+				break;
+			if(strings.buffer.getInt((slot * SLOT_BYTES) + 4) == hash && heapEquals(stored - 1, bytes))
+				return stored - 1;
+		}
+		int offset = heapEnd;
+		heap.ensure(offset + 4L + bytes.length);
+		heap.buffer.putInt(offset, bytes.length);
+		ByteBuffer target = heap.buffer.duplicate();
+		target.position(offset + 4);
+		target.put(bytes);
+		heapEnd = offset + 4 + bytes.length;
+		insert(strings, stringSlots, offset, hash);
+		stringCount++;
+		if(stringCount * 2L > stringSlots)
+			stringSlots = rehash(strings, stringSlots);
+		writeMeta();
+		return offset;
+	}
+
+	/**
+	 * A helper method used to read a string's bytes from the string heap.
+	 * @param offset An int indicating the string's heap offset.
+	 * @return A byte array holding the string's UTF-8 bytes.
+	 */
+	private byte[] readHeapBytes(int offset){
+		byte[] bytes = new byte[heap.buffer.getInt(offset)];
+		ByteBuffer source = heap.buffer.duplicate();
+		source.position(offset + 4);
+		source.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * A helper method used to compare a string in the string heap with the specified bytes.
+	 * @param offset An int indicating the string's heap offset.
+	 * @param bytes The UTF-8 bytes to be compared.
+	 * @return A boolean indicating true if the string's bytes equal "bytes"; false otherwise.
+	 */
+	private boolean heapEquals(int offset, byte[] bytes){
+		if(heap.buffer.getInt(offset) != bytes.length)
+			return false;
+		for(int i = 0; i < bytes.length; i++){
+			if(heap.buffer.get(offset + 4 + i) != bytes[i])
+				return false;
+		}
+		return true;
+	}
+
+
+/***************
+ * Hash tables *
+ ***************/
+
+	/**
+	 * A helper method used to find the row of a user in the userName hash table.
+	 * @param bytes The UTF-8 bytes of the userName.
+	 * @param hash An int indicating the hash of the bytes.
+	 * @return An int indicating the user's row, or -1 if the user does not exist.
+	 */
+	private int findUser(byte[] bytes, int hash){
+		int mask = userSlots - 1;
+		for(int slot = hash & mask; ; slot = (slot + 1) & mask){
+			int stored = users.buffer.getInt(slot * SLOT_BYTES);
+			if(stored == 0)
+				return -1;
+			if(users.buffer.getInt((slot * SLOT_BYTES) + 4) == hash
+					&& heapEquals(names.buffer.getInt((stored - 1) * NAME_INTS * 4), bytes))
+				return stored - 1;
+		}
+	}
+
+	/**
+	 * A helper method used to insert a value into a hash table that does not hold it.
+	 * @param table The MappedFile holding the table.
+	 * @param slots An int indicating the number of slots in the table.
+	 * @param value An int indicating the value (a row or heap offset) to be inserted.
+	 * @param hash An int indicating the hash of the value's string.
+	 */
+	private static void insert(MappedFile table, int slots, int value, int hash){
+		int mask = slots - 1;
+		int slot = hash & mask;
+		while(table.buffer.getInt(slot * SLOT_BYTES) != 0)
+			slot = (slot + 1) & mask;
+		table.buffer.putInt((slot * SLOT_BYTES) + 4, hash);
+		table.buffer.putInt(slot * SLOT_BYTES, value + 1);
+	}
+
+	/**
+	 * A helper method used to double the number of slots of a hash table, and reinsert its values.
+	 * @param table The MappedFile holding the table.
+	 * @param slots An int indicating the current number of slots.
+	 * @return An int indicating the new number of slots.
+	 * @throws IOException Thrown if the table can not grow.
+	 */
+	private static int rehash(MappedFile table, int slots) throws IOException{
+		int[] values = new int[slots];
+		int[] hashes = new int[slots];
+		int count = 0;
+		for(int slot = 0; slot < slots; slot++){
+			int stored = table.buffer.getInt(slot * SLOT_BYTES);
+			if(stored != 0){
+				values[count] = stored - 1;
+				hashes[count] = table.buffer.getInt((slot * SLOT_BYTES) + 4);
+				count++;
+			}
+		}
+		int newSlots = slots * 2;
+		table.ensure((long)newSlots * SLOT_BYTES);
+		for(int i = 0; i < newSlots * SLOT_BYTES; i += 8)
+			table.buffer.putLong(i, 0L);
+		for(int i = 0; i < count; i++)
+			insert(table, newSlots, values[i], hashes[i]);
+		return newSlots;
+	}
+
+	/**
+	 * A helper method used to hash a string's bytes (FNV-1a).
+	 * @param bytes The UTF-8 bytes of the string.
+	 * @return An int hash of the bytes.
+	 */
+	private static int hash(byte[] bytes){
+		int hash = 0x811C9DC5;
+		for(byte b: bytes)
+			hash = (hash ^ (b & 0xFF)) * 0x01000193;
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * A helper method used to encode a String as UTF-8.
+	 * @param value The String to be encoded.
+	 * @return A byte array holding the UTF-8 bytes.
+	 */
+	private static byte[] encode(String value){
+		return value.getBytes(UTF_8);
+	}
+
+	/**
+	 * A helper method used to write the counts of the store to the meta file.
+	 */
+	private void writeMeta(){
+		meta.buffer.putInt(META_ROWS, rows);
+		meta.buffer.putInt(META_HEAP_END, heapEnd);
+		meta.buffer.putInt(META_STRINGS, stringCount);
+		meta.buffer.putInt(META_STRING_SLOTS, stringSlots);
+		meta.buffer.putInt(META_USER_SLOTS, userSlots);
+	}
+
+
+/*****************
+ * Inner classes *
+ *****************/
+
+	/**
+	 * This class holds a file that is mapped into memory in its entirety. The file, and its mapping,
+	 *  grow as needed.
+	 */
+	private static final class MappedFile {
+		private final RandomAccessFile file;
+		private MappedByteBuffer buffer;
+
+		/**
+		 * Opens and maps a file, creating it if it does not exist.
+		 * @param path The File to be mapped.
+		 * @param minimumSize An int indicating the size, in bytes, that a new file is created with.
+		 * @throws IOException Thrown if the file can not be opened or mapped.
+		 */
+		MappedFile(File path, int minimumSize) throws IOException{
+			file = new RandomAccessFile(path, "rw");
+			map(Math.max(minimumSize, file.length()));
+		}
+
+		/**
+		 * Used to make sure that the file holds at least the specified number of bytes, at least
+		 *  doubling its size if it must grow.
+		 * @param size A long indicating the number of bytes needed.
+		 * @throws IOException Thrown if the file would exceed 2 GB, or can not be mapped.
+		 */
+		void ensure(long size) throws IOException{
+			if(size <= buffer.capacity())
+				return;
+			if(size > Integer.MAX_VALUE)
+				throw new IOException("ColumnarUserStore: A column can not exceed 2 GB.");
+			map(Math.min(Integer.MAX_VALUE, Math.max(size, buffer.capacity() * 2L)));
+		}
+
+		/**
+		 * A helper method used to map the first "size" bytes of the file, growing the file if needed.
+		 * @param size A long indicating the number of bytes to map.
+		 * @throws IOException Thrown if the file can not be mapped.
+		 */
+		private void map(long size) throws IOException{
+			buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+		}
+
+		void force(){
+			buffer.force();
+		}
+
+		void close() throws IOException{
+			file.close();
+		}
+	}
+}
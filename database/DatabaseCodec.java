@@ -0,0 +1,311 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentHashMap;
+
+import project.interfaces.ModuleSelectButtonInterface;
+
+/**
+ * This class is used to write and read a UserDatabase in a compact, versioned binary format. It
+ *  replaces default Java serialization, which writes class descriptors, HashMap internals and enum
+ *  metadata for every report card.
+ *
+ *Format (version 1):
+ * File:   [int MAGIC][short VERSION][int number of records][record]...
+ * Record: [byte RECORD_MARKER][int payload length][payload]
+ * Payload: [UTF userName][string password][string firstName][string lastName][byte gradeLevel]
+ *  [int lastActiveTest][byte number of tests][int easyGrade, easyMax, normalGrade, normalMax,
+ *  hardGrade, hardMax]... The report card is written as a packed int array, indexed by the ordinal of
+ *  each test of the user's grade level. A "string" is a boolean indicating if it is non-null, followed
+ *  by the UTF String if it is.
+ * The payload length allows a reader to skip, or step over, a record it can not decode.
+ * @author Kenneth Chin
+ */
+public final class DatabaseCodec {
+
+	public static final int   MAGIC         = 0x4D484442; //"MHDB". Identifies a file written by this codec.
+	public static final short VERSION       = 1;          //The format version written by this codec.
+	public static final byte  RECORD_MARKER = 0x55;       //Marks the start of every user record.
+
+	private static final int SUMMARY_INTS = 6; //The number of ints written for each ModuleReportSummary.
+
+	/**
+	 * Private constructor prevents instantiation.
+	 */
+	private DatabaseCodec(){}
+
+
+/********************
+ * Database methods *
+ ********************/
+
+	/**
+	 * Used to write every user of the specified database, as they were when this method was called, to
+	 *  the specified stream. The stream is flushed, but not closed.
+	 * @param database The UserDatabase to be written.
+	 * @param stream The OutputStream that the database is written to.
+	 * @throws IOException Thrown if the stream can not be written to.
+	 */
+	public static void write(UserDatabase database, OutputStream stream) throws IOException{
+		DatabaseSnapshot snapshot = database.openSnapshot();
+		try{
+			write(snapshot, stream);
+		}finally{
+			snapshot.close();
+		}
+	}
+
+	/**
+	 * Used to write every user of the specified snapshot to the specified stream. No lock is taken, so
+	 *  the database can be changed while it is written. The stream is flushed, but not closed.
+	 * @param snapshot The DatabaseSnapshot to be written.
+	 * @param stream The OutputStream that the snapshot is written to.
+	 * @throws IOException Thrown if a user can not be read, or the stream can not be written to.
+	 */
+	public static void write(DatabaseSnapshot snapshot, OutputStream stream) throws IOException{
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024));
+		String[] userNames = snapshot.getUserNames().toArray(new String[0]);
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+		out.writeInt(userNames.length);
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+		DataOutputStream payload = new DataOutputStream(buffer);
+		for(String userName: userNames){
+			buffer.reset();
+			payload.writeUTF(userName);
+			writeEntryBody(payload, snapshot.readState(userName));
+			out.writeByte(RECORD_MARKER);
+			out.writeInt(buffer.size());
+			buffer.writeTo(out);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Used to read a database that was written by write(UserDatabase, OutputStream). The stream is
+	 *  not closed.
+	 * @param stream The InputStream that the database is read from.
+	 * @return A UserDatabase holding every user read from the stream.
+	 * @throws IOException Thrown if the stream can not be read, or was not written by this codec.
+	 */
+	public static UserDatabase read(InputStream stream) throws IOException{
+		DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 64 * 1024));
+		int records = readHeader(in);
+		ConcurrentHashMap<String, UserEntry> entries
+				= new ConcurrentHashMap<String, UserEntry>((int)(records / 0.75f) + 1);
+		for(int i = 0; i < records; i++){
+			if(in.readByte() != RECORD_MARKER)
+				throw new IOException("DatabaseCodec.read(): Record " + i + " is damaged.");
+			in.readInt(); //The payload length is only needed to skip records.
+			String userName = in.readUTF();
+			entries.put(userName, readEntry(in));
+		}
+		return new UserDatabase(entries);
+	}
+
+	/**
+	 * Used to read and check the header of a stream that was written by write(UserDatabase, OutputStream).
+	 * @param in The DataInput that the header is read from.
+	 * @return An int indicating the number of records that follow the header.
+	 * @throws IOException Thrown if the header can not be read, or is not a supported header.
+	 */
+	static int readHeader(DataInput in) throws IOException{
+		if(in.readInt() != MAGIC)
+			throw new IOException("DatabaseCodec: The data was not written by DatabaseCodec.");
+		short version = in.readShort();
+		if(version != VERSION)
+			throw new IOException("DatabaseCodec: The format version " + version + " is not supported.");
+		return in.readInt();
+	}
+
+	/**
+	 * Used to check if the specified file was written by this codec. Only the first four bytes are read.
+	 * @param file The File to be checked.
+	 * @return A boolean indicating true if the file starts with MAGIC; false otherwise.
+	 * @throws IOException Thrown if the file exists, but can not be read.
+	 */
+	public static boolean isCodecFile(File file) throws IOException{
+		if(file.length() < 4)
+			return false;
+		DataInputStream in = new DataInputStream(new FileInputStream(file));
+		try{
+			return in.readInt() == MAGIC;
+		}finally{
+			in.close();
+		}
+	}
+
+
+/*****************
+ * Entry methods *
+ *****************/
+
+	/**
+	 * Used to encode a single user as a byte array, in the payload format (without the userName).
+	 *  Used by stores that keep one user per file.
+	 * @param entry The UserEntry to be encoded.
+	 * @return A byte array holding the encoded UserEntry.
+	 */
+	static byte[] encodeEntry(UserEntry entry){
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+		DataOutputStream out = new DataOutputStream(buffer);
+		try {
+			writeEntryBody(out, entry.getVersion());
+		} catch (IOException e) {
+			//A ByteArrayOutputStream does not throw IOExceptions.
+			throw new IllegalStateException(e);
+		}
+		return buffer.toByteArray();
+	}
+
+	/**
+	 * Used to decode a single user that was encoded by encodeEntry(UserEntry).
+	 * @param bytes The byte array holding the encoded UserEntry.
+	 * @return The decoded UserEntry.
+	 * @throws IOException Thrown if the bytes are not a valid encoded UserEntry.
+	 */
+	static UserEntry decodeEntry(byte[] bytes) throws IOException{
+		return readEntry(new DataInputStream(new ByteArrayInputStream(bytes)));
+	}
+
+	/**
+	 * A helper method used to write a user's payload.
+	 * @param out The DataOutput that the payload is written to.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @param entry The user's UserEntry.
+	 * @throws IOException Thrown if the payload can not be written.
+	 */
+	static void writeEntry(DataOutput out, String userName, UserEntry entry) throws IOException{
+		out.writeUTF(userName);
+		writeEntryBody(out, entry.getVersion());
+	}
+
+	/**
+	 * A helper method used to write every field of a user's state.
+	 * @param out The DataOutput that the fields are written to.
+	 * @param state The UserVersion to be written.
+	 * @throws IOException Thrown if the fields can not be written.
+	 */
+	private static void writeEntryBody(DataOutput out, UserVersion state) throws IOException{
+		writeString(out, state.password);
+		writeString(out, state.firstName);
+		writeString(out, state.lastName);
+		out.writeByte(state.gradeLevel);
+		out.writeInt(state.lastActiveTest);
+		int[] grades = packReportCard(state.gradeLevel, state.reportCard);
+		out.writeByte(grades.length / SUMMARY_INTS);
+		for(int i = 0; i < grades.length; i++)
+			out.writeInt(grades[i]);
+	}
+
+	/**
+	 * A helper method used to read every field of a UserEntry. The userName must already have been read.
+	 * @param in The DataInput that the fields are read from.
+	 * @return The UserEntry that was read.
+	 * @throws IOException Thrown if the fields can not be read, or describe an invalid UserEntry.
+	 */
+	static UserEntry readEntry(DataInput in) throws IOException{
+		UserEntry entry = new UserEntry();
+		entry.setPassword(readString(in));
+		entry.setFirstName(readString(in));
+		entry.setLastName(readString(in));
+		int gradeLevel = in.readByte();
+		if(gradeLevel < 0 || gradeLevel > 2)
+			throw new IOException("DatabaseCodec: The gradeLevel \"" + gradeLevel + "\" does not exist.");
+		entry.setGradeLevel(gradeLevel);
+		entry.setLastActiveTest(in.readInt());
+		int[] grades = new int[in.readByte() * SUMMARY_INTS];
+		for(int i = 0; i < grades.length; i++)
+			grades[i] = in.readInt();
+		entry.setPackedReportCard(unpackReportCard(gradeLevel, grades));
+		return entry;
+	}
+
+	/**
+	 * A helper method used to write a String that may be null.
+	 * @param out The DataOutput that the String is written to.
+	 * @param text The String to be written, or null.
+	 * @throws IOException Thrown if the String can not be written.
+	 */
+	private static void writeString(DataOutput out, String text) throws IOException{
+		out.writeBoolean(text != null);
+		if(text != null)
+			out.writeUTF(text);
+	}
+
+	/**
+	 * A helper method used to read a String that was written by writeString(DataOutput, String).
+	 * @param in The DataInput that the String is read from.
+	 * @return The String that was read, or null.
+	 * @throws IOException Thrown if the String can not be read.
+	 */
+	private static String readString(DataInput in) throws IOException{
+		if(in.readBoolean())
+			return in.readUTF();
+		return null;
+	}
+
+
+/***********************
+ * Report card packing *
+ ***********************/
+
+	/**
+	 * Used to pack a report card into an int array, in the layout described by PackedReportCard.
+	 *  A missing report card is packed as "not taken".
+	 * @param gradeLevel An int indicating the grade level of the report card (0, 1, or 2).
+	 * @param reportCard The report card to be packed. May be null.
+	 * @return An int array holding the packed report card.
+	 */
+	static int[] packReportCard(int gradeLevel, PackedReportCard reportCard){
+		if(reportCard == null || reportCard.getGradeLevel() != gradeLevel)
+			reportCard = PackedReportCard.fromHashMap(gradeLevel,
+					(reportCard == null) ? null : reportCard.toHashMap());
+		return reportCard.toArray();
+	}
+
+	/**
+	 * Used to unpack an int array that was packed by packReportCard(int, PackedReportCard).
+	 * @param gradeLevel An int indicating the grade level of the report card (0, 1, or 2).
+	 * @param grades The int array holding the packed report card.
+	 * @return The unpacked report card.
+	 * @throws IOException Thrown if the packed report card does not match the tests of the gradeLevel.
+	 */
+	static PackedReportCard unpackReportCard(int gradeLevel, int[] grades) throws IOException{
+		try{
+			return PackedReportCard.fromArray(gradeLevel, grades);
+		}catch(IllegalArgumentException e){
+			throw new IOException("DatabaseCodec: The report card does not match gradeLevel " + gradeLevel + ".", e);
+		}
+	}
+}
@@ -0,0 +1,460 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * This class is used to check a database file, and to salvage every readable user from it, without
+ *  reading the whole file into memory. Both a single DatabaseCodec file (db.dat) and a SnapshotStore
+ *  generation file are accepted.
+ * The file is read once, from start to end, through a fixed size window. Each record is decoded and
+ *  validated on its own: its payload length must match its fields exactly, its gradeLevel must exist,
+ *  its report card must hold exactly the tests returned by ReportCard.getTests(int) for that gradeLevel,
+ *  and none of its grades may be less than -1 (not taken). A record that fails is treated as damaged, and the scan moves forward a byte at a time until
+ *  the next record that can be decoded, so a damaged range costs only the users inside it. Each damaged
+ *  range is reported as a pair of file offsets.
+ * Salvaged users are streamed to a new DatabaseCodec file, which GUIManager reads as its database file
+ *  when no valid snapshot exists. A user whose lastActiveTest is not a test of its gradeLevel is salvaged
+ *  with its lastActiveTest moved into range, and is counted as repaired.
+ * Files written with Java serialization can not be scanned, as their records can not be read on their own.
+ * Not thread safe.
+ * @author Kenneth Chin
+ */
+public final class DatabaseScanner {
+
+	private static final int RECORD_HEADER = 5; //The marker byte and the payload length of each record.
+	//The smallest payload: an empty userName, three null Strings, gradeLevel, lastActiveTest, and test count.
+	private static final int MIN_PAYLOAD   = 2 + 3 + 1 + 4 + 1;
+	//The largest payload: four Strings of the longest UTF length, and the most tests a count byte can describe.
+	private static final int MAX_PAYLOAD   = 4 * (2 + 65535) + 3 + 1 + 4 + 1 + Byte.MAX_VALUE * 6 * 4;
+	private static final int WINDOW        = 2 * (RECORD_HEADER + MAX_PAYLOAD); //The size of the read window.
+
+	private final File file; //The database file that is scanned.
+
+	//The read window. buffer[0] holds the byte at file offset "base".
+	private InputStream in;
+	private byte[] buffer;
+	private int position;  //The index of the next unread byte.
+	private int limit;     //The number of valid bytes in buffer.
+	private long base;     //The file offset of buffer[0].
+	private boolean isEnd; //True once the end of the file has been read into buffer.
+	private CRC32 payloadCrc; //The CRC32 of every byte after a snapshot header.
+	private long snapshotChecksum; //The payload CRC32 held by the snapshot header. -1 if there is none.
+
+	//The last record that was decoded by checkRecord().
+	private String recordUserName;
+	private UserEntry recordEntry;
+
+	//The results of the last scan.
+	private boolean isSnapshot;
+	private boolean isChecksumValid;
+	private long declaredRecords;
+	private int salvaged;
+	private int repaired;
+	private int duplicates;
+	private long damagedBytes;
+	private List<long[]> damaged = new ArrayList<long[]>();
+
+	/**
+	 * Creates a DatabaseScanner.
+	 * @param file The database file to be scanned. It is never written to.
+	 */
+	public DatabaseScanner(File file){
+		this.file = file;
+	}
+
+
+/****************
+ * Scan methods *
+ ****************/
+
+	/**
+	 * Used to check the file, without writing a salvaged copy.
+	 * @return A boolean indicating true if no damage was found; false otherwise.
+	 * @throws IOException Thrown if the file can not be read, or was written with Java serialization.
+	 */
+	public boolean scan() throws IOException{
+		return scan(null);
+	}
+
+	/**
+	 * Used to check the file, and to write every user that could be read to a new DatabaseCodec file.
+	 *  The salvaged file is written to a temporary file, and renamed to its name only once it is complete.
+	 *  If a user appears more than once, only the first record is kept.
+	 * @param salvage The File that the salvaged users are written to, or null to only check the file. Must not
+	 *  be the scanned file.
+	 * @return A boolean indicating true if no damage was found; false otherwise.
+	 * @throws IOException Thrown if the file can not be read, was written with Java serialization, or the
+	 *  salvaged file can not be written.
+	 */
+	public boolean scan(File salvage) throws IOException{
+		if(salvage != null && salvage.getCanonicalFile().equals(file.getCanonicalFile()))
+			throw new IllegalArgumentException("DatabaseScanner: The salvaged file can not replace the scanned file.");
+		reset();
+		in = new FileInputStream(file);
+		File tempFile = (salvage == null) ? null : new File(salvage.getPath() + ".tmp");
+		DataOutputStream out = null;
+		try{
+			if(tempFile != null){
+				out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 64 * 1024));
+				out.writeInt(DatabaseCodec.MAGIC);
+				out.writeShort(DatabaseCodec.VERSION);
+				out.writeInt(0); //The number of records is written once it is known.
+			}
+			long damageStart = readHeaders();
+			HashSet<String> userNames = new HashSet<String>();
+			ByteArrayOutputStream record = new ByteArrayOutputStream(512);
+			DataOutputStream payload = new DataOutputStream(record);
+			while(ensure(1) > 0){
+				int length = checkRecord();
+				if(length < 0){
+					if(damageStart < 0)
+						damageStart = getOffset();
+					position++;
+					continue;
+				}
+				if(damageStart >= 0){
+					addDamage(damageStart, getOffset());
+					damageStart = -1;
+				}
+				String userName = recordUserName;
+				UserEntry entry  = recordEntry;
+				position += RECORD_HEADER + length;
+				if(!userNames.add(userName)){
+					duplicates++;
+					continue;
+				}
+				if(repairEntry(entry))
+					repaired++;
+				salvaged++;
+				if(out != null){
+					record.reset();
+					DatabaseCodec.writeEntry(payload, userName, entry);
+					out.writeByte(DatabaseCodec.RECORD_MARKER);
+					out.writeInt(record.size());
+					record.writeTo(out);
+				}
+			}
+			if(damageStart >= 0)
+				addDamage(damageStart, getOffset());
+			isChecksumValid = isSnapshot && payloadCrc.getValue() == snapshotChecksum;
+			if(out != null){
+				out.close();
+				out = null;
+				RandomAccessFile count = new RandomAccessFile(tempFile, "rw");
+				try{
+					count.seek(4 + 2);
+					count.writeInt(salvaged);
+					count.getFD().sync();
+				}finally{
+					count.close();
+				}
+				Files.move(tempFile.toPath(), salvage.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			}
+		}finally{
+			in.close();
+			buffer = null;
+			if(out != null){
+				out.close();
+				tempFile.delete();
+			}
+		}
+		return damaged.isEmpty() && duplicates == 0 && (!isSnapshot || isChecksumValid)
+				&& (declaredRecords < 0 || declaredRecords == salvaged);
+	}
+
+	/**
+	 * A helper method used to clear the results of the last scan, and to create a new read window.
+	 */
+	private void reset(){
+		buffer   = new byte[WINDOW];
+		position = 0;
+		limit    = 0;
+		base     = 0;
+		isEnd    = false;
+		payloadCrc      = new CRC32();
+		snapshotChecksum = -1;
+		isSnapshot      = false;
+		isChecksumValid = false;
+		declaredRecords = -1;
+		salvaged        = 0;
+		repaired        = 0;
+		duplicates      = 0;
+		damagedBytes    = 0;
+		damaged = new ArrayList<long[]>();
+	}
+
+	/**
+	 * A helper method used to read the snapshot header, if there is one, and the DatabaseCodec header.
+	 *  A damaged header is reported as damage, and the records that follow it are still scanned.
+	 * @return A long indicating the file offset at which a damaged range begins, or -1 if the headers are valid.
+	 * @throws IOException Thrown if the file can not be read, or was written with Java serialization.
+	 */
+	private long readHeaders() throws IOException{
+		long snapshotRecords = -1;
+		if(ensure(4) == 4 && readInt(position) == SnapshotStore.MAGIC){
+			isSnapshot = true;
+			if(ensure(SnapshotStore.HEADER_LENGTH) < SnapshotStore.HEADER_LENGTH)
+				return 0;
+			try {
+				long[] header = SnapshotStore.readHeader(new DataInputStream(
+						new ByteArrayInputStream(buffer, position, SnapshotStore.HEADER_LENGTH)));
+				snapshotRecords = header[1];
+				snapshotChecksum = header[3];
+				position += SnapshotStore.HEADER_LENGTH;
+			} catch (IOException e) {
+				addDamage(0, SnapshotStore.HEADER_LENGTH);
+				position += SnapshotStore.HEADER_LENGTH;
+			}
+		}else if(ensure(2) == 2 && (buffer[position] & 0xFF) == 0xAC && (buffer[position + 1] & 0xFF) == 0xED){
+			throw new IOException("DatabaseScanner: " + file + " was written with Java serialization, and can not be scanned.");
+		}
+		int codecHeader = 4 + 2 + 4;
+		if(ensure(codecHeader) == codecHeader){
+			try {
+				declaredRecords = DatabaseCodec.readHeader(new DataInputStream(
+						new ByteArrayInputStream(buffer, position, codecHeader)));
+				position += codecHeader;
+				if(snapshotRecords >= 0 && snapshotRecords != declaredRecords)
+					declaredRecords = -1;
+				return -1;
+			} catch (IOException e) {
+				//The records that follow are found by the scan.
+			}
+		}
+		declaredRecords = snapshotRecords;
+		return getOffset();
+	}
+
+	/**
+	 * A helper method used to check if a valid record starts at the current position. The window is
+	 *  filled as needed, but the position is not moved. A valid record's user is kept in recordUserName
+	 *  and recordEntry.
+	 * @return An int indicating the payload length of the record, or -1 if no valid record starts here.
+	 * @throws IOException Thrown if the file can not be read.
+	 */
+	private int checkRecord() throws IOException{
+		if(buffer[position] != DatabaseCodec.RECORD_MARKER || ensure(RECORD_HEADER) < RECORD_HEADER)
+			return -1;
+		int length = readInt(position + 1);
+		if(length < MIN_PAYLOAD || length > MAX_PAYLOAD || ensure(RECORD_HEADER + length) < RECORD_HEADER + length)
+			return -1;
+		ByteArrayInputStream bytes = new ByteArrayInputStream(buffer, position + RECORD_HEADER, length);
+		try {
+			DataInputStream recordIn = new DataInputStream(bytes);
+			recordUserName = recordIn.readUTF();
+			if(recordUserName.isEmpty())
+				return -1;
+			recordEntry = DatabaseCodec.readEntry(recordIn);
+			for(int grade: recordEntry.getPackedReportCard().toArray())
+				if(grade < -1)
+					return -1;
+		} catch (IOException | RuntimeException e) {
+			//Thrown by every field that is out of range, or runs past the end of the payload.
+			return -1;
+		}
+		return (bytes.available() == 0) ? length : -1;
+	}
+
+	/**
+	 * A helper method used to move a user's lastActiveTest into the range of tests of its gradeLevel.
+	 * @param entry The UserEntry to be repaired.
+	 * @return A boolean indicating true if the lastActiveTest was changed; false otherwise.
+	 */
+	private static boolean repairEntry(UserEntry entry){
+		int tests = ReportCard.getTests(entry.getGradeLevel()).length;
+		int lastActiveTest = entry.getLastActiveTest();
+		if(lastActiveTest >= 1 && lastActiveTest <= tests)
+			return false;
+		entry.setLastActiveTest((lastActiveTest < 1) ? 1 : tests);
+		return true;
+	}
+
+	/**
+	 * A helper method used to record a damaged range.
+	 * @param start A long indicating the file offset of the first damaged byte.
+	 * @param end A long indicating the file offset after the last damaged byte.
+	 */
+	private void addDamage(long start, long end){
+		damaged.add(new long[]{start, end});
+		damagedBytes += end - start;
+	}
+
+
+/***************
+ * Read window *
+ ***************/
+
+	/**
+	 * A helper method used to make at least "count" bytes available from the current position. When the
+	 *  window is full, the unread bytes are moved to its start, so each byte of the file is read only once.
+	 * @param count An int indicating the number of bytes needed. Must not be more than WINDOW.
+	 * @return An int indicating the number of bytes available, which is less than count only at the end of the file.
+	 * @throws IOException Thrown if the file can not be read.
+	 */
+	private int ensure(int count) throws IOException{
+		if(limit - position >= count || isEnd)
+			return Math.min(count, limit - position);
+		if(position + count > buffer.length){
+			System.arraycopy(buffer, position, buffer, 0, limit - position);
+			base  += position;
+			limit -= position;
+			position = 0;
+		}
+		while(limit - position < count){
+			int read = in.read(buffer, limit, buffer.length - limit);
+			if(read < 0){
+				isEnd = true;
+				break;
+			}
+			updateChecksum(base + limit, limit, read);
+			limit += read;
+		}
+		return Math.min(count, limit - position);
+	}
+
+	/**
+	 * A helper method used to add newly read bytes to the checksum of a snapshot's payload, which
+	 *  begins after the snapshot header.
+	 * @param offset A long indicating the file offset of the first read byte.
+	 * @param index An int indicating the index of the first read byte in buffer.
+	 * @param count An int indicating the number of bytes read.
+	 */
+	private void updateChecksum(long offset, int index, int count){
+		int skip = (int)Math.max(0, Math.min(count, SnapshotStore.HEADER_LENGTH - offset));
+		payloadCrc.update(buffer, index + skip, count - skip);
+	}
+
+	/**
+	 * A helper method used to read a big-endian int from the window.
+	 * @param index An int indicating the index of the int's first byte in buffer.
+	 * @return The int that was read.
+	 */
+	private int readInt(int index){
+		return ((buffer[index] & 0xFF) << 24) | ((buffer[index + 1] & 0xFF) << 16)
+				| ((buffer[index + 2] & 0xFF) << 8) | (buffer[index + 3] & 0xFF);
+	}
+
+	/**
+	 * A helper method used to obtain the file offset of the current position.
+	 * @return A long indicating the file offset.
+	 */
+	private long getOffset(){
+		return base + position;
+	}
+
+
+/******************
+ * Result getters *
+ ******************/
+
+	/**
+	 * Used to check if the last scanned file was a SnapshotStore generation.
+	 * @return A boolean indicating true if the file began with a snapshot header; false otherwise.
+	 */
+	public boolean isSnapshot(){
+		return isSnapshot;
+	}
+
+	/**
+	 * Used to check if the last scanned snapshot's checksum matched its header.
+	 * @return A boolean indicating true if the file is a snapshot, and its checksum is valid; false otherwise.
+	 */
+	public boolean isChecksumValid(){
+		return isChecksumValid;
+	}
+
+	/**
+	 * Used to obtain the number of records that the last scanned file's header described.
+	 * @return A long indicating the number of records, or -1 if the header was damaged.
+	 */
+	public long getDeclaredRecords(){
+		return declaredRecords;
+	}
+
+	/**
+	 * Used to obtain the number of users that were salvaged by the last scan.
+	 * @return An int indicating the number of users.
+	 */
+	public int getSalvagedUsers(){
+		return salvaged;
+	}
+
+	/**
+	 * Used to obtain the number of salvaged users whose lastActiveTest was moved into range.
+	 * @return An int indicating the number of users.
+	 */
+	public int getRepairedUsers(){
+		return repaired;
+	}
+
+	/**
+	 * Used to obtain the number of records that were skipped because their user was already salvaged.
+	 * @return An int indicating the number of records.
+	 */
+	public int getDuplicateRecords(){
+		return duplicates;
+	}
+
+	/**
+	 * Used to obtain the damaged ranges found by the last scan, in file order.
+	 * @return A List of long arrays, each holding the file offset of a range's first damaged byte, and
+	 *  the file offset after its last damaged byte.
+	 */
+	public List<long[]> getDamagedRanges(){
+		List<long[]> ranges = new ArrayList<long[]>(damaged.size());
+		for(long[] range: damaged)
+			ranges.add(range.clone());
+		return ranges;
+	}
+
+	/**
+	 * Used to obtain the number of damaged bytes found by the last scan.
+	 * @return A long indicating the number of bytes.
+	 */
+	public long getDamagedBytes(){
+		return damagedBytes;
+	}
+
+	/**
+	 * Used to obtain the scanned file.
+	 * @return The File that is scanned.
+	 */
+	public File getFile(){
+		return file;
+	}
+}
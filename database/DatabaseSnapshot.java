@@ -0,0 +1,199 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import project.constants.DifficultyLevel;
+import project.interfaces.ModuleSelectButtonInterface;
+
+/**
+ * This class is a point-in-time view of a UserDatabase. Every user is read as they were when the
+ *  snapshot was opened, no matter how many changes are made to the database while the snapshot is read,
+ *  so a report or export over many users is consistent. The snapshot sees every change that was complete
+ *  when it was opened; changes being made at that moment are seen either completely or not at all.
+ * Opening a snapshot is constant time, and neither opening nor reading one takes a lock, so students
+ *  can keep taking tests while a teacher reads a snapshot.
+ * A snapshot should be closed as soon as it is no longer used; until then, the database keeps every
+ *  state that the snapshot may read.
+ * @author Kenneth Chin
+ */
+public final class DatabaseSnapshot implements Closeable{
+
+	private final UserDatabase database; //The database that this is a snapshot of.
+	private final long registered;       //The clock value that this snapshot is registered at.
+	private final long clock;            //The clock value that users are read at.
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a DatabaseSnapshot. Used by UserDatabase.openSnapshot().
+	 * @param database The UserDatabase that this is a snapshot of.
+	 * @param registered A long indicating the clock value that this snapshot is registered at.
+	 * @param clock A long indicating the clock value that users are read at. Not less than "registered".
+	 */
+	DatabaseSnapshot(UserDatabase database, long registered, long clock){
+		this.database   = database;
+		this.registered = registered;
+		this.clock      = clock;
+	}
+
+
+/******************
+ * Getter methods *
+ ******************/
+
+	/**
+	 * Used to obtain the database clock value that this snapshot reads at.
+	 * @return A long indicating the clock value.
+	 */
+	public long getVersion(){
+		return clock;
+	}
+
+	/**
+	 * Used to obtain the usernames of every user that existed when this snapshot was opened. Every user
+	 *  is read to check when they were added.
+	 * @return A Set of usernames.
+	 */
+	public Set<String> getUserNames(){
+		Set<String> userNames = new HashSet<String>();
+		for(String userName: database.getUserNames())
+			if(getState(userName) != null)
+				userNames.add(userName);
+		return userNames;
+	}
+
+	/**
+	 * Used to check if a user existed when this snapshot was opened.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @return True if the user existed.
+	 */
+	public boolean containsUser(String userName){
+		return getState(userName) != null;
+	}
+
+	public String getPassword(String userName){
+		return getExistingState(userName).password;
+	}
+
+	public String getFirstName(String userName){
+		return getExistingState(userName).firstName;
+	}
+
+	public String getLastName(String userName){
+		return getExistingState(userName).lastName;
+	}
+
+	public int getGradeLevel(String userName){
+		return getExistingState(userName).gradeLevel;
+	}
+
+	public int getLastActiveTest(String userName){
+		return getExistingState(userName).lastActiveTest;
+	}
+
+	/**
+	 * Used to obtain a copy of a user's report card.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @return A HashMap copy of the report card, or null if the user has no report card.
+	 */
+	public HashMap<ModuleSelectButtonInterface, ModuleReportSummary> getReportCard(String userName){
+		return UserEntry.toHashMap(getExistingState(userName).reportCard);
+	}
+
+	/**
+	 * Used to obtain a user's report card in its packed form. It must not be changed.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @return The PackedReportCard, or null if the user has no report card.
+	 */
+	public PackedReportCard getPackedReportCard(String userName){
+		return getExistingState(userName).reportCard;
+	}
+
+	/**
+	 * Used to obtain the grade of one test and difficulty level.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @param test The ModuleSelectButtonInterface of the test.
+	 * @param difficulty The DifficultyLevel of the test.
+	 * @return An int indicating the grade, or less than 0 if the test has not been taken.
+	 */
+	public int getGrade(String userName, ModuleSelectButtonInterface test, DifficultyLevel difficulty){
+		return ReportCard.getGrade(getExistingState(userName).reportCard, test, difficulty);
+	}
+
+	/**
+	 * Used to close this snapshot, so that the database can drop the states that it kept for it. Closing
+	 *  a closed snapshot does nothing.
+	 */
+	public void close(){
+		synchronized(this){
+			if(closed)
+				return;
+			closed = true;
+		}
+		database.closeSnapshot(registered);
+	}
+
+
+/******************
+ * Helper methods *
+ ******************/
+
+	/**
+	 * A helper method used to read a user's state as it was when this snapshot was opened.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @return The UserVersion, or null if the user did not exist.
+	 * @throws IOException Thrown if the user's record file can not be read.
+	 */
+	UserVersion readState(String userName) throws IOException{
+		if(closed)
+			throw new IllegalStateException("DatabaseSnapshot: The snapshot is closed.");
+		return database.readVersion(userName, clock);
+	}
+
+	/**
+	 * A helper method used to read a user's state, wrapping any read failure.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @return The UserVersion, or null if the user did not exist.
+	 */
+	private UserVersion getState(String userName){
+		try {
+			return readState(userName);
+		} catch (IOException e) {
+			throw new IllegalStateException("The record of user \"" + userName + "\" can not be read.", e);
+		}
+	}
+
+	/**
+	 * A helper method used to read the state of a user that must exist.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @return The UserVersion.
+	 */
+	private UserVersion getExistingState(String userName){
+		UserVersion state = getState(userName);
+		if(state == null)
+			throw new IllegalArgumentException("DatabaseSnapshot: The user \"" + userName
+					+ "\" did not exist when the snapshot was opened.");
+		return state;
+	}
+}
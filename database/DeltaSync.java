@@ -0,0 +1,540 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import project.constants.DifficultyLevel;
+import project.interfaces.ModuleSelectButtonInterface;
+
+/**
+ * This class moves changes between the UserDatabases of machines that are not connected, using a file
+ *  that is carried from one machine to the other (ex. on a USB drive). exportChanges() writes only the
+ *  users that changed since every known machine last reported seeing this machine's changes (see
+ *  SyncState); importChanges() merges a file into the database, and records what the sender has seen.
+ * The merge gives the same result no matter the order in which files are imported, or how many times
+ *  the same file is imported, so every machine ends up with the same users once each has seen every
+ *  other machine's changes:
+ *  - Each grade is a "max register": the higher grade wins (and then the higher maximum grade), so a
+ *    student keeps their best grade from any machine. lastActiveTest is a max register too. Both are
+ *    only max registers within an "epoch" (see SyncState): a change that may lower them, such as a reset
+ *    of grades or a promotion, starts a new epoch, and the report card or lastActiveTest of the later
+ *    epoch wins as a whole, so the lowered values are not raised again by an older machine's file.
+ *  - The profile fields (password, first name, last name, grade level) are "last writer wins": the
+ *    change with the later SyncState stamp wins, then the higher machine id, then the greater value.
+ *  - Report cards of different grade levels are not merged; the one matching the winning grade level is
+ *    kept, as when a student's grade level is changed on one machine.
+ * A user that is changed by an import is itself exported again, so changes spread through machines that
+ *  only meet each other through a third machine.
+ * Each user is read, or merged, while holding that user's lock (see UserDatabase), so a user's values
+ *  always match their stamps, and students can keep taking tests during an export or an import.
+ * Format: [int MAGIC][short VERSION][long machine id][long export time][long from sequence][long to
+ *  sequence][int peers] then, for each peer, [long machine id][long seen sequence]; then [int users] and, for each user,
+ *  [UTF username][password][first name][last name] (each [boolean present][UTF value]) [int gradeLevel]
+ *  [(long time, long machine id) per profile field, then for the report card and lastActiveTest epochs]
+ *  [int lastActiveTest][boolean has report card]
+ *  ([int report card gradeLevel][int length][int grade]...), and then [long CRC32].
+ * @author Kenneth Chin
+ */
+public final class DeltaSync {
+
+	public static final int MAGIC   = 0x4D484453; //"MHDS". Identifies a file written by this class.
+	public static final int VERSION = 1;          //The format version written by this class.
+
+	private final UserDatabase database; //The database that changes are exported from & merged into.
+	private final SyncState state;       //The database's change sequence numbers & field stamps.
+	private final List<String> changedUsers = new ArrayList<String>(); //The users changed by the last import.
+
+	/**
+	 * Creates a DeltaSync.
+	 * @param database The UserDatabase that changes are exported from & merged into.
+	 * @param state The SyncState that is told of every change to the database (see
+	 *  UserDatabase.setChangeListener(UserChangeListener)).
+	 */
+	public DeltaSync(UserDatabase database, SyncState state){
+		this.database = database;
+		this.state    = state;
+	}
+
+
+/******************
+ * Export methods *
+ ******************/
+
+	/**
+	 * Used to write every user that a known machine may not have seen. Each machine reports what it has
+	 *  seen in the files that it exports, so the files shrink as machines exchange them.
+	 * @param file The File that the changes are written to. It is replaced if it exists.
+	 * @return An int indicating the number of users written.
+	 * @throws IOException Thrown if a user can not be read, or the file can not be written.
+	 */
+	public int exportChanges(File file) throws IOException{
+		return export(file, state.getExportSequence());
+	}
+
+	/**
+	 * Used to write every user, whether or not they have changed. Used to bring a new machine up to date,
+	 *  or when a file of changes has been lost.
+	 * @param file The File that the users are written to. It is replaced if it exists.
+	 * @return An int indicating the number of users written.
+	 * @throws IOException Thrown if a user can not be read, or the file can not be written.
+	 */
+	public int exportAll(File file) throws IOException{
+		return export(file, 0);
+	}
+
+	/**
+	 * A helper method used to write the users changed after a sequence number.
+	 * @param file The File that the users are written to.
+	 * @param since A long indicating the sequence number. 0 writes every user.
+	 * @return An int indicating the number of users written.
+	 * @throws IOException Thrown if a user can not be read, or the file can not be written.
+	 */
+	private int export(File file, long since) throws IOException{
+		long sequence = state.getSequence(); //Read first: a user changed after this is written anyway.
+		Collection<String> userNames = (since == 0) ? database.getUserNames() : state.getChangedSince(since);
+		List<String> names = new ArrayList<String>();
+		List<UserVersion> users = new ArrayList<UserVersion>();
+		List<long[]> stamps = new ArrayList<long[]>();
+		for(String userName: userNames){
+			synchronized(database.lockFor(userName)){
+				UserEntry entry = database.readEntry(userName);
+				if(entry != null){
+					names.add(userName);
+					users.add(entry.getVersion());
+					stamps.add(state.getFieldStamps(userName));
+				}
+			}
+		}
+		FileOutputStream fileOut = new FileOutputStream(file);
+		try{
+			CheckedOutputStream checked = new CheckedOutputStream(fileOut, new CRC32());
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked));
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeLong(state.getMachineId());
+			out.writeLong(System.currentTimeMillis());
+			out.writeLong(since);
+			out.writeLong(sequence);
+			Map<Long, Long> seen = state.getSeen();
+			out.writeInt(seen.size());
+			for(Map.Entry<Long, Long> peer: seen.entrySet()){
+				out.writeLong(peer.getKey());
+				out.writeLong(peer.getValue());
+			}
+			out.writeInt(names.size());
+			for(int i = 0; i < names.size(); i++)
+				writeUser(out, names.get(i), users.get(i), stamps.get(i));
+			out.flush();
+			new DataOutputStream(fileOut).writeLong(checked.getChecksum().getValue());
+			fileOut.getFD().sync();
+		}finally{
+			fileOut.close();
+		}
+		return names.size();
+	}
+
+	/**
+	 * A helper method used to write one user.
+	 * @param out The DataOutputStream that the user is written to.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @param user The user's UserVersion.
+	 * @param stamps The user's field stamps, read together with "user".
+	 * @throws IOException Thrown if the stream can not be written to.
+	 */
+	private static void writeUser(DataOutputStream out, String userName, UserVersion user, long[] stamps)
+			throws IOException{
+		out.writeUTF(userName);
+		writeString(out, user.password);
+		writeString(out, user.firstName);
+		writeString(out, user.lastName);
+		out.writeInt(user.gradeLevel);
+		for(long stamp: stamps)
+			out.writeLong(stamp);
+		out.writeInt(user.lastActiveTest);
+		out.writeBoolean(user.reportCard != null);
+		if(user.reportCard != null){
+			int[] grades = user.reportCard.toArray();
+			out.writeInt(user.reportCard.getGradeLevel());
+			out.writeInt(grades.length);
+			for(int grade: grades)
+				out.writeInt(grade);
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException{
+		out.writeBoolean(value != null);
+		if(value != null)
+			out.writeUTF(value);
+	}
+
+
+/******************
+ * Import methods *
+ ******************/
+
+	/**
+	 * Used to merge a file written by exportChanges(File) or exportAll(File) into the database. The whole
+	 *  file is read & checked before any user is changed, so a damaged file changes nothing.
+	 * @param file The File to be merged.
+	 * @return An int indicating the number of users that were added or changed.
+	 * @throws IOException Thrown if the file can not be read, or is damaged or of another version.
+	 */
+	public int importChanges(File file) throws IOException{
+		ChangeFile changes = read(file);
+		changedUsers.clear();
+		for(UserRecord record: changes.records){
+			if(merge(record))
+				changedUsers.add(record.userName);
+		}
+		if(changes.sender != state.getMachineId()){
+			//The file holds every change of the sender up to "to", unless changes after "seen" were left out.
+			if(changes.from <= state.getSeen(changes.sender))
+				state.setSeen(changes.sender, changes.to);
+			Long acknowledged = changes.seen.get(state.getMachineId());
+			state.setAcknowledged(changes.sender, (acknowledged == null) ? 0 : acknowledged);
+		}
+		return changedUsers.size();
+	}
+
+	/**
+	 * Used to obtain the users that were added or changed by the last call to importChanges(File).
+	 * @return A List of usernames.
+	 */
+	public List<String> getChangedUsers(){
+		return changedUsers;
+	}
+
+	/**
+	 * A helper method used to read and check every user of a file.
+	 * @param file The File to be read.
+	 * @return The ChangeFile.
+	 * @throws IOException Thrown if the file can not be read, or is damaged or of another version.
+	 */
+	private static ChangeFile read(File file) throws IOException{
+		CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(new FileInputStream(file)), new CRC32());
+		DataInputStream in = new DataInputStream(checked);
+		try{
+			if(in.readInt() != MAGIC)
+				throw new IOException("DeltaSync: The file was not written by DeltaSync.");
+			if(in.readShort() != VERSION)
+				throw new IOException("DeltaSync: The format version is not supported.");
+			ChangeFile changes = new ChangeFile();
+			changes.sender = in.readLong();
+			in.readLong(); //The export time.
+			changes.from = in.readLong();
+			changes.to   = in.readLong();
+			int peers = in.readInt();
+			for(int i = 0; i < peers; i++)
+				changes.seen.put(in.readLong(), in.readLong());
+			int count = in.readInt();
+			for(int i = 0; i < count; i++)
+				changes.records.add(readUser(in));
+			long crc = checked.getChecksum().getValue();
+			if(in.readLong() != crc)
+				throw new IOException("DeltaSync: The checksum does not match.");
+			return changes;
+		}finally{
+			in.close();
+		}
+	}
+
+	/**
+	 * A helper method used to read one user.
+	 * @param in The DataInputStream that the user is read from.
+	 * @return The UserRecord.
+	 * @throws IOException Thrown if the stream can not be read, or holds a report card that is not valid.
+	 */
+	private static UserRecord readUser(DataInputStream in) throws IOException{
+		UserRecord record = new UserRecord();
+		record.userName   = in.readUTF();
+		record.values[SyncState.PASSWORD]   = readString(in);
+		record.values[SyncState.FIRST_NAME] = readString(in);
+		record.values[SyncState.LAST_NAME]  = readString(in);
+		record.gradeLevel = in.readInt();
+		for(int i = 0; i < record.stamps.length; i++)
+			record.stamps[i] = in.readLong();
+		record.lastActiveTest = in.readInt();
+		if(in.readBoolean()){
+			int gradeLevel = in.readInt();
+			int length = in.readInt();
+			if(length < 0 || length > 1024)
+				throw new IOException("DeltaSync: The report card of \"" + record.userName + "\" is damaged.");
+			int[] grades = new int[length];
+			for(int i = 0; i < length; i++)
+				grades[i] = in.readInt();
+			try {
+				record.reportCard = PackedReportCard.fromArray(gradeLevel, grades);
+			} catch (RuntimeException e) {
+				throw new IOException("DeltaSync: The report card of \"" + record.userName + "\" is not valid.", e);
+			}
+		}
+		return record;
+	}
+
+	private static String readString(DataInputStream in) throws IOException{
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	/**
+	 * A helper method used to merge one user into the database, as one step.
+	 * @param record The UserRecord to be merged.
+	 * @return True if the user was added or changed.
+	 */
+	private boolean merge(UserRecord record){
+		synchronized(database.lockFor(record.userName)){
+			return mergeUser(record);
+		}
+	}
+
+	/**
+	 * A helper method used to merge one user into the database. Must be called while holding the user's lock.
+	 * @param record The UserRecord to be merged.
+	 * @return True if the user was added or changed.
+	 */
+	private boolean mergeUser(UserRecord record){
+		String userName = record.userName;
+		if(!database.containsUser(userName)){
+			database.addUser(userName, record.values[SyncState.PASSWORD], record.values[SyncState.FIRST_NAME],
+					record.values[SyncState.LAST_NAME], record.gradeLevel);
+			database.setLastActiveTest(userName, record.lastActiveTest);
+			if(record.reportCard != null)
+				database.setPackedReportCard(userName, record.reportCard);
+			for(int field = 0; field < SyncState.STAMPED_FIELDS; field++)
+				adoptStamp(userName, record, field);
+			return true;
+		}
+
+		boolean changed = false;
+		long[] stamps = state.getFieldStamps(userName);
+		for(int field = 0; field < SyncState.PROFILE_FIELDS; field++){
+			int order = compareStamps(record, stamps, field);
+			if(order == 0)
+				order = compareValues(record, field, userName);
+			if(order <= 0)
+				continue;
+			changed |= setField(record, field, userName);
+			adoptStamp(userName, record, field);
+		}
+		changed |= mergeLastActiveTest(userName, record, stamps);
+		changed |= mergeReportCard(userName, record, stamps);
+		return changed;
+	}
+
+	/**
+	 * A helper method used to merge lastActiveTest: the incoming value replaces the user's if its epoch is
+	 *  later, and is kept if it is higher within the same epoch.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @param record The UserRecord holding the incoming value.
+	 * @param stamps The user's stamps, as returned by SyncState.getFieldStamps(String).
+	 * @return True if lastActiveTest was changed.
+	 */
+	private boolean mergeLastActiveTest(String userName, UserRecord record, long[] stamps){
+		int order = compareStamps(record, stamps, SyncState.LAST_ACTIVE_TEST);
+		if(order == 0)
+			return database.setLastActiveTestIfHigher(userName, record.lastActiveTest);
+		if(order < 0)
+			return false;
+		boolean changed = (record.lastActiveTest != database.getLastActiveTest(userName));
+		if(changed)
+			database.setLastActiveTest(userName, record.lastActiveTest);
+		adoptStamp(userName, record, SyncState.LAST_ACTIVE_TEST);
+		return changed;
+	}
+
+	/**
+	 * A helper method used to merge a report card. The incoming report card replaces the user's if its
+	 *  epoch is later. Within the same epoch, each grade is raised to the incoming grade if that is higher,
+	 *  and a report card of another grade level replaces the user's report card only if it matches the
+	 *  user's (merged) grade level and the user's report card does not.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @param record The UserRecord holding the incoming report card.
+	 * @param stamps The user's stamps, as returned by SyncState.getFieldStamps(String).
+	 * @return True if the report card was changed.
+	 */
+	private boolean mergeReportCard(String userName, UserRecord record, long[] stamps){
+		PackedReportCard incoming = record.reportCard;
+		PackedReportCard local = database.getPackedReportCard(userName);
+		int order = compareStamps(record, stamps, SyncState.REPORT_CARD);
+		if(order < 0)
+			return false;
+		if(order > 0){
+			boolean changed = !isSameReportCard(incoming, local);
+			if(changed)
+				database.setPackedReportCard(userName, incoming);
+			adoptStamp(userName, record, SyncState.REPORT_CARD);
+			return changed;
+		}
+		if(incoming == null)
+			return false;
+		int gradeLevel = database.getGradeLevel(userName);
+		if(local == null || local.getGradeLevel() != incoming.getGradeLevel()){
+			if(incoming.getGradeLevel() != gradeLevel || (local != null && local.getGradeLevel() == gradeLevel))
+				return false;
+			database.setPackedReportCard(userName, incoming);
+			adoptStamp(userName, record, SyncState.REPORT_CARD); //Stays in the same epoch.
+			return true;
+		}
+		boolean changed = false;
+		for(ModuleSelectButtonInterface test: ReportCard.getTests(incoming.getGradeLevel())){
+			for(DifficultyLevel difficulty: DifficultyLevel.values()){
+				int grade    = incoming.getGrade(test, difficulty);
+				int maxGrade = incoming.getMaxGrade(test, difficulty);
+				int localGrade = local.getGrade(test, difficulty);
+				if(grade > localGrade || (grade == localGrade && maxGrade > local.getMaxGrade(test, difficulty))){
+					database.setGrade(userName, test, grade, maxGrade, difficulty);
+					changed = true;
+				}
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * A helper method used to set a profile field to its incoming value.
+	 * @param record The UserRecord holding the incoming value.
+	 * @param field An int indicating the profile field.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @return True if the value was changed.
+	 */
+	private boolean setField(UserRecord record, int field, String userName){
+		if(field == SyncState.GRADE_LEVEL){
+			if(record.gradeLevel == database.getGradeLevel(userName))
+				return false;
+			database.setGradeLevel(userName, record.gradeLevel);
+			return true;
+		}
+		String value = record.values[field];
+		if(equals(value, getField(userName, field)))
+			return false;
+		switch(field){
+			case SyncState.PASSWORD:   database.setPassword(userName, value);  break;
+			case SyncState.FIRST_NAME: database.setFirstName(userName, value); break;
+			default:                   database.setLastName(userName, value);  break;
+		}
+		return true;
+	}
+
+	/**
+	 * A helper method used to order an incoming profile field value against the local value, when both
+	 *  have the same stamp (ex. neither has ever been stamped).
+	 * @return An int: greater than 0 if the incoming value wins.
+	 */
+	private int compareValues(UserRecord record, int field, String userName){
+		if(field == SyncState.GRADE_LEVEL)
+			return Integer.compare(record.gradeLevel, database.getGradeLevel(userName));
+		String value = record.values[field];
+		String local = getField(userName, field);
+		if(value == null || local == null)
+			return (value == null) ? ((local == null) ? 0 : -1) : 1;
+		return value.compareTo(local);
+	}
+
+	private String getField(String userName, int field){
+		switch(field){
+			case SyncState.PASSWORD:   return database.getPassword(userName);
+			case SyncState.FIRST_NAME: return database.getFirstName(userName);
+			default:                   return database.getLastName(userName);
+		}
+	}
+
+	/**
+	 * A helper method used to check if two report cards hold the same grades.
+	 * @return True if both are null, or both are of the same grade level and hold the same grades.
+	 */
+	private static boolean isSameReportCard(PackedReportCard reportCard, PackedReportCard other){
+		if(reportCard == null || other == null)
+			return reportCard == other;
+		return reportCard.getGradeLevel() == other.getGradeLevel() && Arrays.equals(reportCard.toArray(), other.toArray());
+	}
+
+	/**
+	 * A helper method used to order the incoming stamp of a stamped field against the user's stamp.
+	 * @param record The UserRecord holding the incoming stamps.
+	 * @param stamps The user's stamps, as returned by SyncState.getFieldStamps(String).
+	 * @param field An int indicating the stamped field (ex. SyncState.REPORT_CARD).
+	 * @return An int: greater than 0 if the incoming stamp is later.
+	 */
+	private static int compareStamps(UserRecord record, long[] stamps, int field){
+		return compare(record.stamps[field * 2], record.stamps[field * 2 + 1], stamps[field * 2], stamps[field * 2 + 1]);
+	}
+
+	/**
+	 * A helper method used to give a user's stamped field the incoming stamp, once its value has been merged.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @param record The UserRecord holding the incoming stamps.
+	 * @param field An int indicating the stamped field.
+	 */
+	private void adoptStamp(String userName, UserRecord record, int field){
+		state.setStamp(userName, field, record.stamps[field * 2], record.stamps[field * 2 + 1]);
+	}
+
+	/**
+	 * A helper method used to order two stamps.
+	 * @return An int: greater than 0 if the first stamp is later.
+	 */
+	private static int compare(long time, long machine, long otherTime, long otherMachine){
+		if(time != otherTime)
+			return (time < otherTime) ? -1 : 1;
+		return Long.compare(machine, otherMachine);
+	}
+
+	private static boolean equals(String value, String other){
+		return (value == null) ? other == null : value.equals(other);
+	}
+
+	/**
+	 * The contents of a file.
+	 */
+	private static final class ChangeFile{
+		long sender; //The machine id of the machine that wrote the file.
+		long from;   //The sender's sequence number after which changed users were written. 0 if every user was.
+		long to;     //The sender's sequence number when the file was written.
+		final HashMap<Long, Long> seen = new HashMap<Long, Long>(); //How far the sender has seen each peer.
+		final List<UserRecord> records = new ArrayList<UserRecord>();
+	}
+
+	/**
+	 * One user, as read from a file.
+	 */
+	private static final class UserRecord{
+		String userName;
+		final String[] values = new String[SyncState.PROFILE_FIELDS]; //The String profile fields.
+		int gradeLevel;
+		final long[] stamps = new long[SyncState.STAMPED_FIELDS * 2];
+		int lastActiveTest;
+		PackedReportCard reportCard; //null if the user has no report card.
+	}
+}
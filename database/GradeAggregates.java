@@ -0,0 +1,328 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import project.constants.DifficultyLevel;
+import project.interfaces.ModuleSelectButtonInterface;
+import project.screens.RewardScreen;
+
+/**
+ * This class holds class-wide running aggregates of every student's grades, one cell per
+ *  (grade level, test, difficulty level): the number of grades, their sum & sum of squares, a histogram
+ *  of grade percents in BUCKETS buckets, and the number of passing grades (a percent of at least
+ *  RewardScreen.PASSING_GRADE). Only taken grades (not less than 0) are counted. Sums are of grade
+ *  percents, so that tests with different maximum grades may be compared.
+ * Aggregates are kept up to date by UserDatabase: each grade change removes the old grade and adds the
+ *  new one, a constant number of atomic additions, so a query never scans the students.
+ * NOTE: Each value is updated atomically, but a query that runs during a change may see the change in
+ *  some values of a cell and not in others.
+ * @author Kenneth Chin
+ */
+public final class GradeAggregates {
+
+	public static final int MAGIC   = 0x4D484147; //"MHAG". Identifies a file written by write(OutputStream, long).
+	public static final int VERSION = 1;          //The format version written by this class.
+	public static final int BUCKETS = 10;         //The number of histogram buckets, each 10 percent wide.
+
+	//The offsets of the values of a cell. The histogram follows PASSED.
+	private static final int COUNT = 0, SUM = 1, SUM_OF_SQUARES = 2, PASSED = 3, HISTOGRAM = 4;
+	private static final int CELL_LONGS = HISTOGRAM + BUCKETS; //The number of longs in each cell.
+	private static final int LEVELS = DifficultyLevel.values().length;
+
+	private static final int[] FIRST_CELL = new int[4]; //The first cell of each grade level. [3] is the number of cells.
+	static{
+		for(int gradeLevel = 0; gradeLevel < 3; gradeLevel++)
+			FIRST_CELL[gradeLevel + 1] = FIRST_CELL[gradeLevel] + ReportCard.getTests(gradeLevel).length * LEVELS;
+	}
+
+	private final AtomicLongArray values = new AtomicLongArray(FIRST_CELL[3] * CELL_LONGS);
+
+	/**
+	 * Creates GradeAggregates in which no grade has been counted.
+	 */
+	public GradeAggregates(){}
+
+	/**
+	 * Used to count every grade of a snapshot, so that the aggregates describe exactly the users that
+	 *  the snapshot holds.
+	 * @param snapshot The DatabaseSnapshot whose grades are counted.
+	 * @return New GradeAggregates holding the snapshot's grades.
+	 */
+	public static GradeAggregates count(DatabaseSnapshot snapshot){
+		GradeAggregates aggregates = new GradeAggregates();
+		for(String userName: snapshot.getUserNames())
+			aggregates.countReportCard(snapshot.getPackedReportCard(userName), 1);
+		return aggregates;
+	}
+
+
+/******************
+ * Update methods *
+ ******************/
+
+	/**
+	 * Used to replace one counted grade with another. Either may be "not taken" (less than 0).
+	 * @param gradeLevel An int indicating the grade level of the test.
+	 * @param test The ModuleSelectButtonInterface of the test.
+	 * @param difficulty The DifficultyLevel of the grade.
+	 * @param oldGrade An int indicating the grade that is no longer held.
+	 * @param oldMax An int indicating the maximum grade of oldGrade.
+	 * @param grade An int indicating the new grade.
+	 * @param maxGrade An int indicating the maximum grade of the new grade.
+	 */
+	void update(int gradeLevel, ModuleSelectButtonInterface test, DifficultyLevel difficulty,
+			int oldGrade, int oldMax, int grade, int maxGrade){
+		int cell = getCell(gradeLevel, test.getOrdinal(), difficulty.ordinal());
+		count(cell, oldGrade, oldMax, -1);
+		count(cell, grade, maxGrade, 1);
+	}
+
+	/**
+	 * Used to count, or stop counting, every grade of a report card.
+	 * @param reportCard The PackedReportCard whose grades are counted. null is ignored.
+	 * @param sign An int: 1 to count the grades, -1 to stop counting them.
+	 */
+	void countReportCard(PackedReportCard reportCard, int sign){
+		if(reportCard == null)
+			return;
+		int gradeLevel = reportCard.getGradeLevel();
+		int[] grades   = reportCard.toArray();
+		for(int i = 0; i < grades.length; i += 2){
+			int ordinal = i / PackedReportCard.SUMMARY_INTS;
+			int level   = (i % PackedReportCard.SUMMARY_INTS) / 2;
+			count(getCell(gradeLevel, ordinal, level), grades[i], grades[i + 1], sign);
+		}
+	}
+
+	/**
+	 * A helper method used to add, or remove, a single grade from a cell.
+	 * @param cell An int indicating the cell.
+	 * @param grade An int indicating the grade. A grade less than 0 is not counted.
+	 * @param maxGrade An int indicating the maximum grade.
+	 * @param sign An int: 1 to add the grade, -1 to remove it.
+	 */
+	private void count(int cell, int grade, int maxGrade, int sign){
+		if(grade < 0)
+			return;
+		int percent = getPercent(grade, maxGrade);
+		int base = cell * CELL_LONGS;
+		values.addAndGet(base + COUNT, sign);
+		values.addAndGet(base + SUM, sign * (long)percent);
+		values.addAndGet(base + SUM_OF_SQUARES, sign * (long)percent * percent);
+		if(percent >= RewardScreen.PASSING_GRADE)
+			values.addAndGet(base + PASSED, sign);
+		values.addAndGet(base + HISTOGRAM + Math.min(BUCKETS - 1, Math.max(0, percent / (100 / BUCKETS))), sign);
+	}
+
+	/**
+	 * Used to obtain a grade as a percent, rounded as the tests round it.
+	 * @param grade An int indicating the grade.
+	 * @param maxGrade An int indicating the maximum grade.
+	 * @return An int indicating the grade's percent of maxGrade. 0 if maxGrade is not positive.
+	 */
+	static int getPercent(int grade, int maxGrade){
+		if(maxGrade <= 0)
+			return 0;
+		return Math.round(((float)grade / (float)maxGrade) * 100);
+	}
+
+	/**
+	 * A helper method used to find the cell of a test & difficulty level.
+	 * @param gradeLevel An int indicating the grade level of the test.
+	 * @param ordinal An int indicating the ordinal of the test.
+	 * @param level An int indicating the ordinal of the DifficultyLevel.
+	 * @return An int indicating the cell.
+	 */
+	private static int getCell(int gradeLevel, int ordinal, int level){
+		if(gradeLevel > 2 || gradeLevel < 0)
+			throw new IndexOutOfBoundsException("The gradeLevel \"" + gradeLevel + "\" does not exist.");
+		return FIRST_CELL[gradeLevel] + (ordinal * LEVELS) + level;
+	}
+
+
+/*****************
+ * Query methods *
+ *****************/
+
+	/**
+	 * Used to obtain the number of students who have taken a test at a difficulty level.
+	 * @param gradeLevel An int indicating the grade level of the test (0, 1, or 2).
+	 * @param test The ModuleSelectButtonInterface of the test.
+	 * @param difficulty The DifficultyLevel of the grades.
+	 * @return A long indicating the number of grades counted.
+	 */
+	public long getCount(int gradeLevel, ModuleSelectButtonInterface test, DifficultyLevel difficulty){
+		return get(gradeLevel, test, difficulty, COUNT);
+	}
+
+	/**
+	 * Used to obtain the mean grade percent of a test at a difficulty level.
+	 * @param gradeLevel An int indicating the grade level of the test (0, 1, or 2).
+	 * @param test The ModuleSelectButtonInterface of the test.
+	 * @param difficulty The DifficultyLevel of the grades.
+	 * @return A double indicating the mean percent, or NaN if no grade has been counted.
+	 */
+	public double getMeanPercent(int gradeLevel, ModuleSelectButtonInterface test, DifficultyLevel difficulty){
+		long count = getCount(gradeLevel, test, difficulty);
+		return (count == 0) ? Double.NaN : (double)get(gradeLevel, test, difficulty, SUM) / count;
+	}
+
+	/**
+	 * Used to obtain the (population) standard deviation of the grade percents of a test at a difficulty level.
+	 * @param gradeLevel An int indicating the grade level of the test (0, 1, or 2).
+	 * @param test The ModuleSelectButtonInterface of the test.
+	 * @param difficulty The DifficultyLevel of the grades.
+	 * @return A double indicating the standard deviation, or NaN if no grade has been counted.
+	 */
+	public double getStandardDeviation(int gradeLevel, ModuleSelectButtonInterface test, DifficultyLevel difficulty){
+		long count = getCount(gradeLevel, test, difficulty);
+		if(count == 0)
+			return Double.NaN;
+		double mean = (double)get(gradeLevel, test, difficulty, SUM) / count;
+		double meanOfSquares = (double)get(gradeLevel, test, difficulty, SUM_OF_SQUARES) / count;
+		return Math.sqrt(Math.max(0.0, meanOfSquares - (mean * mean)));
+	}
+
+	/**
+	 * Used to obtain the fraction of grades of a test at a difficulty level that are passing grades.
+	 * @param gradeLevel An int indicating the grade level of the test (0, 1, or 2).
+	 * @param test The ModuleSelectButtonInterface of the test.
+	 * @param difficulty The DifficultyLevel of the grades.
+	 * @return A double between 0 and 1, or NaN if no grade has been counted.
+	 */
+	public double getPassRate(int gradeLevel, ModuleSelectButtonInterface test, DifficultyLevel difficulty){
+		long count = getCount(gradeLevel, test, difficulty);
+		return (count == 0) ? Double.NaN : (double)get(gradeLevel, test, difficulty, PASSED) / count;
+	}
+
+	/**
+	 * Used to obtain the histogram of the grade percents of a test at a difficulty level.
+	 * @param gradeLevel An int indicating the grade level of the test (0, 1, or 2).
+	 * @param test The ModuleSelectButtonInterface of the test.
+	 * @param difficulty The DifficultyLevel of the grades.
+	 * @return A new long array of BUCKETS counts. Bucket "i" counts percents from (i * 10) to (i * 10 + 9);
+	 *  the last bucket also counts 100 percent.
+	 */
+	public long[] getHistogram(int gradeLevel, ModuleSelectButtonInterface test, DifficultyLevel difficulty){
+		long[] histogram = new long[BUCKETS];
+		for(int i = 0; i < BUCKETS; i++)
+			histogram[i] = get(gradeLevel, test, difficulty, HISTOGRAM + i);
+		return histogram;
+	}
+
+	/**
+	 * A helper method used to read one value of a cell.
+	 * @param gradeLevel An int indicating the grade level of the test.
+	 * @param test The ModuleSelectButtonInterface of the test.
+	 * @param difficulty The DifficultyLevel of the grades.
+	 * @param value An int indicating the value's offset within the cell.
+	 * @return The long value.
+	 */
+	private long get(int gradeLevel, ModuleSelectButtonInterface test, DifficultyLevel difficulty, int value){
+		return values.get((getCell(gradeLevel, test.getOrdinal(), difficulty.ordinal()) * CELL_LONGS) + value);
+	}
+
+	/**
+	 * Used to obtain a copy of these aggregates. Changing either does not change the other.
+	 * @return A new GradeAggregates holding the same values.
+	 */
+	public GradeAggregates copy(){
+		GradeAggregates copy = new GradeAggregates();
+		for(int i = 0; i < values.length(); i++)
+			copy.values.set(i, values.get(i));
+		return copy;
+	}
+
+	/**
+	 * Used to check if these aggregates hold the same values as others.
+	 * @param other The GradeAggregates to be compared.
+	 * @return A boolean indicating true if every value is equal; false otherwise.
+	 */
+	public boolean hasSameValues(GradeAggregates other){
+		for(int i = 0; i < values.length(); i++){
+			if(values.get(i) != other.values.get(i))
+				return false;
+		}
+		return true;
+	}
+
+
+/*******************
+ * Persist methods *
+ *******************/
+
+	/**
+	 * Used to write every value to a stream, tagged with the generation of the database snapshot that
+	 *  they describe. The stream is flushed, but not closed.
+	 *  Format: [int MAGIC][short VERSION][long generation][int number of values][long value]...[long CRC32]
+	 * @param stream The OutputStream that the values are written to.
+	 * @param generation A long indicating the snapshot generation that the values describe.
+	 * @throws IOException Thrown if the stream can not be written to.
+	 */
+	public void write(OutputStream stream, long generation) throws IOException{
+		CheckedOutputStream checked = new CheckedOutputStream(stream, new CRC32());
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked));
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+		out.writeLong(generation);
+		out.writeInt(values.length());
+		for(int i = 0; i < values.length(); i++)
+			out.writeLong(values.get(i));
+		out.flush();
+		new DataOutputStream(stream).writeLong(checked.getChecksum().getValue());
+		stream.flush();
+	}
+
+	/**
+	 * Used to read values written by write(OutputStream, long). The stream is not closed.
+	 * @param stream The InputStream that the values are read from.
+	 * @param generation A long indicating the snapshot generation that the values must describe.
+	 * @return The GradeAggregates that were read, or null if they describe a different generation.
+	 * @throws IOException Thrown if the stream can not be read, or its values are damaged or of another version.
+	 */
+	public static GradeAggregates read(InputStream stream, long generation) throws IOException{
+		CheckedInputStream checked = new CheckedInputStream(stream, new CRC32());
+		DataInputStream in = new DataInputStream(checked);
+		if(in.readInt() != MAGIC)
+			throw new IOException("GradeAggregates: The data was not written by GradeAggregates.");
+		if(in.readShort() != VERSION)
+			throw new IOException("GradeAggregates: The format version is not supported.");
+		long written = in.readLong();
+		GradeAggregates aggregates = new GradeAggregates();
+		if(in.readInt() != aggregates.values.length())
+			throw new IOException("GradeAggregates: The number of values does not match the tests.");
+		for(int i = 0; i < aggregates.values.length(); i++)
+			aggregates.values.set(i, in.readLong());
+		long crc = checked.getChecksum().getValue();
+		if(new DataInputStream(stream).readLong() != crc)
+			throw new IOException("GradeAggregates: The checksum does not match.");
+		return (written == generation) ? aggregates : null;
+	}
+}
@@ -0,0 +1,465 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.zip.CRC32;
+
+import project.constants.DifficultyLevel;
+import project.interfaces.ModuleSelectButtonInterface;
+
+/**
+ * This class is an append-only journal of the changes made to a UserDatabase between two full
+ *  snapshots of the database. Instead of re-writing the entire database each time a student
+ *  finishes a test, only the changed grade or lastActiveTest is appended to the journal. A user
+ *  that is added is appended as a whole.
+ * On startup, the journal is replayed on top of the last database snapshot. Every record "sets"
+ *  a value, so replaying a record that is already part of the snapshot does no harm.
+ * The journal is made up of two files: the "active" file, which receives all new records, and
+ *  the "sealed" file, which holds the records of an active file that has been handed off to a
+ *  snapshot (compaction) that has not yet completed. See seal() and discardSealed(). While an
+ *  active file is being added to the end of the sealed file, it is held in a third, "sealing" file.
+ * Record layout: [int length][byte type][payload][long CRC32 of type & payload]. A record that
+ *  is cut short or fails its checksum (ex. a crash during a write) ends the replay, and is removed
+ *  from the file along with anything after it, so that new records follow the last valid record.
+ * Records may be appended by one thread while another thread syncs or seals the journal. Only the
+ *  buffered writes are made while holding the journal's lock; the slow work of forcing records to
+ *  disk and copying files is not, so appending a record never waits on the storage device.
+ * @author Kenneth Chin
+ */
+public class GradeJournal {
+
+	private static final byte GRADE_RECORD       = 1; //A ModuleReportSummary grade change.
+	private static final byte LAST_ACTIVE_RECORD = 2; //A lastActiveTest change.
+	private static final byte USER_RECORD        = 3; //A user's entire entry, after the user was added.
+
+	//The size, in bytes, that the active journal may reach before a compaction is suggested.
+	private static final long COMPACTION_THRESHOLD = 256 * 1024;
+	private static final int  MAX_RECORD_LENGTH    = 64 * 1024; //Used to detect a damaged length field.
+
+	private File activeFile; //The file that all new records are appended to.
+	private File sealedFile; //The file holding records that are waiting on a snapshot.
+	private File sealingFile; //The file holding an active file that is being added to the sealed file.
+
+	//Held while syncing, sealing, or emptying the journal, so that only one is done at a time. Appending
+	//records only needs the journal's own lock.
+	private final Object syncLock = new Object();
+
+	private FileOutputStream fileOut; //The active file's stream. Used to force records to disk.
+	private DataOutputStream out;     //The buffered stream that records are written to.
+
+	/**
+	 * Creates a GradeJournal that appends to the specified file. The file is created if it does
+	 *  not already exist. The sealed file uses the same path, with the suffix ".sealed", and the
+	 *  sealing file the suffix ".sealing".
+	 * @param filePath A String describing the path of the active journal file.
+	 * @throws IOException Thrown if the journal file can not be opened for writing.
+	 */
+	public GradeJournal(String filePath) throws IOException{
+		activeFile = new File(filePath);
+		sealedFile  = new File(filePath + ".sealed");
+		sealingFile = new File(filePath + ".sealing");
+		open();
+	}
+
+	/**
+	 * A helper method used to open the active file for appending.
+	 * @throws IOException Thrown if the active file can not be opened for writing.
+	 */
+	private void open() throws IOException{
+		fileOut = new FileOutputStream(activeFile, true);
+		out     = new DataOutputStream(new BufferedOutputStream(fileOut));
+	}
+
+
+/******************
+ * Append methods *
+ ******************/
+
+	/**
+	 * Used to append a grade change to the journal. The record is buffered until sync() is called.
+	 * @param userName The String that is used as the database's key for the student.
+	 * @param gradeLevel An int indicating the student's grade level (0, 1, or 2). Used to identify
+	 *  the set of tests that "test" belongs to.
+	 * @param test A ModuleSelectButtonInterface that describes the test who's grade was changed.
+	 * @param difficulty The DifficultyLevel of the test who's grade was changed.
+	 * @param grade An int describing the grade that was assigned to the test.
+	 * @param maxGrade An int describing the maximum achievable grade for the test.
+	 * @throws IOException Thrown if the record can not be written.
+	 */
+	public void appendGrade(String userName, int gradeLevel, ModuleSelectButtonInterface test,
+			DifficultyLevel difficulty, int grade, int maxGrade) throws IOException{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream record = new DataOutputStream(bytes);
+		record.writeByte(GRADE_RECORD);
+		record.writeUTF(userName);
+		record.writeByte(gradeLevel);
+		record.writeByte(test.getOrdinal());
+		record.writeByte(difficulty.ordinal());
+		record.writeInt(grade);
+		record.writeInt(maxGrade);
+		writeRecord(bytes.toByteArray());
+	}
+
+	/**
+	 * Used to append a lastActiveTest change to the journal. The record is buffered until sync()
+	 *  is called.
+	 * @param userName The String that is used as the database's key for the student.
+	 * @param lastActiveTest An int describing the student's new lastActiveTest.
+	 * @throws IOException Thrown if the record can not be written.
+	 */
+	public void appendLastActiveTest(String userName, int lastActiveTest) throws IOException{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream record = new DataOutputStream(bytes);
+		record.writeByte(LAST_ACTIVE_RECORD);
+		record.writeUTF(userName);
+		record.writeInt(lastActiveTest);
+		writeRecord(bytes.toByteArray());
+	}
+
+	/**
+	 * Used to append a user's entire entry to the journal, after the user has been added (or replaced).
+	 *  The record is buffered until sync() is called.
+	 * @param database The UserDatabase holding the user.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @throws IOException Thrown if the record can not be written.
+	 */
+	public void appendUser(UserDatabase database, String userName) throws IOException{
+		UserEntry entry = database.getEntry(userName);
+		if(entry == null)
+			return;
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream record = new DataOutputStream(bytes);
+		record.writeByte(USER_RECORD);
+		record.writeUTF(userName);
+		record.write(DatabaseCodec.encodeEntry(entry));
+		writeRecord(bytes.toByteArray());
+	}
+
+	/**
+	 * A helper method used to frame a record with its length and checksum.
+	 * @param record The byte array holding the record's type & payload.
+	 * @throws IOException Thrown if the record can not be written.
+	 */
+	private synchronized void writeRecord(byte[] record) throws IOException{
+		CRC32 crc = new CRC32();
+		crc.update(record, 0, record.length);
+		out.writeInt(record.length);
+		out.write(record);
+		out.writeLong(crc.getValue());
+	}
+
+	/**
+	 * Used to force all appended records to the storage device. Once this method returns, the
+	 *  records will survive a crash or power loss. The journal's lock is only held while the buffered
+	 *  records are handed to the file, so records can be appended while they are being forced to disk.
+	 * @throws IOException Thrown if the records can not be written.
+	 */
+	public void sync() throws IOException{
+		synchronized(syncLock){
+			FileDescriptor fd;
+			synchronized(this){
+				out.flush();
+				fd = fileOut.getFD();
+			}
+			fd.sync();
+		}
+	}
+
+
+/******************
+ * Replay methods *
+ ******************/
+
+	/**
+	 * Used to apply every record in the journal to the specified database. The sealed file is
+	 *  replayed first, then the sealing file, and then the active file. Records for users that are not in the database are skipped.
+	 * @param database The UserDatabase that the journal's records are to be applied to. This should be
+	 *  the database that was read from the last snapshot.
+	 * @return An int indicating the number of records that were applied.
+	 * @throws IOException Thrown if a journal file exists, but can not be read.
+	 */
+	public int replay(UserDatabase database) throws IOException{
+		return replay(sealedFile, database) + replay(sealingFile, database) + replay(activeFile, database);
+	}
+
+	/**
+	 * A helper method used to apply the records of a single journal file to the specified database.
+	 *  Anything after the last valid record is then removed from the file.
+	 * @param file The journal file to be replayed.
+	 * @param database The UserDatabase that the records are to be applied to.
+	 * @return An int indicating the number of records that were applied.
+	 * @throws IOException Thrown if the file exists, but can not be read or truncated.
+	 */
+	private int replay(File file, UserDatabase database) throws IOException{
+		if(!file.exists())
+			return 0;
+		int applied = 0;
+		long validLength = 0;
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try{
+			byte[] record;
+			while((record = readRecord(in)) != null){
+				validLength += 4 + record.length + 8;
+				if(apply(record, database))
+					applied++;
+			}
+		}finally{
+			in.close();
+		}
+		truncate(file, validLength);
+		return applied;
+	}
+
+	/**
+	 * A helper method used to remove the remains of a record that was cut short, and anything after it,
+	 *  from the end of a journal file. Without this, records appended after a crash would follow the
+	 *  damaged record, and would never be replayed.
+	 * @param file The journal file to be truncated.
+	 * @param validLength A long indicating the length of the file's valid records.
+	 * @throws IOException Thrown if the file can not be truncated.
+	 */
+	private synchronized void truncate(File file, long validLength) throws IOException{
+		if(file.length() <= validLength)
+			return;
+		out.flush();
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try{
+			raf.getChannel().truncate(validLength);
+			raf.getChannel().force(true);
+		}finally{
+			raf.close();
+		}
+	}
+
+	/**
+	 * A helper method used to read the next record from a journal file.
+	 * @param in The DataInputStream of the journal file.
+	 * @return A byte array holding the record's type & payload, or null if there are no more complete,
+	 *  valid records.
+	 * @throws IOException Thrown if the file can not be read.
+	 */
+	private byte[] readRecord(DataInputStream in) throws IOException{
+		try{
+			int length = in.readInt();
+			if(length <= 0 || length > MAX_RECORD_LENGTH)
+				return null;
+			byte[] record = new byte[length];
+			in.readFully(record);
+			long checksum = in.readLong();
+			CRC32 crc = new CRC32();
+			crc.update(record, 0, length);
+			if(crc.getValue() != checksum)
+				return null;
+			return record;
+		}catch(EOFException e){
+			//A record that was cut short by a crash. Nothing after it can be trusted.
+			return null;
+		}
+	}
+
+	/**
+	 * A helper method used to apply a single record to the specified database.
+	 * @param record A byte array holding the record's type & payload.
+	 * @param database The UserDatabase that the record is to be applied to.
+	 * @return A boolean indicating true if the record was applied; false if the record's user does
+	 *  not exist, or the record is not understood. A USER_RECORD adds its user.
+	 * @throws IOException Thrown if the record can not be decoded.
+	 */
+	private boolean apply(byte[] record, UserDatabase database) throws IOException{
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+		byte   type     = in.readByte();
+		String userName = in.readUTF();
+		if(type == USER_RECORD){
+			byte[] entry = new byte[in.available()];
+			in.readFully(entry);
+			database.addEntries(Collections.singletonList(userName),
+					Collections.singletonList(DatabaseCodec.decodeEntry(entry)));
+			return true;
+		}
+		if(!database.containsUser(userName))
+			return false;
+		switch(type){
+			case GRADE_RECORD:
+				int gradeLevel = in.readByte();
+				int ordinal    = in.readByte();
+				DifficultyLevel difficulty = DifficultyLevel.values()[in.readByte()];
+				int grade      = in.readInt();
+				int maxGrade   = in.readInt();
+				//Ignore grades recorded for a grade level the student is no longer in.
+				if(gradeLevel != database.getGradeLevel(userName))
+					return false;
+				ModuleSelectButtonInterface test = ReportCard.getTests(gradeLevel)[ordinal];
+				database.setGrade(userName, test, grade, maxGrade, difficulty);
+				return true;
+			case LAST_ACTIVE_RECORD:
+				database.setLastActiveTest(userName, in.readInt());
+				return true;
+			default:
+				return false;
+		}
+	}
+
+
+/**********************
+ * Compaction methods *
+ **********************/
+
+	/**
+	 * Used to determine if the active journal has grown large enough that a new database snapshot
+	 *  should be taken. Only records that have been written by sync() are counted.
+	 * @return A boolean indicating true if a snapshot should be taken; false otherwise.
+	 */
+	public synchronized boolean needsCompaction(){
+		return activeFile.length() >= COMPACTION_THRESHOLD;
+	}
+
+	/**
+	 * Used to hand the active journal's records off to a snapshot. The active file becomes the sealed
+	 *  file, and a new, empty active file is started. If a sealed file already exists (a previous snapshot
+	 *  failed), the active file becomes the sealing file, and its records are then added to the end of the
+	 *  sealed file. Only the renaming is done while holding the journal's lock; the records are forced to
+	 *  disk, and copied, while new records are appended to the new active file. Once the snapshot has been
+	 *  written, discardSealed() should be called.
+	 * NOTE: Every change to the database must be made before its record is appended, and the snapshot must
+	 *  be started after this method returns, or the change could be discarded along with the sealed file.
+	 * @throws IOException Thrown if the journal files can not be written.
+	 */
+	public void seal() throws IOException{
+		synchronized(syncLock){
+			finishSealing();
+			File handedOff = sealedFile.exists() ? sealingFile : sealedFile;
+			synchronized(this){
+				out.close();
+				if(!activeFile.renameTo(handedOff))
+					throw new IOException("GradeJournal.seal(): Could not rename " + activeFile + " to " + handedOff + ".");
+				open();
+			}
+			force(handedOff);
+			finishSealing();
+		}
+	}
+
+	/**
+	 * A helper method used to add the sealing file's records to the end of the sealed file, and then
+	 *  delete it. Does nothing if there is no sealing file. Must be called while holding syncLock.
+	 * @throws IOException Thrown if the journal files can not be written.
+	 */
+	private void finishSealing() throws IOException{
+		if(!sealingFile.exists())
+			return;
+		if(!sealedFile.exists()){
+			if(!sealingFile.renameTo(sealedFile))
+				throw new IOException("GradeJournal.seal(): Could not rename " + sealingFile + " to " + sealedFile + ".");
+			return;
+		}
+		appendFile(sealingFile, sealedFile);
+		if(!sealingFile.delete())
+			throw new IOException("GradeJournal.seal(): Could not delete " + sealingFile + ".");
+	}
+
+	/**
+	 * A helper method used to force the contents of a closed journal file to the storage device.
+	 * @param file The File to be forced to disk.
+	 * @throws IOException Thrown if the file can not be accessed.
+	 */
+	private static void force(File file) throws IOException{
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try{
+			raf.getFD().sync();
+		}finally{
+			raf.close();
+		}
+	}
+
+	/**
+	 * A helper method used to copy the contents of one file onto the end of another.
+	 * @param source The File who's contents are to be copied.
+	 * @param destination The File that the contents are to be appended to.
+	 * @throws IOException Thrown if either file can not be accessed.
+	 */
+	private void appendFile(File source, File destination) throws IOException{
+		FileInputStream  in  = new FileInputStream(source);
+		FileOutputStream dst = new FileOutputStream(destination, true);
+		try{
+			byte[] buffer = new byte[8192];
+			int read;
+			while((read = in.read(buffer)) != -1)
+				dst.write(buffer, 0, read);
+			dst.getFD().sync();
+		}finally{
+			in.close();
+			dst.close();
+		}
+	}
+
+	/**
+	 * Used to delete the sealed file, once a database snapshot containing its records has been written.
+	 */
+	public void discardSealed(){
+		synchronized(syncLock){
+			if(sealingFile.exists())
+				sealingFile.delete();
+			if(sealedFile.exists())
+				sealedFile.delete();
+		}
+	}
+
+	/**
+	 * Used to empty the journal, once a database snapshot containing all of its records has been written.
+	 * @throws IOException Thrown if the active file can not be re-created.
+	 */
+	public void reset() throws IOException{
+		synchronized(syncLock){
+			discardSealed();
+			synchronized(this){
+				out.close();
+				fileOut = new FileOutputStream(activeFile, false);
+				out     = new DataOutputStream(new BufferedOutputStream(fileOut));
+			}
+			sync();
+		}
+	}
+
+	/**
+	 * Used to close the journal. All buffered records are written to the storage device.
+	 * @throws IOException Thrown if the records can not be written.
+	 */
+	public void close() throws IOException{
+		synchronized(syncLock){
+			sync();
+			synchronized(this){
+				out.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,224 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import project.constants.DifficultyLevel;
+import project.interfaces.ModuleSelectButtonInterface;
+import project.screens.RewardScreen;
+
+/**
+ * This class holds, for every test & difficulty level of every grade level, a UserBitmap of the users
+ *  who passed it and a UserBitmap of the users who took it but failed. A grade is passing if its percent
+ *  (rounded as the tests round it) is at least RewardScreen.PASSING_GRADE. Each user is given an ordinal
+ *  when first indexed, and is held in the bitmaps by that ordinal.
+ * Cohort questions, such as "who passed COUNTING on Hard but failed COMPARISON on Easy", are answered by
+ *  combining bitmaps with and(), or() and andNot(); getUsers() is the universe for "NOT". getUserNames()
+ *  turns the answer back into usernames.
+ * The bitmaps are kept up to date by UserDatabase, which calls update() while holding the changed user's
+ *  lock. Every method is synchronized, and queries return copies, so a caller may combine and keep the
+ *  returned bitmaps while grades change.
+ * @author Kenneth Chin
+ */
+public final class MasteryIndex {
+
+	private static final int LEVELS = DifficultyLevel.values().length;
+
+	private static final int[] FIRST_CELL = new int[4]; //The first cell of each grade level. [3] is the number of cells.
+	static{
+		for(int gradeLevel = 0; gradeLevel < 3; gradeLevel++)
+			FIRST_CELL[gradeLevel + 1] = FIRST_CELL[gradeLevel] + ReportCard.getTests(gradeLevel).length * LEVELS;
+	}
+
+	private final UserBitmap[] passed = new UserBitmap[FIRST_CELL[3]]; //The users who passed each cell.
+	private final UserBitmap[] failed = new UserBitmap[FIRST_CELL[3]]; //The users who failed each cell.
+	private final UserBitmap users    = new UserBitmap();               //Every indexed user.
+
+	private final HashMap<String, Integer> ordinals = new HashMap<String, Integer>(); //The ordinal of each user.
+	private final ArrayList<String> userNames = new ArrayList<String>();             //The user of each ordinal.
+
+	/**
+	 * Creates a MasteryIndex that holds no user.
+	 */
+	MasteryIndex(){
+		for(int cell = 0; cell < passed.length; cell++){
+			passed[cell] = new UserBitmap();
+			failed[cell] = new UserBitmap();
+		}
+	}
+
+
+/******************
+ * Update methods *
+ ******************/
+
+	/**
+	 * Used to index a user's new report card in place of their old one. Only the cells whose pass or
+	 *  fail state has changed are updated.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @param oldCard The PackedReportCard that the user was indexed with, or null if the user is new.
+	 * @param newCard The user's new PackedReportCard. May be null.
+	 */
+	synchronized void update(String userName, PackedReportCard oldCard, PackedReportCard newCard){
+		int ordinal = getOrdinal(userName);
+		if(oldCard != null && newCard != null && oldCard.getGradeLevel() == newCard.getGradeLevel()){
+			int[] oldGrades = oldCard.toArray();
+			int[] newGrades = newCard.toArray();
+			int first = FIRST_CELL[newCard.getGradeLevel()];
+			for(int i = 0; i < newGrades.length; i += 2){
+				int oldState = getState(oldGrades[i], oldGrades[i + 1]);
+				int newState = getState(newGrades[i], newGrades[i + 1]);
+				if(oldState != newState){
+					int cell = first + (i / 2);
+					setState(cell, ordinal, oldState, false);
+					setState(cell, ordinal, newState, true);
+				}
+			}
+		}else{
+			index(ordinal, oldCard, false);
+			index(ordinal, newCard, true);
+		}
+	}
+
+	/**
+	 * A helper method used to add, or remove, every pass or fail of a report card.
+	 * @param ordinal An int indicating the user's ordinal.
+	 * @param reportCard The PackedReportCard. null is ignored.
+	 * @param add True to add the user to the bitmaps, false to remove them.
+	 */
+	private void index(int ordinal, PackedReportCard reportCard, boolean add){
+		if(reportCard == null)
+			return;
+		int[] grades = reportCard.toArray();
+		int first = FIRST_CELL[reportCard.getGradeLevel()];
+		for(int i = 0; i < grades.length; i += 2)
+			setState(first + (i / 2), ordinal, getState(grades[i], grades[i + 1]), add);
+	}
+
+	/**
+	 * A helper method used to add a user to, or remove them from, the bitmap of a cell's state.
+	 * @param cell An int indicating the cell.
+	 * @param ordinal An int indicating the user's ordinal.
+	 * @param state An int: 1 if passed, -1 if failed, 0 if not taken (nothing is changed).
+	 * @param add True to add the user, false to remove them.
+	 */
+	private void setState(int cell, int ordinal, int state, boolean add){
+		if(state == 0)
+			return;
+		UserBitmap bitmap = (state > 0) ? passed[cell] : failed[cell];
+		if(add)
+			bitmap.add(ordinal);
+		else
+			bitmap.remove(ordinal);
+	}
+
+	/**
+	 * A helper method used to obtain the pass or fail state of a grade.
+	 * @param grade An int indicating the grade. Less than 0 if the test has not been taken.
+	 * @param maxGrade An int indicating the maximum grade.
+	 * @return An int: 1 if passed, -1 if failed, 0 if not taken.
+	 */
+	private static int getState(int grade, int maxGrade){
+		if(grade < 0)
+			return 0;
+		return (GradeAggregates.getPercent(grade, maxGrade) >= RewardScreen.PASSING_GRADE) ? 1 : -1;
+	}
+
+	/**
+	 * A helper method used to obtain a user's ordinal, giving them the next ordinal if they have none.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @return An int indicating the ordinal.
+	 */
+	private int getOrdinal(String userName){
+		Integer ordinal = ordinals.get(userName);
+		if(ordinal == null){
+			ordinal = userNames.size();
+			ordinals.put(userName, ordinal);
+			userNames.add(userName);
+			users.add(ordinal);
+		}
+		return ordinal;
+	}
+
+
+/*****************
+ * Query methods *
+ *****************/
+
+	/**
+	 * Used to obtain the users who passed a test at a difficulty level.
+	 * @param gradeLevel An int indicating the grade level of the test (0, 1, or 2).
+	 * @param test The ModuleSelectButtonInterface of the test.
+	 * @param difficulty The DifficultyLevel of the test.
+	 * @return A new UserBitmap.
+	 */
+	public synchronized UserBitmap getPassed(int gradeLevel, ModuleSelectButtonInterface test, DifficultyLevel difficulty){
+		return passed[getCell(gradeLevel, test, difficulty)].copy();
+	}
+
+	/**
+	 * Used to obtain the users who took a test at a difficulty level, but did not pass it.
+	 * @param gradeLevel An int indicating the grade level of the test (0, 1, or 2).
+	 * @param test The ModuleSelectButtonInterface of the test.
+	 * @param difficulty The DifficultyLevel of the test.
+	 * @return A new UserBitmap.
+	 */
+	public synchronized UserBitmap getFailed(int gradeLevel, ModuleSelectButtonInterface test, DifficultyLevel difficulty){
+		return failed[getCell(gradeLevel, test, difficulty)].copy();
+	}
+
+	/**
+	 * Used to obtain every indexed user. Used as the universe for "NOT": users.andNot(bitmap).
+	 * @return A new UserBitmap.
+	 */
+	public synchronized UserBitmap getUsers(){
+		return users.copy();
+	}
+
+	/**
+	 * Used to obtain the username of every user in a bitmap.
+	 * @param bitmap The UserBitmap, of ordinals given by this index.
+	 * @return A List of usernames, in ordinal order.
+	 */
+	public synchronized List<String> getUserNames(UserBitmap bitmap){
+		int[] members = bitmap.toArray();
+		List<String> names = new ArrayList<String>(members.length);
+		for(int ordinal: members){
+			if(ordinal < userNames.size())
+				names.add(userNames.get(ordinal));
+		}
+		return names;
+	}
+
+	/**
+	 * A helper method used to find the cell of a test & difficulty level.
+	 * @param gradeLevel An int indicating the grade level of the test.
+	 * @param test The ModuleSelectButtonInterface of the test.
+	 * @param difficulty The DifficultyLevel of the test.
+	 * @return An int indicating the cell.
+	 */
+	private static int getCell(int gradeLevel, ModuleSelectButtonInterface test, DifficultyLevel difficulty){
+		if(gradeLevel > 2 || gradeLevel < 0)
+			throw new IndexOutOfBoundsException("The gradeLevel \"" + gradeLevel + "\" does not exist.");
+		return FIRST_CELL[gradeLevel] + (test.getOrdinal() * LEVELS) + difficulty.ordinal();
+	}
+}
@@ -30,6 +30,9 @@ import java.io.Serializable;
  */
 public class ModuleReportSummary implements Serializable{
 
+	//Pinned to the original value, so that existing database files remain readable.
+	private static final long serialVersionUID = 7829067827997554422L;
+	
 	private int easyGrade     = -1;
 	private int easyMax       = -1;
 	private int normalGrade   = -1;
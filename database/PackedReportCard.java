@@ -0,0 +1,211 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import project.constants.DifficultyLevel;
+import project.interfaces.ModuleSelectButtonInterface;
+
+/**
+ * This class stores a student's grades for every test of a grade level in a single int array, instead
+ *  of a HashMap of ModuleReportSummary objects. Each test occupies six ints, starting at the index
+ *  (test ordinal * 6): the grade and maximum achievable grade of the "Easy", "Normal", and "Hard"
+ *  difficulty levels, in that order. A grade less than 0 indicates that the difficulty level has not
+ *  been taken.
+ * A HashMap<ModuleSelectButtonInterface, ModuleReportSummary> copy of the report card may be obtained
+ *  via toHashMap(), for classes that display grades.
+ * NOTE: This class makes no warranty that a student's grade does not exceed the maximum achievable grade.
+ * @author Kenneth Chin
+ */
+public final class PackedReportCard {
+
+	static final int SUMMARY_INTS = 6; //The number of ints used by each test.
+
+	private final int gradeLevel; //The grade level who's tests this report card holds.
+	private final int[] grades;   //The packed grades. See the class details.
+
+	/**
+	 * Creates a report card for the specified gradeLevel, in which no test has been taken.
+	 * Throws an IndexOutOfBoundsException if gradeLevel is not 0, 1, or 2.
+	 * @param gradeLevel An int indicating the grade level of this report card. This value must be
+	 *  "0" for the PreK-K grades, "1" for the 1-2 grades, or "2" for the 3-4 grades.
+	 */
+	public PackedReportCard(int gradeLevel){
+		if(gradeLevel > 2 || gradeLevel < 0)
+			throw new IndexOutOfBoundsException("The gradeLevel \"" + gradeLevel + "\" does not exist.");
+		this.gradeLevel = gradeLevel;
+		this.grades     = new int[ReportCard.getTests(gradeLevel).length * SUMMARY_INTS];
+		Arrays.fill(grades, -1);
+	}
+
+	/**
+	 * A helper constructor used to wrap an already packed int array.
+	 * @param gradeLevel An int indicating the grade level of this report card.
+	 * @param grades The packed grades. The array is used, not copied.
+	 */
+	private PackedReportCard(int gradeLevel, int[] grades){
+		this.gradeLevel = gradeLevel;
+		this.grades     = grades;
+	}
+
+	/**
+	 * Used to create a report card from a packed int array, as returned by toArray().
+	 * @param gradeLevel An int indicating the grade level of the report card (0, 1, or 2).
+	 * @param grades The packed grades. The array is copied.
+	 * @return The new PackedReportCard.
+	 * @throws IllegalArgumentException Thrown if the array's length does not match the tests of the gradeLevel.
+	 */
+	static PackedReportCard fromArray(int gradeLevel, int[] grades){
+		if(gradeLevel > 2 || gradeLevel < 0)
+			throw new IndexOutOfBoundsException("The gradeLevel \"" + gradeLevel + "\" does not exist.");
+		if(grades.length != ReportCard.getTests(gradeLevel).length * SUMMARY_INTS)
+			throw new IllegalArgumentException("The grades do not match the tests of gradeLevel " + gradeLevel + ".");
+		return new PackedReportCard(gradeLevel, grades.clone());
+	}
+
+	/**
+	 * Used to create a report card from a HashMap report card. A test of the gradeLevel that is missing
+	 *  from the HashMap is treated as not taken. Keys that are not tests of the gradeLevel are ignored.
+	 * @param gradeLevel An int indicating the grade level of the report card (0, 1, or 2).
+	 * @param reportMap The HashMap report card to be packed. May be null.
+	 * @return The new PackedReportCard.
+	 */
+	public static PackedReportCard fromHashMap(int gradeLevel,
+			HashMap<ModuleSelectButtonInterface, ModuleReportSummary> reportMap){
+		PackedReportCard card = new PackedReportCard(gradeLevel);
+		if(reportMap == null)
+			return card;
+		for(ModuleSelectButtonInterface test: ReportCard.getTests(gradeLevel)){
+			ModuleReportSummary summary = reportMap.get(test);
+			if(summary == null)
+				continue;
+			int offset = test.getOrdinal() * SUMMARY_INTS;
+			card.grades[offset]     = summary.getEasyGrade();
+			card.grades[offset + 1] = summary.getEasyMax();
+			card.grades[offset + 2] = summary.getNormalGrade();
+			card.grades[offset + 3] = summary.getNormalMax();
+			card.grades[offset + 4] = summary.getHardGrade();
+			card.grades[offset + 5] = summary.getHardMax();
+		}
+		return card;
+	}
+
+	/**
+	 * Used to obtain the grade level of this report card.
+	 * @return An int indicating the grade level of this report card (0, 1, or 2).
+	 */
+	public int getGradeLevel(){
+		return gradeLevel;
+	}
+
+	/**
+	 * Used to obtain the number of tests held by this report card.
+	 * @return An int indicating the number of tests of this report card's grade level.
+	 */
+	public int getNumberOfTests(){
+		return grades.length / SUMMARY_INTS;
+	}
+
+	/**
+	 * Used to obtain the grade for the specified test & difficulty level.
+	 * @param test A ModuleSelectButtonInterface that describes the test who's grade is to be retrieved.
+	 * @param difficulty A DifficultyLevel object that describes the test's difficulty level.
+	 * @return An int indicating the grade for the specified "test" & "difficulty". Less than 0 if
+	 *  the test has not been taken.
+	 */
+	public int getGrade(ModuleSelectButtonInterface test, DifficultyLevel difficulty){
+		return grades[getIndex(test.getOrdinal(), difficulty)];
+	}
+
+	/**
+	 * Used to obtain the maximum achievable grade for the specified test & difficulty level.
+	 * @param test A ModuleSelectButtonInterface that describes the test.
+	 * @param difficulty A DifficultyLevel object that describes the test's difficulty level.
+	 * @return An int indicating the maximum achievable grade for the specified "test" & "difficulty".
+	 */
+	public int getMaxGrade(ModuleSelectButtonInterface test, DifficultyLevel difficulty){
+		return grades[getIndex(test.getOrdinal(), difficulty) + 1];
+	}
+
+	/**
+	 * Used to set the grade and maximum achievable grade for the specified test and difficulty level.
+	 * @param test A ModuleSelectButtonInterface that describes the test who's grades are to be changed.
+	 * @param grade An int describing the grade to be assigned to this test.
+	 * @param maxGrade An int describing the maximum achievable test grade for the specified test.
+	 * @param difficulty A DifficultyLevel object that describes the test's difficulty level who's grade
+	 *  is to be set.
+	 */
+	public void setGrade(ModuleSelectButtonInterface test, int grade, int maxGrade, DifficultyLevel difficulty){
+		int index = getIndex(test.getOrdinal(), difficulty);
+		grades[index]     = grade;
+		grades[index + 1] = maxGrade;
+	}
+
+	/**
+	 * A helper method used to obtain the index of a grade in the packed array.
+	 * @param ordinal An int indicating the ordinal of the test.
+	 * @param difficulty The DifficultyLevel of the grade.
+	 * @return An int indicating the index of the grade. The maximum achievable grade follows it.
+	 */
+	private int getIndex(int ordinal, DifficultyLevel difficulty){
+		return (ordinal * SUMMARY_INTS) + (difficulty.ordinal() * 2);
+	}
+
+	/**
+	 * Used to obtain a copy of this report card. Changing the copy does not change this report card.
+	 * @return A new PackedReportCard holding the same grades.
+	 */
+	public PackedReportCard copy(){
+		return new PackedReportCard(gradeLevel, grades.clone());
+	}
+
+	/**
+	 * Used to obtain a copy of the packed grades, in the layout described by the class details.
+	 * @return A copy of the packed int array.
+	 */
+	int[] toArray(){
+		return grades.clone();
+	}
+
+	/**
+	 * Used to obtain a ModuleReportSummary holding a copy of the grades of the specified test.
+	 * @param test A ModuleSelectButtonInterface that describes the test.
+	 * @return A new ModuleReportSummary holding the test's grades. Changing it does not change this report card.
+	 */
+	public ModuleReportSummary getSummary(ModuleSelectButtonInterface test){
+		int offset = test.getOrdinal() * SUMMARY_INTS;
+		return new ModuleReportSummary(grades[offset], grades[offset + 1], grades[offset + 2],
+				grades[offset + 3], grades[offset + 4], grades[offset + 5]);
+	}
+
+	/**
+	 * Used to obtain a HashMap copy of this report card, as returned by ReportCard.getHashMap(int).
+	 * @return A new HashMap<ModuleSelectButtonInterface, ModuleReportSummary> holding a copy of every
+	 *  test's grades. Changing it does not change this report card.
+	 */
+	public HashMap<ModuleSelectButtonInterface, ModuleReportSummary> toHashMap(){
+		HashMap<ModuleSelectButtonInterface, ModuleReportSummary> map
+				= new HashMap<ModuleSelectButtonInterface, ModuleReportSummary>();
+		for(ModuleSelectButtonInterface test: ReportCard.getTests(gradeLevel))
+			map.put(test, getSummary(test));
+		return map;
+	}
+}
@@ -0,0 +1,369 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashSet;
+
+import project.interfaces.PersistenceTarget;
+
+/**
+ * This class writes a database's changes to disk on a background thread, so that a slow disk never
+ *  blocks the Swing Event Dispatch Thread. Screens report a changed user with markDirty(String), which
+ *  returns at once. The background thread waits COALESCE_MILLIS after the first change of a burst, so
+ *  that every user changed during the burst is written by a single call to the PersistenceTarget, and
+ *  a user that is changed several times is written once.
+ * flush() is a barrier: it waits until every change reported before the call is on disk. It is used at
+ *  shutdown, or anywhere else that the changes must be on disk before continuing. It must not be called by
+ *  the background thread (ex. from the PersistenceTarget), since only that thread can write the changes.
+ * If the target fails, the users are kept, and are written again after RETRY_MILLIS.
+ * The flush latency (from the first change of a burst until the burst is on disk), the time spent writing,
+ *  and the queue depth (the number of changed users waiting to be written) are recorded. See getStatistics().
+ * @author Kenneth Chin
+ */
+public class PersistenceService {
+
+	public static final long COALESCE_MILLIS = 200;  //The time that a burst of changes is collected for.
+	public static final long RETRY_MILLIS    = 1000; //The time waited before a failed write is retried.
+
+	private final PersistenceTarget target; //Writes the changed users to disk.
+	private final Thread writer;            //The background thread that calls the target.
+	private final Object lock = new Object(); //Guards every field below.
+
+	private LinkedHashSet<String> dirtyUsers = new LinkedHashSet<String>(); //Users waiting to be written.
+	private long firstDirtyNanos = 0; //The time that the oldest waiting change was reported.
+	private long markedCount     = 0; //The number of changes reported so far.
+	private long persistedCount  = 0; //Every change up to this number is on disk.
+	private long failureCount    = 0; //The number of failed writes.
+	private IOException lastFailure = null; //The exception of the most recent failed write.
+	private boolean flushRequested = false; //Set while a thread waits in flush(); ends a burst early.
+	private boolean closed         = false; //Set by close(). No further changes are accepted.
+	private boolean stopped        = false; //Set when the background thread ends. Nothing more is written.
+
+	//Statistics
+	private long flushCount        = 0; //The number of successful writes.
+	private long usersWritten      = 0; //The number of users written, over all writes.
+	private int  maxQueueDepth     = 0; //The largest number of users that waited to be written at once.
+	private long totalLatencyNanos = 0; //The sum of every write's flush latency.
+	private long maxLatencyNanos   = 0; //The largest flush latency.
+	private long totalWriteNanos   = 0; //The sum of the time spent in the target, over all writes.
+
+	/**
+	 * Creates a PersistenceService and starts its background thread.
+	 * @param target The PersistenceTarget that writes changed users to disk.
+	 */
+	public PersistenceService(PersistenceTarget target){
+		this.target = target;
+		writer = new Thread(new Runnable() {
+			public void run(){
+				runWriter();
+			}
+		}, "Database Writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+
+/******************
+ * Public methods *
+ ******************/
+
+	/**
+	 * Used to report that a user has changed. The user is written by the background thread; this
+	 *  method does not wait.
+	 * @param userName The String that is used as the database's key for the changed user.
+	 * @throws IllegalStateException Thrown if this service has been closed.
+	 */
+	public void markDirty(String userName){
+		synchronized(lock){
+			if(closed)
+				throw new IllegalStateException("PersistenceService: The service has been closed.");
+			if(dirtyUsers.isEmpty())
+				firstDirtyNanos = System.nanoTime();
+			dirtyUsers.add(userName);
+			markedCount++;
+			maxQueueDepth = Math.max(maxQueueDepth, dirtyUsers.size());
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Used to wait until every change reported before this call has been written to disk. A burst that
+	 *  is being collected is written at once.
+	 * @throws IOException Thrown if a write fails while waiting, if the background thread has stopped, if
+	 *  this thread is interrupted, or if this thread is the background thread (which would wait for itself).
+	 */
+	public void flush() throws IOException{
+		checkNotWriter();
+		synchronized(lock){
+			long waitFor  = markedCount;
+			long failures = failureCount;
+			while(persistedCount < waitFor){
+				if(failureCount != failures)
+					throw new IOException("PersistenceService.flush(): The changes could not be written.", lastFailure);
+				if(stopped)
+					throw new IOException("PersistenceService.flush(): The writer stopped before the changes were written.",
+							lastFailure);
+				flushRequested = true;
+				lock.notifyAll();
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("PersistenceService.flush(): Interrupted while waiting.");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Used to write every reported change to disk, and stop the background thread. Further changes
+	 *  are not accepted.
+	 * @throws IOException Thrown if the changes could not be written, or if this thread is the background thread.
+	 */
+	public void close() throws IOException{
+		checkNotWriter();
+		try{
+			flush();
+		}finally{
+			synchronized(lock){
+				closed = true;
+				lock.notifyAll();
+			}
+		}
+	}
+
+
+	/**
+	 * A helper method used to refuse a call that waits for the background thread, when it is made by the
+	 *  background thread itself, rather than waiting forever.
+	 * @throws IOException Thrown if this thread is the background thread.
+	 */
+	private void checkNotWriter() throws IOException{
+		if(Thread.currentThread() == writer)
+			throw new IOException("PersistenceService: The writer thread can not wait for its own writes.");
+	}
+
+
+/*********************
+ * Background thread *
+ *********************/
+
+	/**
+	 * A helper method, run by the background thread, that writes every burst of changes, and then wakes
+	 *  any thread waiting in flush(), so that it does not wait for a thread that has ended.
+	 */
+	private void runWriter(){
+		try{
+			writeBatches();
+		}finally{
+			synchronized(lock){
+				stopped = true;
+				lock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * A helper method, run by the background thread, that writes each burst of changes until this
+	 *  service is closed, or the thread is interrupted.
+	 */
+	private void writeBatches(){
+		while(true){
+			LinkedHashSet<String> batch;
+			long batchCount;
+			long batchStartNanos;
+			synchronized(lock){
+				try {
+					if(!awaitBatch())
+						return;
+				} catch (InterruptedException e) {
+					return;
+				}
+				batch           = dirtyUsers;
+				batchCount      = markedCount;
+				batchStartNanos = firstDirtyNanos;
+				dirtyUsers      = new LinkedHashSet<String>();
+				flushRequested  = false;
+			}
+
+			long writeStart = System.nanoTime();
+			IOException failure = null;
+			try {
+				target.persist(batch);
+			} catch (IOException e) {
+				failure = e;
+			} catch (RuntimeException e) {
+				failure = new IOException("PersistenceService: The changes could not be written.", e);
+			}
+			long writeEnd = System.nanoTime();
+
+			if(failure == null)
+				recordSuccess(batch.size(), batchCount, batchStartNanos, writeStart, writeEnd);
+			else if(!recordFailure(batch, batchStartNanos, failure))
+				return;
+		}
+	}
+
+	/**
+	 * A helper method used to wait until there is a burst of changes to write, and the burst has
+	 *  been collected for COALESCE_MILLIS (or a flush has been requested). Must hold "lock".
+	 * @return A boolean indicating true if there are changes to write; false if this service has been
+	 *  closed and every change has been written.
+	 * @throws InterruptedException Thrown if the background thread is interrupted.
+	 */
+	private boolean awaitBatch() throws InterruptedException{
+		while(dirtyUsers.isEmpty()){
+			if(closed)
+				return false;
+			lock.wait();
+		}
+		long deadline = firstDirtyNanos + (COALESCE_MILLIS * 1000000L);
+		long remaining;
+		while(!flushRequested && !closed && (remaining = deadline - System.nanoTime()) > 0)
+			lock.wait(Math.max(1, remaining / 1000000L));
+		return true;
+	}
+
+	/**
+	 * A helper method used to record a successful write, and wake any thread waiting in flush().
+	 * @param users An int indicating the number of users that were written.
+	 * @param batchCount A long indicating the number of changes that had been reported when the batch was taken.
+	 * @param batchStartNanos A long indicating the time of the batch's first change.
+	 * @param writeStart A long indicating the time that the target was called.
+	 * @param writeEnd A long indicating the time that the target returned.
+	 */
+	private void recordSuccess(int users, long batchCount, long batchStartNanos, long writeStart, long writeEnd){
+		synchronized(lock){
+			long latency = writeEnd - batchStartNanos;
+			persistedCount     = batchCount;
+			flushCount++;
+			usersWritten      += users;
+			totalLatencyNanos += latency;
+			maxLatencyNanos    = Math.max(maxLatencyNanos, latency);
+			totalWriteNanos   += writeEnd - writeStart;
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * A helper method used to record a failed write. The batch's users are returned to the queue, the
+	 *  target is notified, and the background thread waits RETRY_MILLIS before writing again.
+	 * @param batch The users that could not be written.
+	 * @param batchStartNanos A long indicating the time of the batch's first change.
+	 * @param failure The IOException that caused the failure.
+	 * @return A boolean indicating true if the background thread should continue; false if this service
+	 *  has been closed.
+	 */
+	private boolean recordFailure(LinkedHashSet<String> batch, long batchStartNanos, IOException failure){
+		synchronized(lock){
+			failureCount++;
+			lastFailure = failure;
+			if(dirtyUsers.isEmpty())
+				firstDirtyNanos = batchStartNanos;
+			batch.addAll(dirtyUsers);
+			dirtyUsers = batch;
+			lock.notifyAll();
+		}
+		target.persistFailed(failure);
+		synchronized(lock){
+			try {
+				long deadline = System.nanoTime() + (RETRY_MILLIS * 1000000L);
+				long remaining;
+				while(!closed && (remaining = deadline - System.nanoTime()) > 0)
+					lock.wait(Math.max(1, remaining / 1000000L));
+			} catch (InterruptedException e) {
+				return false;
+			}
+			return !closed;
+		}
+	}
+
+
+/**************
+ * Statistics *
+ **************/
+
+	/**
+	 * Used to obtain the number of changed users that are waiting to be written.
+	 * @return An int indicating the current queue depth.
+	 */
+	public int getQueueDepth(){
+		synchronized(lock){
+			return dirtyUsers.size();
+		}
+	}
+
+	/**
+	 * Used to obtain the largest number of changed users that have waited to be written at once.
+	 * @return An int indicating the largest queue depth.
+	 */
+	public int getMaxQueueDepth(){
+		synchronized(lock){
+			return maxQueueDepth;
+		}
+	}
+
+	/**
+	 * Used to obtain the number of successful writes. Each write may hold many changes.
+	 * @return A long indicating the number of successful writes.
+	 */
+	public long getFlushCount(){
+		synchronized(lock){
+			return flushCount;
+		}
+	}
+
+	/**
+	 * Used to obtain the average flush latency: the time from the first change of a burst until the
+	 *  burst was on disk.
+	 * @return A double indicating the average flush latency, in milliseconds. 0 if nothing has been written.
+	 */
+	public double getAverageLatencyMillis(){
+		synchronized(lock){
+			return (flushCount == 0) ? 0 : totalLatencyNanos / (flushCount * 1e6);
+		}
+	}
+
+	/**
+	 * Used to obtain the largest flush latency.
+	 * @return A double indicating the largest flush latency, in milliseconds.
+	 */
+	public double getMaxLatencyMillis(){
+		synchronized(lock){
+			return maxLatencyNanos / 1e6;
+		}
+	}
+
+	/**
+	 * Used to obtain a one line summary of this service's statistics.
+	 * @return A String describing the number of changes & writes, the queue depth, the flush latency,
+	 *  and the time spent writing.
+	 */
+	public String getStatistics(){
+		synchronized(lock){
+			double averageWrite = (flushCount == 0) ? 0 : totalWriteNanos / (flushCount * 1e6);
+			return String.format("changes: %d, writes: %d (%d users), failed writes: %d, queue depth: %d (max %d), "
+					+ "flush latency: %.1f ms avg, %.1f ms max, write time: %.1f ms avg",
+					markedCount, flushCount, usersWritten, failureCount, dirtyUsers.size(), maxQueueDepth,
+					getAverageLatencyMillis(), getMaxLatencyMillis(), averageWrite);
+		}
+	}
+}
@@ -73,6 +73,18 @@ public final class ReportCard {
 		return map;
 	}
 	
+	/**
+	 * Used to obtain a new PackedReportCard for the selected gradeLevel. The PackedReportCard holds
+	 *  the same grades as the HashMap returned by getHashMap(int), in a single int array.
+	 * Throws an IndexOutOfBoundsException if gradeLevel is not 0, 1, or 2.
+	 * @param gradeLevel An int indicating the grade level for this report card. This value must be
+	 *  "0" for the PreK-K grades, "1" for the 1-2 grades, or "2" for the 3-4 grades.
+	 * @return A newly initialized PackedReportCard, in which no test has been taken.
+	 */
+	public static PackedReportCard getPackedReportCard(int gradeLevel){
+		return new PackedReportCard(gradeLevel);
+	}
+	
 	/**
 	 * A helper method used to determine which set of ModuleSelectButtonInterface objects
 	 *  define the tests for the specified gradeLevel.
@@ -82,7 +94,7 @@ public final class ReportCard {
 	 * @return An array of ModuleSelectButtonInterface objects who's elements are defined
 	 *  by the gradeLevel's EnumeratedButtonInterface's ModuleSelectButtonInterface enum.
 	 */
-	private static ModuleSelectButtonInterface[] getTests(int gradeLevel){
+	static ModuleSelectButtonInterface[] getTests(int gradeLevel){
 		switch(gradeLevel){
 			case 0:  return PreKModuleSelectTestButtons.Button.values();
 			case 1:  return Grade1ModuleSelectTestButtons.Button.values();
@@ -122,6 +134,23 @@ public final class ReportCard {
 		return reportMap;
 	}
 	
+	/**
+	 * Used to set the grade and maximum achievable grade for the specified test and difficulty level.
+	 * @param reportCard A PackedReportCard who's grades are to be changed.
+	 * @param test A ModuleSelectButtonInterface that describes the test who's grades are to be changed.
+	 * @param grade An int describing the grade to be assigned to this test.
+	 * @param maxGrade An int describing the maximum achievable test grade for the specified test.
+	 * @param difficulty A DifficultyLevel object that describes the test's difficulty level who's grade
+	 *  is to be set.
+	 * @return The PackedReportCard, who's grades for the specified "test" & "difficulty" have been modified
+	 *  to reflect "grade" and "maxGrade".
+	 */
+	public static PackedReportCard setGrade(PackedReportCard reportCard, ModuleSelectButtonInterface test,
+			int grade, int maxGrade, DifficultyLevel difficulty){
+		reportCard.setGrade(test, grade, maxGrade, difficulty);
+		return reportCard;
+	}
+	
 	/**
 	 * Used to obtain the grade for the specified test & difficulty level.
 	 * @param reportMap A HashMap<ModuleSelectButtonInterface, ModuleReportSummary> who's
@@ -144,4 +173,17 @@ public final class ReportCard {
 		else
 			return -1;
 	}
+	
+	/**
+	 * Used to obtain the grade for the specified test & difficulty level.
+	 * @param reportCard A PackedReportCard holding a student's grades.
+	 * @param test A ModuleSelectButtonInterface that describes the test who's grades are to be retrieved.
+	 * @param difficulty A DifficultyLevel object that describes the test's difficulty level who's grade
+	 *  is to be retrieved.
+	 * @return An int indicating the grade for the specified "test" & "difficulty".
+	 */
+	public static int getGrade(PackedReportCard reportCard, ModuleSelectButtonInterface test,
+			DifficultyLevel difficulty){
+		return reportCard.getGrade(test, difficulty);
+	}
 }
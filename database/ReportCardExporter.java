@@ -0,0 +1,401 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import project.constants.DifficultyLevel;
+import project.interfaces.ModuleSelectButtonInterface;
+
+/**
+ * This class exports the report cards of every user in a UserDatabase, as one row per (student, module,
+ *  difficulty level). Rows are written as CSV (with a header row) or as JSON Lines:
+ *  userName, firstName, lastName, gradeLevel, module, difficulty, grade, maxGrade
+ *  A difficulty level that has not been taken has an empty (CSV) or null (JSON) grade and maxGrade.
+ * Users are exported in username order. Each user is read, written, and released in turn; users that
+ *  are stored in per-user record files are not kept loaded. Rows are encoded into a single buffer that is
+ *  written to an NIO channel whenever it fills, so memory does not grow with the number of users (beyond
+ *  the list of usernames).
+ * exportShards(File, String, int) splits the users into shards, and writes each shard to its own file
+ *  on its own thread.
+ * @author Kenneth Chin
+ */
+public class ReportCardExporter {
+
+	/**
+	 * The formats that rows can be written in.
+	 */
+	public enum Format{
+		CSV(".csv"),
+		JSONL(".jsonl");
+
+		private String suffix;
+
+		private Format(String suffix){
+			this.suffix = suffix;
+		}
+
+		/**
+		 * Used to obtain the file name suffix of this format.
+		 * @return A String holding the file name suffix, including the ".".
+		 */
+		public String getSuffix(){
+			return suffix;
+		}
+	}
+
+	private static final String CSV_HEADER  = "userName,firstName,lastName,gradeLevel,module,difficulty,grade,maxGrade\n";
+	private static final int    BUFFER_SIZE = 64 * 1024; //The size, in bytes, of each channel buffer.
+
+	private final UserDatabase database; //The database that is exported.
+	private final Format format;         //The format that rows are written in.
+
+	/**
+	 * Creates a ReportCardExporter.
+	 * @param database The UserDatabase to be exported.
+	 * @param format The Format that rows are written in.
+	 */
+	public ReportCardExporter(UserDatabase database, Format format){
+		this.database = database;
+		this.format   = format;
+	}
+
+
+/******************
+ * Export methods *
+ ******************/
+
+	/**
+	 * Used to export every user to the specified channel. The channel is not closed.
+	 * @param channel The WritableByteChannel that rows are written to.
+	 * @return A long indicating the number of rows written, not counting the CSV header.
+	 * @throws IOException Thrown if a user can not be read, or the channel can not be written to.
+	 */
+	public long export(WritableByteChannel channel) throws IOException{
+		DatabaseSnapshot snapshot = database.openSnapshot();
+		try{
+			List<String> userNames = getSortedUserNames();
+			return exportUsers(snapshot, userNames, 0, userNames.size(), channel);
+		}finally{
+			snapshot.close();
+		}
+	}
+
+	/**
+	 * Used to export every user to the specified file. The file is replaced if it exists.
+	 * @param file The File that rows are written to.
+	 * @return A long indicating the number of rows written, not counting the CSV header.
+	 * @throws IOException Thrown if a user can not be read, or the file can not be written.
+	 */
+	public long export(File file) throws IOException{
+		FileOutputStream out = new FileOutputStream(file);
+		try{
+			return export(out.getChannel());
+		}finally{
+			out.close();
+		}
+	}
+
+	/**
+	 * Used to export every user, split into the specified number of shards. Each shard holds a contiguous
+	 *  range of usernames, and is written on its own thread to the file "baseName"-"shard number"."suffix"
+	 *  in the specified directory.
+	 * @param directory The File of the directory that the shard files are written to.
+	 * @param baseName A String that each shard file's name starts with.
+	 * @param shards An int indicating the number of shards.
+	 * @return A long indicating the number of rows written, over all shards, not counting CSV headers.
+	 * @throws IOException Thrown if a user can not be read, or a shard file can not be written.
+	 */
+	public long exportShards(File directory, String baseName, int shards) throws IOException{
+		final DatabaseSnapshot snapshot = database.openSnapshot();
+		final List<String> userNames = getSortedUserNames();
+		shards = Math.max(1, Math.min(shards, userNames.size()));
+		ExecutorService pool = Executors.newFixedThreadPool(shards);
+		List<Future<Long>> results = new ArrayList<Future<Long>>();
+		try{
+			for(int shard = 0; shard < shards; shard++){
+				final int from  = (int)((long)userNames.size() * shard / shards);
+				final int to    = (int)((long)userNames.size() * (shard + 1) / shards);
+				final File file = new File(directory, baseName + "-" + shard + format.getSuffix());
+				results.add(pool.submit(new Callable<Long>() {
+					public Long call() throws IOException{
+						FileChannel channel = new FileOutputStream(file).getChannel();
+						try{
+							return exportUsers(snapshot, userNames, from, to, channel);
+						}finally{
+							channel.close();
+						}
+					}
+				}));
+			}
+			long rows = 0;
+			for(Future<Long> result: results)
+				rows += await(result);
+			return rows;
+		}finally{
+			pool.shutdownNow();
+			snapshot.close();
+		}
+	}
+
+	/**
+	 * A helper method used to wait for a shard to be written.
+	 * @param result The Future of the shard.
+	 * @return A long indicating the number of rows written to the shard.
+	 * @throws IOException Thrown if the shard could not be written, or the thread was interrupted.
+	 */
+	private static long await(Future<Long> result) throws IOException{
+		try {
+			return result.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("ReportCardExporter: Interrupted while exporting.", e);
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof IOException)
+				throw (IOException)e.getCause();
+			throw new IOException("ReportCardExporter: A shard could not be written.", e.getCause());
+		}
+	}
+
+	/**
+	 * A helper method used to obtain every username, in order.
+	 * @return A sorted List of every username.
+	 */
+	private List<String> getSortedUserNames(){
+		List<String> userNames = new ArrayList<String>(database.getUserNames());
+		Collections.sort(userNames);
+		return userNames;
+	}
+
+	/**
+	 * A helper method used to write the rows of a range of users to a channel. Every user is read as they
+	 *  were when the snapshot was opened, so the export is consistent while students keep taking tests.
+	 * @param snapshot The DatabaseSnapshot that users are read from.
+	 * @param userNames The sorted List of every username.
+	 * @param from An int indicating the index of the first user (inclusive).
+	 * @param to An int indicating the index of the last user (exclusive).
+	 * @param channel The WritableByteChannel that rows are written to.
+	 * @return A long indicating the number of rows written, not counting the CSV header.
+	 * @throws IOException Thrown if a user can not be read, or the channel can not be written to.
+	 */
+	private long exportUsers(DatabaseSnapshot snapshot, List<String> userNames, int from, int to,
+			WritableByteChannel channel) throws IOException{
+		ChannelWriter out = new ChannelWriter(channel);
+		StringBuilder row = new StringBuilder(256);
+		DifficultyLevel[] levels = DifficultyLevel.values();
+		long rows = 0;
+		if(format == Format.CSV)
+			out.write(CSV_HEADER);
+		for(int i = from; i < to; i++){
+			String userName = userNames.get(i);
+			UserVersion state = snapshot.readState(userName);
+			if(state == null)
+				continue; //Added since the snapshot was opened.
+			PackedReportCard reportCard = state.reportCard;
+			if(reportCard == null)
+				continue;
+			for(ModuleSelectButtonInterface test: ReportCard.getTests(reportCard.getGradeLevel())){
+				for(DifficultyLevel level: levels){
+					row.setLength(0);
+					int grade    = reportCard.getGrade(test, level);
+					int maxGrade = reportCard.getMaxGrade(test, level);
+					if(format == Format.CSV)
+						appendCsvRow(row, userName, state, test, level, grade, maxGrade);
+					else
+						appendJsonRow(row, userName, state, test, level, grade, maxGrade);
+					out.write(row);
+					rows++;
+				}
+			}
+		}
+		out.flush();
+		return rows;
+	}
+
+
+/***************
+ * Row methods *
+ ***************/
+
+	/**
+	 * A helper method used to append a CSV row.
+	 * @param row The StringBuilder that the row is appended to.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @param state The user's UserVersion.
+	 * @param test The ModuleSelectButtonInterface of the row's module.
+	 * @param level The DifficultyLevel of the row.
+	 * @param grade An int indicating the grade. Less than 0 if the test has not been taken.
+	 * @param maxGrade An int indicating the maximum achievable grade.
+	 */
+	private static void appendCsvRow(StringBuilder row, String userName, UserVersion state,
+			ModuleSelectButtonInterface test, DifficultyLevel level, int grade, int maxGrade){
+		appendCsvField(row, userName).append(',');
+		appendCsvField(row, state.firstName).append(',');
+		appendCsvField(row, state.lastName).append(',');
+		row.append(state.gradeLevel).append(',');
+		appendCsvField(row, test.getName()).append(',');
+		row.append(level.getName()).append(',');
+		if(grade >= 0)
+			row.append(grade).append(',').append(maxGrade);
+		else
+			row.append(',');
+		row.append('\n');
+	}
+
+	/**
+	 * A helper method used to append a CSV field, quoting it if it holds a comma, quote, or line break.
+	 * @param row The StringBuilder that the field is appended to.
+	 * @param field The String field. null is written as an empty field.
+	 * @return The StringBuilder.
+	 */
+	private static StringBuilder appendCsvField(StringBuilder row, String field){
+		if(field == null)
+			return row;
+		if(field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0)
+			return row.append(field);
+		return row.append('"').append(field.replace("\"", "\"\"")).append('"');
+	}
+
+	/**
+	 * A helper method used to append a JSON Lines row.
+	 * @param row The StringBuilder that the row is appended to.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @param state The user's UserVersion.
+	 * @param test The ModuleSelectButtonInterface of the row's module.
+	 * @param level The DifficultyLevel of the row.
+	 * @param grade An int indicating the grade. Less than 0 if the test has not been taken.
+	 * @param maxGrade An int indicating the maximum achievable grade.
+	 */
+	private static void appendJsonRow(StringBuilder row, String userName, UserVersion state,
+			ModuleSelectButtonInterface test, DifficultyLevel level, int grade, int maxGrade){
+		row.append("{\"userName\":");
+		appendJsonString(row, userName);
+		row.append(",\"firstName\":");
+		appendJsonString(row, state.firstName);
+		row.append(",\"lastName\":");
+		appendJsonString(row, state.lastName);
+		row.append(",\"gradeLevel\":").append(state.gradeLevel);
+		row.append(",\"module\":");
+		appendJsonString(row, test.getName());
+		row.append(",\"difficulty\":");
+		appendJsonString(row, level.getName());
+		if(grade >= 0)
+			row.append(",\"grade\":").append(grade).append(",\"maxGrade\":").append(maxGrade);
+		else
+			row.append(",\"grade\":null,\"maxGrade\":null");
+		row.append("}\n");
+	}
+
+	/**
+	 * A helper method used to append a JSON string, escaping quotes, backslashes & control characters.
+	 * @param row The StringBuilder that the string is appended to.
+	 * @param text The String to be appended. null is written as null.
+	 */
+	private static void appendJsonString(StringBuilder row, String text){
+		if(text == null){
+			row.append("null");
+			return;
+		}
+		row.append('"');
+		for(int i = 0; i < text.length(); i++){
+			char c = text.charAt(i);
+			if(c == '"' || c == '\\')
+				row.append('\\').append(c);
+			else if(c < 0x20)
+				row.append(String.format("\\u%04x", (int)c));
+			else
+				row.append(c);
+		}
+		row.append('"');
+	}
+
+
+/*****************
+ * ChannelWriter *
+ *****************/
+
+	/**
+	 * Encodes text as UTF-8 into a single direct buffer, which is written to a channel whenever it fills.
+	 */
+	private static final class ChannelWriter{
+		private final WritableByteChannel channel;
+		private final CharsetEncoder encoder = Charset.forName("UTF-8").newEncoder();
+		private final ByteBuffer buffer      = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+		ChannelWriter(WritableByteChannel channel){
+			this.channel = channel;
+		}
+
+		/**
+		 * Used to encode text into the buffer, writing the buffer to the channel as it fills.
+		 * @param text The CharSequence to be written.
+		 * @throws IOException Thrown if the channel can not be written to.
+		 */
+		void write(CharSequence text) throws IOException{
+			CharBuffer chars = CharBuffer.wrap(text);
+			while(true){
+				CoderResult result = encoder.encode(chars, buffer, false);
+				if(result.isUnderflow())
+					return;
+				if(result.isOverflow())
+					drain();
+				else
+					result.throwException();
+			}
+		}
+
+		/**
+		 * Used to write everything that remains in the buffer to the channel.
+		 * @throws IOException Thrown if the channel can not be written to.
+		 */
+		void flush() throws IOException{
+			encoder.encode(CharBuffer.allocate(0), buffer, true);
+			encoder.flush(buffer);
+			drain();
+		}
+
+		/**
+		 * A helper method used to write the buffer to the channel, and empty it.
+		 * @throws IOException Thrown if the channel can not be written to.
+		 */
+		private void drain() throws IOException{
+			buffer.flip();
+			while(buffer.hasRemaining())
+				channel.write(buffer);
+			buffer.clear();
+		}
+	}
+}
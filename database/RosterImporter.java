@@ -0,0 +1,322 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class imports a roster of students from CSV into a UserDatabase. Each row is:
+ *  userName,password,firstName,lastName,gradeLevel
+ *  where gradeLevel is 0 (PreK-K), 1 (Grades 1-2), or 2 (Grades 3-4). A first row starting with
+ *  "userName" is treated as a header and skipped. A byte order mark before the first row is ignored.
+ *  Fields may be quoted ("Smith, Jr."), with "" standing for a quote inside a quoted field.
+ * The file is streamed in batches of BATCH_SIZE rows. Each batch is validated, and its users' entries
+ *  and empty report cards built, on a pool of threads. Batches are then added to the database in file
+ *  order. At most (2 * threads) batches are held at once, so memory does not grow with the file's size.
+ * Rows that are not valid, or whose userName already exists, are skipped and described by getErrors().
+ *  Nothing is written to disk; once the import is done, the caller writes the database (or the users
+ *  in getImportedUsers()) in a single pass.
+ * @author Kenneth Chin
+ */
+public class RosterImporter {
+
+	public static final int BATCH_SIZE = 2000; //The number of rows in each batch.
+	public static final int MAX_ERRORS = 100;  //The number of rejected rows that are described.
+
+	private static final String HEADER_FIELD = "userName"; //The first field of a header row.
+	private static final char BYTE_ORDER_MARK = '\uFEFF';  //Begins files saved as "UTF-8 with BOM" (ex. by Excel).
+	private static final int FIELDS = 5; //The number of fields in each row.
+
+	private final UserDatabase database; //The database that users are imported into.
+	private final int threads;           //The number of threads that batches are prepared on.
+
+	private LinkedHashSet<String> imported = new LinkedHashSet<String>(); //The imported usernames.
+	private List<String> errors = new ArrayList<String>(); //Descriptions of the first MAX_ERRORS rejected rows.
+	private int rejected = 0; //The number of rejected rows.
+
+	/**
+	 * Creates a RosterImporter that prepares batches on one thread per processor.
+	 * @param database The UserDatabase that users are imported into.
+	 */
+	public RosterImporter(UserDatabase database){
+		this(database, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a RosterImporter.
+	 * @param database The UserDatabase that users are imported into.
+	 * @param threads An int indicating the number of threads that batches are prepared on.
+	 */
+	public RosterImporter(UserDatabase database, int threads){
+		this.database = database;
+		this.threads  = Math.max(1, threads);
+	}
+
+
+/******************
+ * Import methods *
+ ******************/
+
+	/**
+	 * Used to import every valid row of a CSV roster. The reader is read to its end, but not closed.
+	 * @param reader The Reader that the roster is read from.
+	 * @return An int indicating the number of users that were imported.
+	 * @throws IOException Thrown if the roster can not be read.
+	 */
+	public int importRoster(Reader reader) throws IOException{
+		imported = new LinkedHashSet<String>();
+		errors   = new ArrayList<String>();
+		rejected = 0;
+		BufferedReader in = new BufferedReader(reader, 64 * 1024);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		ArrayDeque<Future<Batch>> pending = new ArrayDeque<Future<Batch>>();
+		try{
+			int lineNumber = 0;
+			boolean done   = false;
+			while(!done){
+				final int firstLine = lineNumber + 1;
+				final List<String> lines = new ArrayList<String>(BATCH_SIZE);
+				String line;
+				while(lines.size() < BATCH_SIZE && (line = in.readLine()) != null){
+					lineNumber++;
+					if(lineNumber == 1 && !line.isEmpty() && line.charAt(0) == BYTE_ORDER_MARK)
+						line = line.substring(1);
+					lines.add(line);
+				}
+				done = lines.size() < BATCH_SIZE;
+				if(!lines.isEmpty()){
+					pending.add(pool.submit(new Callable<Batch>() {
+						public Batch call(){
+							return prepareBatch(lines, firstLine);
+						}
+					}));
+				}
+				while(pending.size() >= 2 * threads || (done && !pending.isEmpty()))
+					commitBatch(await(pending.poll()));
+			}
+		}finally{
+			pool.shutdownNow();
+		}
+		return imported.size();
+	}
+
+	/**
+	 * A helper method used to wait for a prepared batch.
+	 * @param future The Future of the batch.
+	 * @return The prepared Batch.
+	 * @throws IOException Thrown if the batch could not be prepared, or the thread was interrupted.
+	 */
+	private static Batch await(Future<Batch> future) throws IOException{
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("RosterImporter: Interrupted while importing.", e);
+		} catch (ExecutionException e) {
+			throw new IOException("RosterImporter: A batch could not be prepared.", e.getCause());
+		}
+	}
+
+	/**
+	 * A helper method, run on the pool's threads, used to validate a batch of rows and build their entries.
+	 * @param lines The rows of the batch.
+	 * @param firstLine An int indicating the line number of the first row.
+	 * @return The prepared Batch.
+	 */
+	private static Batch prepareBatch(List<String> lines, int firstLine){
+		Batch batch = new Batch(lines.size());
+		for(int i = 0; i < lines.size(); i++){
+			int lineNumber = firstLine + i;
+			String line = lines.get(i);
+			if(line.trim().isEmpty())
+				continue;
+			List<String> fields = parseRow(line);
+			if(lineNumber == 1 && HEADER_FIELD.equalsIgnoreCase(fields.get(0)))
+				continue;
+			String error = validate(fields);
+			if(error != null){
+				batch.errors.add("Line " + lineNumber + ": " + error);
+				continue;
+			}
+			int gradeLevel  = Integer.parseInt(fields.get(4));
+			UserEntry entry = new UserEntry();
+			entry.setPassword(fields.get(1));
+			entry.setFirstName(fields.get(2));
+			entry.setLastName(fields.get(3));
+			entry.setGradeLevel(gradeLevel);
+			entry.setLastActiveTest(1);
+			entry.setPackedReportCard(ReportCard.getPackedReportCard(gradeLevel));
+			batch.userNames.add(fields.get(0));
+			batch.entries.add(entry);
+			batch.lineNumbers.add(lineNumber);
+		}
+		return batch;
+	}
+
+	/**
+	 * A helper method used to validate the fields of a row.
+	 * @param fields The parsed fields of the row.
+	 * @return A String describing the problem with the row, or null if the row is valid.
+	 */
+	private static String validate(List<String> fields){
+		if(fields.size() != FIELDS)
+			return "Expected " + FIELDS + " fields, found " + fields.size() + ".";
+		String[] names = {"userName", "password", "firstName", "lastName"};
+		for(int i = 0; i < names.length; i++){
+			if(fields.get(i).isEmpty())
+				return "The " + names[i] + " is empty.";
+		}
+		String gradeLevel = fields.get(4);
+		if(!gradeLevel.equals("0") && !gradeLevel.equals("1") && !gradeLevel.equals("2"))
+			return "The gradeLevel \"" + gradeLevel + "\" is not 0, 1, or 2.";
+		return null;
+	}
+
+	/**
+	 * A helper method used to add a prepared batch to the database, in file order. A userName that is
+	 *  already in the database, or earlier in the roster, is rejected.
+	 * @param batch The prepared Batch.
+	 */
+	private void commitBatch(Batch batch){
+		for(String error: batch.errors)
+			reject(error);
+		List<String>    userNames = new ArrayList<String>(batch.userNames.size());
+		List<UserEntry> entries   = new ArrayList<UserEntry>(batch.entries.size());
+		for(int i = 0; i < batch.userNames.size(); i++){
+			String userName = batch.userNames.get(i);
+			if(imported.contains(userName) || database.containsUser(userName)){
+				reject("Line " + batch.lineNumbers.get(i) + ": The userName \"" + userName + "\" already exists.");
+				continue;
+			}
+			imported.add(userName);
+			userNames.add(userName);
+			entries.add(batch.entries.get(i));
+		}
+		database.addEntries(userNames, entries);
+	}
+
+	/**
+	 * A helper method used to record a rejected row.
+	 * @param error A String describing the rejected row.
+	 */
+	private void reject(String error){
+		rejected++;
+		if(errors.size() < MAX_ERRORS)
+			errors.add(error);
+	}
+
+	/**
+	 * Used to split a CSV row into its fields. Unquoted fields are trimmed.
+	 * @param line The String holding the row.
+	 * @return A List of the row's fields.
+	 */
+	static List<String> parseRow(String line){
+		List<String> fields = new ArrayList<String>(FIELDS);
+		StringBuilder field = new StringBuilder();
+		boolean quoted   = false; //Inside a quoted field.
+		boolean wasQuoted = false; //The current field was quoted.
+		for(int i = 0; i < line.length(); i++){
+			char c = line.charAt(i);
+			if(quoted){
+				if(c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"'){
+					field.append('"');
+					i++;
+				}else if(c == '"'){
+					quoted = false;
+				}else{
+					field.append(c);
+				}
+			}else if(c == '"'){
+				quoted    = true;
+				wasQuoted = true;
+			}else if(c == ','){
+				fields.add(wasQuoted ? field.toString() : field.toString().trim());
+				field.setLength(0);
+				wasQuoted = false;
+			}else{
+				field.append(c);
+			}
+		}
+		fields.add(wasQuoted ? field.toString() : field.toString().trim());
+		return fields;
+	}
+
+
+/******************
+ * Result methods *
+ ******************/
+
+	/**
+	 * Used to obtain the usernames imported by the last import, in file order.
+	 * @return An unmodifiable Set of the imported usernames.
+	 */
+	public Set<String> getImportedUsers(){
+		return Collections.unmodifiableSet(imported);
+	}
+
+	/**
+	 * Used to obtain the number of rows rejected by the last import.
+	 * @return An int indicating the number of rejected rows.
+	 */
+	public int getRejectedCount(){
+		return rejected;
+	}
+
+	/**
+	 * Used to obtain descriptions of the first MAX_ERRORS rows rejected by the last import.
+	 * @return A List of Strings, each describing a rejected row and its line number.
+	 */
+	public List<String> getErrors(){
+		return Collections.unmodifiableList(errors);
+	}
+
+
+/*********
+ * Batch *
+ *********/
+
+	/**
+	 * The validated users & errors of a batch of rows.
+	 */
+	private static class Batch{
+		final List<String>    userNames;
+		final List<UserEntry> entries;
+		final List<Integer>   lineNumbers;
+		final List<String>    errors = new ArrayList<String>();
+
+		Batch(int size){
+			userNames   = new ArrayList<String>(size);
+			entries     = new ArrayList<UserEntry>(size);
+			lineNumbers = new ArrayList<Integer>(size);
+		}
+	}
+}
@@ -0,0 +1,463 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.io.UTFDataFormatException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * This class stores each user of a UserDatabase in a record file of their own, along with a small
+ *  index file that maps each username to its record file. Only the index is read when the store is
+ *  opened. A user's record is read only when that user is requested, so the time and memory needed
+ *  to open the store do not grow with the number of users' report cards.
+ * The index file is append-only. Each entry is [UTF username][int record number], and the record
+ *  of a user is stored in the file "record number".usr. An entry that was cut short by a crash is
+ *  removed when the store is opened, so that new entries follow the last complete entry. A record is replaced by writing a new file
+ *  and renaming it over the old one, so a failed write never leaves a partial record behind.
+ * Many records are written as one step by saveUsers(Map): every new record is first written to
+ *  BATCH_FILE_NAME, which is deleted once each record has been replaced. A batch file left by a crash is
+ *  written again when the store is opened, so every record of a batch holds its new state, or none does.
+ * The class-wide grade aggregates of every record may be kept in AGGREGATES_FILE_NAME, so that they need
+ *  not be counted again when the store is opened. The file is deleted once it is read, and written again
+ *  when every change has been written, so aggregates left by a crash are never read.
+ * Records are written in the DatabaseCodec entry format. Records written by earlier versions, using
+ *  Java serialization, are still read.
+ * @author Kenneth Chin
+ */
+public class ShardedUserStore {
+
+	private static final String INDEX_FILE_NAME = "index.dat"; //The name of the username index file.
+	private static final String RECORD_SUFFIX   = ".usr";      //The file name suffix of a user's record.
+	private static final String AGGREGATES_FILE_NAME = "aggregates.agg"; //The name of the grade aggregates file.
+	private static final String BATCH_FILE_NAME = "batch.dat"; //The name of the file holding a batch being written.
+	private static final int BATCH_MAGIC = 0x4D484254;         //"MHBT". Identifies a batch file.
+
+	private File directory; //The directory holding the index & all record files.
+	private HashMap<String, Integer> index = new HashMap<String, Integer>(); //username -> record number.
+	private int nextRecordNumber = 1; //The record number that the next new user will receive.
+
+	private FileOutputStream indexFileOut; //The index file's stream. Used to force entries to disk.
+	private DataOutputStream indexOut;     //The buffered stream that index entries are appended to.
+
+	/**
+	 * Opens the store in the specified directory, creating the directory and index if they do not
+	 *  exist. Only the index is read.
+	 * @param directoryPath A String describing the path of the directory that holds the store.
+	 * @throws IOException Thrown if the directory can not be created, or the index can not be read.
+	 */
+	public ShardedUserStore(String directoryPath) throws IOException{
+		directory = new File(directoryPath);
+		if(!directory.exists() && !directory.mkdirs())
+			throw new IOException("ShardedUserStore: Could not create the directory " + directory + ".");
+		File indexFile = new File(directory, INDEX_FILE_NAME);
+		if(indexFile.exists())
+			truncateIndex(indexFile, readIndex(indexFile));
+		indexFileOut = new FileOutputStream(indexFile, true);
+		indexOut     = new DataOutputStream(new BufferedOutputStream(indexFileOut));
+		replayBatch();
+	}
+
+	/**
+	 * Used to check if a store exists in the specified directory.
+	 * @param directoryPath A String describing the path of the directory that may hold a store.
+	 * @return A boolean indicating true if the directory holds a store's index file; false otherwise.
+	 */
+	public static boolean exists(String directoryPath){
+		return new File(directoryPath, INDEX_FILE_NAME).exists();
+	}
+
+	/**
+	 * A helper method used to read every entry of the index file. An entry that was cut short
+	 *  (ex. by a crash), or whose username is not valid UTF, ends the index; its user's record was never
+	 *  completed.
+	 * @param indexFile The File holding the index.
+	 * @return A long indicating the length of the index's complete entries. Any bytes after them are the
+	 *  remains of an entry that was cut short.
+	 * @throws IOException Thrown if the index file can not be read.
+	 */
+	private long readIndex(File indexFile) throws IOException{
+		byte[] bytes = Files.readAllBytes(indexFile.toPath());
+		ByteArrayInputStream byteIn = new ByteArrayInputStream(bytes);
+		DataInputStream in = new DataInputStream(byteIn);
+		long completeLength = 0;
+		try{
+			while(byteIn.available() > 0){
+				String userName = in.readUTF();
+				int recordNumber = in.readInt();
+				index.put(userName, recordNumber);
+				nextRecordNumber = Math.max(nextRecordNumber, recordNumber + 1);
+				completeLength = bytes.length - byteIn.available();
+			}
+		}catch(EOFException e){
+			//An entry that was cut short.
+		}catch(UTFDataFormatException e){
+			//The username of an entry that was cut short.
+		}
+		return completeLength;
+	}
+
+	/**
+	 * A helper method used to remove the remains of an entry that was cut short from the end of the
+	 *  index file, so that new entries are appended directly after the last complete entry.
+	 * @param indexFile The File holding the index.
+	 * @param completeLength A long indicating the length of the index's complete entries.
+	 * @throws IOException Thrown if the index file can not be truncated.
+	 */
+	private static void truncateIndex(File indexFile, long completeLength) throws IOException{
+		if(indexFile.length() <= completeLength)
+			return;
+		RandomAccessFile raf = new RandomAccessFile(indexFile, "rw");
+		try{
+			raf.getChannel().truncate(completeLength);
+			raf.getChannel().force(true);
+		}finally{
+			raf.close();
+		}
+	}
+
+
+/*****************
+ * Index queries *
+ *****************/
+
+	/**
+	 * Used to check if the specified user has a record in this store.
+	 * @param userName The String that is used as the database's key for a user.
+	 * @return A boolean indicating true if the user has a record in this store; false otherwise.
+	 */
+	public synchronized boolean containsUser(String userName){
+		return index.containsKey(userName);
+	}
+
+	/**
+	 * Used to obtain the usernames of every user in this store. No records are read.
+	 * @return A Set of Strings holding a copy of every username in this store.
+	 */
+	public synchronized Set<String> getUserNames(){
+		return new HashSet<String>(index.keySet());
+	}
+
+	/**
+	 * Used to obtain the number of users in this store.
+	 * @return An int indicating the number of users in this store.
+	 */
+	public synchronized int size(){
+		return index.size();
+	}
+
+
+/******************
+ * Record methods *
+ ******************/
+
+	/**
+	 * Used to read the record of a single user.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @return The UserEntry of the specified user, or null if the user is not in this store.
+	 * @throws IOException Thrown if the user's record can not be read.
+	 */
+	public UserEntry loadUser(String userName) throws IOException{
+		File recordFile;
+		synchronized(this){
+			Integer recordNumber = index.get(userName);
+			if(recordNumber == null)
+				return null;
+			recordFile = getRecordFile(recordNumber);
+		}
+		byte[] record = Files.readAllBytes(recordFile.toPath());
+		if(record.length >= 2 && (record[0] & 0xFF) == 0xAC && (record[1] & 0xFF) == 0xED)
+			return readSerializedRecord(record, recordFile);
+		return DatabaseCodec.decodeEntry(record);
+	}
+
+	/**
+	 * A helper method used to read a record that was written using Java serialization.
+	 * @param record The byte array holding the record file's contents.
+	 * @param recordFile The File that the record was read from. Used for error messages.
+	 * @return The UserEntry held by the record.
+	 * @throws IOException Thrown if the record can not be read.
+	 */
+	private UserEntry readSerializedRecord(byte[] record, File recordFile) throws IOException{
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(record));
+		try{
+			return (UserEntry)in.readObject();
+		}catch(ClassNotFoundException e){
+			throw new IOException("ShardedUserStore: " + recordFile + " is not a user record.", e);
+		}finally{
+			in.close();
+		}
+	}
+
+	/**
+	 * Used to write the record of a single user. If the user is not yet in this store, the user is
+	 *  added to the index.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @param entry The UserEntry to be written.
+	 * @throws IOException Thrown if the user's record or the index can not be written.
+	 */
+	public synchronized void saveUser(String userName, UserEntry entry) throws IOException{
+		writeRecord(userName, DatabaseCodec.encodeEntry(entry), true);
+	}
+
+	/**
+	 * A helper method used to replace the record file of a single user. If the user is not yet in this
+	 *  store, the user is added to the index once the record exists.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @param record The byte array holding the user's entry, in the DatabaseCodec entry format.
+	 * @param syncIndex True to force a new index entry to disk at once; false if the caller forces the
+	 *  index after writing many records.
+	 * @throws IOException Thrown if the user's record or the index can not be written.
+	 */
+	private void writeRecord(String userName, byte[] record, boolean syncIndex) throws IOException{
+		Integer recordNumber = index.get(userName);
+		boolean isNewUser    = (recordNumber == null);
+		if(isNewUser)
+			recordNumber = nextRecordNumber;
+
+		File recordFile = getRecordFile(recordNumber);
+		File tempFile   = new File(directory, recordNumber + RECORD_SUFFIX + ".tmp");
+		FileOutputStream out = new FileOutputStream(tempFile);
+		try{
+			out.write(record);
+			out.getFD().sync();
+		}finally{
+			out.close();
+		}
+		Files.move(tempFile.toPath(), recordFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+		//The index entry is only written once the record exists.
+		if(isNewUser){
+			indexOut.writeUTF(userName);
+			indexOut.writeInt(recordNumber);
+			if(syncIndex){
+				indexOut.flush();
+				indexFileOut.getFD().sync();
+			}
+			index.put(userName, recordNumber);
+			nextRecordNumber++;
+		}
+	}
+
+	/**
+	 * Used to write the records of many users as one step. The new records are first written to the batch
+	 *  file, so that if the write is cut short (ex. by a crash), it is finished when the store is next
+	 *  opened. The entries must not change until this method returns.
+	 *  Batch file format: [int BATCH_MAGIC][int number of users]([UTF username][int length][record])...[long CRC32]
+	 * @param entries A Map of each username to the UserEntry to be written.
+	 * @throws IOException Thrown if the batch file, a record, or the index can not be written.
+	 */
+	public synchronized void saveUsers(Map<String, UserEntry> entries) throws IOException{
+		if(entries.size() <= 1){ //A single record is replaced in one step already.
+			for(Map.Entry<String, UserEntry> entry: entries.entrySet())
+				saveUser(entry.getKey(), entry.getValue());
+			return;
+		}
+		Map<String, byte[]> records = new LinkedHashMap<String, byte[]>();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		CheckedOutputStream checked = new CheckedOutputStream(bytes, new CRC32());
+		DataOutputStream out = new DataOutputStream(checked);
+		out.writeInt(BATCH_MAGIC);
+		out.writeInt(entries.size());
+		for(Map.Entry<String, UserEntry> entry: entries.entrySet()){
+			byte[] record = DatabaseCodec.encodeEntry(entry.getValue());
+			records.put(entry.getKey(), record);
+			out.writeUTF(entry.getKey());
+			out.writeInt(record.length);
+			out.write(record);
+		}
+		out.writeLong(checked.getChecksum().getValue());
+
+		File tempFile = new File(directory, BATCH_FILE_NAME + ".tmp");
+		FileOutputStream fileOut = new FileOutputStream(tempFile);
+		try{
+			fileOut.write(bytes.toByteArray());
+			fileOut.getFD().sync();
+		}finally{
+			fileOut.close();
+		}
+		File batchFile = new File(directory, BATCH_FILE_NAME);
+		Files.move(tempFile.toPath(), batchFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		syncDirectory();
+		writeRecords(records, batchFile);
+	}
+
+	/**
+	 * A helper method used to finish a batch that was cut short, when the store is opened. A batch file
+	 *  that is damaged was never complete, so none of its records were written; it is discarded.
+	 * @throws IOException Thrown if a record of the batch, or the index, can not be written.
+	 */
+	private void replayBatch() throws IOException{
+		new File(directory, BATCH_FILE_NAME + ".tmp").delete();
+		File batchFile = new File(directory, BATCH_FILE_NAME);
+		if(!batchFile.exists())
+			return;
+		Map<String, byte[]> records = new LinkedHashMap<String, byte[]>();
+		try {
+			CheckedInputStream checked = new CheckedInputStream(
+					new ByteArrayInputStream(Files.readAllBytes(batchFile.toPath())), new CRC32());
+			DataInputStream in = new DataInputStream(checked);
+			if(in.readInt() != BATCH_MAGIC)
+				throw new IOException("ShardedUserStore: " + batchFile + " is not a batch file.");
+			int count = in.readInt();
+			for(int i = 0; i < count; i++){
+				String userName = in.readUTF();
+				byte[] record = new byte[in.readInt()];
+				in.readFully(record);
+				records.put(userName, record);
+			}
+			long crc = checked.getChecksum().getValue();
+			if(in.readLong() != crc)
+				throw new IOException("ShardedUserStore: The checksum of " + batchFile + " does not match.");
+		} catch (IOException e) {
+			records.clear();
+		}
+		writeRecords(records, batchFile);
+	}
+
+	/**
+	 * A helper method used to replace the record of each user of a batch, and then delete the batch file.
+	 *  The index entries of new users are forced to disk once, after every record is written; until the
+	 *  batch file is deleted, a lost entry is written again by replayBatch().
+	 * @param records A Map of each username to its new record, in the DatabaseCodec entry format.
+	 * @param batchFile The File holding the batch.
+	 * @throws IOException Thrown if a record, the index, or the batch file can not be written.
+	 */
+	private void writeRecords(Map<String, byte[]> records, File batchFile) throws IOException{
+		for(Map.Entry<String, byte[]> record: records.entrySet())
+			writeRecord(record.getKey(), record.getValue(), false);
+		indexOut.flush();
+		indexFileOut.getFD().sync();
+		if(!batchFile.delete())
+			throw new IOException("ShardedUserStore: Could not delete " + batchFile + ".");
+		syncDirectory();
+	}
+
+	/**
+	 * A helper method used to obtain the File of a record number.
+	 * @param recordNumber An int indicating a user's record number.
+	 * @return The File holding the record.
+	 */
+	private File getRecordFile(int recordNumber){
+		return new File(directory, recordNumber + RECORD_SUFFIX);
+	}
+
+
+	/**
+	 * Used to close this store's index file.
+	 * @throws IOException Thrown if the index file can not be closed.
+	 */
+	public synchronized void close() throws IOException{
+		indexOut.close();
+	}
+
+/*********************
+ * Aggregate methods *
+ *********************/
+
+	/**
+	 * Used to write the class-wide grade aggregates of every record in this store, tagged with the number
+	 *  of users. Must only be called once every change has been written to the records.
+	 * @param aggregates The GradeAggregates of every user in this store.
+	 * @throws IOException Thrown if the aggregates can not be written.
+	 */
+	public synchronized void writeAggregates(GradeAggregates aggregates) throws IOException{
+		File tempFile = new File(directory, AGGREGATES_FILE_NAME + ".tmp");
+		FileOutputStream out = new FileOutputStream(tempFile);
+		try{
+			aggregates.write(out, index.size());
+			out.getFD().sync();
+		}finally{
+			out.close();
+		}
+		Files.move(tempFile.toPath(), new File(directory, AGGREGATES_FILE_NAME).toPath(),
+				StandardCopyOption.ATOMIC_MOVE);
+		syncDirectory();
+	}
+
+	/**
+	 * Used to read the class-wide grade aggregates written by writeAggregates(GradeAggregates). The file is
+	 *  deleted before this method returns, so that a record changed afterwards can not leave aggregates on
+	 *  disk that no longer describe the records.
+	 * @return The GradeAggregates of every user in this store, or null if none were written, or they are
+	 *  damaged or were written for a different number of users.
+	 * @throws IOException Thrown if the aggregates file can not be deleted.
+	 */
+	public synchronized GradeAggregates readAggregates() throws IOException{
+		File file = new File(directory, AGGREGATES_FILE_NAME);
+		if(!file.exists())
+			return null;
+		GradeAggregates aggregates;
+		try {
+			InputStream in = new BufferedInputStream(new FileInputStream(file));
+			try{
+				aggregates = GradeAggregates.read(in, index.size());
+			}finally{
+				in.close();
+			}
+		} catch (IOException e) {
+			aggregates = null;
+		}
+		if(!file.delete())
+			throw new IOException("ShardedUserStore: Could not delete " + file + ".");
+		syncDirectory();
+		return aggregates;
+	}
+
+	/**
+	 * A helper method used to force the store's directory to disk, so that renamed & deleted files stay
+	 *  that way after a crash. Does nothing on systems where a directory can not be opened.
+	 */
+	private void syncDirectory(){
+		try {
+			FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ);
+			try{
+				channel.force(true);
+			}finally{
+				channel.close();
+			}
+		} catch (IOException e) {
+			//The directory can not be opened on this system.
+		}
+	}
+}
@@ -0,0 +1,384 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * This class stores numbered generations of a UserDatabase snapshot. Each snapshot is written to a
+ *  temporary file, forced to the storage device, and then renamed to its generation's file name in a
+ *  single atomic step, so a crash or power loss never leaves a partial snapshot under a generation's name.
+ *  The newest "generations" snapshots are kept; older ones are deleted once a new one is in place.
+ * A snapshot is stored in the file "basePath"."generation". Its layout is a header followed by a
+ *  DatabaseCodec payload:
+ *  [int MAGIC][short VERSION][long generation][int number of records][long payload length]
+ *  [long CRC32 of payload][long CRC32 of the preceding header fields][payload]
+ * A snapshot can be validated from its header and checksum alone, without decoding any user. When
+ *  reading, the newest valid generation is used; damaged generations are skipped, and can be obtained
+ *  with getSkippedGenerations().
+ * @author Kenneth Chin
+ */
+public class SnapshotStore {
+
+	public static final int   MAGIC   = 0x4D48534E; //"MHSN". Identifies a snapshot file.
+	public static final short VERSION = 1;          //The snapshot header version written by this class.
+
+	static final int HEADER_LENGTH = 42; //The number of bytes in a snapshot header.
+
+	private final File baseFile;    //The generation files are named after this file.
+	private final int generations;  //The number of generations that are kept.
+	private static final String AGGREGATES_SUFFIX = ".agg"; //Follows a generation's file name.
+
+	private List<Long> skipped = new ArrayList<Long>(); //Damaged generations skipped by the last read.
+	private long readGeneration = 0; //The generation returned by the last read. 0 if none was.
+
+	/**
+	 * Creates a SnapshotStore.
+	 * @param basePath A String describing the path that each generation's file name is based on.
+	 * @param generations An int indicating the number of generations to keep. Must be at least 1.
+	 */
+	public SnapshotStore(String basePath, int generations){
+		if(generations < 1)
+			throw new IllegalArgumentException("SnapshotStore: At least one generation must be kept.");
+		this.baseFile    = new File(basePath);
+		this.generations = generations;
+	}
+
+
+/*****************
+ * Write methods *
+ *****************/
+
+	/**
+	 * Used to write a new generation holding the specified payload. Once the new generation is in
+	 *  place, generations older than the newest "generations" are deleted.
+	 * @param payload The byte array holding a database written by DatabaseCodec.write(UserDatabase, OutputStream).
+	 * @return A long indicating the generation number of the new snapshot.
+	 * @throws IOException Thrown if the payload is not a DatabaseCodec database, or the snapshot can not be written.
+	 */
+	public synchronized long write(byte[] payload) throws IOException{
+		return write(payload, null);
+	}
+
+	/**
+	 * Used to write a new generation holding the specified payload, along with the class-wide grade
+	 *  aggregates of the same users, so that they need not be counted again when the generation is read.
+	 *  The aggregates are written to the file of the generation, followed by AGGREGATES_SUFFIX. Once the
+	 *  new generation is in place, generations older than the newest "generations" are deleted.
+	 * @param payload The byte array holding a database written by DatabaseCodec.write(UserDatabase, OutputStream).
+	 * @param aggregates The GradeAggregates of the users in the payload, or null if they are not counted.
+	 * @return A long indicating the generation number of the new snapshot.
+	 * @throws IOException Thrown if the payload is not a DatabaseCodec database, or the snapshot can not be written.
+	 */
+	public synchronized long write(byte[] payload, GradeAggregates aggregates) throws IOException{
+		int records     = DatabaseCodec.readHeader(new DataInputStream(new ByteArrayInputStream(payload)));
+		long[] existing = listGenerations();
+		long generation = (existing.length == 0) ? 1 : existing[0] + 1;
+		CRC32 crc = new CRC32();
+		crc.update(payload, 0, payload.length);
+
+		File tempFile = new File(baseFile.getPath() + ".tmp");
+		FileOutputStream out = new FileOutputStream(tempFile);
+		try{
+			out.write(makeHeader(generation, records, payload.length, crc.getValue()));
+			out.write(payload);
+			out.getFD().sync();
+		}finally{
+			out.close();
+		}
+		Files.move(tempFile.toPath(), getFile(generation).toPath(), StandardCopyOption.ATOMIC_MOVE);
+		if(aggregates != null){
+			out = new FileOutputStream(tempFile);
+			try{
+				aggregates.write(out, generation);
+				out.getFD().sync();
+			}finally{
+				out.close();
+			}
+			Files.move(tempFile.toPath(), getAggregatesFile(generation).toPath(), StandardCopyOption.ATOMIC_MOVE);
+		}
+		syncDirectory();
+
+		for(int i = generations - 1; i < existing.length; i++){
+			getFile(existing[i]).delete();
+			getAggregatesFile(existing[i]).delete();
+		}
+		return generation;
+	}
+
+	/**
+	 * A helper method used to build a snapshot header.
+	 * @param generation A long indicating the snapshot's generation number.
+	 * @param records An int indicating the number of records in the payload.
+	 * @param length An int indicating the length of the payload, in bytes.
+	 * @param payloadCrc A long holding the CRC32 of the payload.
+	 * @return A byte array holding the header.
+	 */
+	private static byte[] makeHeader(long generation, int records, int length, long payloadCrc){
+		ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+		header.putInt(MAGIC);
+		header.putShort(VERSION);
+		header.putLong(generation);
+		header.putInt(records);
+		header.putLong(length);
+		header.putLong(payloadCrc);
+		CRC32 crc = new CRC32();
+		crc.update(header.array(), 0, header.position());
+		header.putLong(crc.getValue());
+		return header.array();
+	}
+
+	/**
+	 * A helper method used to force the rename of a new generation to the storage device. Not every
+	 *  system allows a directory to be opened (ex. Windows); there, the rename is left to the file system.
+	 */
+	private void syncDirectory(){
+		File directory = baseFile.getAbsoluteFile().getParentFile();
+		try {
+			FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ);
+			try{
+				channel.force(true);
+			}finally{
+				channel.close();
+			}
+		} catch (IOException e) {
+			//The directory can not be opened on this system.
+		}
+	}
+
+
+/****************
+ * Read methods *
+ ****************/
+
+	/**
+	 * Used to read the newest valid generation. Each generation is validated by its header and checksum
+	 *  before it is decoded; damaged generations are skipped.
+	 * @return The UserDatabase held by the newest valid generation, or null if no valid generation exists.
+	 * @throws IOException Thrown if the snapshot directory can not be listed.
+	 */
+	public synchronized UserDatabase readNewest() throws IOException{
+		skipped = new ArrayList<Long>();
+		readGeneration = 0;
+		for(long generation: listGenerations()){
+			try {
+				byte[] snapshot = Files.readAllBytes(getFile(generation).toPath());
+				checkSnapshot(snapshot);
+				UserDatabase database = DatabaseCodec.read(new ByteArrayInputStream(snapshot, HEADER_LENGTH,
+						snapshot.length - HEADER_LENGTH));
+				readGeneration = generation;
+				return database;
+			} catch (IOException e) {
+				skipped.add(generation);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * A helper method used to check a snapshot that has been read into memory.
+	 * @param snapshot The byte array holding the entire snapshot file.
+	 * @throws IOException Thrown if the snapshot's header or checksum is not valid.
+	 */
+	private static void checkSnapshot(byte[] snapshot) throws IOException{
+		if(snapshot.length < HEADER_LENGTH)
+			throw new IOException("SnapshotStore: The snapshot is shorter than its header.");
+		long[] header = readHeader(new DataInputStream(new ByteArrayInputStream(snapshot, 0, HEADER_LENGTH)));
+		if(header[2] != snapshot.length - HEADER_LENGTH)
+			throw new IOException("SnapshotStore: The snapshot's length does not match its header.");
+		CRC32 crc = new CRC32();
+		crc.update(snapshot, HEADER_LENGTH, snapshot.length - HEADER_LENGTH);
+		if(crc.getValue() != header[3])
+			throw new IOException("SnapshotStore: The snapshot's checksum does not match its header.");
+	}
+
+	/**
+	 * Used to check if a generation is valid, without decoding any user. The file is read once, in
+	 *  blocks, to check its checksum.
+	 * @param generation A long indicating the generation number.
+	 * @return A boolean indicating true if the generation exists, and its header and checksum are valid;
+	 *  false otherwise.
+	 */
+	public boolean isValid(long generation){
+		File file = getFile(generation);
+		try {
+			DataInputStream in = new DataInputStream(new FileInputStream(file));
+			try{
+				long[] header = readHeader(in);
+				if(header[2] != file.length() - HEADER_LENGTH)
+					return false;
+				CRC32 crc = new CRC32();
+				byte[] buffer = new byte[64 * 1024];
+				int read;
+				while((read = in.read(buffer)) != -1)
+					crc.update(buffer, 0, read);
+				return crc.getValue() == header[3];
+			}finally{
+				in.close();
+			}
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Used to read and check a snapshot header.
+	 * @param in The DataInput that the header is read from.
+	 * @return A long array holding the generation, the number of records, the payload length, and the
+	 *  payload CRC32, in that order.
+	 * @throws IOException Thrown if the header can not be read, or is not a valid header.
+	 */
+	static long[] readHeader(DataInput in) throws IOException{
+		byte[] header = new byte[HEADER_LENGTH];
+		in.readFully(header);
+		ByteBuffer buffer = ByteBuffer.wrap(header);
+		if(buffer.getInt() != MAGIC)
+			throw new IOException("SnapshotStore: The file is not a snapshot.");
+		short version = buffer.getShort();
+		if(version != VERSION)
+			throw new IOException("SnapshotStore: The snapshot version " + version + " is not supported.");
+		long generation = buffer.getLong();
+		int records     = buffer.getInt();
+		long length     = buffer.getLong();
+		long payloadCrc = buffer.getLong();
+		CRC32 crc = new CRC32();
+		crc.update(header, 0, buffer.position());
+		if(buffer.getLong() != crc.getValue())
+			throw new IOException("SnapshotStore: The snapshot header is damaged.");
+		return new long[]{generation, records, length, payloadCrc};
+	}
+
+
+/*********************
+ * Generation access *
+ *********************/
+
+	/**
+	 * Used to obtain the generation numbers that have a file, newest first. The files are not validated.
+	 * @return A long array holding the generation numbers, in descending order.
+	 */
+	public synchronized long[] listGenerations(){
+		File directory = baseFile.getAbsoluteFile().getParentFile();
+		String prefix  = baseFile.getName() + ".";
+		String[] names = directory.list();
+		if(names == null)
+			return new long[0];
+		long[] found = new long[names.length];
+		int count = 0;
+		for(String name: names){
+			if(!name.startsWith(prefix) || name.length() == prefix.length())
+				continue;
+			try {
+				found[count] = Long.parseLong(name.substring(prefix.length()));
+				if(found[count] > 0)
+					count++;
+			} catch (NumberFormatException e) {
+				//Not a generation file (ex. the temporary file).
+			}
+		}
+		long[] sorted = Arrays.copyOf(found, count);
+		Arrays.sort(sorted);
+		for(int i = 0; i < count / 2; i++){
+			long swap = sorted[i];
+			sorted[i] = sorted[count - 1 - i];
+			sorted[count - 1 - i] = swap;
+		}
+		return sorted;
+	}
+
+	/**
+	 * Used to check if any generation file exists.
+	 * @return A boolean indicating true if at least one generation file exists; false otherwise.
+	 */
+	public boolean hasSnapshots(){
+		return listGenerations().length > 0;
+	}
+
+	/**
+	 * Used to obtain the generations that were skipped as damaged by the last call to readNewest().
+	 * @return A List of the skipped generation numbers, newest first.
+	 */
+	public synchronized List<Long> getSkippedGenerations(){
+		return new ArrayList<Long>(skipped);
+	}
+
+	/**
+	 * Used to obtain the generation that was returned by the last call to readNewest().
+	 * @return A long indicating the generation number, or 0 if no generation was read.
+	 */
+	public synchronized long getReadGeneration(){
+		return readGeneration;
+	}
+
+	/**
+	 * Used to read the class-wide grade aggregates that were written with a generation.
+	 * @param generation A long indicating the generation number.
+	 * @return The GradeAggregates of the generation, or null if none were written, or they are damaged.
+	 */
+	public GradeAggregates readAggregates(long generation){
+		File file = getAggregatesFile(generation);
+		if(!file.exists())
+			return null;
+		try {
+			InputStream in = new BufferedInputStream(new FileInputStream(file));
+			try{
+				return GradeAggregates.read(in, generation);
+			}finally{
+				in.close();
+			}
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Used to obtain the file of a generation's grade aggregates.
+	 * @param generation A long indicating the generation number.
+	 * @return The File that holds, or would hold, the aggregates.
+	 */
+	public File getAggregatesFile(long generation){
+		return new File(getFile(generation).getPath() + AGGREGATES_SUFFIX);
+	}
+
+	/**
+	 * Used to obtain the file of a generation.
+	 * @param generation A long indicating the generation number.
+	 * @return The File that holds, or would hold, the generation.
+	 */
+	public File getFile(long generation){
+		return new File(baseFile.getPath() + "." + generation);
+	}
+}
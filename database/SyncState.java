@@ -0,0 +1,417 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import project.interfaces.UserChangeListener;
+
+/**
+ * This class holds what one machine knows about the changes made to its UserDatabase, so that only
+ *  changed users are sent to other machines (see DeltaSync), and so that the machines agree on which
+ *  change of a profile field wins.
+ * Every machine has a random machine id. Each change to a user is given the next local sequence number,
+ *  and each change to a profile field (password, first name, last name, grade level) is stamped with
+ *  (time, machine id). The report card and lastActiveTest are only raised by most changes; a change that
+ *  may lower one (ex. a reset of grades, or a promotion) starts a new "epoch" of it, which is stamped in
+ *  the same way. DeltaSync keeps the value of the later epoch, and the higher value within the same epoch. The time is the wall clock, but never less than one millisecond after the stamp
+ *  that it replaces, so a change always wins over every change that the machine had already seen, even
+ *  if another machine's clock is ahead.
+ * For every other machine (peer) that it has exchanged files with, a machine also remembers how far it
+ *  has seen the peer's changes, and how far the peer has reported seeing its own changes. A machine sends
+ *  the users changed since the oldest point that a known peer has reported, so a file carried to any
+ *  known peer is complete. A peer becomes known, as having seen nothing, when its first file is merged,
+ *  so the next file sent holds every user; until then, DeltaSync.exportAll(File) brings it up to date.
+ * The state is written to its own file by save(). Users that have never been changed since the state
+ *  was created have no stamps, and lose to any stamped change.
+ * Format: [int MAGIC][short VERSION][long machine id][long sequence][int peers] then, for each peer,
+ *  [long machine id][long seen][long acknowledged]; then [int users] and, for each user, [UTF username]
+ *  [long sequence][(long time, long machine id) per stamped field]; and then [long CRC32].
+ * @author Kenneth Chin
+ */
+public class SyncState implements UserChangeListener {
+
+	public static final int MAGIC   = 0x4D485353; //"MHSS". Identifies a file written by save().
+	public static final int VERSION = 1;          //The format version written by this class.
+
+	//The profile fields, which are merged "last writer wins", followed by the epochs of the report card and
+	//lastActiveTest. Every one of them is stamped.
+	static final int PASSWORD = 0, FIRST_NAME = 1, LAST_NAME = 2, GRADE_LEVEL = 3, REPORT_CARD = 4, LAST_ACTIVE_TEST = 5;
+	static final int PROFILE_FIELDS = 4;
+	static final int STAMPED_FIELDS = 6;
+	//The UserChangeListener bit that stamps each stamped field.
+	private static final int[] FIELD_FLAGS = {UserChangeListener.PASSWORD, UserChangeListener.FIRST_NAME,
+			UserChangeListener.LAST_NAME, UserChangeListener.GRADE_LEVEL, UserChangeListener.GRADES_RESET,
+			UserChangeListener.LAST_ACTIVE_TEST_RESET};
+
+	private final File file;
+	private final long machineId;
+	private long sequence = 0;         //The sequence number of the last local change.
+	private final HashMap<String, Stamps> users = new HashMap<String, Stamps>();
+	//The sequence number of each peer, up to which every change of the peer has been merged here.
+	private final HashMap<Long, Long> seen = new HashMap<Long, Long>();
+	//The sequence number of this machine, up to which each peer has reported merging every change.
+	private final HashMap<Long, Long> acknowledged = new HashMap<Long, Long>();
+	private boolean isDirty = true;    //Set when the state differs from its file.
+	//Held while the state is written to its file, so that only one save is made at a time. The state's
+	//own lock is only held while it is encoded, so changes are not held up by the write.
+	private final Object saveLock = new Object();
+
+	/**
+	 * Creates a SyncState for a machine that has never synchronized, with a new random machine id.
+	 * @param file The File that the state is saved to.
+	 */
+	public SyncState(File file){
+		this(file, new SecureRandom().nextLong());
+	}
+
+	/**
+	 * A helper constructor used to create a SyncState with a known machine id.
+	 * @param file The File that the state is saved to.
+	 * @param machineId A long indicating the machine id.
+	 */
+	private SyncState(File file, long machineId){
+		this.file      = file;
+		this.machineId = machineId;
+	}
+
+	/**
+	 * Used to read the state saved in a file.
+	 * @param file The File that the state was saved to.
+	 * @return The SyncState, or a new SyncState if the file does not exist.
+	 * @throws IOException Thrown if the file can not be read, or is damaged.
+	 */
+	public static SyncState read(File file) throws IOException{
+		if(!file.exists())
+			return new SyncState(file);
+		CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(new FileInputStream(file)), new CRC32());
+		DataInputStream in = new DataInputStream(checked);
+		try{
+			if(in.readInt() != MAGIC)
+				throw new IOException("SyncState: The file was not written by SyncState.");
+			if(in.readShort() != VERSION)
+				throw new IOException("SyncState: The format version is not supported.");
+			SyncState state = new SyncState(file, in.readLong());
+			state.sequence = in.readLong();
+			int peers = in.readInt();
+			for(int i = 0; i < peers; i++){
+				long peer = in.readLong();
+				state.seen.put(peer, in.readLong());
+				state.acknowledged.put(peer, in.readLong());
+			}
+			int count = in.readInt();
+			for(int i = 0; i < count; i++){
+				String userName = in.readUTF();
+				Stamps stamps = new Stamps();
+				stamps.sequence = in.readLong();
+				for(int field = 0; field < STAMPED_FIELDS; field++){
+					stamps.times[field]    = in.readLong();
+					stamps.machines[field] = in.readLong();
+				}
+				state.users.put(userName, stamps);
+			}
+			long crc = checked.getChecksum().getValue();
+			if(in.readLong() != crc)
+				throw new IOException("SyncState: The checksum does not match.");
+			state.isDirty = false;
+			return state;
+		}finally{
+			in.close();
+		}
+	}
+
+	/**
+	 * Used to write the state to its file, if it has changed since it was last written. The file is
+	 *  replaced in one step, so a failed write leaves the previous state in place. The state is encoded
+	 *  while holding its lock, but written without it, so changes to the database are never held up by
+	 *  the storage device.
+	 * @throws IOException Thrown if the file can not be written.
+	 */
+	public void save() throws IOException{
+		synchronized(saveLock){
+			byte[] bytes;
+			synchronized(this){
+				if(!isDirty)
+					return;
+				bytes = encode();
+				isDirty = false;
+			}
+			try{
+				write(bytes);
+			}catch(IOException e){
+				synchronized(this){
+					isDirty = true;
+				}
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * A helper method used to replace the state's file with the specified bytes, in one step.
+	 * @param bytes The byte array holding the encoded state.
+	 * @throws IOException Thrown if the file can not be written.
+	 */
+	private void write(byte[] bytes) throws IOException{
+		File tempFile = new File(file.getPath() + ".tmp");
+		FileOutputStream fileOut = new FileOutputStream(tempFile);
+		try{
+			fileOut.write(bytes);
+			fileOut.getFD().sync();
+		}finally{
+			fileOut.close();
+		}
+		Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * A helper method used to encode the state, followed by its checksum. Must be called while holding
+	 *  the state's lock.
+	 * @return A byte array holding the encoded state.
+	 */
+	private byte[] encode(){
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try{
+			CheckedOutputStream checked = new CheckedOutputStream(bytes, new CRC32());
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked));
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeLong(machineId);
+			out.writeLong(sequence);
+			out.writeInt(seen.size());
+			for(Map.Entry<Long, Long> peer: seen.entrySet()){
+				out.writeLong(peer.getKey());
+				out.writeLong(peer.getValue());
+				out.writeLong(getAcknowledged(peer.getKey()));
+			}
+			out.writeInt(users.size());
+			for(Map.Entry<String, Stamps> user: users.entrySet()){
+				Stamps stamps = user.getValue();
+				out.writeUTF(user.getKey());
+				out.writeLong(stamps.sequence);
+				for(int field = 0; field < STAMPED_FIELDS; field++){
+					out.writeLong(stamps.times[field]);
+					out.writeLong(stamps.machines[field]);
+				}
+			}
+			out.flush();
+			new DataOutputStream(bytes).writeLong(checked.getChecksum().getValue());
+		}catch(IOException e){
+			//A ByteArrayOutputStream does not throw IOExceptions.
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+
+/******************
+ * Change methods *
+ ******************/
+
+	/**
+	 * Used by UserDatabase to report a change. The user is given the next sequence number, and each
+	 *  changed profile field, and each epoch that the change starts, is stamped by this machine.
+	 * @param userName The String that is used as the database's key for the changed user.
+	 * @param fields An int holding the UserChangeListener bit flags of the changed fields.
+	 */
+	@Override
+	public synchronized void userChanged(String userName, int fields){
+		Stamps stamps = getStamps(userName);
+		stamps.sequence = ++sequence;
+		long now = System.currentTimeMillis();
+		for(int field = 0; field < STAMPED_FIELDS; field++){
+			if((fields & FIELD_FLAGS[field]) != 0){
+				stamps.times[field]    = Math.max(now, stamps.times[field] + 1);
+				stamps.machines[field] = machineId;
+			}
+		}
+		isDirty = true;
+	}
+
+	/**
+	 * Used by DeltaSync to give a stamped field the stamp of the change that it was merged from. A user
+	 *  whose stamp is changed is given the next sequence number, so the stamp is sent on to other machines.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @param field An int indicating the stamped field (ex. FIRST_NAME, or REPORT_CARD).
+	 * @param time A long indicating the stamp's time.
+	 * @param machine A long indicating the stamp's machine id.
+	 */
+	synchronized void setStamp(String userName, int field, long time, long machine){
+		Stamps stamps = getStamps(userName);
+		if(stamps.times[field] == time && stamps.machines[field] == machine)
+			return;
+		stamps.times[field]    = time;
+		stamps.machines[field] = machine;
+		stamps.sequence = ++sequence;
+		isDirty = true;
+	}
+
+	/**
+	 * Used by DeltaSync to record that every change of a peer, up to a sequence number, has been merged.
+	 *  A peer is known (see getExportSequence()) once this has been called for it.
+	 * @param peer A long indicating the peer's machine id.
+	 * @param peerSequence A long indicating the peer's sequence number.
+	 */
+	synchronized void setSeen(long peer, long peerSequence){
+		seen.put(peer, Math.max(getSeen(peer), peerSequence));
+		if(!acknowledged.containsKey(peer))
+			acknowledged.put(peer, 0L);
+		isDirty = true;
+	}
+
+	/**
+	 * Used by DeltaSync to record that a peer has merged every change of this machine, up to a sequence number.
+	 * @param peer A long indicating the peer's machine id.
+	 * @param ownSequence A long indicating this machine's sequence number.
+	 */
+	synchronized void setAcknowledged(long peer, long ownSequence){
+		acknowledged.put(peer, Math.max(getAcknowledged(peer), ownSequence));
+		if(!seen.containsKey(peer))
+			seen.put(peer, 0L);
+		isDirty = true;
+	}
+
+	/**
+	 * A helper method used to obtain the stamps of a user, adding them if the user has none.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @return The user's Stamps.
+	 */
+	private Stamps getStamps(String userName){
+		Stamps stamps = users.get(userName);
+		if(stamps == null){
+			stamps = new Stamps();
+			users.put(userName, stamps);
+		}
+		return stamps;
+	}
+
+
+/*****************
+ * Query methods *
+ *****************/
+
+	public long getMachineId(){
+		return machineId;
+	}
+
+	public synchronized long getSequence(){
+		return sequence;
+	}
+
+	/**
+	 * Used to obtain the sequence number of a peer, up to which every change of the peer has been merged.
+	 * @param peer A long indicating the peer's machine id.
+	 * @return A long indicating the sequence number. 0 if no change of the peer has been merged.
+	 */
+	public synchronized long getSeen(long peer){
+		Long peerSequence = seen.get(peer);
+		return (peerSequence == null) ? 0 : peerSequence;
+	}
+
+	/**
+	 * Used to obtain the sequence number of this machine, up to which a peer has reported merging every change.
+	 * @param peer A long indicating the peer's machine id.
+	 * @return A long indicating the sequence number. 0 if the peer has not reported.
+	 */
+	public synchronized long getAcknowledged(long peer){
+		Long ownSequence = acknowledged.get(peer);
+		return (ownSequence == null) ? 0 : ownSequence;
+	}
+
+	/**
+	 * Used to obtain the sequence number after which changes must be sent, so that every known peer
+	 *  receives every change that it has not reported merging.
+	 * @return A long indicating the sequence number. 0 (every user) if no peer is known.
+	 */
+	public synchronized long getExportSequence(){
+		if(acknowledged.isEmpty())
+			return 0;
+		long oldest = Long.MAX_VALUE;
+		for(long ownSequence: acknowledged.values())
+			oldest = Math.min(oldest, ownSequence);
+		return oldest;
+	}
+
+	/**
+	 * Used to obtain how far every peer's changes have been merged here.
+	 * @return A new Map of each peer's machine id to the sequence number returned by getSeen(long).
+	 */
+	public synchronized Map<Long, Long> getSeen(){
+		return new HashMap<Long, Long>(seen);
+	}
+
+	/**
+	 * Used to obtain the users that have changed after a sequence number.
+	 * @param sequence A long indicating the sequence number. 0 lists every user that has ever changed.
+	 * @return A List of usernames.
+	 */
+	public synchronized List<String> getChangedSince(long sequence){
+		List<String> userNames = new ArrayList<String>();
+		for(Map.Entry<String, Stamps> user: users.entrySet()){
+			if(user.getValue().sequence > sequence)
+				userNames.add(user.getKey());
+		}
+		return userNames;
+	}
+
+	/**
+	 * Used to obtain the stamps of a user's stamped fields.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @return A new long array holding the time and then the machine id of each stamped field, in field
+	 *  order. Both are 0 for a field that has never been stamped.
+	 */
+	synchronized long[] getFieldStamps(String userName){
+		long[] result = new long[STAMPED_FIELDS * 2];
+		Stamps stamps = users.get(userName);
+		if(stamps != null){
+			for(int field = 0; field < STAMPED_FIELDS; field++){
+				result[field * 2]     = stamps.times[field];
+				result[field * 2 + 1] = stamps.machines[field];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * The sequence number and stamps of one user.
+	 */
+	private static final class Stamps{
+		long sequence = 0;
+		final long[] times    = new long[STAMPED_FIELDS];
+		final long[] machines = new long[STAMPED_FIELDS];
+	}
+}
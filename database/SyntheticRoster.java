@@ -0,0 +1,376 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import project.constants.DifficultyLevel;
+import project.interfaces.ModuleSelectButtonInterface;
+
+/**
+ * This class generates seeded, synthetic students for load testing, in place of the three hand made
+ *  users of DefaulPhonyUsers. Student number "i" is always generated from the seed and "i" alone, so a
+ *  roster is the same no matter how many threads generate it, and any part of it may be regenerated.
+ * Students are spread over the grade levels (GRADE_LEVEL_WEIGHTS), and each has an ability that shapes
+ *  their grades and how far they have progressed through their grade level's tests. Tests before the
+ *  student's lastActiveTest have been taken at "Easy", most at "Normal", and fewer at "Hard", with lower
+ *  grades at harder difficulty levels. Each test & difficulty level has the same maximum grade for every
+ *  student, as in the real tests.
+ * Students are generated in chunks of CHUNK_SIZE on a pool of threads. They may be added to a
+ *  UserDatabase, or written straight to the DatabaseCodec format (the format held by every snapshot)
+ *  without a UserDatabase being built, so that a roster of 1,000,000 students only holds a few chunks in
+ *  memory at once.
+ * @author Kenneth Chin
+ */
+public class SyntheticRoster {
+
+	public static final int CHUNK_SIZE = 4096; //The number of students generated by each task.
+	public static final String USER_PREFIX = "synthetic"; //The prefix of every generated userName.
+
+	//The chance, out of 100, that a student belongs to grade level 0, 1, or 2.
+	private static final int[] GRADE_LEVEL_WEIGHTS = {40, 35, 25};
+	//The maximum grades that are chosen from, for the "Easy", "Normal" and "Hard" difficulty levels.
+	private static final int[][] MAX_GRADES = {{8, 10}, {10, 12, 15}, {12, 15}};
+	private static final String[] FIRST_NAMES = {"Ava", "Liam", "Emma", "Noah", "Olivia", "Mason", "Sophia",
+			"Ethan", "Isabella", "Lucas", "Mia", "Logan", "Amelia", "Aiden", "Harper", "Elijah", "Chloe", "James",
+			"Zoe", "Benjamin", "Maya", "Carlos", "Priya", "Wei", "Fatima", "Yusuf", "Anya", "Kenji", "Nia", "Omar"};
+	private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+			"Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Thomas",
+			"Taylor", "Moore", "Jackson", "Martin", "Lee", "Nguyen", "Patel", "Kim", "Chen", "O'Brien", "Silva",
+			"Cohen", "Murphy", "Rossi", "Novak"};
+
+	private final long seed;    //The seed that every student is generated from.
+	private final int threads;  //The number of threads that students are generated on.
+
+	/**
+	 * Creates a SyntheticRoster that generates students on one thread per processor.
+	 * @param seed A long used to seed the generation. The same seed always generates the same students.
+	 */
+	public SyntheticRoster(long seed){
+		this(seed, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a SyntheticRoster.
+	 * @param seed A long used to seed the generation. The same seed always generates the same students.
+	 * @param threads An int indicating the number of threads that students are generated on.
+	 */
+	public SyntheticRoster(long seed, int threads){
+		this.seed    = seed;
+		this.threads = Math.max(1, threads);
+	}
+
+
+/**********************
+ * Generation methods *
+ **********************/
+
+	/**
+	 * Used to obtain the userName of a generated student.
+	 * @param index An int indicating the number of the student.
+	 * @return The String used as the database's key for the student.
+	 */
+	public static String getUserName(int index){
+		return USER_PREFIX + index;
+	}
+
+	/**
+	 * Used to generate a single student. The same seed & index always generate the same student.
+	 * @param index An int indicating the number of the student. Must not be negative.
+	 * @return A new UserEntry describing the student.
+	 */
+	public UserEntry generateEntry(int index){
+		Random rng = new Random(mix(seed + index));
+		int gradeLevel = pickGradeLevel(rng.nextInt(100));
+		ModuleSelectButtonInterface[] tests = ReportCard.getTests(gradeLevel);
+		//An ability between 0 and 1, most often near 0.65: the mean of three uniform values, shifted.
+		double ability = Math.min(1.0, 0.15 + (rng.nextDouble() + rng.nextDouble() + rng.nextDouble()) / 3);
+		//Able students have progressed further. Every student has at least the first test.
+		int lastActiveTest = 1 + (int)Math.round(rng.nextDouble() * ability * (tests.length - 1));
+
+		PackedReportCard card = new PackedReportCard(gradeLevel);
+		DifficultyLevel[] levels = DifficultyLevel.values();
+		for(ModuleSelectButtonInterface test: tests){
+			if(test.getOrdinal() >= lastActiveTest)
+				break;
+			for(int level = 0; level < levels.length; level++){
+				//"Easy" is always taken. Able students take the harder difficulty levels more often.
+				if(level > 0 && rng.nextDouble() > ability - (level - 1) * 0.25)
+					continue;
+				int maxGrade = getMaxGrade(gradeLevel, test.getOrdinal(), level);
+				double mean  = ability - level * 0.1;
+				double score = mean + (rng.nextGaussian() * 0.15);
+				int grade = (int)Math.round(Math.max(0.0, Math.min(1.0, score)) * maxGrade);
+				card.setGrade(test, grade, maxGrade, levels[level]);
+			}
+		}
+
+		UserEntry entry = new UserEntry();
+		entry.setPassword("password" + index);
+		entry.setFirstName(FIRST_NAMES[rng.nextInt(FIRST_NAMES.length)]);
+		entry.setLastName(LAST_NAMES[rng.nextInt(LAST_NAMES.length)]);
+		entry.setGradeLevel(gradeLevel);
+		entry.setLastActiveTest(lastActiveTest);
+		entry.setPackedReportCard(card);
+		return entry;
+	}
+
+	/**
+	 * Used to obtain the maximum grade of a test & difficulty level. It is the same for every student.
+	 * @param gradeLevel An int indicating the grade level of the test.
+	 * @param ordinal An int indicating the ordinal of the test.
+	 * @param level An int indicating the ordinal of the DifficultyLevel.
+	 * @return An int indicating the maximum grade.
+	 */
+	static int getMaxGrade(int gradeLevel, int ordinal, int level){
+		int[] choices = MAX_GRADES[level];
+		return choices[(gradeLevel * 31 + ordinal * 7 + level) % choices.length];
+	}
+
+	/**
+	 * A helper method used to pick a grade level by GRADE_LEVEL_WEIGHTS.
+	 * @param roll An int between 0 (inclusive) and 100 (exclusive).
+	 * @return An int indicating the grade level (0, 1, or 2).
+	 */
+	private static int pickGradeLevel(int roll){
+		for(int gradeLevel = 0; gradeLevel < GRADE_LEVEL_WEIGHTS.length - 1; gradeLevel++){
+			roll -= GRADE_LEVEL_WEIGHTS[gradeLevel];
+			if(roll < 0)
+				return gradeLevel;
+		}
+		return GRADE_LEVEL_WEIGHTS.length - 1;
+	}
+
+	/**
+	 * A helper method used to spread neighbouring seeds apart (the finalizer of the MurmurHash3 hash),
+	 *  since Random gives similar first values for similar seeds.
+	 * @param value The long to be mixed.
+	 * @return The mixed long.
+	 */
+	private static long mix(long value){
+		value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+		value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return value ^ (value >>> 33);
+	}
+
+
+/******************
+ * Output methods *
+ ******************/
+
+	/**
+	 * Used to generate students and add them to a database. Students are generated in parallel, and added
+	 *  in order.
+	 * @param database The UserDatabase that the students are added to.
+	 * @param users An int indicating the number of students to generate.
+	 * @throws IOException Thrown if a chunk of students could not be generated, or the thread was interrupted.
+	 */
+	public void populate(final UserDatabase database, int users) throws IOException{
+		generate(users, new ChunkHandler<Chunk>() {
+			public Chunk prepare(int first, int count){
+				return generateChunk(first, count);
+			}
+			public void commit(Chunk chunk){
+				database.addEntries(chunk.userNames, chunk.entries);
+			}
+		});
+	}
+
+	/**
+	 * Used to generate students and write them to a stream in the DatabaseCodec format, as read by
+	 *  DatabaseCodec.read(InputStream). Students are encoded in parallel, and written in order. The
+	 *  stream is flushed, but not closed.
+	 * @param stream The OutputStream that the students are written to.
+	 * @param users An int indicating the number of students to generate.
+	 * @throws IOException Thrown if the stream can not be written to, or a chunk could not be generated.
+	 */
+	public void write(OutputStream stream, int users) throws IOException{
+		final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024));
+		out.writeInt(DatabaseCodec.MAGIC);
+		out.writeShort(DatabaseCodec.VERSION);
+		out.writeInt(users);
+		generate(users, new ChunkHandler<byte[]>() {
+			public byte[] prepare(int first, int count) throws IOException{
+				return encodeChunk(generateChunk(first, count));
+			}
+			public void commit(byte[] records) throws IOException{
+				out.write(records);
+			}
+		});
+		out.flush();
+	}
+
+	/**
+	 * Used to generate students and write them to a file in the DatabaseCodec format.
+	 * @param file The File that the students are written to. Any existing file is replaced.
+	 * @param users An int indicating the number of students to generate.
+	 * @throws IOException Thrown if the file can not be written, or a chunk could not be generated.
+	 */
+	public void write(File file, int users) throws IOException{
+		FileOutputStream out = new FileOutputStream(file);
+		try{
+			write(out, users);
+			out.getFD().sync();
+		}finally{
+			out.close();
+		}
+	}
+
+	/**
+	 * Used to generate students and write them as a new snapshot generation, as read by
+	 *  SnapshotStore.readNewest().
+	 * NOTE: A snapshot is written from a single byte array, so the encoded roster (about 300 bytes per
+	 *  student) is held in memory.
+	 * @param store The SnapshotStore that the snapshot is written to.
+	 * @param users An int indicating the number of students to generate.
+	 * @return A long indicating the generation number of the new snapshot.
+	 * @throws IOException Thrown if the snapshot can not be written, or a chunk could not be generated.
+	 */
+	public long writeSnapshot(SnapshotStore store, int users) throws IOException{
+		ByteArrayOutputStream payload = new ByteArrayOutputStream((int)Math.min(Integer.MAX_VALUE - 8, users * 300L + 16));
+		write(payload, users);
+		return store.write(payload.toByteArray());
+	}
+
+	/**
+	 * A helper method used to generate a chunk of students.
+	 * @param first An int indicating the number of the chunk's first student.
+	 * @param count An int indicating the number of students in the chunk.
+	 * @return The generated Chunk.
+	 */
+	private Chunk generateChunk(int first, int count){
+		Chunk chunk = new Chunk(count);
+		for(int i = first; i < first + count; i++){
+			chunk.userNames.add(getUserName(i));
+			chunk.entries.add(generateEntry(i));
+		}
+		return chunk;
+	}
+
+	/**
+	 * A helper method used to encode a chunk of students as DatabaseCodec records.
+	 * @param chunk The Chunk to be encoded.
+	 * @return A byte array holding a record for every student of the chunk.
+	 * @throws IOException Thrown if a record can not be encoded.
+	 */
+	private static byte[] encodeChunk(Chunk chunk) throws IOException{
+		ByteArrayOutputStream records = new ByteArrayOutputStream(chunk.entries.size() * 300);
+		DataOutputStream out = new DataOutputStream(records);
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+		DataOutputStream payload = new DataOutputStream(buffer);
+		for(int i = 0; i < chunk.entries.size(); i++){
+			buffer.reset();
+			DatabaseCodec.writeEntry(payload, chunk.userNames.get(i), chunk.entries.get(i));
+			out.writeByte(DatabaseCodec.RECORD_MARKER);
+			out.writeInt(buffer.size());
+			buffer.writeTo(out);
+		}
+		return records.toByteArray();
+	}
+
+	/**
+	 * A helper method used to prepare chunks of students on a pool of threads, and commit them in order.
+	 *  At most (2 * threads) chunks are held at once.
+	 * @param users An int indicating the number of students to generate.
+	 * @param handler The ChunkHandler that prepares and commits each chunk.
+	 * @throws IOException Thrown if a chunk could not be prepared or committed, or the thread was interrupted.
+	 */
+	private <T> void generate(int users, final ChunkHandler<T> handler) throws IOException{
+		if(users < 0)
+			throw new IllegalArgumentException("SyntheticRoster: The number of users can not be negative.");
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		ArrayDeque<Future<T>> pending = new ArrayDeque<Future<T>>();
+		try{
+			for(int first = 0; first < users || !pending.isEmpty(); first += CHUNK_SIZE){
+				if(first < users){
+					final int start = first;
+					final int count = Math.min(CHUNK_SIZE, users - first);
+					pending.add(pool.submit(new Callable<T>() {
+						public T call() throws IOException{
+							return handler.prepare(start, count);
+						}
+					}));
+				}
+				while(pending.size() >= 2 * threads || (first + CHUNK_SIZE >= users && !pending.isEmpty()))
+					handler.commit(await(pending.poll()));
+			}
+		}finally{
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * A helper method used to wait for a prepared chunk.
+	 * @param future The Future of the chunk.
+	 * @return The prepared chunk.
+	 * @throws IOException Thrown if the chunk could not be prepared, or the thread was interrupted.
+	 */
+	private static <T> T await(Future<T> future) throws IOException{
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("SyntheticRoster: Interrupted while generating.", e);
+		} catch (ExecutionException e) {
+			throw new IOException("SyntheticRoster: A chunk could not be generated.", e.getCause());
+		}
+	}
+
+
+/*****************
+ * Inner classes *
+ *****************/
+
+	/**
+	 * This interface describes how a chunk of students is prepared (on the pool's threads) and
+	 *  committed (in order, on the calling thread).
+	 */
+	private interface ChunkHandler<T> {
+		T prepare(int first, int count) throws IOException;
+		void commit(T chunk) throws IOException;
+	}
+
+	/**
+	 * This class holds the userNames & entries of a chunk of generated students.
+	 */
+	private static final class Chunk {
+		final List<String> userNames;
+		final List<UserEntry> entries;
+
+		Chunk(int count){
+			userNames = new ArrayList<String>(count);
+			entries   = new ArrayList<UserEntry>(count);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import project.constants.DifficultyLevel;
+
+/**
+ * This class describes a single attempt at a formal (graded) test: when it was finished, its difficulty
+ *  level, the number of correct answers, the maximum achievable grade, and how long it took. Unlike a
+ *  ModuleReportSummary, which keeps only the best grade, every attempt is kept. See AttemptHistory.
+ * An attempt may also hold the seed of the random number generator that generated its questions, so that
+ *  the test can be replayed exactly.
+ * @author Kenneth Chin
+ */
+public final class TestAttempt {
+
+	private final long timestamp;      //The time that the attempt was finished, in milliseconds since the epoch.
+	private final DifficultyLevel difficulty;
+	private final int numCorrect;      //The number of correct answers.
+	private final int maxGrade;        //The maximum achievable grade.
+	private final long durationMillis; //The time taken to finish the attempt, in milliseconds.
+	private final boolean hasSeed;     //Set if the seed of the attempt's questions is known.
+	private final long seed;           //The seed of the attempt's questions. 0 if hasSeed is not set.
+
+	/**
+	 * Creates a TestAttempt.
+	 * @param timestamp A long indicating the time that the attempt was finished, in milliseconds since the epoch.
+	 * @param difficulty The DifficultyLevel of the attempt.
+	 * @param numCorrect An int indicating the number of correct answers. Must not be negative.
+	 * @param maxGrade An int indicating the maximum achievable grade. Must not be negative.
+	 * @param durationMillis A long indicating the time taken, in milliseconds. Must not be negative.
+	 */
+	public TestAttempt(long timestamp, DifficultyLevel difficulty, int numCorrect, int maxGrade, long durationMillis){
+		this(timestamp, difficulty, numCorrect, maxGrade, durationMillis, false, 0);
+	}
+
+	/**
+	 * Creates a TestAttempt whose questions were generated from a known seed.
+	 * @param timestamp A long indicating the time that the attempt was finished, in milliseconds since the epoch.
+	 * @param difficulty The DifficultyLevel of the attempt.
+	 * @param numCorrect An int indicating the number of correct answers. Must not be negative.
+	 * @param maxGrade An int indicating the maximum achievable grade. Must not be negative.
+	 * @param durationMillis A long indicating the time taken, in milliseconds. Must not be negative.
+	 * @param seed A long. The seed of the random number generator that generated the attempt's questions.
+	 */
+	public TestAttempt(long timestamp, DifficultyLevel difficulty, int numCorrect, int maxGrade, long durationMillis,
+			long seed){
+		this(timestamp, difficulty, numCorrect, maxGrade, durationMillis, true, seed);
+	}
+
+	/**
+	 * A helper constructor used to create a TestAttempt, with or without a seed.
+	 */
+	private TestAttempt(long timestamp, DifficultyLevel difficulty, int numCorrect, int maxGrade, long durationMillis,
+			boolean hasSeed, long seed){
+		if(numCorrect < 0 || maxGrade < 0 || durationMillis < 0)
+			throw new IllegalArgumentException("TestAttempt: Grades & durations can not be negative.");
+		this.timestamp      = timestamp;
+		this.difficulty     = difficulty;
+		this.numCorrect     = numCorrect;
+		this.maxGrade       = maxGrade;
+		this.durationMillis = durationMillis;
+		this.hasSeed        = hasSeed;
+		this.seed           = seed;
+	}
+
+	public long getTimestamp(){
+		return timestamp;
+	}
+
+	public DifficultyLevel getDifficulty(){
+		return difficulty;
+	}
+
+	public int getNumCorrect(){
+		return numCorrect;
+	}
+
+	public int getMaxGrade(){
+		return maxGrade;
+	}
+
+	public long getDurationMillis(){
+		return durationMillis;
+	}
+
+	/**
+	 * Used to check if the seed of this attempt's questions is known.
+	 * @return A boolean indicating true if getSeed() may be used to replay the attempt; false otherwise.
+	 */
+	public boolean hasSeed(){
+		return hasSeed;
+	}
+
+	/**
+	 * Used to obtain the seed of the random number generator that generated this attempt's questions.
+	 *  Generating a test of the same module & difficulty level with new Random(getSeed()) asks the same
+	 *  questions, in the same order.
+	 * @return A long. The seed. 0 if hasSeed() is false.
+	 */
+	public long getSeed(){
+		return seed;
+	}
+
+	@Override
+	public String toString(){
+		return "TestAttempt[" + timestamp + ", " + difficulty.getName() + ", " + numCorrect + "/" + maxGrade
+				+ ", " + durationMillis + " ms" + (hasSeed ? ", seed " + Long.toHexString(seed) : "") + "]";
+	}
+}
@@ -0,0 +1,549 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.util.Arrays;
+
+/**
+ * This class is a compressed set of user ordinals (see MasteryIndex), laid out as a "roaring" bitmap.
+ *  Ordinals are split by their upper 16 bits into chunks of 65536. Each chunk that holds an ordinal has
+ *  a container of its lower 16 bits: a sorted array while it holds ARRAY_LIMIT ordinals or fewer, or a
+ *  65536 bit bitmap once it holds more. Sparse chunks therefore take 2 bytes per ordinal, dense chunks
+ *  take 8KB, and empty chunks take nothing.
+ * and(), or() and andNot() return new bitmaps, working a chunk (and, for bitmaps, 64 ordinals) at a time.
+ *  A bitmap is not thread safe; MasteryIndex returns copies that the caller owns.
+ * @author Kenneth Chin
+ */
+public final class UserBitmap {
+
+	static final int ARRAY_LIMIT = 4096;        //The most ordinals that an array container holds.
+	private static final int BITMAP_WORDS = 1024; //The number of longs in a bitmap container.
+	private static final int MERGE_LIMIT  = 2048; //Arrays with more ordinals than this, together, are intersected as bitmaps.
+
+	private char[] keys = new char[4];                   //The upper 16 bits of each chunk, in order.
+	private Container[] containers = new Container[4];   //The container of each chunk.
+	private int size = 0;                                //The number of chunks.
+
+	/**
+	 * Creates an empty UserBitmap.
+	 */
+	public UserBitmap(){}
+
+
+/******************
+ * Update methods *
+ ******************/
+
+	/**
+	 * Used to add an ordinal.
+	 * @param ordinal An int indicating the ordinal. Must not be negative.
+	 * @return True if the ordinal was added, false if it was already held.
+	 */
+	public boolean add(int ordinal){
+		checkOrdinal(ordinal);
+		int index = findChunk((char)(ordinal >>> 16));
+		if(index < 0){
+			index = -index - 1;
+			insertChunk(index, (char)(ordinal >>> 16), new Container());
+		}
+		return containers[index].add((char)ordinal);
+	}
+
+	/**
+	 * Used to remove an ordinal.
+	 * @param ordinal An int indicating the ordinal.
+	 * @return True if the ordinal was removed, false if it was not held.
+	 */
+	public boolean remove(int ordinal){
+		if(ordinal < 0)
+			return false;
+		int index = findChunk((char)(ordinal >>> 16));
+		if(index < 0 || !containers[index].remove((char)ordinal))
+			return false;
+		if(containers[index].cardinality == 0)
+			removeChunk(index);
+		return true;
+	}
+
+
+/*****************
+ * Query methods *
+ *****************/
+
+	/**
+	 * Used to check if an ordinal is held.
+	 * @param ordinal An int indicating the ordinal.
+	 * @return True if the ordinal is held.
+	 */
+	public boolean contains(int ordinal){
+		if(ordinal < 0)
+			return false;
+		int index = findChunk((char)(ordinal >>> 16));
+		return index >= 0 && containers[index].contains((char)ordinal);
+	}
+
+	/**
+	 * Used to obtain the number of ordinals held.
+	 * @return An int indicating the number of ordinals.
+	 */
+	public int getCardinality(){
+		int cardinality = 0;
+		for(int i = 0; i < size; i++)
+			cardinality += containers[i].cardinality;
+		return cardinality;
+	}
+
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 * Used to obtain every ordinal held.
+	 * @return A new int array of the ordinals, in ascending order.
+	 */
+	public int[] toArray(){
+		int[] ordinals = new int[getCardinality()];
+		int next = 0;
+		for(int i = 0; i < size; i++)
+			next = containers[i].copyTo(ordinals, next, keys[i] << 16);
+		return ordinals;
+	}
+
+	/**
+	 * Used to obtain a copy of this bitmap. Changing either does not change the other.
+	 * @return A new UserBitmap.
+	 */
+	public UserBitmap copy(){
+		UserBitmap copy = new UserBitmap();
+		copy.keys       = Arrays.copyOf(keys, Math.max(4, size));
+		copy.containers = new Container[copy.keys.length];
+		for(int i = 0; i < size; i++)
+			copy.containers[i] = containers[i].copy();
+		copy.size = size;
+		return copy;
+	}
+
+	/**
+	 * Used to obtain the ordinals held by both this bitmap and another.
+	 * @param other The other UserBitmap.
+	 * @return A new UserBitmap.
+	 */
+	public UserBitmap and(UserBitmap other){
+		UserBitmap result = new UserBitmap();
+		int i = 0, j = 0;
+		while(i < size && j < other.size){
+			if(keys[i] < other.keys[j]){
+				i++;
+			}else if(keys[i] > other.keys[j]){
+				j++;
+			}else{
+				Container container = containers[i].and(other.containers[j]);
+				if(container != null)
+					result.appendChunk(keys[i], container);
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Used to obtain the ordinals held by either this bitmap or another.
+	 * @param other The other UserBitmap.
+	 * @return A new UserBitmap.
+	 */
+	public UserBitmap or(UserBitmap other){
+		UserBitmap result = new UserBitmap();
+		int i = 0, j = 0;
+		while(i < size || j < other.size){
+			if(j == other.size || (i < size && keys[i] < other.keys[j])){
+				result.appendChunk(keys[i], containers[i].copy());
+				i++;
+			}else if(i == size || keys[i] > other.keys[j]){
+				result.appendChunk(other.keys[j], other.containers[j].copy());
+				j++;
+			}else{
+				result.appendChunk(keys[i], containers[i].or(other.containers[j]));
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Used to obtain the ordinals held by this bitmap but not by another. With a bitmap of every user,
+	 *  this is the "NOT" of the other bitmap.
+	 * @param other The other UserBitmap.
+	 * @return A new UserBitmap.
+	 */
+	public UserBitmap andNot(UserBitmap other){
+		UserBitmap result = new UserBitmap();
+		int j = 0;
+		for(int i = 0; i < size; i++){
+			while(j < other.size && other.keys[j] < keys[i])
+				j++;
+			Container container = (j < other.size && other.keys[j] == keys[i]) ?
+					containers[i].andNot(other.containers[j]) : containers[i].copy();
+			if(container != null)
+				result.appendChunk(keys[i], container);
+		}
+		return result;
+	}
+
+
+/******************
+ * Helper methods *
+ ******************/
+
+	/**
+	 * A helper method used to reject a negative ordinal.
+	 * @param ordinal An int indicating the ordinal.
+	 */
+	private static void checkOrdinal(int ordinal){
+		if(ordinal < 0)
+			throw new IllegalArgumentException("UserBitmap: The ordinal \"" + ordinal + "\" is negative.");
+	}
+
+	/**
+	 * A helper method used to find a chunk.
+	 * @param key A char holding the upper 16 bits of the chunk's ordinals.
+	 * @return An int indicating the chunk's index, or (-(insertion index) - 1) if there is no such chunk.
+	 */
+	private int findChunk(char key){
+		return Arrays.binarySearch(keys, 0, size, key);
+	}
+
+	/**
+	 * A helper method used to insert a chunk.
+	 * @param index An int indicating the index that the chunk is inserted at.
+	 * @param key A char holding the upper 16 bits of the chunk's ordinals.
+	 * @param container The Container of the chunk.
+	 */
+	private void insertChunk(int index, char key, Container container){
+		if(size == keys.length){
+			keys       = Arrays.copyOf(keys, size * 2);
+			containers = Arrays.copyOf(containers, size * 2);
+		}
+		System.arraycopy(keys, index, keys, index + 1, size - index);
+		System.arraycopy(containers, index, containers, index + 1, size - index);
+		keys[index]       = key;
+		containers[index] = container;
+		size++;
+	}
+
+	/**
+	 * A helper method used to add a chunk after every other chunk. Used to build the results of queries.
+	 * @param key A char holding the upper 16 bits of the chunk's ordinals.
+	 * @param container The Container of the chunk.
+	 */
+	private void appendChunk(char key, Container container){
+		insertChunk(size, key, container);
+	}
+
+	/**
+	 * A helper method used to remove an empty chunk.
+	 * @param index An int indicating the index of the chunk.
+	 */
+	private void removeChunk(int index){
+		System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+		System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+		size--;
+		containers[size] = null;
+	}
+
+
+/**************
+ * Containers *
+ **************/
+
+	/**
+	 * The lower 16 bits of the ordinals of one chunk: either a sorted array ("values") or a bitmap
+	 *  ("words"). A container is converted to a bitmap when it grows past ARRAY_LIMIT ordinals, and back
+	 *  to an array when it shrinks to ARRAY_LIMIT or fewer.
+	 */
+	private static final class Container{
+		private char[] values = new char[4]; //The sorted ordinals, or null if this is a bitmap.
+		private long[] words  = null;        //The bitmap, or null if this is an array.
+		private int cardinality = 0;         //The number of ordinals held.
+
+		/**
+		 * Used to add an ordinal.
+		 * @param value A char holding the ordinal's lower 16 bits.
+		 * @return True if the ordinal was added.
+		 */
+		boolean add(char value){
+			if(words != null){
+				long bit = 1L << value;
+				if((words[value >>> 6] & bit) != 0)
+					return false;
+				words[value >>> 6] |= bit;
+				cardinality++;
+				return true;
+			}
+			int index = Arrays.binarySearch(values, 0, cardinality, value);
+			if(index >= 0)
+				return false;
+			if(cardinality == ARRAY_LIMIT){
+				toBitmap();
+				return add(value);
+			}
+			index = -index - 1;
+			if(cardinality == values.length)
+				values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, cardinality * 2));
+			System.arraycopy(values, index, values, index + 1, cardinality - index);
+			values[index] = value;
+			cardinality++;
+			return true;
+		}
+
+		/**
+		 * Used to remove an ordinal.
+		 * @param value A char holding the ordinal's lower 16 bits.
+		 * @return True if the ordinal was removed.
+		 */
+		boolean remove(char value){
+			if(words != null){
+				long bit = 1L << value;
+				if((words[value >>> 6] & bit) == 0)
+					return false;
+				words[value >>> 6] &= ~bit;
+				cardinality--;
+				if(cardinality <= ARRAY_LIMIT)
+					toArray();
+				return true;
+			}
+			int index = Arrays.binarySearch(values, 0, cardinality, value);
+			if(index < 0)
+				return false;
+			System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+			cardinality--;
+			return true;
+		}
+
+		boolean contains(char value){
+			if(words != null)
+				return (words[value >>> 6] & (1L << value)) != 0;
+			return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+		}
+
+		/**
+		 * Used to obtain the ordinals held by both containers.
+		 * @param other The other Container.
+		 * @return A new Container, or null if no ordinal is held by both.
+		 */
+		Container and(Container other){
+			if(words != null && other.words != null){
+				long[] result = new long[BITMAP_WORDS];
+				for(int i = 0; i < BITMAP_WORDS; i++)
+					result[i] = words[i] & other.words[i];
+				return fromWords(result);
+			}
+			if(words == null && other.words == null && cardinality + other.cardinality > MERGE_LIMIT)
+				return fromWords(andWords(other));
+			Container result = new Container();
+			if(words == null && other.words == null){
+				//one spare value, for the value that is written before it is known to match
+				result.values = new char[Math.min(cardinality, other.cardinality) + 1];
+				//written without branches on the values, which are too random to predict
+				int i = 0, j = 0, count = 0;
+				while(i < cardinality && j < other.cardinality){
+					char value = values[i], otherValue = other.values[j];
+					result.values[count] = value;
+					count += (value == otherValue) ? 1 : 0;
+					i += (value <= otherValue) ? 1 : 0;
+					j += (value >= otherValue) ? 1 : 0;
+				}
+				result.cardinality = count;
+			}else{
+				Container array  = (words == null) ? this : other;
+				Container filter = (array == this) ? other : this;
+				result.values = new char[Math.max(1, array.cardinality)];
+				for(int i = 0; i < array.cardinality; i++){
+					if(filter.contains(array.values[i]))
+						result.values[result.cardinality++] = array.values[i];
+				}
+			}
+			return (result.cardinality == 0) ? null : result;
+		}
+
+		/**
+		 * A helper method used to intersect two arrays as bitmaps.
+		 * @param other The other Container, which must be an array.
+		 * @return A new long array bitmap.
+		 */
+		private long[] andWords(Container other){
+			long[] result = getWords();
+			long[] mask = other.getWords();
+			for(int i = 0; i < BITMAP_WORDS; i++)
+				result[i] &= mask[i];
+			return result;
+		}
+
+		/**
+		 * Used to obtain the ordinals held by either container.
+		 * @param other The other Container.
+		 * @return A new Container.
+		 */
+		Container or(Container other){
+			if(words == null && other.words == null && cardinality + other.cardinality <= ARRAY_LIMIT){
+				Container result = new Container();
+				result.values = new char[Math.max(1, cardinality + other.cardinality)];
+				int i = 0, j = 0;
+				while(i < cardinality || j < other.cardinality){
+					char value;
+					if(j == other.cardinality || (i < cardinality && values[i] < other.values[j]))
+						value = values[i++];
+					else if(i == cardinality || values[i] > other.values[j])
+						value = other.values[j++];
+					else{
+						value = values[i++];
+						j++;
+					}
+					result.values[result.cardinality++] = value;
+				}
+				return result;
+			}
+			long[] result = getWords();
+			long[] others = other.getWords();
+			for(int i = 0; i < BITMAP_WORDS; i++)
+				result[i] |= others[i];
+			return fromWords(result);
+		}
+
+		/**
+		 * Used to obtain the ordinals held by this container but not the other.
+		 * @param other The other Container.
+		 * @return A new Container, or null if every ordinal is held by the other.
+		 */
+		Container andNot(Container other){
+			if(words == null){
+				Container result = new Container();
+				result.values = new char[Math.max(1, cardinality)];
+				for(int i = 0; i < cardinality; i++){
+					if(!other.contains(values[i]))
+						result.values[result.cardinality++] = values[i];
+				}
+				return (result.cardinality == 0) ? null : result;
+			}
+			long[] result = getWords();
+			if(other.words != null){
+				for(int i = 0; i < BITMAP_WORDS; i++)
+					result[i] &= ~other.words[i];
+			}else{
+				for(int i = 0; i < other.cardinality; i++)
+					result[other.values[i] >>> 6] &= ~(1L << other.values[i]);
+			}
+			return fromWords(result);
+		}
+
+		Container copy(){
+			Container copy = new Container();
+			copy.cardinality = cardinality;
+			if(words != null){
+				copy.values = null;
+				copy.words  = words.clone();
+			}else{
+				copy.values = Arrays.copyOf(values, Math.max(1, cardinality));
+			}
+			return copy;
+		}
+
+		/**
+		 * Used to copy every ordinal into an array.
+		 * @param ordinals The int array that the ordinals are copied to.
+		 * @param next An int indicating the index that the first ordinal is copied to.
+		 * @param high An int holding the upper 16 bits of the ordinals.
+		 * @return An int indicating the index after the last ordinal copied.
+		 */
+		int copyTo(int[] ordinals, int next, int high){
+			if(words == null){
+				for(int i = 0; i < cardinality; i++)
+					ordinals[next++] = high | values[i];
+				return next;
+			}
+			for(int i = 0; i < BITMAP_WORDS; i++){
+				long word = words[i];
+				while(word != 0){
+					ordinals[next++] = high | (i << 6) | Long.numberOfTrailingZeros(word);
+					word &= word - 1;
+				}
+			}
+			return next;
+		}
+
+		/**
+		 * A helper method used to obtain this container as a new bitmap.
+		 * @return A new long array of BITMAP_WORDS words.
+		 */
+		private long[] getWords(){
+			if(words != null)
+				return words.clone();
+			long[] result = new long[BITMAP_WORDS];
+			for(int i = 0; i < cardinality; i++)
+				result[values[i] >>> 6] |= 1L << values[i];
+			return result;
+		}
+
+		/**
+		 * A helper method used to convert this container to a bitmap.
+		 */
+		private void toBitmap(){
+			words  = getWords();
+			values = null;
+		}
+
+		/**
+		 * A helper method used to convert this container to an array.
+		 */
+		private void toArray(){
+			char[] array = new char[Math.max(1, cardinality)];
+			int next = 0;
+			for(int i = 0; i < BITMAP_WORDS; i++){
+				long word = words[i];
+				while(word != 0){
+					array[next++] = (char)((i << 6) | Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			values = array;
+			words  = null;
+		}
+
+		/**
+		 * A helper method used to make a container of a bitmap, as an array if it holds few enough ordinals.
+		 * @param words The long array bitmap, which the container may keep.
+		 * @return A new Container, or null if the bitmap is empty.
+		 */
+		private static Container fromWords(long[] words){
+			int cardinality = 0;
+			for(long word: words)
+				cardinality += Long.bitCount(word);
+			if(cardinality == 0)
+				return null;
+			Container container = new Container();
+			container.values = null;
+			container.words  = words;
+			container.cardinality = cardinality;
+			if(cardinality <= ARRAY_LIMIT)
+				container.toArray();
+			return container;
+		}
+	}
+}
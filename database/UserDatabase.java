@@ -18,27 +18,220 @@
  */
 package project.database;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import project.buttons.Grade1ModuleSelectTestButtons;
 import project.buttons.Grade3ModuleSelectTestButtons;
+import project.constants.DifficultyLevel;
 import project.interfaces.ModuleSelectButtonInterface;
+import project.interfaces.UserChangeListener;
 
 /**This class implements Users Database
+ * 
+ * The database may be shared by several threads (ex. several student sessions and a teacher console).
+ * Reads take no lock. Every change to a user is made while holding one of LOCK_STRIPES locks, chosen
+ * by the user name, so changes to different users rarely wait on each other. A report card is never
+ * changed in place; a changed copy replaces it, so a reader always sees a complete report card.
+ * 
+ * Secondary indexes on grade level, last active test and name (see UserIndex) are updated with every
+ * change, so class rosters and progress queries return user names without reading any user entry.
+ * Pass & fail bitmaps of every test (see MasteryIndex) are kept the same way, for cohort queries.
+ * 
+ * Every change replaces the user's state (see UserVersion) and is stamped with a clock value. While a
+ * DatabaseSnapshot is open, replaced states are kept linked to their replacement, so the snapshot reads
+ * every user as it was when the snapshot was opened, without taking any lock. Replaced states that no
+ * open snapshot can need are dropped by the change that replaces them, or when the last snapshot closes.
+ * 
+ * A batch of changes to many users (see BatchUpdate) is made while holding every lock, and all of its
+ * states are stamped with one clock value, so a snapshot sees either the whole batch or none of it.
  * 
  * @author Elena Eroshkina
  */
 public class UserDatabase implements Serializable{
 
-	private HashMap<String, UserEntry> database;
+	//Pinned to the original value, so that existing database files remain readable.
+	private static final long serialVersionUID = -5795330322186464733L;
+	
+	//The original serialized field of this class. The entries are written as a HashMap
+	private static final ObjectStreamField[] serialPersistentFields = {
+		new ObjectStreamField("database", HashMap.class)
+	};
+	
+	private static final int LOCK_STRIPES = 64; //number of write locks. Must be a power of 2
+	
+	private transient ConcurrentHashMap<String, UserEntry> database;
+	//per-user record files that entries are loaded from on first use. null if every entry is in memory
+	private transient ShardedUserStore store;
+	//the write locks. A user's changes are made while holding lockFor(userName)
+	private transient Object[] locks = newLocks();
+	//the secondary indexes. null until first queried, so that loading the DB does not pay for them
+	private transient volatile UserIndex index;
+	//the class-wide grade aggregates. null until first queried, unless loaded with the DB
+	private transient volatile GradeAggregates aggregates;
+	//the users counted so far while the aggregates are being counted. null once every user is counted
+	private transient volatile Set<String> countedUsers;
+	//the pass & fail bitmaps of every test. null until first queried
+	private transient volatile MasteryIndex mastery;
+	//told of every change to a user. null if no one is listening
+	private transient volatile UserChangeListener listener;
+	//the clock that every change is stamped with
+	private transient AtomicLong clock = new AtomicLong();
+	//the clock values that open snapshots were registered at, and the number of snapshots at each
+	private transient ConcurrentSkipListMap<Long, AtomicInteger> snapshots = new ConcurrentSkipListMap<Long, AtomicInteger>();
+	//the users whose replaced states are kept for open snapshots
+	private transient ConcurrentLinkedQueue<String> retained = new ConcurrentLinkedQueue<String>();
 	
 	/**initialization of DB. It will be populated with the values stored in Hash table*/
 	public UserDatabase(){
-		database = new HashMap<String, UserEntry>();
+		database = new ConcurrentHashMap<String, UserEntry>();
 	DefaulPhonyUsers defaultUser = new DefaulPhonyUsers(this);  
 		defaultUser.populatePhonyUsers();
 	}
+	
+	/**initialization of a DB whose users are stored in per-user record files. No user is read
+	 * until it is first used. An empty store is populated with the default users.*/
+	public UserDatabase(ShardedUserStore store) throws IOException{
+		database = new ConcurrentHashMap<String, UserEntry>();
+		if(store.size() == 0){
+			DefaulPhonyUsers defaultUser = new DefaulPhonyUsers(this);
+			defaultUser.populatePhonyUsers();
+			for(String userName: database.keySet())
+				store.saveUser(userName, database.get(userName));
+		}
+		this.store = store;
+	}
+	
+	/**initialization of a DB holding the specified entries, without the default users*/
+	UserDatabase(ConcurrentHashMap<String, UserEntry> entries){
+		database = entries;
+	}
+	
+	/*method creates the write locks*/
+	private static Object[] newLocks(){
+		Object[] locks = new Object[LOCK_STRIPES];
+		for(int i = 0; i < locks.length; i++)
+			locks[i] = new Object();
+		return locks;
+	}
+	
+	/*method returns the write lock of a user. Every change to the user is made while holding it, so code
+	 *that holds it can read and change the user as one step*/
+	Object lockFor(String userName){
+		int hash = userName.hashCode();
+		return locks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+	}
+	
+	/*method returns the entry of a user, reading it from the user's record file if it is not loaded yet.
+	 *If two threads load the same user, both receive the entry that was loaded first*/
+	UserEntry getEntry(String userName){
+		UserEntry entry = database.get(userName);
+		if(entry == null && store != null){
+			try {
+				entry = store.loadUser(userName);
+			} catch (IOException e) {
+				throw new IllegalStateException("The record of user \"" + userName + "\" can not be read.", e);
+			}
+			if(entry != null){
+				UserEntry loaded = database.putIfAbsent(userName, entry);
+				if(loaded != null)
+					entry = loaded;
+			}
+		}
+		return entry;
+	}
+	
+	/*method returns the entry of a user. A user that is not loaded yet is read from its record file, but
+	 *is not kept in memory. Used to walk every user without loading the whole DB*/
+	UserEntry readEntry(String userName) throws IOException{
+		UserEntry entry = database.get(userName);
+		if(entry == null && store != null)
+			entry = store.loadUser(userName);
+		return entry;
+	}
+	
+	/*method reads the entry of a user for building an index, without keeping it in memory. Must be called
+	 *while holding the user's lock, so the user can not be changed between the read and the indexing*/
+	private UserEntry scanEntry(String userName){
+		try {
+			return readEntry(userName);
+		} catch (IOException e) {
+			throw new IllegalStateException("The record of user \"" + userName + "\" can not be read.", e);
+		}
+	}
+	
+	/*method writes a loaded user's entry to its record file. Does nothing if this DB does not use record files.
+	 *The user can not be changed during the write, so the record never holds half of a change*/
+	public void flushUser(String userName) throws IOException{
+		UserEntry entry = database.get(userName);
+		if(store == null || entry == null)
+			return;
+		synchronized(lockFor(userName)){
+			store.saveUser(userName, entry);
+		}
+	}
+	
+	/*method writes the entries of many loaded users to their record files as one step: after a crash, every
+	 *record holds its new state, or none does (see ShardedUserStore.saveUsers). Every lock is held during the
+	 *write, so no user can be changed, or written by flushUser, until it is done. Does nothing if this DB does
+	 *not use record files*/
+	public void flushUsers(Collection<String> userNames) throws IOException{
+		if(store != null)
+			flushUsers(0, userNames);
+	}
+	
+	/*method takes the locks in order, from "stripe" to the last, and then writes the users' entries*/
+	private void flushUsers(int stripe, Collection<String> userNames) throws IOException{
+		if(stripe < locks.length){
+			synchronized(locks[stripe]){
+				flushUsers(stripe + 1, userNames);
+			}
+			return;
+		}
+		Map<String, UserEntry> entries = new LinkedHashMap<String, UserEntry>();
+		for(String userName: userNames){
+			UserEntry entry = database.get(userName);
+			if(entry != null)
+				entries.put(userName, entry);
+		}
+		store.saveUsers(entries);
+	}
+	
+	/*method writes every loaded user's entry to its record file*/
+	public void flushLoadedUsers() throws IOException{
+		for(String userName: database.keySet())
+			flushUser(userName);
+	}
+	
+	/*method returns the user names of all users, including users that are not loaded yet*/
+	public Set<String> getUserNames(){
+		if(store == null)
+			return database.keySet();
+		Set<String> userNames = store.getUserNames();
+		userNames.addAll(database.keySet());
+		return userNames;
+	}
 	/*this method will add users to the database. It will pass all needed values 
 	*to it such as user name, password, first name, last name and grade level. 
 	*It will also pass the report of all taken tests
@@ -54,10 +247,10 @@ public class UserDatabase implements Serializable{
 		entry.setLastName(lastName);
 		entry.setGradeLevel(gradeLevel);
 		entry.setLastActiveTest(1);
-		entry.setReportCard(ReportCard.getHashMap(gradeLevel));
+		entry.setPackedReportCard(ReportCard.getPackedReportCard(gradeLevel));
 		
 		/**at this point system will save all needed information into the database*/
-		database.put(userName, entry);
+		putEntry(userName, entry);
 	};
 	/**method to add user*/
 	public void addUser(String userName, 
@@ -75,66 +268,640 @@ public class UserDatabase implements Serializable{
 		entry.setLastActiveTest(1);
 		entry.setReportCard(reportCard);
 		
-		database.put(userName, entry);
+		putEntry(userName, entry);
 	};
 	
+	/*method adds a batch of prepared entries. Used by bulk imports*/
+	void addEntries(List<String> userNames, List<UserEntry> entries){
+		for(int i = 0; i < userNames.size(); i++)
+			putEntry(userNames.get(i), entries.get(i));
+	}
+	
+	/*method stores a new entry, replacing any previous entry of the user, and indexes it*/
+	private void putEntry(String userName, UserEntry entry){
+		synchronized(lockFor(userName)){
+			UserVersion state = entry.getVersion();
+			UserEntry previous = database.get(userName);
+			prepare(state, previous == null ? null : previous.getVersion());
+			previous = database.put(userName, entry);
+			stamp(userName, state);
+			UserIndex index = this.index;
+			if(index != null){
+				if(previous != null)
+					index.remove(userName, previous);
+				index.add(userName, entry);
+			}
+			GradeAggregates aggregates = getAggregatesFor(userName);
+			if(aggregates != null){
+				if(previous != null)
+					aggregates.countReportCard(previous.getPackedReportCard(), -1);
+				aggregates.countReportCard(entry.getPackedReportCard(), 1);
+			}
+			indexReportCard(userName, previous == null ? null : previous.getPackedReportCard(),
+					entry.getPackedReportCard());
+			UserChangeListener listener = this.listener;
+			if(listener != null)
+				listener.userChanged(userName, UserChangeListener.ALL_FIELDS | UserChangeListener.GRADES_RESET
+						| UserChangeListener.LAST_ACTIVE_TEST_RESET);
+		}
+	}
+	
+	/*method sets the listener that is told of every change to a user, or removes it if listener is null.
+	 *Changes made before it is set are not reported*/
+	public void setChangeListener(UserChangeListener listener){
+		this.listener = listener;
+	}
+	
+	/*method returns the secondary indexes, building them first if no query has been made yet. Once built,
+	 *they are kept up to date by every change. Building them reads every user once, without loading the
+	 *users that are not loaded yet*/
+	private UserIndex getIndex(){
+		UserIndex index = this.index;
+		if(index != null)
+			return index;
+		synchronized(locks){
+			if(this.index != null)
+				return this.index;
+			//published first, so that changes made while it is built are not lost
+			index = new UserIndex();
+			this.index = index;
+			for(String userName: getUserNames()){
+				synchronized(lockFor(userName)){
+					UserEntry entry = scanEntry(userName);
+					if(entry != null)
+						index.add(userName, entry);
+				}
+			}
+			return index;
+		}
+	}
+	
+	/*method returns the class-wide grade aggregates, counting every user's grades first if they have not
+	 *been counted (or loaded) yet. Once counted, they are kept up to date by every change. Counting them
+	 *reads every user once, without loading the users that are not loaded yet*/
+	public GradeAggregates getAggregates(){
+		GradeAggregates aggregates = this.aggregates;
+		if(aggregates != null)
+			return aggregates;
+		synchronized(locks){
+			if(this.aggregates != null)
+				return this.aggregates;
+			//published first, so that changes made while they are counted are not lost. A change to a user
+			//that is not counted yet is left out, since the user's newest state is counted when it is reached
+			Set<String> counted = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+			countedUsers = counted;
+			aggregates = new GradeAggregates();
+			this.aggregates = aggregates;
+			for(String userName: getUserNames()){
+				synchronized(lockFor(userName)){
+					UserEntry entry = scanEntry(userName);
+					if(entry != null)
+						aggregates.countReportCard(entry.getPackedReportCard(), 1);
+					counted.add(userName);
+				}
+			}
+			countedUsers = null;
+			return aggregates;
+		}
+	}
+	
+	/*method returns the pass & fail bitmaps of every test, building them first if no query has been made
+	 *yet. Once built, they are kept up to date by every change. Building them reads every user once, without
+	 *loading the users that are not loaded yet*/
+	public MasteryIndex getMasteryIndex(){
+		MasteryIndex mastery = this.mastery;
+		if(mastery != null)
+			return mastery;
+		synchronized(locks){
+			if(this.mastery != null)
+				return this.mastery;
+			//published first, so that changes made while it is built are not lost
+			mastery = new MasteryIndex();
+			this.mastery = mastery;
+			for(String userName: getUserNames()){
+				synchronized(lockFor(userName)){
+					UserEntry entry = scanEntry(userName);
+					if(entry != null)
+						mastery.update(userName, null, entry.getPackedReportCard());
+				}
+			}
+			return mastery;
+		}
+	}
+	
+	/*method returns the aggregates that a change to a user must be counted in, or null if there are none.
+	 *While the aggregates are being counted, a user that has not been counted yet has none. Must be called
+	 *while holding the user's lock*/
+	private GradeAggregates getAggregatesFor(String userName){
+		GradeAggregates aggregates = this.aggregates;
+		Set<String> counted = countedUsers;
+		if(counted != null && !counted.contains(userName))
+			return null;
+		return aggregates;
+	}
+	
+	/*method uses aggregates that were saved with this DB, instead of counting every user's grades. The
+	 *aggregates must describe exactly the grades of this DB, and must be set before any grade changes*/
+	public void setAggregates(GradeAggregates aggregates){
+		synchronized(locks){
+			this.aggregates = aggregates;
+		}
+	}
+	
+	/*method returns the class-wide grade aggregates if they are counted, without counting them. Used to
+	 *save them with the DB*/
+	public GradeAggregates getCountedAggregates(){
+		return aggregates;
+	}
+	
+	/*method returns the user names of a grade level, ordered by last active test. No entry is read*/
+	public List<String> getUsersInGrade(int gradeLevel){
+		return getIndex().findByGradeLevel(gradeLevel);
+	}
+	
+	/*method returns the user names of a grade level whose last active test is at least fromTest and
+	 *less than toTest, ordered by last active test. No entry is read*/
+	public List<String> getUsersByProgress(int gradeLevel, int fromTest, int toTest){
+		return getIndex().findByProgress(gradeLevel, fromTest, toTest);
+	}
+	
+	/*method returns every user name, ordered by last name and then first name. No entry is read*/
+	public List<String> getUsersByName(){
+		return getIndex().findByLastName("");
+	}
+	
+	/*method returns the user names whose last name starts with prefix (ignoring case), ordered by last
+	 *name and then first name. No entry is read*/
+	public List<String> getUsersByLastName(String prefix){
+		return getIndex().findByLastName(prefix);
+	}
+	
+	
+	/*method writes every user's entry to the specified per-user record files*/
+	public void copyTo(ShardedUserStore target) throws IOException{
+		for(String userName: getUserNames())
+			target.saveUser(userName, getEntry(userName));
+	}
+	
+	/* method returns true if the user name is a key in the database*/
+	public boolean containsUser(String userName){
+		return database.containsKey(userName) || (store != null && store.containsUser(userName));
+	}
 	
 	/* method returns password value*/
 	public String getPassword(String userName){
-		return database.get(userName).getPassword();
+		return getEntry(userName).getPassword();
 	}
 	
 	/* method returns First name value */
 	public String getFirstName(String userName){
-		return database.get(userName).getFirstName();
+		return getEntry(userName).getFirstName();
 	}
 	
 	/*method returns Last name value*/
 	public String getLastName(String userName){
-		return database.get(userName).getLastName();
+		return getEntry(userName).getLastName();
 	}
 	
 	/*method returns Grade level value*/
 	public int getGradeLevel(String userName){
-		return database.get(userName).getGradeLevel();
+		return getEntry(userName).getGradeLevel();
 	}
 	
 	/*method returns test values*/
 	public int getLastActiveTest(String userName){
-		return database.get(userName).getLastActiveTest();
+		return getEntry(userName).getLastActiveTest();
 	}
 	
+	/*method returns a copy of the report card. Changes to the copy must be stored with setReportCard*/
 	public HashMap<ModuleSelectButtonInterface, ModuleReportSummary> getReportCard(String userName){
-		return database.get(userName).getReportCard();
+		return getEntry(userName).getReportCard();
+	}
+	
+	/*method returns the report card in its packed form. The report card is a snapshot; it must not be
+	 *changed, and later changes to the user's grades replace it rather than change it*/
+	public PackedReportCard getPackedReportCard(String userName){
+		return getEntry(userName).getPackedReportCard();
+	}
+	
+	/*method returns the grade of one test and difficulty level*/
+	public int getGrade(String userName, ModuleSelectButtonInterface test, DifficultyLevel difficulty){
+		return ReportCard.getGrade(getEntry(userName).getPackedReportCard(), test, difficulty);
+	}
+	
+	/*method sets the grade and maximum grade of one test and difficulty level*/
+	public void setGrade(String userName, ModuleSelectButtonInterface test, int grade, int maxGrade,
+			DifficultyLevel difficulty){
+		UserEntry entry = getEntry(userName);
+		synchronized(lockFor(userName)){
+			PackedReportCard reportCard = copyReportCard(entry);
+			reportCard.setGrade(test, grade, maxGrade, difficulty);
+			countGradeChange(userName, entry.getPackedReportCard(), reportCard, test, difficulty);
+			indexReportCard(userName, entry.getPackedReportCard(), reportCard);
+			commit(userName, entry, gradeFields(entry.getPackedReportCard(), reportCard),
+					entry.getVersion().withReportCard(reportCard));
+		}
+	}
+	
+	/*method sets the grade and maximum grade of one test and difficulty level, only if the grade is
+	 *higher than the current grade. The check and the change are one atomic step.
+	 *Returns true if the grade was set*/
+	public boolean setGradeIfHigher(String userName, ModuleSelectButtonInterface test, int grade, int maxGrade,
+			DifficultyLevel difficulty){
+		UserEntry entry = getEntry(userName);
+		synchronized(lockFor(userName)){
+			if(grade <= ReportCard.getGrade(entry.getPackedReportCard(), test, difficulty))
+				return false;
+			PackedReportCard reportCard = copyReportCard(entry);
+			reportCard.setGrade(test, grade, maxGrade, difficulty);
+			countGradeChange(userName, entry.getPackedReportCard(), reportCard, test, difficulty);
+			indexReportCard(userName, entry.getPackedReportCard(), reportCard);
+			commit(userName, entry, gradeFields(entry.getPackedReportCard(), reportCard),
+					entry.getVersion().withReportCard(reportCard));
+			return true;
+		}
+	}
+	
+	/*method returns the changed fields of a grade change. A report card of another grade level replaces
+	 *the old report card, so its grades may be lower*/
+	private static int gradeFields(PackedReportCard oldCard, PackedReportCard newCard){
+		if(oldCard == null || oldCard.getGradeLevel() != newCard.getGradeLevel())
+			return UserChangeListener.GRADES | UserChangeListener.GRADES_RESET;
+		return UserChangeListener.GRADES;
+	}
+	
+	/*method updates the aggregates after one grade of a report card has changed. Only that grade is
+	 *counted again, unless the report card was replaced with one of another grade level. Must be called
+	 *while holding the user's lock*/
+	private void countGradeChange(String userName, PackedReportCard oldCard, PackedReportCard newCard,
+			ModuleSelectButtonInterface test, DifficultyLevel difficulty){
+		GradeAggregates aggregates = getAggregatesFor(userName);
+		if(aggregates == null)
+			return;
+		if(oldCard == null || oldCard.getGradeLevel() != newCard.getGradeLevel()){
+			aggregates.countReportCard(oldCard, -1);
+			aggregates.countReportCard(newCard, 1);
+		}else{
+			aggregates.update(newCard.getGradeLevel(), test, difficulty, oldCard.getGrade(test, difficulty),
+					oldCard.getMaxGrade(test, difficulty), newCard.getGrade(test, difficulty),
+					newCard.getMaxGrade(test, difficulty));
+		}
+	}
+	
+	/*method updates the pass & fail bitmaps after a user's report card has been replaced. Must be called
+	 *while holding the user's lock*/
+	private void indexReportCard(String userName, PackedReportCard oldCard, PackedReportCard newCard){
+		MasteryIndex mastery = this.mastery;
+		if(mastery != null)
+			mastery.update(userName, oldCard, newCard);
+	}
+	
+	/*method returns a changeable copy of a user's report card. Must be called while holding the user's lock*/
+	private PackedReportCard copyReportCard(UserEntry entry){
+		PackedReportCard reportCard = entry.getPackedReportCard();
+		if(reportCard == null || reportCard.getGradeLevel() != entry.getGradeLevel())
+			return PackedReportCard.fromHashMap(entry.getGradeLevel(), entry.getReportCard());
+		return reportCard.copy();
 	}
 	
 	/*method sets password value*/
 	public void setPassword(String userName, String password){
-		database.get(userName).setPassword(password);
+		UserEntry entry = getEntry(userName);
+		synchronized(lockFor(userName)){
+			commit(userName, entry, UserChangeListener.PASSWORD, entry.getVersion().withPassword(password));
+		}
 	}
 	
 	/* method sets First name value*/
 	public void setFirstName(String userName, String firstName){
-		database.get(userName).setFirstName(firstName);
+		UserEntry entry = getEntry(userName);
+		synchronized(lockFor(userName)){
+			String oldFirstName = entry.getFirstName();
+			commit(userName, entry, UserChangeListener.FIRST_NAME, entry.getVersion().withFirstName(firstName));
+			UserIndex index = this.index;
+			if(index != null)
+				index.updateName(userName, entry.getLastName(), oldFirstName, entry.getLastName(), firstName);
+		}
 	}
 	
 	/*method sets Last name value*/
 	public void setLastName(String userName, String lastName){
-		database.get(userName).setLastName(lastName);
+		UserEntry entry = getEntry(userName);
+		synchronized(lockFor(userName)){
+			String oldLastName = entry.getLastName();
+			commit(userName, entry, UserChangeListener.LAST_NAME, entry.getVersion().withLastName(lastName));
+			UserIndex index = this.index;
+			if(index != null)
+				index.updateName(userName, oldLastName, entry.getFirstName(), lastName, entry.getFirstName());
+		}
 	}
 	
 	/*method sets Grade level value*/
 	public void setGradeLevel(String userName, int gradeLevel){
-		database.get(userName).setGradeLevel(gradeLevel);
+		UserEntry entry = getEntry(userName);
+		synchronized(lockFor(userName)){
+			int oldGradeLevel = entry.getGradeLevel();
+			commit(userName, entry, UserChangeListener.GRADE_LEVEL, entry.getVersion().withGradeLevel(gradeLevel));
+			UserIndex index = this.index;
+			if(index != null)
+				index.updateProgress(userName, oldGradeLevel, entry.getLastActiveTest(), gradeLevel, entry.getLastActiveTest());
+		}
 	}
 	
 	/*method sets last taken test value*/
 	public void setLastActiveTest(String userName, int lastActiveTest){
-		database.get(userName).setLastActiveTest(lastActiveTest);
+		UserEntry entry = getEntry(userName);
+		synchronized(lockFor(userName)){
+			setLastActiveTest(userName, entry, lastActiveTest,
+					UserChangeListener.LAST_ACTIVE_TEST | UserChangeListener.LAST_ACTIVE_TEST_RESET);
+		}
+	}
+	
+	/*method sets last taken test value, only if it is higher than the current value. The check and the
+	 *change are one atomic step. Returns true if the value was set*/
+	public boolean setLastActiveTestIfHigher(String userName, int lastActiveTest){
+		UserEntry entry = getEntry(userName);
+		synchronized(lockFor(userName)){
+			if(lastActiveTest <= entry.getLastActiveTest())
+				return false;
+			setLastActiveTest(userName, entry, lastActiveTest, UserChangeListener.LAST_ACTIVE_TEST);
+			return true;
+		}
+	}
+	
+	/*method sets last taken test value and updates the index, and reports "fields" as changed. Must be
+	 *called while holding the user's lock*/
+	private void setLastActiveTest(String userName, UserEntry entry, int lastActiveTest, int fields){
+		int oldLastActiveTest = entry.getLastActiveTest();
+		commit(userName, entry, fields, entry.getVersion().withLastActiveTest(lastActiveTest));
+		UserIndex index = this.index;
+		if(index != null)
+			index.updateProgress(userName, entry.getGradeLevel(), oldLastActiveTest, entry.getGradeLevel(), lastActiveTest);
 	}
 	
 	/*method sets report card values*/
 	public void setReportCard(String userName, HashMap<ModuleSelectButtonInterface, ModuleReportSummary> reportCard){
-		database.get(userName).setReportCard(reportCard);
+		UserEntry entry = getEntry(userName);
+		synchronized(lockFor(userName)){
+			setPackedReportCard(userName, UserEntry.toPackedReportCard(entry.getGradeLevel(), reportCard));
+		}
+	}
+	
+	/*method replaces a user's report card with a packed report card, which must not be changed afterwards.
+	 *Its grade level is kept, even if it is not the user's. Used to merge the report cards of other machines*/
+	void setPackedReportCard(String userName, PackedReportCard reportCard){
+		UserEntry entry = getEntry(userName);
+		synchronized(lockFor(userName)){
+			PackedReportCard oldCard = entry.getPackedReportCard();
+			commit(userName, entry, UserChangeListener.GRADES | UserChangeListener.GRADES_RESET,
+					entry.getVersion().withReportCard(reportCard));
+			GradeAggregates aggregates = getAggregatesFor(userName);
+			if(aggregates != null){
+				aggregates.countReportCard(oldCard, -1);
+				aggregates.countReportCard(entry.getPackedReportCard(), 1);
+			}
+			indexReportCard(userName, oldCard, entry.getPackedReportCard());
+		}
+	}
+	
+	/*method changes many users as one step. The new states are made on "threads" threads while every lock is
+	 *held, so no other change can be made until the batch is done, and are then published and indexed on the
+	 *thread holding the locks. Each new state is stamped with the same clock value, and the clock only reaches
+	 *it once every new state is published: a snapshot sees every change of the batch, or none of them. Users that do not exist, or that "change" leaves unchanged, are
+	 *skipped. If a new state can not be made, no user is changed. Returns the changed users, and reports
+	 *"fields" as changed for each of them*/
+	List<String> commitBatch(List<String> userNames, BatchUpdate.Change change, int fields, int threads)
+			throws IOException{
+		return commitBatch(0, userNames, change, fields, Math.max(1, threads));
+	}
+	
+	/*method takes the locks in order, from "stripe" to the last, and then makes the changes of a batch*/
+	private List<String> commitBatch(int stripe, List<String> userNames, final BatchUpdate.Change change, int fields,
+			int threads) throws IOException{
+		if(stripe < locks.length){
+			synchronized(locks[stripe]){
+				return commitBatch(stripe + 1, userNames, change, fields, threads);
+			}
+		}
+		final String[] names = userNames.toArray(new String[0]);
+		final UserEntry[] entries = new UserEntry[names.length];
+		final UserVersion[] states = new UserVersion[names.length];
+		//every change is stamped while holding a lock, so the clock can not move until the batch is done
+		final long version = clock.get() + 1;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try{
+			List<Future<?>> made = new ArrayList<Future<?>>();
+			for(int i = 0; i < threads; i++){
+				final int from = (int)((long)names.length * i / threads);
+				final int to   = (int)((long)names.length * (i + 1) / threads);
+				made.add(pool.submit(new Runnable() {
+					public void run(){
+						makeStates(names, entries, states, change, from, to, version);
+					}
+				}));
+			}
+			try {
+				awaitAll(made);
+			} catch (ExecutionException e) {
+				throw new IOException("UserDatabase: A change of the batch could not be made.", e.getCause());
+			}
+		}finally{
+			pool.shutdown();
+		}
+		//published on this thread, since it is the one holding every user's lock
+		publishStates(names, entries, states);
+		clock.set(version);
+		List<String> changed = new ArrayList<String>();
+		UserChangeListener listener = this.listener;
+		for(int i = 0; i < names.length; i++){
+			if(states[i] == null)
+				continue;
+			retire(names[i], entries[i].getVersion());
+			changed.add(names[i]);
+			if(listener != null)
+				listener.userChanged(names[i], fields);
+		}
+		return changed;
+	}
+	
+	/*method makes the new states of a range of a batch's users, stamped with the batch's clock value. Nothing
+	 *is published. Run on a batch's threads*/
+	private void makeStates(String[] names, UserEntry[] entries, UserVersion[] states, BatchUpdate.Change change,
+			int from, int to, long version){
+		for(int i = from; i < to; i++){
+			entries[i] = getEntry(names[i]);
+			if(entries[i] == null)
+				continue;
+			UserVersion previous = entries[i].getVersion();
+			UserVersion state = change.apply(names[i], previous);
+			if(state == null || state == previous)
+				continue;
+			state.version  = version;
+			state.previous = previous;
+			states[i] = state;
+		}
+	}
+	
+	/*method publishes the new states of a batch's users, and updates the indexes. Must be called while
+	 *holding every user's lock*/
+	private void publishStates(String[] names, UserEntry[] entries, UserVersion[] states){
+		for(int i = 0; i < names.length; i++){
+			if(states[i] == null)
+				continue;
+			entries[i].setVersion(states[i]);
+			indexChange(names[i], states[i].previous, states[i]);
+		}
+	}
+	
+	/*method waits for every task of a batch. A batch is never left half done, so interrupts are put off
+	 *until every task is done*/
+	private static void awaitAll(List<Future<?>> tasks) throws ExecutionException{
+		boolean isInterrupted = false;
+		for(Future<?> task: tasks){
+			while(true){
+				try {
+					task.get();
+					break;
+				} catch (InterruptedException e) {
+					isInterrupted = true;
+				}
+			}
+		}
+		if(isInterrupted)
+			Thread.currentThread().interrupt();
+	}
+	
+	/*method updates the indexes, aggregates, and pass & fail bitmaps after a user's state has been replaced
+	 *by a batch. Must be called while holding the user's lock*/
+	private void indexChange(String userName, UserVersion previous, UserVersion state){
+		UserIndex index = this.index;
+		if(index != null){
+			if(previous.gradeLevel != state.gradeLevel || previous.lastActiveTest != state.lastActiveTest)
+				index.updateProgress(userName, previous.gradeLevel, previous.lastActiveTest, state.gradeLevel,
+						state.lastActiveTest);
+			if(!Objects.equals(previous.lastName, state.lastName) || !Objects.equals(previous.firstName, state.firstName))
+				index.updateName(userName, previous.lastName, previous.firstName, state.lastName, state.firstName);
+		}
+		if(previous.reportCard != state.reportCard){
+			GradeAggregates aggregates = getAggregatesFor(userName);
+			if(aggregates != null){
+				aggregates.countReportCard(previous.reportCard, -1);
+				aggregates.countReportCard(state.reportCard, 1);
+			}
+			indexReportCard(userName, previous.reportCard, state.reportCard);
+		}
+	}
+	
+	/*method replaces a user's state with a changed copy of it, and reports the changed fields. Must be called
+	 *while holding the user's lock*/
+	private void commit(String userName, UserEntry entry, int fields, UserVersion state){
+		prepare(state, entry.getVersion());
+		entry.setVersion(state);
+		stamp(userName, state);
+		UserChangeListener listener = this.listener;
+		if(listener != null)
+			listener.userChanged(userName, fields);
+	}
+	
+	/*method links a new state to the state it replaces, and marks it as not stamped yet. A snapshot that
+	 *finds the new state waits until it is stamped, so it never reads a change that it later finds was
+	 *made after the snapshot was opened, or the reverse. Must be called before the new state is published*/
+	private void prepare(UserVersion state, UserVersion previous){
+		state.version = UserVersion.PENDING;
+		state.previous = previous;
+	}
+	
+	/*method stamps a published state with the next clock value, and drops the replaced states that no open
+	 *snapshot can need. Must be called while holding the user's lock*/
+	private void stamp(String userName, UserVersion state){
+		state.version = clock.incrementAndGet();
+		retire(userName, state);
+	}
+	
+	/*method drops the replaced states of a user that no open snapshot can need. Every open snapshot reads
+	 *at or after the oldest registered clock value, so only the newest state made at or before it, and the
+	 *states made after it, are kept. Must be called while holding the user's lock*/
+	private void retire(String userName, UserVersion state){
+		Map.Entry<Long, AtomicInteger> oldest = snapshots.firstEntry();
+		if(oldest == null){
+			state.previous = null;
+			return;
+		}
+		UserVersion kept = state;
+		while(kept.previous != null && kept.version > oldest.getKey())
+			kept = kept.previous;
+		kept.previous = null;
+		if(state.previous != null)
+			retained.add(userName);
+	}
+	
+	/*method opens a snapshot of every user, as they are now. Takes no lock, and does not wait for or hold
+	 *up any change. The snapshot must be closed, or every replaced state is kept*/
+	public DatabaseSnapshot openSnapshot(){
+		long registered = clock.get();
+		synchronized(snapshots){
+			AtomicInteger count = snapshots.get(registered);
+			if(count == null)
+				snapshots.put(registered, new AtomicInteger(1));
+			else
+				count.incrementAndGet();
+		}
+		//read again after registering: every change stamped after this read sees the registration, and
+		//keeps the states that the snapshot reads
+		return new DatabaseSnapshot(this, registered, clock.get());
+	}
+	
+	/*method closes a snapshot, and drops the replaced states that the remaining snapshots can not need*/
+	void closeSnapshot(long registered){
+		synchronized(snapshots){
+			if(snapshots.get(registered).decrementAndGet() == 0)
+				snapshots.remove(registered);
+		}
+		for(int i = retained.size(); i > 0; i--){
+			String userName = retained.poll();
+			if(userName == null)
+				break;
+			UserEntry entry = database.get(userName);
+			if(entry == null)
+				continue;
+			synchronized(lockFor(userName)){
+				retire(userName, entry.getVersion());
+			}
+		}
+	}
+	
+	/*method returns the state of a user as it was at the specified clock value, or null if the user did not
+	 *exist then. A user that is not loaded yet is read from its record file, but is not kept in memory*/
+	UserVersion readVersion(String userName, long clock) throws IOException{
+		UserEntry entry = database.get(userName);
+		if(entry == null && store != null){
+			entry = store.loadUser(userName);
+			//loaded (and maybe changed) while it was read: the loaded entry holds every state since
+			UserEntry loaded = database.get(userName);
+			if(loaded != null)
+				entry = loaded;
+		}
+		return entry == null ? null : entry.getVersion().at(clock);
+	}
+	
+	/*method writes the DB in its original serialized form: a HashMap of the loaded entries*/
+	private void writeObject(ObjectOutputStream out) throws IOException{
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("database", new HashMap<String, UserEntry>(database));
+		out.writeFields();
+	}
+	
+	/*method reads a DB that was written in its original serialized form*/
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException{
+		ObjectInputStream.GetField fields = in.readFields();
+		HashMap<String, UserEntry> entries = (HashMap<String, UserEntry>)fields.get("database", null);
+		database = new ConcurrentHashMap<String, UserEntry>();
+		if(entries != null)
+			database.putAll(entries);
+		locks = newLocks();
+		clock = new AtomicLong();
+		snapshots = new ConcurrentSkipListMap<Long, AtomicInteger>();
+		retained = new ConcurrentLinkedQueue<String>();
 	}
 }
@@ -18,6 +18,10 @@
  */
 package project.database;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.HashMap;
 
@@ -25,66 +29,169 @@ import project.interfaces.ModuleSelectButtonInterface;
 
 /**
  * TODO Replace this class.
+ * NOTE: The report card is held as a PackedReportCard. The serialized form of this class is unchanged
+ *  (the report card is written as a HashMap), so existing database files remain readable.
+ * NOTE: The setters take no lock. UserDatabase makes every change while holding the user's lock.
+ * NOTE: The fields are held as one immutable UserVersion, which every change replaces. See DatabaseSnapshot.
  * @author Kenneth Chin
  */
 public class UserEntry implements Serializable{
 	
-	private String password    = null;
-	private String firstName   = null;
-	private String lastName    = null;
-	private int gradeLevel     = 0;
-	private int lastActiveTest = 1;
+	//Pinned to the original value, so that existing database files remain readable.
+	private static final long serialVersionUID = -140937678712440039L;
 	
-	private HashMap<ModuleSelectButtonInterface, ModuleReportSummary> reportCard = null;
+	//The original serialized fields of this class.
+	private static final ObjectStreamField[] serialPersistentFields = {
+		new ObjectStreamField("password",       String.class),
+		new ObjectStreamField("firstName",      String.class),
+		new ObjectStreamField("lastName",       String.class),
+		new ObjectStreamField("gradeLevel",     int.class),
+		new ObjectStreamField("lastActiveTest", int.class),
+		new ObjectStreamField("reportCard",     HashMap.class)
+	};
+	
+	//The user's current state. Replaced, never changed, by every setter, so a reader always sees a
+	//complete user. Volatile, so that a change made by one thread is seen by every other thread without a lock.
+	private transient volatile UserVersion current = new UserVersion(null, null, null, 0, 1, null);
 	
 	public UserEntry(){}
 	
 	public String getPassword(){
-		return password;
+		return current.password;
 	}
 	
 	public String getFirstName(){
-		return firstName;
+		return current.firstName;
 	}
 	
 	public String getLastName(){
-		return lastName;
+		return current.lastName;
 	}
 	
 	public int getGradeLevel(){
-		return gradeLevel;
+		return current.gradeLevel;
 	}
 	
 	public int getLastActiveTest(){
-		return lastActiveTest;
+		return current.lastActiveTest;
 	}
 	
+	/**
+	 * Used to obtain a copy of the report card. Changes to the copy must be stored with setReportCard().
+	 * @return A HashMap copy of the report card, or null if there is no report card.
+	 */
 	public HashMap<ModuleSelectButtonInterface, ModuleReportSummary> getReportCard(){
-		return reportCard;
+		return toHashMap(current.reportCard);
+	}
+	
+	public PackedReportCard getPackedReportCard(){
+		return current.reportCard;
 	}
 	
 	public void setPassword(String password){
-		this.password = password;
+		current = current.withPassword(password);
 	}
 	
 	public void setFirstName(String firstName){
-		this.firstName = firstName;
+		current = current.withFirstName(firstName);
 	}
 	
 	public void setLastName(String lastName){
-		this.lastName = lastName;
+		current = current.withLastName(lastName);
 	}
 	
 	public void setGradeLevel(int gradeLevel){
-		this.gradeLevel =  gradeLevel;
+		current = current.withGradeLevel(gradeLevel);
 	}
 	
 	public void setLastActiveTest(int lastActiveTest){
-		this.lastActiveTest = lastActiveTest;
+		current = current.withLastActiveTest(lastActiveTest);
 	}
 	
+	/**
+	 * Used to set the report card. The HashMap is packed using the current gradeLevel, so the
+	 *  gradeLevel should be set first.
+	 * @param reportCard The HashMap report card to be stored.
+	 */
 	public void setReportCard(HashMap<ModuleSelectButtonInterface, ModuleReportSummary> reportCard){
-		this.reportCard = reportCard;
+		current = current.withReportCard(toPackedReportCard(current.gradeLevel, reportCard));
+	}
+	
+	public void setPackedReportCard(PackedReportCard reportCard){
+		current = current.withReportCard(reportCard);
+	}
+	
+	/**
+	 * Used by UserDatabase to obtain the user's current state, together with the older states that open
+	 *  snapshots may still need.
+	 * @return The current UserVersion.
+	 */
+	UserVersion getVersion(){
+		return current;
+	}
+	
+	/**
+	 * Used by UserDatabase to replace the user's current state.
+	 * @param version The new UserVersion.
+	 */
+	void setVersion(UserVersion version){
+		current = version;
+	}
+	
+	/**
+	 * A helper method used to unpack a report card.
+	 * @param reportCard The PackedReportCard. May be null.
+	 * @return A HashMap copy of the report card, or null if there is no report card.
+	 */
+	static HashMap<ModuleSelectButtonInterface, ModuleReportSummary> toHashMap(PackedReportCard reportCard){
+		if(reportCard == null)
+			return null;
+		return reportCard.toHashMap();
+	}
+	
+	/**
+	 * A helper method used to pack a report card.
+	 * @param gradeLevel An int indicating the grade level that the report card is packed for.
+	 * @param reportCard The HashMap report card. May be null.
+	 * @return The PackedReportCard, or null if there is no report card.
+	 */
+	static PackedReportCard toPackedReportCard(int gradeLevel,
+			HashMap<ModuleSelectButtonInterface, ModuleReportSummary> reportCard){
+		if(reportCard == null)
+			return null;
+		return PackedReportCard.fromHashMap(gradeLevel, reportCard);
+	}
+	
+	/**
+	 * Writes this entry in its original serialized form.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException{
+		UserVersion state = current;
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("password",       state.password);
+		fields.put("firstName",      state.firstName);
+		fields.put("lastName",       state.lastName);
+		fields.put("gradeLevel",     state.gradeLevel);
+		fields.put("lastActiveTest", state.lastActiveTest);
+		fields.put("reportCard",     toHashMap(state.reportCard));
+		out.writeFields();
+	}
+	
+	/**
+	 * Reads an entry that was written in its original serialized form.
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException{
+		ObjectInputStream.GetField fields = in.readFields();
+		int gradeLevel = fields.get("gradeLevel", 0);
+		current = new UserVersion(
+				(String)fields.get("password",  null),
+				(String)fields.get("firstName", null),
+				(String)fields.get("lastName",  null),
+				gradeLevel,
+				fields.get("lastActiveTest", 1),
+				toPackedReportCard(gradeLevel,
+						(HashMap<ModuleSelectButtonInterface, ModuleReportSummary>)fields.get("reportCard", null)));
 	}
 	
  }
@@ -0,0 +1,204 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * This class holds the secondary indexes of a UserDatabase: every user ordered by (gradeLevel,
+ *  lastActiveTest), and every user ordered by (lastName, firstName). Queries return usernames only;
+ *  no UserEntry is read.
+ * The indexes are kept up to date by UserDatabase, which calls the update methods while holding the
+ *  changed user's lock. Queries take no lock. A query that runs during a change may miss the user that
+ *  is being changed, but never sees the user twice.
+ * @author Kenneth Chin
+ */
+final class UserIndex {
+
+	private final ConcurrentSkipListSet<ProgressKey> progress = new ConcurrentSkipListSet<ProgressKey>();
+	private final ConcurrentSkipListSet<NameKey>     names    = new ConcurrentSkipListSet<NameKey>();
+
+
+/******************
+ * Update methods *
+ ******************/
+
+	/**
+	 * Used to add a user to every index.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @param entry The user's UserEntry.
+	 */
+	void add(String userName, UserEntry entry){
+		progress.add(new ProgressKey(entry.getGradeLevel(), entry.getLastActiveTest(), userName));
+		names.add(new NameKey(entry.getLastName(), entry.getFirstName(), userName));
+	}
+
+	/**
+	 * Used to remove a user from every index.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @param entry The user's UserEntry, holding the values that the user was indexed with.
+	 */
+	void remove(String userName, UserEntry entry){
+		progress.remove(new ProgressKey(entry.getGradeLevel(), entry.getLastActiveTest(), userName));
+		names.remove(new NameKey(entry.getLastName(), entry.getFirstName(), userName));
+	}
+
+	/**
+	 * Used to move a user within the progress index, after its gradeLevel or lastActiveTest has changed.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @param oldGradeLevel An int indicating the user's previous gradeLevel.
+	 * @param oldLastActiveTest An int indicating the user's previous lastActiveTest.
+	 * @param gradeLevel An int indicating the user's new gradeLevel.
+	 * @param lastActiveTest An int indicating the user's new lastActiveTest.
+	 */
+	void updateProgress(String userName, int oldGradeLevel, int oldLastActiveTest, int gradeLevel, int lastActiveTest){
+		progress.remove(new ProgressKey(oldGradeLevel, oldLastActiveTest, userName));
+		progress.add(new ProgressKey(gradeLevel, lastActiveTest, userName));
+	}
+
+	/**
+	 * Used to move a user within the name index, after its first or last name has changed.
+	 * @param userName The String that is used as the database's key for the user.
+	 * @param oldLastName The user's previous last name.
+	 * @param oldFirstName The user's previous first name.
+	 * @param lastName The user's new last name.
+	 * @param firstName The user's new first name.
+	 */
+	void updateName(String userName, String oldLastName, String oldFirstName, String lastName, String firstName){
+		names.remove(new NameKey(oldLastName, oldFirstName, userName));
+		names.add(new NameKey(lastName, firstName, userName));
+	}
+
+
+/*****************
+ * Query methods *
+ *****************/
+
+	/**
+	 * Used to obtain the users of a grade level whose lastActiveTest is in the specified range, ordered
+	 *  by lastActiveTest.
+	 * @param gradeLevel An int indicating the grade level (0, 1, or 2).
+	 * @param fromTest An int indicating the lowest lastActiveTest (inclusive).
+	 * @param toTest An int indicating the highest lastActiveTest (exclusive).
+	 * @return A List of the matching usernames.
+	 */
+	List<String> findByProgress(int gradeLevel, int fromTest, int toTest){
+		if(fromTest >= toTest)
+			return new ArrayList<String>();
+		NavigableSet<ProgressKey> range = progress.subSet(new ProgressKey(gradeLevel, fromTest, ""), true,
+				new ProgressKey(gradeLevel, toTest, ""), false);
+		List<String> userNames = new ArrayList<String>();
+		for(ProgressKey key: range)
+			userNames.add(key.userName);
+		return userNames;
+	}
+
+	/**
+	 * Used to obtain every user of a grade level, ordered by lastActiveTest.
+	 * @param gradeLevel An int indicating the grade level (0, 1, or 2).
+	 * @return A List of the matching usernames.
+	 */
+	List<String> findByGradeLevel(int gradeLevel){
+		NavigableSet<ProgressKey> range = progress.subSet(new ProgressKey(gradeLevel, Integer.MIN_VALUE, ""), true,
+				new ProgressKey(gradeLevel + 1, Integer.MIN_VALUE, ""), false);
+		List<String> userNames = new ArrayList<String>();
+		for(ProgressKey key: range)
+			userNames.add(key.userName);
+		return userNames;
+	}
+
+	/**
+	 * Used to obtain the users whose last name starts with the specified prefix (ignoring case), ordered
+	 *  by last name, then first name.
+	 * @param prefix The String that the last names must start with. "" matches every user.
+	 * @return A List of the matching usernames.
+	 */
+	List<String> findByLastName(String prefix){
+		NavigableSet<NameKey> range = names;
+		if(prefix.length() > 0)
+			range = names.subSet(new NameKey(prefix, "", ""), true, new NameKey(prefix + '\uffff', "", ""), false);
+		List<String> userNames = new ArrayList<String>();
+		for(NameKey key: range)
+			userNames.add(key.userName);
+		return userNames;
+	}
+
+
+/**************
+ * Index keys *
+ **************/
+
+	/**
+	 * A progress index key. Ordered by gradeLevel, then lastActiveTest, then userName. Also used by
+	 *  ColumnarUserStore to order the results of its queries.
+	 */
+	static final class ProgressKey implements Comparable<ProgressKey>{
+		final int gradeLevel;
+		final int lastActiveTest;
+		final String userName;
+
+		ProgressKey(int gradeLevel, int lastActiveTest, String userName){
+			this.gradeLevel     = gradeLevel;
+			this.lastActiveTest = lastActiveTest;
+			this.userName       = userName;
+		}
+
+		@Override
+		public int compareTo(ProgressKey other){
+			if(gradeLevel != other.gradeLevel)
+				return (gradeLevel < other.gradeLevel) ? -1 : 1;
+			if(lastActiveTest != other.lastActiveTest)
+				return (lastActiveTest < other.lastActiveTest) ? -1 : 1;
+			return userName.compareTo(other.userName);
+		}
+	}
+
+	/**
+	 * A name index key. Ordered by lastName, then firstName (both ignoring case), then userName.
+	 *  A null name is ordered as "". Also used by ColumnarUserStore to order the results of its queries.
+	 */
+	static final class NameKey implements Comparable<NameKey>{
+		final String lastName;
+		final String firstName;
+		final String userName;
+
+		NameKey(String lastName, String firstName, String userName){
+			this.lastName  = (lastName  == null) ? "" : lastName;
+			this.firstName = (firstName == null) ? "" : firstName;
+			this.userName  = userName;
+		}
+
+		@Override
+		public int compareTo(NameKey other){
+			int result = String.CASE_INSENSITIVE_ORDER.compare(lastName, other.lastName);
+			if(result == 0)
+				result = String.CASE_INSENSITIVE_ORDER.compare(firstName, other.firstName);
+			if(result == 0)
+				result = lastName.compareTo(other.lastName);
+			if(result == 0)
+				result = firstName.compareTo(other.firstName);
+			if(result == 0)
+				result = userName.compareTo(other.userName);
+			return result;
+		}
+	}
+}
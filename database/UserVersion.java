@@ -0,0 +1,114 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.database;
+
+/**
+ * This class is one version of a user's state: every field of a UserEntry, as they were at one point
+ *  in time. A version is never changed once it is in use; a change to a user creates a new version,
+ *  which replaces the UserEntry's current version. A reader that holds a version therefore always sees
+ *  a complete, unchanging user.
+ * A version that is committed by UserDatabase is stamped with the database's clock, and linked to the
+ *  version that it replaced, for as long as an open DatabaseSnapshot may need the older version. See
+ *  UserDatabase.openSnapshot().
+ * @author Kenneth Chin
+ */
+final class UserVersion {
+
+	final String password;
+	final String firstName;
+	final String lastName;
+	final int gradeLevel;
+	final int lastActiveTest;
+	final PackedReportCard reportCard; //Never changed in place. May be null.
+
+	//Marks a version that is published, but not yet stamped with the database clock.
+	static final long PENDING = Long.MAX_VALUE;
+	
+	//The database clock value of the change that made this version. 0 if it was never changed within a
+	//database (ex. read from disk). PENDING while it is being committed; never changed afterwards.
+	volatile long version = 0;
+	//The version that this version replaced, or null if no open snapshot can need it.
+	volatile UserVersion previous = null;
+
+	/**
+	 * Creates a UserVersion.
+	 * @param password The user's password.
+	 * @param firstName The user's first name.
+	 * @param lastName The user's last name.
+	 * @param gradeLevel An int indicating the user's grade level.
+	 * @param lastActiveTest An int indicating the user's last active test.
+	 * @param reportCard The user's PackedReportCard, which must not be changed afterwards. May be null.
+	 */
+	UserVersion(String password, String firstName, String lastName, int gradeLevel, int lastActiveTest,
+			PackedReportCard reportCard){
+		this.password       = password;
+		this.firstName      = firstName;
+		this.lastName       = lastName;
+		this.gradeLevel     = gradeLevel;
+		this.lastActiveTest = lastActiveTest;
+		this.reportCard     = reportCard;
+	}
+
+	UserVersion withPassword(String password){
+		return new UserVersion(password, firstName, lastName, gradeLevel, lastActiveTest, reportCard);
+	}
+
+	UserVersion withFirstName(String firstName){
+		return new UserVersion(password, firstName, lastName, gradeLevel, lastActiveTest, reportCard);
+	}
+
+	UserVersion withLastName(String lastName){
+		return new UserVersion(password, firstName, lastName, gradeLevel, lastActiveTest, reportCard);
+	}
+
+	UserVersion withGradeLevel(int gradeLevel){
+		return new UserVersion(password, firstName, lastName, gradeLevel, lastActiveTest, reportCard);
+	}
+
+	UserVersion withLastActiveTest(int lastActiveTest){
+		return new UserVersion(password, firstName, lastName, gradeLevel, lastActiveTest, reportCard);
+	}
+
+	UserVersion withReportCard(PackedReportCard reportCard){
+		return new UserVersion(password, firstName, lastName, gradeLevel, lastActiveTest, reportCard);
+	}
+
+	/**
+	 * Used to find the version that was current at the specified clock value.
+	 * @param clock A long indicating the database clock value of a snapshot.
+	 * A version that is still being committed is waited for, since it may turn out to be made before
+	 *  "clock". The wait is a few instructions long; the committing thread holds no lock that a reader needs.
+	 * @return The newest UserVersion, of this version and the versions it replaced, that was made at or
+	 *  before "clock"; or null if the user did not exist then.
+	 */
+	UserVersion at(long clock){
+		UserVersion state = this;
+		while(state != null){
+			long version = state.version;
+			while(version == PENDING){
+				Thread.yield();
+				version = state.version;
+			}
+			if(version <= clock)
+				return state;
+			state = state.previous;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,65 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.interfaces;
+
+import java.util.Random;
+
+import project.constants.DifficultyLevel;
+import project.constants.Operator;
+
+/**
+ * This interface is used by QuestionGenerators whose questions are equations of two operands, such as
+ *  Addition and Subtraction. It guarantees methods that allow a question to be displayed as an equation.
+ * @author Kenneth Chin
+ */
+public interface EquationGenerator extends QuestionGenerator {
+	
+	/**
+	 * Used to obtain the first operand of the current question.
+	 * @return An int. The first operand.
+	 */
+	public int getOperand1();
+	
+	/**
+	 * Used to obtain the second operand of the current question.
+	 * @return An int. The second operand.
+	 */
+	public int getOperand2();
+	
+	/**
+	 * Used to obtain the Operator of the current question.
+	 * @return An Operator, as defined by the Operator enum.
+	 */
+	public Operator getOperator();
+	
+	/**
+	 * This interface is used to create the EquationGenerator of a test, once the test has drawn the
+	 *  seed of its random number generator.
+	 */
+	public interface Factory {
+		
+		/**
+		 * Used to create a new EquationGenerator.
+		 * @param difficulty The DifficultyLevel of the generated questions.
+		 * @param rng The random number generator used to draw questions.
+		 * @return A new EquationGenerator.
+		 */
+		public EquationGenerator newGenerator(DifficultyLevel difficulty, Random rng);
+	}
+}
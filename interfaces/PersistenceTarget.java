@@ -0,0 +1,46 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.interfaces;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * This interface is used by classes that write a database's changes to disk on behalf of a
+ *  PersistenceService. Its methods are called from the service's background thread, never from
+ *  the Swing Event Dispatch Thread.
+ * @author Kenneth Chin
+ */
+public interface PersistenceTarget {
+
+	/**
+	 * Used to write the changes of the specified users to disk. Once this method returns, the changes
+	 *  must survive a crash or power loss.
+	 * @param userNames A Set of the Strings that are used as the database's keys for the changed users.
+	 *  Each user appears once, no matter how many times it was changed.
+	 * @throws IOException Thrown if the changes can not be written. The users will be written again later.
+	 */
+	public void persist(Set<String> userNames) throws IOException;
+
+	/**
+	 * An action that is performed when persist(Set) fails.
+	 * @param e The IOException that was thrown by persist(Set).
+	 */
+	public void persistFailed(IOException e);
+}
@@ -0,0 +1,92 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.interfaces;
+
+import project.constants.DifficultyLevel;
+
+/**
+ * This interface is used by classes that generate and check the questions of a test, without
+ *  displaying them. It guarantees methods that allow a test's questions to be asked, answered, and
+ *  logged headlessly (off of the Event Dispatch Thread, in a benchmark, or in parallel). The
+ *  TestableObserver classes use a QuestionGenerator to obtain questions and only handle the GUI.
+ * A QuestionGenerator is not thread safe. Each thread must use its own instance.
+ * @author Kenneth Chin
+ */
+public interface QuestionGenerator {
+	
+	/**
+	 * Used to obtain the DifficultyLevel that this QuestionGenerator was created with.
+	 * @return The DifficultyLevel of the generated questions.
+	 */
+	public DifficultyLevel getDifficulty();
+	
+	/**
+	 * Used to obtain the number of questions that are asked at this QuestionGenerator's DifficultyLevel.
+	 * @return An int describing the number of questions in a test.
+	 */
+	public int getMaxNumberOfQuestions();
+	
+	/**
+	 * Used to determine if another question may be asked.
+	 * @return A boolean. True if fewer than getMaxNumberOfQuestions() questions have been generated;
+	 *  false otherwise.
+	 */
+	public boolean hasNextQuestion();
+	
+	/**
+	 * Used to generate the next unused question. The question is described by getQuestion(),
+	 *  getCorrectAnswer(), and any getters of the implementing class.
+	 * @throws IllegalStateException Thrown if hasNextQuestion() is false.
+	 */
+	public void nextQuestion();
+	
+	/**
+	 * Used to obtain the number of the current question, starting at 1.
+	 * @return An int describing the number of the current question, or 0 if no question has been generated.
+	 */
+	public int getQuestionNumber();
+	
+	/**
+	 * Used to obtain the current question in String form.
+	 * @return A String (which may contain HTML tags) describing the current question.
+	 */
+	public String getQuestion();
+	
+	/**
+	 * Used to obtain the correct answer to the current question, in the format that a
+	 *  TestableObserver receives answers in.
+	 * @return A String describing the correct answer to the current question.
+	 */
+	public String getCorrectAnswer();
+	
+	/**
+	 * Used to compare a user's answer to the current question's correct answer.
+	 * @param answer A String representing the user's answer.
+	 * @return A boolean indicating true if the user's answer was correct; false otherwise.
+	 */
+	public boolean checkAnswer(String answer);
+	
+	/**
+	 * Used to create a String that describes the current question being answered incorrectly.
+	 *  The format is "Question #: (question) Student Answer: (answer) Correct Answer: (correct answer).".
+	 * @param answer A String representing the user's incorrect answer.
+	 * @return A String that is formatted for a test's "wrong answer file".
+	 */
+	public String getLogEntry(String answer);
+}
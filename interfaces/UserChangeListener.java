@@ -0,0 +1,51 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.interfaces;
+
+/**
+ * This interface is used by classes that need to know which users of a UserDatabase have changed,
+ *  and which of their fields changed (ex. to decide what to send to another machine). Its method is
+ *  called by the thread that made the change, while the changed user's lock is held, so it must be
+ *  quick and must not change the database.
+ * @author Kenneth Chin
+ */
+public interface UserChangeListener {
+
+	//The fields of a user, as bit flags. A change may name several fields.
+	public static final int PASSWORD         = 1;
+	public static final int FIRST_NAME       = 2;
+	public static final int LAST_NAME        = 4;
+	public static final int GRADE_LEVEL      = 8;
+	public static final int LAST_ACTIVE_TEST = 16;
+	public static final int GRADES           = 32;
+	public static final int ALL_FIELDS       = 63; //Every field.
+
+	//Set, along with the changed field, by a change that may have lowered a value instead of raising it
+	//(ex. a report card that was replaced, or a lastActiveTest that was set). Both are set when a user is
+	//added or replaced.
+	public static final int GRADES_RESET           = 64;
+	public static final int LAST_ACTIVE_TEST_RESET = 128;
+
+	/**
+	 * An action that is performed after a user has been changed.
+	 * @param userName The String that is used as the database's key for the changed user.
+	 * @param fields An int holding the bit flags of the changed fields.
+	 */
+	public void userChanged(String userName, int fields);
+}
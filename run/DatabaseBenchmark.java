@@ -0,0 +1,358 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.run;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import project.buttons.PreKModuleSelectTestButtons;
+import project.constants.DifficultyLevel;
+import project.database.BatchUpdate;
+import project.database.DatabaseCodec;
+import project.database.MasteryIndex;
+import project.database.PackedReportCard;
+import project.database.ReportCard;
+import project.database.ReportCardExporter;
+import project.database.RosterImporter;
+import project.database.SyntheticRoster;
+import project.database.UserBitmap;
+import project.database.UserDatabase;
+import project.interfaces.ModuleSelectButtonInterface;
+import project.screens.RewardScreen;
+
+/**
+ * A command line benchmark that compares the size and read/write throughput of the database file
+ *  formats, and measures the throughput of a CSV roster import, a report card export, synthetic
+ *  roster generation, a cohort query over the MasteryIndex bitmaps, and a cohort promotion with BatchUpdate. The benchmarked databases are generated by SyntheticRoster. No GUI is opened.
+ * Usage: DatabaseBenchmark [number of users]... (default: 10000 100000)
+ * NOTE: Run with a heap of at least 2 GB (-Xmx2g), or the 100000 user results mostly measure garbage collection.
+ * @author Kenneth Chin
+ */
+public class DatabaseBenchmark {
+
+	private static final int WARMUP_ROUNDS   = 3; //Rounds that are run, but not measured.
+	private static final int MEASURED_ROUNDS = 5; //Rounds that are averaged.
+
+	/**
+	 * Run the benchmark.
+	 * @param args The numbers of users to benchmark. Each number is benchmarked separately.
+	 * @throws Exception Thrown if any database can not be written or read.
+	 */
+	public static void main(String[] args) throws Exception{
+		int[] sizes = {10000, 100000};
+		if(args.length > 0){
+			sizes = new int[args.length];
+			for(int i = 0; i < args.length; i++)
+				sizes[i] = Integer.parseInt(args[i]);
+		}
+		for(int users: sizes){
+			UserDatabase database = makeDatabase(users, 42);
+			System.out.println("---- " + users + " users ----");
+			benchmarkSerialization(database);
+			benchmarkCodec(database);
+			benchmarkImport(users);
+			benchmarkExport(database);
+			benchmarkGeneration(users);
+			benchmarkCohortQuery(database);
+			benchmarkBatchUpdate(users);
+		}
+	}
+
+	/**
+	 * Used to make a database of the specified number of synthetic users. See SyntheticRoster.
+	 * @param users An int indicating the number of users to add (in addition to the default users).
+	 * @param seed A long used to seed the generation.
+	 * @return The new UserDatabase.
+	 * @throws IOException Thrown if the users could not be generated.
+	 */
+	static UserDatabase makeDatabase(int users, long seed) throws IOException{
+		UserDatabase database = new UserDatabase();
+		new SyntheticRoster(seed).populate(database, users);
+		return database;
+	}
+
+	/**
+	 * Used to benchmark SyntheticRoster, writing the specified number of users straight to a temporary
+	 *  file in the DatabaseCodec format.
+	 * @param users An int indicating the number of users to generate.
+	 * @throws IOException Thrown if the file can not be written.
+	 */
+	private static void benchmarkGeneration(int users) throws IOException{
+		File file = File.createTempFile("synthetic", ".dat");
+		try{
+			long start = System.nanoTime();
+			new SyntheticRoster(42).write(file, users);
+			double ms = (System.nanoTime() - start) / 1e6;
+			System.out.printf("%-14s rows: %8d   size: %8.2f MB   time: %8.1f ms (%,.0f rows/s)%n", "Generation",
+					users, file.length() / (1024.0 * 1024.0), ms, users / (ms / 1000));
+		}finally{
+			file.delete();
+		}
+	}
+
+	/**
+	 * Used to benchmark default Java serialization of the specified database.
+	 * @param database The UserDatabase to be written and read.
+	 * @throws Exception Thrown if the database can not be written or read.
+	 */
+	private static void benchmarkSerialization(UserDatabase database) throws Exception{
+		byte[] bytes = null;
+		long writeNanos = 0;
+		long readNanos  = 0;
+		for(int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++){
+			long start = System.nanoTime();
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			ObjectOutputStream oos = new ObjectOutputStream(out);
+			oos.writeObject(database);
+			oos.close();
+			bytes = out.toByteArray();
+			long written = System.nanoTime();
+			ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes));
+			ois.readObject();
+			ois.close();
+			long read = System.nanoTime();
+			if(round >= WARMUP_ROUNDS){
+				writeNanos += written - start;
+				readNanos  += read - written;
+			}
+		}
+		report("Serialization", bytes.length, writeNanos, readNanos);
+	}
+
+	/**
+	 * Used to benchmark DatabaseCodec with the specified database.
+	 * @param database The UserDatabase to be written and read.
+	 * @throws IOException Thrown if the database can not be written or read.
+	 */
+	private static void benchmarkCodec(UserDatabase database) throws IOException{
+		byte[] bytes = null;
+		long writeNanos = 0;
+		long readNanos  = 0;
+		for(int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++){
+			long start = System.nanoTime();
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			DatabaseCodec.write(database, out);
+			bytes = out.toByteArray();
+			long written = System.nanoTime();
+			DatabaseCodec.read(new ByteArrayInputStream(bytes));
+			long read = System.nanoTime();
+			if(round >= WARMUP_ROUNDS){
+				writeNanos += written - start;
+				readNanos  += read - written;
+			}
+		}
+		report("DatabaseCodec", bytes.length, writeNanos, readNanos);
+	}
+
+	/**
+	 * Used to benchmark RosterImporter with a CSV roster of the specified number of rows. The roster is
+	 *  written to a temporary file first, so that the import streams it from disk.
+	 * @param rows An int indicating the number of rows in the roster.
+	 * @throws IOException Thrown if the roster can not be written or read.
+	 */
+	private static void benchmarkImport(int rows) throws IOException{
+		File csv = File.createTempFile("roster", ".csv");
+		try{
+			Random rng = new Random(7);
+			Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(csv), "UTF-8"));
+			out.write("userName,password,firstName,lastName,gradeLevel\n");
+			for(int i = 0; i < rows; i++)
+				out.write("import" + i + ",password" + i + ",First" + i + ",\"Last, " + i + "\"," + rng.nextInt(3) + "\n");
+			out.close();
+
+			UserDatabase database = new UserDatabase();
+			RosterImporter importer = new RosterImporter(database);
+			long start = System.nanoTime();
+			Reader in = new InputStreamReader(new FileInputStream(csv), "UTF-8");
+			try{
+				importer.importRoster(in);
+			}finally{
+				in.close();
+			}
+			double ms = (System.nanoTime() - start) / 1e6;
+			System.out.printf("%-14s rows: %8d   imported: %8d   rejected: %d   time: %8.1f ms (%,.0f rows/s)%n",
+					"RosterImporter", rows, importer.getImportedUsers().size(), importer.getRejectedCount(),
+					ms, rows / (ms / 1000));
+		}finally{
+			csv.delete();
+		}
+	}
+
+	/**
+	 * Used to benchmark ReportCardExporter with the specified database, writing CSV to a temporary file,
+	 *  first on a single thread and then split into one shard per processor.
+	 * @param database The UserDatabase to be exported.
+	 * @throws IOException Thrown if the export can not be written.
+	 */
+	private static void benchmarkExport(UserDatabase database) throws IOException{
+		ReportCardExporter exporter = new ReportCardExporter(database, ReportCardExporter.Format.CSV);
+		File csv = File.createTempFile("export", ".csv");
+		try{
+			long start = System.nanoTime();
+			long rows  = exporter.export(csv);
+			double ms  = (System.nanoTime() - start) / 1e6;
+			System.out.printf("%-14s rows: %8d   size: %8.2f MB   time: %8.1f ms (%,.0f rows/s)%n", "Export",
+					rows, csv.length() / (1024.0 * 1024.0), ms, rows / (ms / 1000));
+		}finally{
+			csv.delete();
+		}
+
+		int shards = Runtime.getRuntime().availableProcessors();
+		File directory = csv.getParentFile();
+		long start = System.nanoTime();
+		long rows  = exporter.exportShards(directory, "export-benchmark", shards);
+		double ms  = (System.nanoTime() - start) / 1e6;
+		System.out.printf("%-14s rows: %8d   shards: %d   time: %8.1f ms (%,.0f rows/s)%n", "Export shards",
+				rows, shards, ms, rows / (ms / 1000));
+		for(int shard = 0; shard < shards; shard++)
+			new File(directory, "export-benchmark-" + shard + ReportCardExporter.Format.CSV.getSuffix()).delete();
+	}
+
+	/**
+	 * Used to benchmark promoting every PreK student to grade level 1, first with one setter call per change,
+	 *  and then as one BatchUpdate. Each is run on its own database, with the indexes, aggregates and
+	 *  mastery bitmaps built, so that their upkeep is measured too. Neither is written to disk.
+	 * @param users An int indicating the number of users in each database.
+	 * @throws IOException Thrown if the users could not be generated, or a batch could not be made.
+	 */
+	private static void benchmarkBatchUpdate(int users) throws IOException{
+		UserDatabase database = makeIndexedDatabase(users);
+		List<String> cohort = database.getUsersInGrade(0);
+		long start = System.nanoTime();
+		for(String userName: cohort){
+			database.setGradeLevel(userName, 1);
+			database.setLastActiveTest(userName, 1);
+			database.setReportCard(userName, ReportCard.getHashMap(1));
+		}
+		double ms = (System.nanoTime() - start) / 1e6;
+		System.out.printf("%-14s users: %7d   time: %8.1f ms (%,.0f users/s)%n", "Promote setter",
+				cohort.size(), ms, cohort.size() / (ms / 1000));
+
+		database = makeIndexedDatabase(users);
+		cohort   = new ArrayList<String>(database.getUsersInGrade(0));
+		BatchUpdate batch = new BatchUpdate(database);
+		batch.promoteCohort(cohort, 1);
+		System.out.printf("%-14s users: %7d   time: %8.1f ms (%,.0f users/s)   threads: %d%n", "Promote batch",
+				batch.getChangedUsers().size(), batch.getElapsedNanos() / 1e6, batch.getUsersPerSecond(),
+				Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * A helper method used to make a database whose indexes, aggregates and mastery bitmaps are built.
+	 * @param users An int indicating the number of users to add (in addition to the default users).
+	 * @return The new UserDatabase.
+	 * @throws IOException Thrown if the users could not be generated.
+	 */
+	private static UserDatabase makeIndexedDatabase(int users) throws IOException{
+		UserDatabase database = makeDatabase(users, 43);
+		database.getUsersInGrade(0);
+		database.getAggregates();
+		database.getMasteryIndex();
+		return database;
+	}
+
+	/**
+	 * Used to benchmark a cohort query: the PreK students who passed COUNTING on Hard but failed COMPARISON
+	 *  on Easy. The answer is checked against a scan of every user's grades.
+	 * @param database The UserDatabase to be queried.
+	 */
+	private static void benchmarkCohortQuery(UserDatabase database){
+		long start = System.nanoTime();
+		MasteryIndex mastery = database.getMasteryIndex();
+		double buildMs = (System.nanoTime() - start) / 1e6;
+
+		int queries = 10000;
+		UserBitmap cohort = null;
+		for(int round = 0; round < WARMUP_ROUNDS; round++)
+			cohort = queryCohort(mastery);
+		start = System.nanoTime();
+		for(int i = 0; i < queries; i++)
+			cohort = queryCohort(mastery);
+		double queryMicros = (System.nanoTime() - start) / (queries * 1e3);
+		List<String> userNames = mastery.getUserNames(cohort);
+
+		int expected = 0;
+		for(String userName: database.getUserNames()){
+			if(database.getGradeLevel(userName) != 0)
+				continue;
+			PackedReportCard reportCard = database.getPackedReportCard(userName);
+			int counting   = getPercent(reportCard, PreKModuleSelectTestButtons.Button.COUNTING, DifficultyLevel.HARD);
+			int comparison = getPercent(reportCard, PreKModuleSelectTestButtons.Button.COMPARISON, DifficultyLevel.EASY);
+			if(counting >= RewardScreen.PASSING_GRADE && comparison >= 0 && comparison < RewardScreen.PASSING_GRADE)
+				expected++;
+		}
+		System.out.printf("%-14s users: %8d   build: %8.1f ms   query: %8.1f us   matched: %d%s%n", "Cohort query",
+				database.getUserNames().size(), buildMs, queryMicros, userNames.size(),
+				(userNames.size() == expected) ? "" : "   MISMATCH (scan found " + expected + ")");
+	}
+
+	/**
+	 * A helper method used to run the benchmarked cohort query.
+	 * @param mastery The MasteryIndex that is queried.
+	 * @return A UserBitmap of the matching users.
+	 */
+	private static UserBitmap queryCohort(MasteryIndex mastery){
+		return mastery.getPassed(0, PreKModuleSelectTestButtons.Button.COUNTING, DifficultyLevel.HARD)
+				.and(mastery.getFailed(0, PreKModuleSelectTestButtons.Button.COMPARISON, DifficultyLevel.EASY));
+	}
+
+	/**
+	 * A helper method used to obtain a grade as a percent, rounded as the tests round it.
+	 * @param reportCard The PackedReportCard that holds the grade.
+	 * @param test The ModuleSelectButtonInterface of the test.
+	 * @param difficulty The DifficultyLevel of the grade.
+	 * @return An int indicating the percent, or -1 if the test has not been taken.
+	 */
+	private static int getPercent(PackedReportCard reportCard, ModuleSelectButtonInterface test, DifficultyLevel difficulty){
+		int grade    = reportCard.getGrade(test, difficulty);
+		int maxGrade = reportCard.getMaxGrade(test, difficulty);
+		if(grade < 0)
+			return -1;
+		return (maxGrade <= 0) ? 0 : Math.round(((float)grade / (float)maxGrade) * 100);
+	}
+
+	/**
+	 * A helper method used to print a benchmark's results.
+	 * @param name A String describing the benchmarked format.
+	 * @param size An int indicating the size, in bytes, of the written database.
+	 * @param writeNanos A long indicating the total nanoseconds spent writing, over all measured rounds.
+	 * @param readNanos A long indicating the total nanoseconds spent reading, over all measured rounds.
+	 */
+	private static void report(String name, int size, long writeNanos, long readNanos){
+		double writeMs = writeNanos / (MEASURED_ROUNDS * 1e6);
+		double readMs  = readNanos  / (MEASURED_ROUNDS * 1e6);
+		double mb      = size / (1024.0 * 1024.0);
+		System.out.printf("%-14s size: %8.2f MB   write: %8.1f ms (%7.1f MB/s)   read: %8.1f ms (%7.1f MB/s)%n",
+				name, mb, writeMs, mb / (writeMs / 1000), readMs, mb / (readMs / 1000));
+	}
+}
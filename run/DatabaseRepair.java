@@ -0,0 +1,80 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.run;
+
+import java.io.File;
+
+import project.database.DatabaseScanner;
+
+/**
+ * A command line tool that checks a database file with DatabaseScanner, and salvages every readable user
+ *  into a new file. No GUI is opened, and the scanned file is never written to. Both the database file
+ *  (db.dat) and a snapshot generation (ex. db.dat.12) can be scanned.
+ * The salvaged file is a DatabaseCodec file. To use it, close Math Helper, move the damaged snapshot
+ *  generations (db.dat."generation") aside, and replace db.dat with the salvaged file; it is read as the
+ *  database file when no valid snapshot exists.
+ * Usage: DatabaseRepair database-file [salvaged-file]
+ *  e.g. DatabaseRepair db.dat.12 salvaged.dat
+ * The exit status is 0 if no damage was found, 2 if damage was found, and 1 if the file could not be scanned.
+ * @author Kenneth Chin
+ */
+public class DatabaseRepair {
+
+	/**
+	 * Run the tool.
+	 * @param args The database file, and the optional file that the salvaged users are written to.
+	 * @throws Exception Thrown if the file can not be scanned, or the salvaged file can not be written.
+	 */
+	public static void main(String[] args) throws Exception{
+		if(args.length < 1 || args.length > 2){
+			System.out.println("Usage: DatabaseRepair database-file [salvaged-file]");
+			System.exit(1);
+		}
+		File file    = new File(args[0]);
+		File salvage = (args.length > 1) ? new File(args[1]) : null;
+		if(!file.isFile()){
+			System.out.println(file + " does not exist.");
+			System.exit(1);
+		}
+
+		DatabaseScanner scanner = new DatabaseScanner(file);
+		long start = System.nanoTime();
+		boolean isClean = scanner.scan(salvage);
+		double ms = (System.nanoTime() - start) / 1e6;
+
+		System.out.printf("Scanned %s (%s): %.2f MB in %.1f ms (%.1f MB/s)%n", file,
+				scanner.isSnapshot() ? "snapshot" : "database file", file.length() / (1024.0 * 1024.0), ms,
+				file.length() / (1024.0 * 1024.0) / (ms / 1000));
+		if(scanner.isSnapshot())
+			System.out.println("  Checksum:        " + (scanner.isChecksumValid() ? "valid" : "DOES NOT MATCH"));
+		System.out.println("  Header records:  " + ((scanner.getDeclaredRecords() < 0) ? "unknown (header damaged)"
+				: String.format("%,d", scanner.getDeclaredRecords())));
+		System.out.printf("  Salvaged users:  %,d%n", scanner.getSalvagedUsers());
+		System.out.printf("  Repaired users:  %,d (lastActiveTest out of range)%n", scanner.getRepairedUsers());
+		System.out.printf("  Duplicates:      %,d%n", scanner.getDuplicateRecords());
+		System.out.printf("  Damaged bytes:   %,d in %,d range(s)%n", scanner.getDamagedBytes(),
+				scanner.getDamagedRanges().size());
+		for(long[] range: scanner.getDamagedRanges())
+			System.out.printf("    bytes %,d - %,d (%,d bytes)%n", range[0], range[1] - 1, range[1] - range[0]);
+		if(salvage != null)
+			System.out.println("Wrote " + scanner.getSalvagedUsers() + " users to " + salvage + ".");
+		System.out.println(isClean ? "No damage was found." : "DAMAGE WAS FOUND.");
+		System.exit(isClean ? 0 : 2);
+	}
+}
@@ -0,0 +1,344 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.run;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import project.buttons.Grade3ModuleSelectTestButtons;
+import project.constants.DifficultyLevel;
+import project.database.DatabaseSnapshot;
+import project.database.PackedReportCard;
+import project.database.UserDatabase;
+import project.interfaces.ModuleSelectButtonInterface;
+
+/**
+ * A command line stress test of a UserDatabase that is shared by many threads. No GUI is opened.
+ * Writer threads raise random grades with setGradeIfHigher(), and random lastActiveTest values with
+ *  setLastActiveTestIfHigher(), all on the same small set of users. At the same time, reader threads
+ *  check, without taking any lock, that every report card they see is complete (each grade's maximum
+ *  grade is always grade + 1) and that no grade they have seen ever goes down. A snapshot reader opens
+ *  DatabaseSnapshots one after another, and checks that reading every user twice from the same snapshot
+ *  gives the same grades, and that no grade goes down from one snapshot to the next.
+ * Once every writer has finished, each grade must equal the highest grade that any writer tried to set,
+ *  and the secondary indexes must list each user once, at its final lastActiveTest. A lost, torn, or
+ *  reordered update fails the test.
+ * Usage: DatabaseStressTest [writers] [readers] [operations per writer] (default: 16 4 200000)
+ * @author Kenneth Chin
+ */
+public class DatabaseStressTest {
+
+	private static final String USER_PREFIX = "student"; //Starts the username of every tested user.
+	private static final int USERS      = 64;     //The number of users that every writer changes.
+	private static final int MAX_VALUE  = 1000000; //Grades & lastActiveTest values are in [0, MAX_VALUE).
+	private static final int MAX_ERRORS = 10;     //The number of failures that are printed.
+
+	private static final ModuleSelectButtonInterface[] TESTS  = Grade3ModuleSelectTestButtons.Button.values();
+	private static final DifficultyLevel[]             LEVELS = DifficultyLevel.values();
+	private static final int CELLS_PER_USER = TESTS.length * LEVELS.length; //Grades per user.
+
+	private static final AtomicInteger failures = new AtomicInteger(); //The number of failed checks.
+	private static volatile boolean writersDone = false; //Set once every writer has finished.
+
+	/**
+	 * Run the stress test. Exits with status 1 if any check fails.
+	 * @param args The number of writer threads, reader threads, and operations per writer.
+	 * @throws InterruptedException Thrown if the main thread is interrupted while waiting.
+	 */
+	public static void main(String[] args) throws InterruptedException{
+		int writers    = (args.length > 0) ? Integer.parseInt(args[0]) : 16;
+		int readers    = (args.length > 1) ? Integer.parseInt(args[1]) : 4;
+		int operations = (args.length > 2) ? Integer.parseInt(args[2]) : 200000;
+
+		final UserDatabase database = new UserDatabase();
+		for(int i = 0; i < USERS; i++)
+			database.addUser(getUserName(i), "password" + i, "First" + i, "Last" + i, 2);
+
+		//The highest value that each writer tried to set, for every grade & then every lastActiveTest.
+		final int[][] submitted = new int[writers][];
+		final AtomicLong reads  = new AtomicLong();
+		final AtomicLong snapshots = new AtomicLong();
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] writerThreads = new Thread[writers];
+		Thread[] readerThreads = new Thread[readers];
+		for(int i = 0; i < writers; i++){
+			submitted[i] = new int[(USERS * CELLS_PER_USER) + USERS];
+			Arrays.fill(submitted[i], -1);
+			writerThreads[i] = new Thread(new Writer(database, start, submitted[i], operations, 42 + i), "Writer " + i);
+			writerThreads[i].start();
+		}
+		for(int i = 0; i < readers; i++){
+			readerThreads[i] = new Thread(new Reader(database, start, reads, 4242 + i), "Reader " + i);
+			readerThreads[i].start();
+		}
+		Thread snapshotThread = new Thread(new SnapshotReader(database, start, snapshots), "Snapshot Reader");
+		snapshotThread.start();
+
+		long startNanos = System.nanoTime();
+		start.countDown();
+		for(Thread thread: writerThreads)
+			thread.join();
+		long writeNanos = System.nanoTime() - startNanos;
+		writersDone = true;
+		for(Thread thread: readerThreads)
+			thread.join();
+		snapshotThread.join();
+
+		verify(database, submitted);
+		double seconds = writeNanos / 1e9;
+		System.out.printf("writers: %d   readers: %d   time: %.2f s%n", writers, readers, seconds);
+		System.out.printf("writes: %,d (%,.0f/s)   report cards read: %,d (%,.0f/s)%n",
+				(long)writers * operations, writers * operations / seconds, reads.get(), reads.get() / seconds);
+		System.out.printf("snapshots read: %,d (%,.0f/s)%n", snapshots.get(), snapshots.get() / seconds);
+		if(failures.get() > 0){
+			System.out.println("FAILED: " + failures.get() + " check(s) failed.");
+			System.exit(1);
+		}
+		System.out.println("PASSED");
+	}
+
+	/**
+	 * A helper method used to check that every grade & lastActiveTest holds the highest value that any
+	 *  writer tried to set.
+	 * @param database The UserDatabase that was changed.
+	 * @param submitted The highest values that each writer tried to set.
+	 */
+	private static void verify(UserDatabase database, int[][] submitted){
+		for(int user = 0; user < USERS; user++){
+			String userName = getUserName(user);
+			for(int cell = 0; cell < CELLS_PER_USER; cell++){
+				int expected = highest(submitted, (user * CELLS_PER_USER) + cell, -1);
+				int actual   = database.getGrade(userName, TESTS[cell / LEVELS.length], LEVELS[cell % LEVELS.length]);
+				if(actual != expected)
+					fail(userName + " grade " + cell + " is " + actual + ", expected " + expected + ".");
+			}
+			int expected = highest(submitted, (USERS * CELLS_PER_USER) + user, 1);
+			int actual   = database.getLastActiveTest(userName);
+			if(actual != expected)
+				fail(userName + " lastActiveTest is " + actual + ", expected " + expected + ".");
+			if(!database.getUsersByProgress(2, expected, expected + 1).contains(userName))
+				fail(userName + " is missing from the lastActiveTest index at " + expected + ".");
+		}
+		int indexed = 0;
+		for(String userName: database.getUsersInGrade(2)){
+			if(userName.startsWith(USER_PREFIX)) //Skips the default users.
+				indexed++;
+		}
+		if(indexed != USERS)
+			fail("The gradeLevel index holds " + indexed + " users, expected " + USERS + ".");
+	}
+
+	/**
+	 * A helper method used to obtain the highest value that any writer tried to set at an index.
+	 * @param submitted The highest values that each writer tried to set.
+	 * @param index An int indicating the index of the value.
+	 * @param initial An int indicating the value held before any writer started.
+	 * @return An int indicating the highest value.
+	 */
+	private static int highest(int[][] submitted, int index, int initial){
+		int highest = initial;
+		for(int[] values: submitted)
+			highest = Math.max(highest, values[index]);
+		return highest;
+	}
+
+	/**
+	 * A helper method used to record a failed check. Only the first MAX_ERRORS failures are printed.
+	 * @param message A String describing the failed check.
+	 */
+	private static void fail(String message){
+		if(failures.incrementAndGet() <= MAX_ERRORS)
+			System.out.println("FAIL: " + message);
+	}
+
+	/**
+	 * A helper method used to obtain the username of a user number.
+	 * @param user An int indicating the user number.
+	 * @return The String username.
+	 */
+	private static String getUserName(int user){
+		return USER_PREFIX + user;
+	}
+
+
+/***********
+ * Threads *
+ ***********/
+
+	/**
+	 * Raises random grades & lastActiveTest values, recording the highest value it tried to set for each.
+	 */
+	private static class Writer implements Runnable{
+		private final UserDatabase database;
+		private final CountDownLatch start;
+		private final int[] submitted;
+		private final int operations;
+		private final Random rng;
+
+		Writer(UserDatabase database, CountDownLatch start, int[] submitted, int operations, long seed){
+			this.database   = database;
+			this.start      = start;
+			this.submitted  = submitted;
+			this.operations = operations;
+			this.rng        = new Random(seed);
+		}
+
+		@Override
+		public void run(){
+			try {
+				start.await();
+			} catch (InterruptedException e) {
+				return;
+			}
+			for(int i = 0; i < operations; i++){
+				int user  = rng.nextInt(USERS);
+				int value = rng.nextInt(MAX_VALUE);
+				if((i & 7) == 0){
+					database.setLastActiveTestIfHigher(getUserName(user), value);
+					int index = (USERS * CELLS_PER_USER) + user;
+					submitted[index] = Math.max(submitted[index], value);
+				}else{
+					int cell = rng.nextInt(CELLS_PER_USER);
+					database.setGradeIfHigher(getUserName(user), TESTS[cell / LEVELS.length], value, value + 1,
+							LEVELS[cell % LEVELS.length]);
+					int index = (user * CELLS_PER_USER) + cell;
+					submitted[index] = Math.max(submitted[index], value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads random report cards until every writer has finished, checking that each is complete and
+	 *  that no grade goes down.
+	 */
+	private static class Reader implements Runnable{
+		private final UserDatabase database;
+		private final CountDownLatch start;
+		private final AtomicLong reads;
+		private final Random rng;
+		private final int[] seen = new int[USERS * CELLS_PER_USER]; //The highest grades seen so far.
+
+		Reader(UserDatabase database, CountDownLatch start, AtomicLong reads, long seed){
+			this.database = database;
+			this.start    = start;
+			this.reads    = reads;
+			this.rng      = new Random(seed);
+			Arrays.fill(seen, -1);
+		}
+
+		@Override
+		public void run(){
+			try {
+				start.await();
+			} catch (InterruptedException e) {
+				return;
+			}
+			long count = 0;
+			while(!writersDone){
+				int user = rng.nextInt(USERS);
+				PackedReportCard reportCard = database.getPackedReportCard(getUserName(user));
+				for(int cell = 0; cell < CELLS_PER_USER; cell++){
+					ModuleSelectButtonInterface test = TESTS[cell / LEVELS.length];
+					DifficultyLevel level = LEVELS[cell % LEVELS.length];
+					int grade    = reportCard.getGrade(test, level);
+					int maxGrade = reportCard.getMaxGrade(test, level);
+					int index    = (user * CELLS_PER_USER) + cell;
+					if(grade >= 0 && maxGrade != grade + 1)
+						fail(getUserName(user) + " grade " + cell + " is torn: " + grade + "/" + maxGrade + ".");
+					if(grade < seen[index])
+						fail(getUserName(user) + " grade " + cell + " went from " + seen[index] + " to " + grade + ".");
+					seen[index] = grade;
+				}
+				count++;
+			}
+			reads.addAndGet(count);
+		}
+	}
+
+	/**
+	 * Opens snapshots until every writer has finished. Every user is read twice from each snapshot, and
+	 *  both reads must give the same grades. No grade may go down from one snapshot to the next.
+	 */
+	private static class SnapshotReader implements Runnable{
+		private final UserDatabase database;
+		private final CountDownLatch start;
+		private final AtomicLong snapshots;
+		private final int[] seen = new int[USERS * CELLS_PER_USER]; //The grades of the last snapshot.
+
+		SnapshotReader(UserDatabase database, CountDownLatch start, AtomicLong snapshots){
+			this.database  = database;
+			this.start     = start;
+			this.snapshots = snapshots;
+			Arrays.fill(seen, -1);
+		}
+
+		@Override
+		public void run(){
+			try {
+				start.await();
+			} catch (InterruptedException e) {
+				return;
+			}
+			int[] first = new int[seen.length];
+			long count = 0;
+			while(!writersDone){
+				DatabaseSnapshot snapshot = database.openSnapshot();
+				try{
+					read(snapshot, first);
+					for(int user = 0; user < USERS; user++){
+						PackedReportCard reportCard = snapshot.getPackedReportCard(getUserName(user));
+						for(int cell = 0; cell < CELLS_PER_USER; cell++){
+							int index = (user * CELLS_PER_USER) + cell;
+							int grade = reportCard.getGrade(TESTS[cell / LEVELS.length], LEVELS[cell % LEVELS.length]);
+							if(grade != first[index])
+								fail(getUserName(user) + " grade " + cell + " changed within snapshot "
+										+ snapshot.getVersion() + ": " + first[index] + " to " + grade + ".");
+							if(grade < seen[index])
+								fail(getUserName(user) + " grade " + cell + " went from " + seen[index] + " to "
+										+ grade + " in snapshot " + snapshot.getVersion() + ".");
+							seen[index] = grade;
+						}
+					}
+				}finally{
+					snapshot.close();
+				}
+				count++;
+			}
+			snapshots.addAndGet(count);
+		}
+
+		/**
+		 * A helper method used to read every tested grade from a snapshot.
+		 * @param snapshot The DatabaseSnapshot that is read.
+		 * @param grades The int array that the grades are stored in.
+		 */
+		private void read(DatabaseSnapshot snapshot, int[] grades){
+			for(int user = 0; user < USERS; user++){
+				PackedReportCard reportCard = snapshot.getPackedReportCard(getUserName(user));
+				for(int cell = 0; cell < CELLS_PER_USER; cell++)
+					grades[(user * CELLS_PER_USER) + cell] = reportCard.getGrade(TESTS[cell / LEVELS.length],
+							LEVELS[cell % LEVELS.length]);
+			}
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.run;
+
+import java.util.Random;
+
+import project.tools.Fraction;
+
+/**
+ * A command line benchmark that measures the throughput of the Fraction arithmetic that the Fractions and
+ *  Decimals tests rely on: creating Fractions inside & outside the cache, adding & comparing Fractions,
+ *  and reading & checking typed answers. The inputs are made before the benchmark starts, so only the
+ *  Fraction methods are measured. No GUI is opened, so the benchmark may be run with
+ *  -Djava.awt.headless=true.
+ * Usage: FractionBenchmark [operations per round] (default: 10000000)
+ * @author Kenneth Chin
+ */
+public class FractionBenchmark {
+	
+	private static final String[] CASES = {"valueOf (cached)", "valueOf (uncached)", "add & compare",
+										   "parse & check"};
+	private static final int INPUTS          = 4096; //The number of inputs of each case. Must be a power of two.
+	private static final int WARMUP_ROUNDS   = 3;    //Rounds that are run, but not measured.
+	private static final int MEASURED_ROUNDS = 5;    //Rounds that are averaged.
+	
+	private static int[] numerators      = new int[INPUTS];    //Numerators with denominators of up to 100.
+	private static int[] denominators    = new int[INPUTS];
+	private static int[] bigDenominators = new int[INPUTS];    //Denominators above Fraction.MAX_CACHED_DENOMINATOR.
+	private static Fraction[] fractions  = new Fraction[INPUTS]; //Proper fractions with denominators of up to 10.
+	private static String[] answers      = new String[INPUTS]; //Typed answers: fractions & decimals.
+	
+	/**
+	 * Run the benchmark.
+	 * @param args The number of operations to run per round.
+	 */
+	public static void main(String[] args){
+		int operations = (args.length > 0) ? Integer.parseInt(args[0]) : 10000000;
+		makeInputs(new Random(7));
+		System.out.println("---- " + operations + " operations per round ----");
+		for(int c = 0; c < CASES.length; c++){
+			long nanos = 0;
+			for(int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++){
+				long start = System.nanoTime();
+				long checksum = runCase(c, operations);
+				if(round >= WARMUP_ROUNDS)
+					nanos += System.nanoTime() - start;
+				if(checksum == 42) //Keeps the JIT from discarding the results. Never true.
+					System.out.print("");
+			}
+			double ms = nanos / 1e6 / MEASURED_ROUNDS;
+			System.out.printf("%-20s time: %8.1f ms (%,.0f operations/s)%n", CASES[c], ms, operations / (ms / 1000));
+		}
+	}
+	
+	/**
+	 * A helper method used to make the inputs of every case.
+	 * @param rng The random number generator used to make the inputs.
+	 */
+	private static void makeInputs(Random rng){
+		for(int i = 0; i < INPUTS; i++){
+			denominators[i]    = 2 + rng.nextInt(Fraction.MAX_CACHED_DENOMINATOR - 1);
+			numerators[i]      = 1 + rng.nextInt(denominators[i] - 1);
+			bigDenominators[i] = Fraction.MAX_CACHED_DENOMINATOR + 1 + rng.nextInt(900);
+			int denominator    = 2 + rng.nextInt(9);
+			fractions[i]       = Fraction.valueOf(1 + rng.nextInt(denominator - 1), denominator);
+			Fraction answer    = Fraction.valueOf(numerators[i], denominators[i]);
+			answers[i] = (answer.isTerminatingDecimal() && rng.nextBoolean()) ? answer.toDecimalString()
+																			  : answer.toString();
+		}
+	}
+	
+	/**
+	 * Used to run one case of the benchmark.
+	 * @param c An int. The index of the case in CASES.
+	 * @param operations An int. The number of operations to run.
+	 * @return A long that depends on every result, so that no result can be discarded.
+	 */
+	private static long runCase(int c, int operations){
+		long checksum = 0;
+		int mask = INPUTS - 1;
+		switch(c){
+			case 0:
+				for(int i = 0; i < operations; i++)
+					checksum += Fraction.valueOf(numerators[i & mask], denominators[i & mask]).getDenominator();
+				break;
+			case 1:
+				for(int i = 0; i < operations; i++)
+					checksum += Fraction.valueOf(numerators[i & mask], bigDenominators[i & mask]).getDenominator();
+				break;
+			case 2:
+				for(int i = 0; i < operations; i++){
+					Fraction sum = fractions[i & mask].add(fractions[(i + 1) & mask]);
+					checksum += sum.compareTo(fractions[(i + 2) & mask]);
+				}
+				break;
+			default:
+				for(int i = 0; i < operations; i++){
+					int input = i & mask;
+					if(Fraction.parse(answers[input]).equals(Fraction.valueOf(numerators[input], denominators[input])))
+						checksum++;
+				}
+				break;
+		}
+		return checksum;
+	}
+}
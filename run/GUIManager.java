@@ -25,14 +25,23 @@ import java.awt.GraphicsEnvironment;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.Reader;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -49,10 +58,26 @@ import project.buttons.PreKModuleSelectTestButtons;
 import project.buttons.PreKModuleSelectTutorialButtons;
 import project.constants.DifficultyLevel;
 import project.constants.Operator;
+import project.database.AttemptHistory;
+import project.database.BatchUpdate;
+import project.database.DatabaseCodec;
+import project.database.DatabaseSnapshot;
+import project.database.DeltaSync;
+import project.database.GradeAggregates;
+import project.database.GradeJournal;
+import project.database.MasteryIndex;
 import project.database.ModuleReportSummary;
+import project.database.PersistenceService;
 import project.database.ReportCard;
+import project.database.ReportCardExporter;
+import project.database.RosterImporter;
+import project.database.ShardedUserStore;
+import project.database.SnapshotStore;
+import project.database.SyncState;
+import project.database.TestAttempt;
 import project.database.UserDatabase;
 import project.interfaces.ModuleSelectButtonInterface;
+import project.interfaces.PersistenceTarget;
 import project.screens.MathHelperLogin;
 import project.screens.PreKModuleSelect;
 import project.screens.ReportCardScreen;
@@ -64,6 +89,7 @@ import project.tools.ImageLoader;
 import project.tools.MainWindow;
 import project.tools.QuestionPanelSelect;
 import project.tools.QuestionPanelText;
+import project.tools.SeedStream;
 import project.tools.TextFileMaker;
 
 /**
@@ -107,8 +133,24 @@ public final class GUIManager{
  * Class Variables (gm1) *
  *************************/
 	
-	//The file path of the serialized database object.
+	//The file path of the serialized database object. Snapshots are written to DB_FILEPATH."generation".
 	private static final String DB_FILEPATH = System.getProperty("user.dir") + "\\db.dat";
+	//The number of database snapshot generations that are kept.
+	private static final int SNAPSHOT_GENERATIONS = 3;
+	//The file path of the journal of changes made since the database object was last written.
+	private static final String JOURNAL_FILEPATH = System.getProperty("user.dir") + "\\db.journal";
+	//The directory of the per-user record files. Once it exists, it is used instead of DB_FILEPATH.
+	private static final String USERS_DIRECTORY = System.getProperty("user.dir") + "\\Users\\";
+	//The directory of every student's history of formal test attempts.
+	private static final String HISTORY_DIRECTORY = System.getProperty("user.dir") + "\\History\\";
+	//The file of the changes & profile field stamps that are used to merge databases of other machines.
+	private static final String SYNC_FILEPATH = System.getProperty("user.dir") + "\\db.sync";
+	//The number of failed writes in a row, by the database writer, after which the user is told & the program exits.
+	private static final int PERSIST_FAILURE_LIMIT = 5;
+	//Setting this system property to "sharded" moves the database into per-user record files.
+	private static final String STORAGE_PROPERTY = "mathhelper.storage";
+	//Setting this system property to a long seeds every test of the session, so the session can be replayed.
+	private static final String SEED_PROPERTY = "mathhelper.seed";
 	
 	private static GUIManager singleInstance = new GUIManager(); //The singleton instance of GUIManager.
 	
@@ -130,7 +172,19 @@ public final class GUIManager{
 	private String studentFolderName = null;    //The current user's directory name. (lastname, firstname)
 	private int           gradeLevel = 0;       //An int describing the the current user's grade level.
 	private UserDatabase database;
-	
+	private SnapshotStore snapshots = new SnapshotStore(DB_FILEPATH, SNAPSHOT_GENERATIONS); //The database snapshots.
+	private GradeJournal journal; //Records grade changes between full writes of the database.
+	private ShardedUserStore userStore; //The per-user record files. null if DB_FILEPATH is used.
+	private PersistenceService persistence; //Writes changes to disk on a background thread.
+	private final Object compactionLock = new Object(); //Held while the journal is compacted, so compactions never overlap.
+	private AttemptHistory attemptHistory; //Every formal test attempt. null until the first attempt is recorded.
+	private SyncState syncState; //Tracks changes to be sent to other machines. See DeltaSync.
+	private SeedStream testSeeds = makeSeedStream(); //Seeds the questions of each test. See nextTestSeed().
+	private FutureTask<Void> loader; //Registers the fonts & loads the database on a background thread.
+	private long loadNanos;          //The time taken by the loader. Read once the loader is done.
+	private boolean isLoadReported = false; //Set once the loader's time has been reported.
+	private boolean isDatabaseWritten = false; //Set by writeDatabase(). Changes are no longer accepted.
+
 	private MainWindow mainWindow; //The root container of the Main Window.
 	
 	/**
@@ -155,17 +209,78 @@ public final class GUIManager{
  **********************/
     
 	/**
-	 * The private constructor of GUIManager. Sets the exception handler for this thread, and adds
-	 *  FontMaker fonts to this graphics environment. Additionally, initializes the database if none
-	 *  exists, or reads a pre-existing database.
+	 * The private constructor of GUIManager. Sets the exception handler for this thread, and starts a
+	 *  background thread that adds FontMaker fonts to this graphics environment & loads the database
+	 *  (see loadDatabase()), so that the login screen is shown while they load. awaitDatabase() must be
+	 *  called before the database or fonts are used.
 	 */
 	private GUIManager(){
 		setUncaughtExecptionHandler();
-		initFonts();
-		if(dbExists())
-			readDatabase();
-		else
-			database   = new UserDatabase();
+		final long start = System.nanoTime();
+		loader = new FutureTask<Void>(new Callable<Void>() {
+			public Void call(){
+				initFonts();
+				loadDatabase();
+				loadNanos = System.nanoTime() - start;
+				return null;
+			}
+		});
+		Thread thread = new Thread(loader, "Database Loader");
+		thread.setDaemon(true);
+		thread.start();
+	}
+	
+	/**
+	 * A helper method, run on the loader's thread, used to initialize the database if none exists, or
+	 *  read a pre-existing database. Any changes recorded in the journal are then applied. If the
+	 *  database is stored in per-user record files, only the index of users is read.
+	 */
+	private void loadDatabase(){
+		if(ShardedUserStore.exists(USERS_DIRECTORY)){
+			openUserStore();
+		}else{
+			if(dbExists())
+				readDatabase();
+			else
+				database   = new UserDatabase();
+			openJournal();
+			if("sharded".equals(System.getProperty(STORAGE_PROPERTY)))
+				moveToUserStore();
+		}
+		openSyncState();
+		startPersistence();
+	}
+	
+	/**
+	 * Used to wait until the fonts have been registered & the database has been loaded. Called when the
+	 *  user presses "Login", and by every method that is used before the main window is opened. The first
+	 *  call reports how much of the load time was hidden behind the login screen.
+	 */
+	public void awaitDatabase(){
+		long start = System.nanoTime();
+		try {
+			loader.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			handleException(e);
+		} catch (ExecutionException e) {
+			handleException(e.getCause());
+		}
+		reportLoadTime(System.nanoTime() - start);
+	}
+	
+	/**
+	 * A helper method used to record, once, the time taken to load the database, and how much of it was
+	 *  hidden (spent before the database was first needed), in the error log.
+	 * @param waitedNanos A long describing the time spent waiting for the loader, in nanoseconds.
+	 */
+	private synchronized void reportLoadTime(long waitedNanos){
+		if(isLoadReported)
+			return;
+		isLoadReported = true;
+		long hiddenNanos = Math.max(0, loadNanos - waitedNanos);
+		errorLog.append(String.format("STATISTICS: Database loader: loaded in %.1f ms, %.1f ms hidden behind"
+				+ " the login screen (waited %.1f ms)\r\n", loadNanos / 1e6, hiddenNanos / 1e6, waitedNanos / 1e6));
 	}
 	
 	/**
@@ -221,6 +336,7 @@ public final class GUIManager{
 	 * Used to initialize the current user's data & open a WelcomeScreen that is appropriate for the user.
 	 */
 	private void start(){
+		awaitDatabase();
 		initStudent();
 		try{
 			buildMainWindow();
@@ -338,6 +454,7 @@ public final class GUIManager{
 	 * @return A String describing the password for the specified username.
 	 */
 	public String getPassword(String username){
+		awaitDatabase();
 		return database.getPassword(username);
 	}
 	
@@ -359,10 +476,18 @@ public final class GUIManager{
 			return false;
 		if(gradeLevel < 0 || gradeLevel < 2)
 			return false;
-		String pass = getPassword(userName);
+		String pass = getPassword(userName); //Waits for the database to load.
 		if(pass == null)
 			return false;
 		database.addUser(userName, password, firstName, lastName, gradeLevel);
+		if(journal != null){
+			try {
+				journal.appendUser(database, userName);
+			} catch (IOException e) {
+				handleException(e);
+			}
+		}
+		persistence.markDirty(userName);
 		return true;
 	}
 	
@@ -375,7 +500,29 @@ public final class GUIManager{
 	 *  and difficulty level.
 	 */
 	public int getPreviousGrade(ModuleSelectButtonInterface button, DifficultyLevel difficulty){
-		return ReportCard.getGrade(database.getReportCard(userName), button, difficulty);
+		return database.getGrade(userName, button, difficulty);
+	}
+	
+	/**
+	 * Used to obtain the class-wide grade aggregates of every student: the count, mean, standard deviation,
+	 *  histogram and pass rate of each test & difficulty level. Used by a teacher's dashboard. The
+	 *  aggregates are kept up to date as grades change, so each query takes constant time.
+	 * @return The database's GradeAggregates.
+	 */
+	public GradeAggregates getGradeAggregates(){
+		awaitDatabase();
+		return database.getAggregates();
+	}
+	
+	/**
+	 * Used to obtain the pass & fail bitmaps of every student, for each test & difficulty level. Used by a
+	 *  teacher's dashboard to find intervention groups, such as the students who passed one test but
+	 *  failed another. The bitmaps are kept up to date as grades change.
+	 * @return The database's MasteryIndex.
+	 */
+	public MasteryIndex getMasteryIndex(){
+		awaitDatabase();
+		return database.getMasteryIndex();
 	}
 	
 	/**
@@ -391,8 +538,106 @@ public final class GUIManager{
 	 *  which will also be set for the specified test and difficulty level.
 	 */
 	public void setGrade(ModuleSelectButtonInterface button, DifficultyLevel difficulty, int numCorrect, int maxGrade){
-		HashMap<ModuleSelectButtonInterface, ModuleReportSummary> reportCard = database.getReportCard(userName);
-		database.setReportCard(userName, ReportCard.setGrade(reportCard, button, numCorrect, maxGrade, difficulty));
+		database.setGrade(userName, button, numCorrect, maxGrade, difficulty);
+		if(journal == null)
+			return;
+		try {
+			journal.appendGrade(userName, gradeLevel, button, difficulty, numCorrect, maxGrade);
+		} catch (IOException e) {
+			handleException(e);
+		}
+	}
+	
+	/**
+	 * Used to record a finished formal test attempt in the current user's attempt history. Unlike
+	 *  setGrade(ModuleSelectButtonInterface, DifficultyLevel, int, int), every attempt is recorded, whether
+	 *  or not it is the user's best grade.
+	 * @param button A ModuleSelectButtonInterface that describes the test that was attempted.
+	 * @param difficulty A DifficultyLevel that describes the difficulty level of the attempt.
+	 * @param numCorrect An int describing the number of correct answers of the attempt.
+	 * @param maxGrade An int describing the maximum attainable grade of the attempt.
+	 * @param durationMillis A long describing the time taken to finish the attempt, in milliseconds.
+	 */
+	public void recordAttempt(ModuleSelectButtonInterface button, DifficultyLevel difficulty, int numCorrect,
+			int maxGrade, long durationMillis){
+		recordAttempt(button, new TestAttempt(System.currentTimeMillis(), difficulty, numCorrect, maxGrade,
+				durationMillis));
+	}
+	
+	/**
+	 * Used to record a finished formal test attempt, and the seed that its questions were generated from, in
+	 *  the current user's attempt history. The attempt can be replayed from its seed.
+	 * @param button A ModuleSelectButtonInterface that describes the test that was attempted.
+	 * @param difficulty A DifficultyLevel that describes the difficulty level of the attempt.
+	 * @param numCorrect An int describing the number of correct answers of the attempt.
+	 * @param maxGrade An int describing the maximum attainable grade of the attempt.
+	 * @param durationMillis A long describing the time taken to finish the attempt, in milliseconds.
+	 * @param seed A long describing the seed of the Random that generated the attempt's questions.
+	 *  See nextTestSeed().
+	 */
+	public void recordAttempt(ModuleSelectButtonInterface button, DifficultyLevel difficulty, int numCorrect,
+			int maxGrade, long durationMillis, long seed){
+		recordAttempt(button, new TestAttempt(System.currentTimeMillis(), difficulty, numCorrect, maxGrade,
+				durationMillis, seed));
+	}
+	
+	/**
+	 * A helper method used to append an attempt to the current user's attempt history.
+	 * @param button A ModuleSelectButtonInterface that describes the test that was attempted.
+	 * @param attempt The TestAttempt to be recorded.
+	 */
+	private void recordAttempt(ModuleSelectButtonInterface button, TestAttempt attempt){
+		try {
+			getAttemptHistory().record(userName, gradeLevel, button, attempt);
+		} catch (IOException e) {
+			handleException(e);
+		}
+	}
+	
+	/**
+	 * Used to obtain the seed of a new test's questions. Each test should seed its own Random with this,
+	 *  rather than sharing one, and pass it to recordAttempt(), so that the attempt can be replayed.
+	 * @return A long. The next seed of this session's SeedStream.
+	 */
+	public synchronized long nextTestSeed(){
+		return testSeeds.nextSeed();
+	}
+	
+	/**
+	 * A helper method used to create the session's SeedStream. It is seeded by SEED_PROPERTY, if set, so
+	 *  that every test of a session can be replayed. Otherwise, each session has different seeds.
+	 * @return A new SeedStream.
+	 */
+	private static SeedStream makeSeedStream(){
+		Long seed = Long.getLong(SEED_PROPERTY);
+		return (seed == null) ? new SeedStream() : new SeedStream(seed.longValue());
+	}
+	
+	/**
+	 * Used to obtain the current user's attempts at the specified test that were finished within a time window.
+	 * @param button A ModuleSelectButtonInterface that describes the test.
+	 * @param fromMillis A long describing the start of the window (inclusive), in milliseconds since the epoch.
+	 * @param toMillis A long describing the end of the window (exclusive), in milliseconds since the epoch.
+	 * @return A List of the TestAttempts within the window, oldest first. Empty if the history can not be read.
+	 */
+	public List<TestAttempt> getAttempts(ModuleSelectButtonInterface button, long fromMillis, long toMillis){
+		try {
+			return getAttemptHistory().getAttempts(userName, gradeLevel, button, fromMillis, toMillis);
+		} catch (IOException e) {
+			handleException(e);
+			return new ArrayList<TestAttempt>();
+		}
+	}
+	
+	/**
+	 * A helper method used to obtain the AttemptHistory, opening it the first time it is needed.
+	 * @return The AttemptHistory stored in HISTORY_DIRECTORY.
+	 * @throws IOException Thrown if the history directory can not be created.
+	 */
+	private synchronized AttemptHistory getAttemptHistory() throws IOException{
+		if(attemptHistory == null)
+			attemptHistory = new AttemptHistory(HISTORY_DIRECTORY);
+		return attemptHistory;
 	}
 	
 	/**
@@ -417,34 +662,426 @@ public final class GUIManager{
 		}
 		if(lastActive < maxValue){
 			lastActive++;
-			database.setLastActiveTest(userName, lastActive);
+			//Another session may have already advanced the user.
+			if(!database.setLastActiveTestIfHigher(userName, lastActive))
+				return;
+			if(journal == null)
+				return;
+			try {
+				journal.appendLastActiveTest(userName, lastActive);
+			} catch (IOException e) {
+				handleException(e);
+			}
 		}
 	}
-	
+
 	/**
-	 * Used to write the database object to disk.
+	 * Used to report that the current user's changes should be written to disk. The changes are written
+	 *  by the database writer's background thread, so this method returns at once. Only the changes are
+	 *  written (to the journal), not the entire database. If the journal has grown too large, the entire
+	 *  database is written, and the journal is emptied. If the database is stored in per-user record files,
+	 *  only the changed users' records are written.
+	 */
+	public void syncDatabase(){
+		persistence.markDirty(userName);
+	}
+
+	/**
+	 * Used at shutdown to write every change to disk, and then the entire database object, emptying the
+	 *  journal. Waits for the database writer to finish, and records its statistics in the error log. If
+	 *  the database is stored in per-user record files, only the changed users' records are written,
+	 *  followed by the class-wide grade aggregates if they have been counted. No changes can be written
+	 *  after this call.
 	 */
 	public void writeDatabase(){
+		//exit() closes the window, which calls this again if an error was found while writing.
+		if(isDatabaseWritten)
+			return;
+		isDatabaseWritten = true;
+		awaitDatabase();
+		try {
+			persistence.close();
+			errorLog.append("STATISTICS: Database writer: " + persistence.getStatistics() + "\r\n");
+			syncState.save();
+			if(userStore != null){
+				GradeAggregates aggregates = database.getCountedAggregates();
+				if(aggregates != null)
+					userStore.writeAggregates(aggregates);
+				return;
+			}
+			writeSnapshot();
+			journal.reset();
+		} catch (IOException e) {
+			handleException(e);
+		}
+	}
+
+	/**
+	 * A helper method, called by the database writer's background thread, used to write the changes of
+	 *  the specified users to disk.
+	 * @param userNames A Set of the Strings that are used as the database's keys for the changed users.
+	 * @throws IOException Thrown if the changes can not be written.
+	 */
+	private void persistChanges(Set<String> userNames) throws IOException{
+		if(userStore != null){
+			for(String changedUser: userNames)
+				database.flushUser(changedUser);
+			syncState.save();
+			return;
+		}
+		journal.sync();
+		if(journal.needsCompaction())
+			compactJournal();
+		syncState.save();
+	}
+
+	/**
+	 * A helper method used to write the entire database object to disk as a new snapshot, and discard the
+	 *  journal records that it holds. Records appended during the snapshot are kept. Every change is made
+	 *  to the database before its record is appended, so the snapshot, which is opened after the journal
+	 *  is sealed, holds every change of the sealed records.
+	 * @throws IOException Thrown if the journal can not be sealed, or the snapshot can not be written.
+	 */
+	private void compactJournal() throws IOException{
+		synchronized(compactionLock){
+			journal.seal();
+			writeSnapshot();
+			journal.discardSealed(); //Kept if the snapshot fails, so no changes are lost.
+		}
+	}
+
+	/**
+	 * Used to import a roster of students from a CSV file (see RosterImporter), and write the new users to
+	 *  disk in a single pass: one database snapshot, or, if the database is stored in per-user record files,
+	 *  the new users' records written as one step (see ShardedUserStore.saveUsers). Rows that are not valid
+	 *  are skipped, and listed in the error log.
+	 * @param filePath A String describing the path of the CSV file.
+	 * @return An int indicating the number of users that were imported.
+	 */
+	public int importRoster(String filePath){
+		awaitDatabase();
+		RosterImporter importer = new RosterImporter(database);
 		try {
-			FileOutputStream fout = new FileOutputStream(DB_FILEPATH);
-			ObjectOutputStream oos = new ObjectOutputStream(fout);
-			oos.writeObject(database);
-			oos.close();
-			fout.close();
+			Reader reader = new InputStreamReader(new FileInputStream(filePath), "UTF-8");
+			try{
+				importer.importRoster(reader);
+			}finally{
+				reader.close();
+			}
+			for(String error: importer.getErrors())
+				errorLog.append("IMPORT: " + error + "\r\n");
+			if(userStore != null){
+				database.flushUsers(importer.getImportedUsers());
+			}else{
+				persistence.flush();
+				compactJournal();
+			}
 		} catch (IOException e) {
 			handleException(e);
 		}
+		return importer.getImportedUsers().size();
 	}
-	
+
 	/**
-	 * Used to retrieve the database object from a file.
+	 * Used to export the report cards of every user to a file, as one row per (student, module, difficulty
+	 *  level). See ReportCardExporter. A file path ending in ".jsonl" is written as JSON Lines; any other
+	 *  file path is written as CSV.
+	 * @param filePath A String describing the path of the file to be written.
+	 * @return A long indicating the number of rows written.
+	 */
+	public long exportReportCards(String filePath){
+		awaitDatabase();
+		ReportCardExporter.Format format = ReportCardExporter.Format.CSV;
+		if(filePath.toLowerCase().endsWith(ReportCardExporter.Format.JSONL.getSuffix()))
+			format = ReportCardExporter.Format.JSONL;
+		try {
+			return new ReportCardExporter(database, format).export(new File(filePath));
+		} catch (IOException e) {
+			handleException(e);
+			return 0;
+		}
+	}
+
+	/**
+	 * Used to write the changes that other machines may not have seen to a file, to be carried to them
+	 *  (ex. on a USB drive) and merged with importChanges(String). See DeltaSync.
+	 * @param filePath A String describing the path of the file to be written.
+	 * @param everyUser True to write every user (ex. for a new machine), false to write only the changes.
+	 * @return An int indicating the number of users written.
+	 */
+	public int exportChanges(String filePath, boolean everyUser){
+		awaitDatabase();
+		DeltaSync sync = new DeltaSync(database, syncState);
+		try {
+			return everyUser ? sync.exportAll(new File(filePath)) : sync.exportChanges(new File(filePath));
+		} catch (IOException e) {
+			handleException(e);
+			return 0;
+		}
+	}
+
+	/**
+	 * Used to merge a file written by another machine's exportChanges(String, boolean) into the database,
+	 *  keeping each student's best grades and the latest profile changes. See DeltaSync. The merged users
+	 *  are written to disk in a single pass, as by importRoster(String). A damaged file changes nothing.
+	 * @param filePath A String describing the path of the file to be merged.
+	 * @return An int indicating the number of users that were added or changed.
+	 */
+	public int importChanges(String filePath){
+		awaitDatabase();
+		DeltaSync sync = new DeltaSync(database, syncState);
+		try {
+			int changed = sync.importChanges(new File(filePath));
+			if(userStore != null){
+				for(String changedUser: sync.getChangedUsers())
+					database.flushUser(changedUser);
+			}else{
+				persistence.flush();
+				compactJournal();
+			}
+			syncState.save();
+			return changed;
+		} catch (IOException e) {
+			handleException(e);
+			return 0;
+		}
+	}
+
+	/**
+	 * Used to promote students to a new grade level, for example at the end of the school year. Each
+	 *  student's report card is replaced with the empty report card of the new grade level. See
+	 *  BatchUpdate: every student is changed in one step, and written to disk in a single pass.
+	 * @param userNames The usernames of the students to be promoted.
+	 * @param gradeLevel An int indicating the new grade level (0, 1, or 2).
+	 * @return An int indicating the number of students that were promoted.
+	 */
+	public int promoteCohort(Collection<String> userNames, int gradeLevel){
+		awaitDatabase();
+		BatchUpdate batch = new BatchUpdate(database);
+		try {
+			batch.promoteCohort(userNames, gradeLevel);
+			writeBatch(batch);
+		} catch (IOException e) {
+			handleException(e);
+		}
+		return batch.getChangedUsers().size();
+	}
+
+	/**
+	 * Used to reset the grades of students to "not taken". See BatchUpdate: every student is changed in one
+	 *  step, and written to disk in a single pass.
+	 * @param userNames The usernames of the students whose grades are reset.
+	 * @return An int indicating the number of students whose grades were reset.
+	 */
+	public int resetGrades(Collection<String> userNames){
+		awaitDatabase();
+		BatchUpdate batch = new BatchUpdate(database);
+		try {
+			batch.resetGrades(userNames);
+			writeBatch(batch);
+		} catch (IOException e) {
+			handleException(e);
+		}
+		return batch.getChangedUsers().size();
+	}
+
+	/**
+	 * Used to set the passwords of many students at once. See BatchUpdate: every student is changed in one
+	 *  step, and written to disk in a single pass.
+	 * @param passwords A Map of each student's username to their new password.
+	 * @return An int indicating the number of students whose passwords were set.
+	 */
+	public int setPasswords(Map<String, String> passwords){
+		awaitDatabase();
+		BatchUpdate batch = new BatchUpdate(database);
+		try {
+			batch.setPasswords(passwords);
+			writeBatch(batch);
+		} catch (IOException e) {
+			handleException(e);
+		}
+		return batch.getChangedUsers().size();
+	}
+
+	/**
+	 * A helper method used to write the students changed by a batch to disk in a single pass, as by
+	 *  importRoster(String). If the database is stored in per-user record files, the changed records are
+	 *  written as one step (see ShardedUserStore.saveUsers), so a crash never leaves half of a batch on
+	 *  disk. The batch's throughput is recorded in the error log. If the current user was changed, their
+	 *  grade level is read again.
+	 * @param batch The BatchUpdate whose last operation is written.
+	 * @throws IOException Thrown if the changes can not be written.
+	 */
+	private void writeBatch(BatchUpdate batch) throws IOException{
+		long start = System.nanoTime();
+		if(userStore != null){
+			database.flushUsers(batch.getChangedUsers());
+		}else{
+			persistence.flush();
+			compactJournal();
+		}
+		syncState.save();
+		errorLog.append(String.format("STATISTICS: Batch update: %s, written in %.1f ms\r\n",
+				batch.getStatistics(), (System.nanoTime() - start) / 1e6));
+		if(userName != null && batch.getChangedUsers().contains(userName))
+			gradeLevel = database.getGradeLevel(userName);
+	}
+
+	/**
+	 * A helper method used to write the entire database object to disk, using DatabaseCodec, as a new
+	 *  snapshot generation. See SnapshotStore: a failed write never leaves a partial snapshot behind, and
+	 *  the previous generations are kept. The database is encoded from a DatabaseSnapshot, so students
+	 *  can keep taking tests while it is encoded and written. If the class-wide grade aggregates have been
+	 *  counted, the grades of the same snapshot are counted and written with it, so they are not counted
+	 *  again when it is read.
+	 * @throws IOException Thrown if the snapshot can not be written.
+	 */
+	private void writeSnapshot() throws IOException{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		GradeAggregates aggregates = null;
+		DatabaseSnapshot snapshot = database.openSnapshot();
+		try{
+			DatabaseCodec.write(snapshot, bytes);
+			if(database.getCountedAggregates() != null)
+				aggregates = GradeAggregates.count(snapshot);
+		}finally{
+			snapshot.close();
+		}
+		snapshots.write(bytes.toByteArray(), aggregates);
+	}
+
+	/**
+	 * Used to start the database writer, which writes changes to disk on a background thread.
+	 */
+	private void startPersistence(){
+		persistence = new PersistenceService(new PersistenceTarget() {
+			private int failuresInARow = 0; //Only used by the database writer's thread.
+			
+			public void persist(Set<String> userNames) throws IOException{
+				persistChanges(userNames);
+				failuresInARow = 0;
+			}
+			
+			//The writer retries a failed write, so a failure is only logged, until it has failed too often.
+			// The user is then told on the Event Dispatch Thread, since exit() waits for the writer.
+			public void persistFailed(IOException e){
+				logException(e);
+				if(++failuresInARow == PERSIST_FAILURE_LIMIT){
+					SwingUtilities.invokeLater(new Runnable() {
+						public void run(){
+							showErrorAndExit();
+						}
+					});
+				}
+			}
+		});
+	}
+
+	/**
+	 * Used to open the journal & apply any changes that it holds to the database.
+	 */
+	private void openJournal(){
+		try {
+			journal = new GradeJournal(JOURNAL_FILEPATH);
+			journal.replay(database);
+		} catch (IOException e) {
+			handleException(e);
+		}
+	}
+
+	/**
+	 * Used to read the state that is used to merge databases of other machines, and to start tracking
+	 *  changes. A damaged state is replaced by a new one, so the next export holds every user.
+	 */
+	private void openSyncState(){
+		File file = new File(SYNC_FILEPATH);
+		try {
+			syncState = SyncState.read(file);
+		} catch (IOException e) {
+			errorLog.append("WARNING: Replaced the damaged sync state " + file + ": " + e.getMessage() + "\r\n");
+			syncState = new SyncState(file);
+		}
+		database.setChangeListener(syncState);
+	}
+
+	/**
+	 * Used to open the per-user record files. Only the index of users is read, along with the class-wide
+	 *  grade aggregates if they were written at the last shutdown; each user's record is read the first
+	 *  time that user is used.
+	 */
+	private void openUserStore(){
+		try {
+			userStore = new ShardedUserStore(USERS_DIRECTORY);
+			database  = new UserDatabase(userStore);
+			GradeAggregates aggregates = userStore.readAggregates();
+			if(aggregates != null)
+				database.setAggregates(aggregates);
+		} catch (IOException e) {
+			handleException(e);
+		}
+	}
+
+	/**
+	 * Used to move the database, including any changes in the journal, into per-user record files.
+	 *  The database file is left in place as a backup, but is no longer used.
+	 */
+	private void moveToUserStore(){
+		try {
+			ShardedUserStore target = new ShardedUserStore(USERS_DIRECTORY);
+			database.copyTo(target);
+			journal.close();
+			journal   = null;
+			userStore = target;
+			GradeAggregates aggregates = database.getCountedAggregates();
+			database  = new UserDatabase(userStore);
+			if(aggregates != null)
+				database.setAggregates(aggregates);
+		} catch (IOException e) {
+			handleException(e);
+		}
+	}
+
+	/**
+	 * Used to retrieve the database object from the newest valid snapshot generation. Damaged generations
+	 *  are validated by their checksums, without being decoded, and skipped. If there are no snapshots
+	 *  (ex. the first run after an update), or none is valid, the database file written by earlier versions
+	 *  is read instead.
 	 */
 	private void readDatabase(){
+		try {
+			database = snapshots.readNewest();
+			for(Long generation: snapshots.getSkippedGenerations()){
+				errorLog.append("WARNING: Skipped the damaged database snapshot " + snapshots.getFile(generation) + ".\r\n");
+			}
+			if(database != null){
+				GradeAggregates aggregates = snapshots.readAggregates(snapshots.getReadGeneration());
+				if(aggregates != null)
+					database.setAggregates(aggregates);
+				return;
+			}
+			if(!new File(DB_FILEPATH).exists())
+				throw new IOException("No valid database snapshot was found.");
+		} catch (IOException e) {
+			handleException(e);
+			return;
+		}
+		readLegacyDatabase();
+	}
+
+	/**
+	 * Used to retrieve the database object from the single database file written by earlier versions.
+	 *  Files written using Java serialization instead of DatabaseCodec are still read.
+	 */
+	private void readLegacyDatabase(){
 		try {
 			FileInputStream fis = new FileInputStream(DB_FILEPATH);
-			ObjectInputStream ois = new ObjectInputStream(fis);
-			database = (UserDatabase)ois.readObject();
-			ois.close();
+			if(DatabaseCodec.isCodecFile(new File(DB_FILEPATH))){
+				database = DatabaseCodec.read(fis);
+			}else{
+				ObjectInputStream ois = new ObjectInputStream(fis);
+				database = (UserDatabase)ois.readObject();
+				ois.close();
+			}
 			fis.close();
 		} catch (IOException | ClassNotFoundException e) {
 			handleException(e);
@@ -452,11 +1089,11 @@ public final class GUIManager{
 	}
 	
 	/**
-	 * Used to check if the database file exists.
-	 * @return A boolean indicating true if the database file exists, false otherwise.
+	 * Used to check if a database snapshot, or the database file written by earlier versions, exists.
+	 * @return A boolean indicating true if a database snapshot or file exists, false otherwise.
 	 */
 	private boolean dbExists(){
-		return new File(DB_FILEPATH).exists();
+		return snapshots.hasSnapshots() || new File(DB_FILEPATH).exists();
 	}
 	
 	
@@ -602,6 +1239,16 @@ public final class GUIManager{
 	 * @param e The Throwable clause that was thrown.
 	 */
 	public void handleException(Throwable e){
+		logException(e);
+		showErrorAndExit();
+	}
+	
+	/**
+	 * Used to add an exception to the error log, without telling the user or exiting. May be called by
+	 *  any thread.
+	 * @param e The Throwable clause that was thrown.
+	 */
+	public synchronized void logException(Throwable e){
 		//TODO e.printStackTrace() should be removed after proper execution is developed.
 		e.printStackTrace();
 		String errorMessage;
@@ -622,8 +1269,13 @@ public final class GUIManager{
 			errorLog.append("    " + element.toString() + "\r\n");
 		}
 		errorNumber++;
+	}
+	
+	/**
+	 * A helper method used to show the user a pop-up error dialogue, and then exit.
+	 */
+	private void showErrorAndExit(){
 		//TODO Should implement a shutdown hook.
-		
 		String message = "<p><CENTER>Sorry, there was a problem loading this screen.</CENTER></p>"
 				+ "<p><CENTER>You may try re-installing the \"image\" folder.</CENTER></p>"
 				+ "<p><CENTER>OR</CENTER></p>"
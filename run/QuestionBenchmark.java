@@ -0,0 +1,181 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.run;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import project.constants.DifficultyLevel;
+import project.interfaces.QuestionGenerator;
+import project.tests.GradeArithmeticGenerator;
+import project.tests.GradeFractionsGenerator;
+import project.tests.PreKArithmeticGenerator;
+import project.tests.PreKCoinsGenerator;
+import project.tests.PreKComparisonGenerator;
+import project.tests.PreKCountingGenerator;
+import project.tests.PreKFractionsGenerator;
+import project.tests.PreKMatchingGenerator;
+import project.tests.PreKSequencesGenerator;
+import project.tools.SeedStream;
+
+/**
+ * A command line benchmark that measures the throughput of every QuestionGenerator. Each round
+ *  runs complete "Hard" tests: every question is generated, its text and correct answer are built,
+ *  the correct answer is checked, and a wrong answer is logged. Each thread uses its own generators, seeded
+ *  by its own SeedStream, split from the round's SeedStream, so no random number generator is shared.
+ *  No GUI is opened, so the benchmark may be run with -Djava.awt.headless=true.
+ * Usage: QuestionBenchmark [tests per module] [threads] (default: 100000, available processors)
+ * @author Kenneth Chin
+ */
+public class QuestionBenchmark {
+	
+	static final String[] MODULES = {"Arithmetic", "Coins", "Comparison", "Counting",
+											  "Fractions", "Matching", "Sequences", "Grade1Arithmetic",
+											  "Grade3Arithmetic", "Grade1Fractions", "Grade3Fractions",
+											  "Grade3Decimals"};
+	private static final int WARMUP_ROUNDS   = 2; //Rounds that are run, but not measured.
+	private static final int MEASURED_ROUNDS = 3; //Rounds that are averaged.
+	
+	/**
+	 * Run the benchmark.
+	 * @param args The number of tests to run per module and the number of threads to run them on.
+	 * @throws Exception Thrown if a benchmark thread fails.
+	 */
+	public static void main(String[] args) throws Exception{
+		int tests   = (args.length > 0) ? Integer.parseInt(args[0]) : 100000;
+		int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try{
+			System.out.println("---- " + tests + " tests per module, " + threads + " thread(s) ----");
+			long totalQuestions = 0;
+			long totalNanos     = 0;
+			for(int module = 0; module < MODULES.length; module++){
+				long questions = 0;
+				long nanos     = 0;
+				for(int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++){
+					long start = System.nanoTime();
+					long count = runTests(pool, module, tests, threads, round);
+					if(round >= WARMUP_ROUNDS){
+						nanos     += System.nanoTime() - start;
+						questions += count;
+					}
+				}
+				totalQuestions += questions;
+				totalNanos     += nanos;
+				report(MODULES[module], questions / MEASURED_ROUNDS, nanos / MEASURED_ROUNDS);
+			}
+			report("All", totalQuestions / MEASURED_ROUNDS, totalNanos / MEASURED_ROUNDS);
+		}finally{
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * Used to create a QuestionGenerator for a module.
+	 * @param module An int. The index of the module in MODULES.
+	 * @param difficulty The DifficultyLevel of the generated questions.
+	 * @param rng The random number generator used by the QuestionGenerator.
+	 * @return A new QuestionGenerator for the specified module.
+	 */
+	static QuestionGenerator makeGenerator(int module, DifficultyLevel difficulty, Random rng){
+		switch(module){
+			case 0:  return new PreKArithmeticGenerator(difficulty, rng);
+			case 1:  return new PreKCoinsGenerator(difficulty, rng);
+			case 2:  return new PreKComparisonGenerator(difficulty, rng);
+			case 3:  return new PreKCountingGenerator(difficulty, rng);
+			case 4:  return new PreKFractionsGenerator(difficulty, rng);
+			case 5:  return new PreKMatchingGenerator(difficulty, rng);
+			case 6:  return new PreKSequencesGenerator(difficulty, rng);
+			case 7:  return new GradeArithmeticGenerator(GradeArithmeticGenerator.GRADE_1, difficulty, rng);
+			case 8:  return new GradeArithmeticGenerator(GradeArithmeticGenerator.GRADE_3, difficulty, rng);
+			case 9:  return new GradeFractionsGenerator(GradeFractionsGenerator.Module.GRADE_1_FRACTIONS, difficulty, rng);
+			case 10: return new GradeFractionsGenerator(GradeFractionsGenerator.Module.GRADE_3_FRACTIONS, difficulty, rng);
+			default: return new GradeFractionsGenerator(GradeFractionsGenerator.Module.GRADE_3_DECIMALS, difficulty, rng);
+		}
+	}
+	
+	/**
+	 * Used to run complete tests of a module, split evenly between threads.
+	 * @param pool The ExecutorService that runs the tests.
+	 * @param module An int. The index of the module in MODULES.
+	 * @param tests An int. The number of tests to run.
+	 * @param threads An int. The number of tasks to split the tests between.
+	 * @param round An int. Used to seed the SeedStream that each task's SeedStream is split from.
+	 * @return A long. The number of questions that were generated.
+	 * @throws Exception Thrown if a task fails.
+	 */
+	private static long runTests(ExecutorService pool, final int module, int tests, int threads, int round) throws Exception{
+		List<Future<Long>> results = new ArrayList<Future<Long>>();
+		SeedStream roundSeeds = new SeedStream(round);
+		for(int i = 0; i < threads; i++){
+			final int count = tests / threads + ((i < tests % threads) ? 1 : 0);
+			final SeedStream seeds = roundSeeds.split();
+			results.add(pool.submit(new Callable<Long>() {
+				public Long call(){
+					return runTests(module, count, seeds);
+				}
+			}));
+		}
+		long questions = 0;
+		for(Future<Long> result: results)
+			questions += result.get();
+		return questions;
+	}
+	
+	/**
+	 * Used to run complete tests of a module on the current thread.
+	 * @param module An int. The index of the module in MODULES.
+	 * @param tests An int. The number of tests to run.
+	 * @param seeds The SeedStream that seeds each test's random number generator.
+	 * @return A long. The number of questions that were generated.
+	 */
+	private static long runTests(int module, int tests, SeedStream seeds){
+		long questions = 0;
+		long checksum  = 0; //Keeps the JIT from discarding the generated Strings.
+		for(int test = 0; test < tests; test++){
+			QuestionGenerator generator = makeGenerator(module, DifficultyLevel.HARD, seeds.nextRandom());
+			while(generator.hasNextQuestion()){
+				generator.nextQuestion();
+				String answer = generator.getCorrectAnswer();
+				if(!generator.checkAnswer(answer))
+					throw new IllegalStateException(MODULES[module] + " rejected its own answer: " + answer);
+				checksum += generator.getQuestion().length() + generator.getLogEntry("wrong").length();
+				questions++;
+			}
+		}
+		return (checksum == 0) ? 0 : questions;
+	}
+	
+	/**
+	 * A helper method used to print the result of a benchmark.
+	 * @param name A String describing the module that was benchmarked.
+	 * @param questions A long. The number of questions that were generated.
+	 * @param nanos A long. The time that the questions took, in nanoseconds.
+	 */
+	private static void report(String name, long questions, long nanos){
+		double ms = nanos / 1e6;
+		System.out.printf("%-17s questions: %10d   time: %8.1f ms (%,.0f questions/s)%n", name, questions, ms,
+				questions / (ms / 1000));
+	}
+}
@@ -0,0 +1,77 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.run;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import project.constants.DifficultyLevel;
+import project.interfaces.QuestionGenerator;
+
+/**
+ * A command line tool that replays a recorded test attempt: the questions of the attempt are generated
+ *  again, from the seed that was recorded with it, and printed in the order they were asked, with their
+ *  correct answers. An attempt's seed is shown, in hexadecimal, by TestAttempt.toString().
+ *  No GUI is opened, so the tool may be run with -Djava.awt.headless=true.
+ * Usage: QuestionReplay module difficulty seed
+ *  e.g.  QuestionReplay Comparison Hard 5f1e2d3c4b5a6978
+ * @author Kenneth Chin
+ */
+public class QuestionReplay {
+
+	/**
+	 * Run the replay.
+	 * @param args The module's name, the difficulty level's name, and the seed, in hexadecimal.
+	 */
+	public static void main(String[] args){
+		if(args.length != 3){
+			System.err.println("Usage: QuestionReplay module difficulty seed");
+			System.exit(1);
+		}
+		int module = findModule(args[0]);
+		if(module < 0){
+			System.err.println("Unknown module: " + args[0]);
+			System.exit(1);
+		}
+		DifficultyLevel difficulty = DifficultyLevel.valueOf(args[1].toUpperCase());
+		long seed = new BigInteger(args[2], 16).longValue(); //Allows seeds above Long.MAX_VALUE.
+		
+		QuestionGenerator generator = QuestionBenchmark.makeGenerator(module, difficulty, new Random(seed));
+		System.out.println("---- " + QuestionBenchmark.MODULES[module] + ", " + difficulty.getName()
+				+ ", seed " + Long.toHexString(seed) + " ----");
+		while(generator.hasNextQuestion()){
+			generator.nextQuestion();
+			System.out.printf("%2d. %-40s %s%n", generator.getQuestionNumber(), generator.getQuestion(),
+					generator.getCorrectAnswer());
+		}
+	}
+	
+	/**
+	 * A helper method used to find a module by its name, ignoring case.
+	 * @param name A String. The name of the module.
+	 * @return An int. The index of the module in QuestionBenchmark.MODULES, or -1 if there is no such module.
+	 */
+	private static int findModule(String name){
+		for(int module = 0; module < QuestionBenchmark.MODULES.length; module++){
+			if(QuestionBenchmark.MODULES[module].equalsIgnoreCase(name))
+				return module;
+		}
+		return -1;
+	}
+}
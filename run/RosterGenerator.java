@@ -0,0 +1,72 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.run;
+
+import java.io.File;
+
+import project.database.DatabaseCodec;
+import project.database.SnapshotStore;
+import project.database.SyntheticRoster;
+
+/**
+ * A command line tool that builds a synthetic load-test database with SyntheticRoster. No GUI is opened.
+ *  By default the students are written to a file in the DatabaseCodec format, which GUIManager reads as
+ *  a legacy database file (db.dat) when no snapshot exists. With "-snapshot", the file path is instead
+ *  used as a SnapshotStore's base path, and a new snapshot generation is written.
+ * Usage: RosterGenerator [-snapshot] number-of-users file [seed] (default seed: 42)
+ *  e.g. RosterGenerator 1000000 db.dat
+ * @author Kenneth Chin
+ */
+public class RosterGenerator {
+
+	private static final int SNAPSHOT_GENERATIONS = 3; //The number of snapshot generations that are kept.
+
+	/**
+	 * Run the generator.
+	 * @param args The optional "-snapshot" flag, the number of users, the output file, and the optional seed.
+	 * @throws Exception Thrown if the users can not be generated or written.
+	 */
+	public static void main(String[] args) throws Exception{
+		boolean snapshot = args.length > 0 && "-snapshot".equals(args[0]);
+		int first = snapshot ? 1 : 0;
+		if(args.length - first < 2){
+			System.out.println("Usage: RosterGenerator [-snapshot] number-of-users file [seed]");
+			System.exit(1);
+		}
+		int users   = Integer.parseInt(args[first]);
+		String path = args[first + 1];
+		long seed   = (args.length - first > 2) ? Long.parseLong(args[first + 2]) : 42;
+
+		SyntheticRoster roster = new SyntheticRoster(seed);
+		long start = System.nanoTime();
+		File written;
+		if(snapshot){
+			SnapshotStore store = new SnapshotStore(path, SNAPSHOT_GENERATIONS);
+			written = store.getFile(roster.writeSnapshot(store, users));
+		}else{
+			written = new File(path);
+			roster.write(written, users);
+		}
+		double ms = (System.nanoTime() - start) / 1e6;
+		System.out.printf("Wrote %,d users (seed %d) to %s: %.2f MB in %.1f ms (%,.0f users/s)%n", users, seed,
+				written, written.length() / (1024.0 * 1024.0), ms, users / (ms / 1000));
+		if(!snapshot && !DatabaseCodec.isCodecFile(written))
+			System.out.println("WARNING: " + written + " is not a DatabaseCodec file.");
+	}
+}
@@ -125,6 +125,7 @@ public class MathHelperLogin {
 				try{
 					String userName = textField.getText();
 					String password = passwordField.getText();
+					GUI.awaitDatabase(); //The database is loaded while the login screen is shown.
 					
 					validateUser(userName, password);
 					if(getIsValid()){
@@ -49,8 +49,8 @@ import project.tools.MainWindow;
  *  The image is written the name and directory as specified by the constructor at instantiation.
  *  Once the image has been written to the user's storage drive, the "Home" button is placed onto
  *  the screen. If clicked, the "Home" button will tear down the RewardScreen & create a WelcomeScreen.
- *  Also enables the next available test, if the student's grade is passing. Lastly, forces the database
- *  to write to file. 
+ *  Also enables the next available test, if the student's grade is passing. Lastly, forces the database's
+ *  changes to be written to file. 
  * @author Kenneth Chin
  */
 public class RewardScreen implements ClickableObserver{
@@ -62,7 +62,7 @@ public class RewardScreen implements ClickableObserver{
 	private static final int    TEXT_LAYER        = 2;
 	private static final int    BUTTON_LAYER      = 3;
 	//The grade percent that is allows a student to take the next test.
-	private static final int    PASSING_GRADE     = 60;
+	public static final int     PASSING_GRADE     = 60;
 	
 	private ContentPane homeBtn;    //Used to display the "Home" button.
 	private ContentPane gradePanel; //Used to display the % correct answered text.
@@ -81,7 +81,7 @@ public class RewardScreen implements ClickableObserver{
 	 *  "Home" button. Additionally, a screen-capture is performed on mainWindw, prior to adding the
 	 *  "Home" button. The image is stored into the specified directory, with a name specified by
 	 *  testName. Also enables the next available test, if the student's grade is passing. Lastly,
-	 *  forces the database to write to file. 
+	 *  forces the database's changes to be written to file. 
 	 * @param manager The GUIManager that manages the primary MainWindow & all GUI screens.
 	 * @param test The ModuleSelectButtonInterface that represents the test that was taken.
 	 *  Used for image file name & to determine if the next test should be available.
@@ -107,8 +107,8 @@ public class RewardScreen implements ClickableObserver{
 	
 	/**
 	 * Used to initialize the RewardScreen's display & obtain a screen capture before adding a "Home" button.
-	 *  Also enables the next test if the student's grade is >= PASSING_GRADE. Lastly, forces the database
-	 *  to be written to file.
+	 *  Also enables the next test if the student's grade is >= PASSING_GRADE. Lastly, hands the database's
+	 *  changes to the database writer, which writes them to file without delaying this screen.
 	 */
 	private void init() throws IOException{
 		setBackground();
@@ -118,7 +118,7 @@ public class RewardScreen implements ClickableObserver{
 			makeScreenShot();
 		if(grade >= PASSING_GRADE)
 			manager.incrementHighestTest(button.getOrdinal() + 1);
-		manager.writeDatabase();
+		manager.syncDatabase();
 		showHomeBtn();
 	}
 	
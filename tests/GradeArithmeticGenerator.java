@@ -0,0 +1,195 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.tests;
+
+import java.util.Random;
+
+import project.constants.DifficultyLevel;
+import project.constants.Operator;
+import project.interfaces.EquationGenerator;
+import project.tools.UsedQuestionSet;
+
+/**
+ * This class is used to generate Grade 1-2 and Grade 3-4 multi-digit Addition and Subtraction questions,
+ *  with operands of up to 9999, without displaying them. No question will result in a negative answer.
+ *  No two questions will be the same. Used by TestArithmetic.
+ * There are up to 2 * 10000 * 10000 questions, far too many for a QuestionSpace, so each question is
+ *  drawn at random, and drawn again if it has already been asked. The asked questions are kept in a
+ *  UsedQuestionSet. Every difficulty level has many more questions than are asked, so a question is
+ *  rarely drawn more than twice.
+ * @author Kenneth Chin
+ */
+public class GradeArithmeticGenerator implements EquationGenerator{
+	
+	public static final int GRADE_1 = 1; //The gradeLevel of Grade 1-2 students, as used by GUIManager.
+	public static final int GRADE_3 = 2; //The gradeLevel of Grade 3-4 students, as used by GUIManager.
+	
+	private static final Operator[] OPERATORS = {Operator.ADD, Operator.SUBTRACT}; //The Operators to test.
+	
+	//The lowest & highest operand of each difficulty level {Easy, Normal, Hard}, for each grade level.
+	private static final int[][] GRADE_1_OPERANDS = {{0, 20}, {0, 99}, {10, 999}};
+	private static final int[][] GRADE_3_OPERANDS = {{10, 999}, {100, 9999}, {1000, 9999}};
+	
+	//Difficulty settings. Note: MUST be much less than the number of questions of every difficulty level.
+	private static final int EASY_MAX_QUESTIONS = 10;   //The maximum number of questions for the "Easy" difficulty.
+	private static final int NORM_MAX_QUESTIONS = 15;   //The maximum number of questions for the "Normal" difficulty.
+	private static final int HARD_MAX_QUESTIONS = 20;   //The maximum number of questions for the "Hard" difficulty.
+	
+	private DifficultyLevel difficulty;   //The DifficultyLevel of the generated questions.
+	private int maxNumberOfQuestions;     //The maximum number of questions for difficulty.
+	private int lowestOperand;            //The lowest operand of difficulty.
+	private int highestOperand;           //The highest operand of difficulty.
+	private Random rng;                   //The random number generator used to draw questions.
+	private UsedQuestionSet usedQuestions = new UsedQuestionSet(); //The questions that have been asked.
+	
+	private int questionNum = 0;    //The number of questions that have been generated.
+	private int operand1;           //The first operand of the current question.
+	private int operand2;           //The second operand of the current question.
+	private Operator operator;      //The Operator of the current question.
+	private int currentAnswer;      //The answer to the current question.
+	private String currentQuestion; //The current question in String form.
+	
+	/**
+	 * The GradeArithmeticGenerator constructor.
+	 * @param gradeLevel An int indicating the grade level of the questions. Either GRADE_1 or GRADE_3.
+	 * @param difficulty The DifficultyLevel of the generated questions.
+	 * @param rng The random number generator used to draw questions.
+	 */
+	public GradeArithmeticGenerator(int gradeLevel, DifficultyLevel difficulty, Random rng){
+		int[][] operands;
+		switch(gradeLevel){
+			case GRADE_1: operands = GRADE_1_OPERANDS; break;
+			case GRADE_3: operands = GRADE_3_OPERANDS; break;
+			default: throw new IllegalArgumentException("GradeArithmeticGenerator: There are no Arithmetic "
+					+ "questions for grade level " + gradeLevel + ".");
+		}
+		this.difficulty = difficulty;
+		this.rng        = rng;
+		switch(difficulty){
+			case EASY:   maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
+			case NORMAL: maxNumberOfQuestions = NORM_MAX_QUESTIONS; break;
+			case HARD:   maxNumberOfQuestions = HARD_MAX_QUESTIONS; break;
+			default:     maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
+		}
+		lowestOperand  = operands[difficulty.ordinal()][0];
+		highestOperand = operands[difficulty.ordinal()][1];
+	}
+	
+	/**
+	 * Used to obtain a factory that creates the generators of a grade level's Arithmetic tests.
+	 * @param gradeLevel An int indicating the grade level of the questions. Either GRADE_1 or GRADE_3.
+	 * @return An EquationGenerator.Factory that creates GradeArithmeticGenerators of gradeLevel.
+	 */
+	public static EquationGenerator.Factory factory(final int gradeLevel){
+		return new EquationGenerator.Factory() {
+			public EquationGenerator newGenerator(DifficultyLevel difficulty, Random rng){
+				return new GradeArithmeticGenerator(gradeLevel, difficulty, rng);
+			}
+		};
+	}
+	
+	/**
+	 * A helper method used to pack a question into the key of its UsedQuestionSet.
+	 * @param operand1 An int. The first operand, from 0 to 9999.
+	 * @param operand2 An int. The second operand, from 0 to 9999.
+	 * @param operatorIndex An int. The index of the question's Operator in OPERATORS.
+	 * @return A long that identifies the question.
+	 */
+	private static long pack(int operand1, int operand2, int operatorIndex){
+		return ((long)operatorIndex << 40) | ((long)operand1 << 20) | operand2;
+	}
+	
+	@Override
+	public int getOperand1(){
+		return operand1;
+	}
+	
+	@Override
+	public int getOperand2(){
+		return operand2;
+	}
+	
+	@Override
+	public Operator getOperator(){
+		return operator;
+	}
+	
+	@Override
+	public DifficultyLevel getDifficulty(){
+		return difficulty;
+	}
+	
+	@Override
+	public int getMaxNumberOfQuestions(){
+		return maxNumberOfQuestions;
+	}
+	
+	@Override
+	public boolean hasNextQuestion(){
+		return questionNum < maxNumberOfQuestions;
+	}
+	
+	@Override
+	public void nextQuestion(){
+		if(!hasNextQuestion())
+			throw new IllegalStateException("All " + maxNumberOfQuestions + " questions have been asked.");
+		int range = highestOperand - lowestOperand + 1;
+		int first, second, operatorIndex;
+		do{
+			first         = lowestOperand + rng.nextInt(range);
+			second        = lowestOperand + rng.nextInt(range);
+			operatorIndex = rng.nextInt(OPERATORS.length);
+		}while(OPERATORS[operatorIndex].doAction(first, second) < 0
+				|| !usedQuestions.add(pack(first, second, operatorIndex)));
+		operand1        = first;
+		operand2        = second;
+		operator        = OPERATORS[operatorIndex];
+		currentQuestion = operand1 + " " + operator.getSymbol() + " " + operand2;
+		currentAnswer   = operator.doAction(operand1, operand2);
+		questionNum++;
+	}
+	
+	@Override
+	public int getQuestionNumber(){
+		return questionNum;
+	}
+	
+	@Override
+	public String getQuestion(){
+		return currentQuestion;
+	}
+	
+	@Override
+	public String getCorrectAnswer(){
+		return Integer.toString(currentAnswer);
+	}
+	
+	@Override
+	public boolean checkAnswer(String answer){
+		//Large answers may be written with thousands separators, ex. "1,234".
+		return answer.trim().replace(",", "").equals(getCorrectAnswer());
+	}
+	
+	@Override
+	public String getLogEntry(String answer){
+		String question = "Question " + questionNum + ": (" + currentQuestion + ")";
+		return question + " Student Answer: (" + answer + ")"
+						+ " Correct Answer: (" + currentAnswer + ").";
+	}
+}
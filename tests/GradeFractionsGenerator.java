@@ -0,0 +1,429 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.tests;
+
+import java.util.Random;
+
+import project.constants.DifficultyLevel;
+import project.constants.Operator;
+import project.interfaces.QuestionGenerator;
+import project.tools.Fraction;
+import project.tools.UsedQuestionSet;
+
+/**
+ * This class is used to generate Grade 1-2 and Grade 3-4 Fractions questions, and Grade 3-4 Decimals
+ *  questions, without displaying them: equivalent fractions, comparing fractions or decimals, adding and
+ *  subtracting fractions with like denominators, and writing fractions as decimals & decimals as fractions.
+ *  No two questions will be the same. Used by GradeTestFractions.
+ * Every question & answer is worked out exactly, with Fractions. Every denominator is at most 100, so
+ *  every Fraction that is used is cached, and generating & checking questions does not allocate them.
+ * @author Kenneth Chin
+ */
+public class GradeFractionsGenerator implements QuestionGenerator{
+	
+	//Difficulty settings. Note: MUST be much less than the number of questions of every difficulty level.
+	private static final int EASY_MAX_QUESTIONS = 10;   //The maximum number of questions for the "Easy" difficulty.
+	private static final int NORM_MAX_QUESTIONS = 15;   //The maximum number of questions for the "Normal" difficulty.
+	private static final int HARD_MAX_QUESTIONS = 20;   //The maximum number of questions for the "Hard" difficulty.
+	
+	//The denominators of fractions that are decimals with at most two decimal places.
+	private static final int[] DECIMAL_DENOMINATORS = {2, 4, 5, 10, 20, 25, 50, 100};
+	private static final Operator[] OPERATORS = {Operator.ADD, Operator.SUBTRACT}; //The Operators of SUM questions.
+	
+	private DifficultyLevel difficulty;   //The DifficultyLevel of the generated questions.
+	private int maxNumberOfQuestions;     //The maximum number of questions for difficulty.
+	private Module module;                //The module that the questions belong to.
+	private int maxDenominator;           //The largest denominator of the questions, for difficulty.
+	private Random rng;                   //The random number generator used to draw questions.
+	private UsedQuestionSet usedQuestions = new UsedQuestionSet(); //The questions that have been asked.
+	
+	private int questionNum = 0;    //The number of questions that have been generated.
+	private QuestionType type;      //The QuestionType of the current question.
+	private Fraction left;          //The (first) number of the current question.
+	private Fraction right;         //The second number of the current question. null if there is none.
+	private Fraction answerValue;   //The answer to the current question, for EQUIVALENT, SUM & TO_DECIMAL questions.
+	private int answerDenominator;  //The denominator of an EQUIVALENT question's answer.
+	private String currentAnswer;   //The answer to the current question, in String form.
+	private String currentQuestion; //The current question in String form.
+	
+	/**
+	 * The GradeFractionsGenerator constructor.
+	 * @param module The Module that the questions belong to.
+	 * @param difficulty The DifficultyLevel of the generated questions.
+	 * @param rng The random number generator used to draw questions.
+	 */
+	public GradeFractionsGenerator(Module module, DifficultyLevel difficulty, Random rng){
+		this.module     = module;
+		this.difficulty = difficulty;
+		this.rng        = rng;
+		switch(difficulty){
+			case EASY:   maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
+			case NORMAL: maxNumberOfQuestions = NORM_MAX_QUESTIONS; break;
+			case HARD:   maxNumberOfQuestions = HARD_MAX_QUESTIONS; break;
+			default:     maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
+		}
+		maxDenominator = module.maxDenominators[difficulty.ordinal()];
+	}
+	
+	@Override
+	public DifficultyLevel getDifficulty(){
+		return difficulty;
+	}
+	
+	@Override
+	public int getMaxNumberOfQuestions(){
+		return maxNumberOfQuestions;
+	}
+	
+	@Override
+	public boolean hasNextQuestion(){
+		return questionNum < maxNumberOfQuestions;
+	}
+	
+	@Override
+	public void nextQuestion(){
+		if(!hasNextQuestion())
+			throw new IllegalStateException("All " + maxNumberOfQuestions + " questions have been asked.");
+		long key;
+		do{
+			type = module.types[rng.nextInt(module.types.length)];
+			switch(type){
+				case EQUIVALENT:        key = makeEquivalent();       break;
+				case COMPARE_FRACTIONS: key = makeFractionCompare();  break;
+				case SUM:               key = makeSum();              break;
+				case TO_DECIMAL:        key = makeToDecimal();        break;
+				case TO_FRACTION:       key = makeToFraction();       break;
+				default:                key = makeDecimalCompare();   break;
+			}
+		}while(!usedQuestions.add(key));
+		questionNum++;
+	}
+	
+	
+/*******************************
+ * Question generation methods *
+ *******************************/
+	
+	/**
+	 * A helper method used to make an EQUIVALENT question: "2/3 = ?/12".
+	 * @return A long that identifies the question.
+	 */
+	private long makeEquivalent(){
+		left = drawProperFraction();
+		answerDenominator = left.getDenominator() * drawMultiplier(left);
+		answerValue   = left;
+		right         = null;
+		currentAnswer = Integer.toString(left.getNumerator() * (answerDenominator / left.getDenominator()));
+		currentQuestion = "Fill in the missing number: <br><br>" + left + " = ?/" + answerDenominator;
+		return pack(left.getNumerator(), left.getDenominator(), 0, answerDenominator);
+	}
+	
+	/**
+	 * A helper method used to make a COMPARE_FRACTIONS question: "3/4 ___ 5/8". One in four questions
+	 *  compares a fraction to an equivalent fraction that is not in lowest terms: "2/3 ___ 4/6".
+	 * @return A long that identifies the question.
+	 */
+	private long makeFractionCompare(){
+		left = drawProperFraction();
+		int rightNumerator, rightDenominator;
+		if(rng.nextInt(4) == 0){
+			int multiplier   = drawMultiplier(left);
+			rightNumerator   = left.getNumerator()   * multiplier;
+			rightDenominator = left.getDenominator() * multiplier;
+		}else{
+			Fraction other   = drawProperFraction();
+			rightNumerator   = other.getNumerator();
+			rightDenominator = other.getDenominator();
+		}
+		right = Fraction.valueOf(rightNumerator, rightDenominator);
+		currentAnswer   = getComparisonSymbol(left, right);
+		currentQuestion = "Type &lt;, &gt; or = to compare: <br><br>" + left + " ___ "
+						+ rightNumerator + "/" + rightDenominator;
+		return pack(left.getNumerator(), left.getDenominator(), rightNumerator, rightDenominator);
+	}
+	
+	/**
+	 * A helper method used to make a SUM question, adding or subtracting fractions with like denominators:
+	 *  "1/8 + 3/8 = ?". No answer is negative or zero.
+	 * @return A long that identifies the question.
+	 */
+	private long makeSum(){
+		int denominator   = 2 + rng.nextInt(maxDenominator - 1);
+		int operatorIndex = rng.nextInt(OPERATORS.length);
+		int numerator1, numerator2;
+		if(OPERATORS[operatorIndex] == Operator.ADD || denominator < 3){
+			operatorIndex = 0;
+			numerator1    = 1 + rng.nextInt(denominator - 1);
+			numerator2    = 1 + rng.nextInt(denominator - 1);
+		}else{
+			numerator1    = 2 + rng.nextInt(denominator - 2);
+			numerator2    = 1 + rng.nextInt(numerator1 - 1);
+		}
+		Operator operator = OPERATORS[operatorIndex];
+		left  = Fraction.valueOf(numerator1, denominator);
+		right = Fraction.valueOf(numerator2, denominator);
+		answerValue     = operator.doAction(left, right);
+		currentAnswer   = answerValue.toString();
+		currentQuestion = "Solve: <br><br>" + numerator1 + "/" + denominator + " " + operator.getSymbol() + " "
+						+ numerator2 + "/" + denominator + " = ?";
+		return pack(numerator1, denominator, numerator2, operatorIndex);
+	}
+	
+	/**
+	 * A helper method used to make a TO_DECIMAL question: "Write 3/4 as a decimal."
+	 * @return A long that identifies the question.
+	 */
+	private long makeToDecimal(){
+		int choices = 0;
+		while(choices < DECIMAL_DENOMINATORS.length && DECIMAL_DENOMINATORS[choices] <= maxDenominator)
+			choices++;
+		int denominator = DECIMAL_DENOMINATORS[rng.nextInt(choices)];
+		left  = Fraction.valueOf(1 + rng.nextInt(denominator - 1), denominator);
+		right = null;
+		answerValue     = left;
+		currentAnswer   = left.toDecimalString();
+		currentQuestion = "Write " + left + " as a decimal.";
+		return pack(left.getNumerator(), left.getDenominator(), 0, 0);
+	}
+	
+	/**
+	 * A helper method used to make a TO_FRACTION question: "Write 0.25 as a fraction in lowest terms."
+	 * @return A long that identifies the question.
+	 */
+	private long makeToFraction(){
+		int scale     = getDecimalScale();
+		int numerator = 1 + rng.nextInt(scale - 1);
+		left  = Fraction.valueOf(numerator, scale);
+		right = null;
+		currentAnswer   = left.toString();
+		currentQuestion = "Write " + toDecimalText(numerator, scale) + " as a fraction in lowest terms.";
+		return pack(numerator, scale, 0, 0);
+	}
+	
+	/**
+	 * A helper method used to make a COMPARE_DECIMALS question: "0.3 ___ 0.25". When hundredths are
+	 *  asked, one in four questions compares a number of tenths to the same number of hundredths:
+	 *  "0.5 ___ 0.50".
+	 * @return A long that identifies the question.
+	 */
+	private long makeDecimalCompare(){
+		int leftScale     = getDecimalScale();
+		int leftNumerator = 1 + rng.nextInt(leftScale - 1);
+		int rightScale, rightNumerator;
+		if(leftScale == 10 && getMaxDecimalScale() == 100 && rng.nextInt(4) == 0){
+			rightScale     = 100;
+			rightNumerator = leftNumerator * 10;
+		}else{
+			rightScale     = getDecimalScale();
+			rightNumerator = 1 + rng.nextInt(rightScale - 1);
+		}
+		left  = Fraction.valueOf(leftNumerator, leftScale);
+		right = Fraction.valueOf(rightNumerator, rightScale);
+		currentAnswer   = getComparisonSymbol(left, right);
+		currentQuestion = "Type &lt;, &gt; or = to compare: <br><br>" + toDecimalText(leftNumerator, leftScale)
+						+ " ___ " + toDecimalText(rightNumerator, rightScale);
+		return pack(leftNumerator, leftScale, rightNumerator, rightScale);
+	}
+	
+	/**
+	 * A helper method used to draw a random proper fraction, in lowest terms, whose denominator is at
+	 *  most maxDenominator.
+	 * @return A Fraction between 0 and 1 (exclusive).
+	 */
+	private Fraction drawProperFraction(){
+		int denominator = 2 + rng.nextInt(maxDenominator - 1);
+		return Fraction.valueOf(1 + rng.nextInt(denominator - 1), denominator);
+	}
+	
+	/**
+	 * A helper method used to draw the number that a fraction's numerator & denominator are multiplied by,
+	 *  to make an equivalent fraction. The equivalent fraction's denominator is at most
+	 *  Fraction.MAX_CACHED_DENOMINATOR.
+	 * @param fraction The Fraction that an equivalent fraction is made of.
+	 * @return An int from 2 to the module's maxMultiplier.
+	 */
+	private int drawMultiplier(Fraction fraction){
+		int highest = Math.min(module.maxMultiplier, Fraction.MAX_CACHED_DENOMINATOR / fraction.getDenominator());
+		return 2 + rng.nextInt(highest - 1);
+	}
+	
+	/**
+	 * A helper method used to draw the scale (10 or 100) of a decimal: tenths for "Easy" & "Normal"
+	 *  questions, and tenths or hundredths for "Hard" questions.
+	 * @return An int. 10 or 100.
+	 */
+	private int getDecimalScale(){
+		return (getMaxDecimalScale() == 100 && rng.nextBoolean()) ? 100 : 10;
+	}
+	
+	/**
+	 * A helper method used to obtain the largest scale of a decimal, for difficulty.
+	 * @return An int. 100 if maxDenominator is at least 100; 10 otherwise.
+	 */
+	private int getMaxDecimalScale(){
+		return (maxDenominator >= 100) ? 100 : 10;
+	}
+	
+	/**
+	 * A helper method used to write a number of tenths or hundredths as a decimal, keeping trailing zeros:
+	 *  toDecimalText(50, 100) is "0.50".
+	 * @param numerator An int. The number of tenths or hundredths. Must be less than scale.
+	 * @param scale An int. 10 or 100.
+	 * @return A String holding the decimal.
+	 */
+	private static String toDecimalText(int numerator, int scale){
+		return (scale == 10) ? "0." + numerator : ((numerator < 10) ? "0.0" : "0.") + numerator;
+	}
+	
+	/**
+	 * A helper method used to obtain the symbol that compares two Fractions.
+	 * @param first The Fraction on the left of the symbol.
+	 * @param second The Fraction on the right of the symbol.
+	 * @return A String. "<", ">" or "=".
+	 */
+	private static String getComparisonSymbol(Fraction first, Fraction second){
+		int comparison = first.compareTo(second);
+		return (comparison < 0) ? "<" : (comparison > 0) ? ">" : "=";
+	}
+	
+	/**
+	 * A helper method used to pack a question into the key of its UsedQuestionSet.
+	 * @param a An int from 0 to 1023. The first number of the question.
+	 * @param b An int from 0 to 1023. The second number of the question.
+	 * @param c An int from 0 to 1023. The third number of the question.
+	 * @param d An int from 0 to 1023. The fourth number of the question.
+	 * @return A long that identifies the question, and its QuestionType.
+	 */
+	private long pack(int a, int b, int c, int d){
+		return ((long)type.ordinal() << 40) | ((long)a << 30) | ((long)b << 20) | ((long)c << 10) | d;
+	}
+	
+	
+/***************************
+ * Question access methods *
+ ***************************/
+	
+	/**
+	 * Used to obtain the QuestionType of the current question.
+	 * @return A QuestionType, as defined by the QuestionType enum.
+	 */
+	public QuestionType getQuestionType(){
+		return type;
+	}
+	
+	@Override
+	public int getQuestionNumber(){
+		return questionNum;
+	}
+	
+	@Override
+	public String getQuestion(){
+		return currentQuestion;
+	}
+	
+	@Override
+	public String getCorrectAnswer(){
+		return currentAnswer;
+	}
+	
+	/**
+	 * Used to check a student's answer to the current question. An EQUIVALENT answer must be the missing
+	 *  numerator. A SUM answer may be any fraction, decimal or whole number that equals the answer. A
+	 *  TO_DECIMAL answer must be a decimal, and a TO_FRACTION answer must be a fraction in lowest terms.
+	 * @param answer A String representing the student's answer.
+	 * @return A boolean indicating true if the answer is correct; false otherwise.
+	 */
+	@Override
+	public boolean checkAnswer(String answer){
+		try{
+			switch(type){
+				case EQUIVALENT:
+					return Fraction.valueOf(Integer.parseInt(answer.trim()), answerDenominator).equals(answerValue);
+				case SUM:
+					return Fraction.parse(answer).equals(answerValue);
+				case TO_DECIMAL:
+					return answer.indexOf('/') < 0 && Fraction.parse(answer).equals(answerValue);
+				case TO_FRACTION:
+					return answer.replace(" ", "").equals(currentAnswer);
+				default:
+					return answer.trim().equals(currentAnswer);
+			}
+		}catch(NumberFormatException e){
+			return false;
+		}
+	}
+	
+	@Override
+	public String getLogEntry(String answer){
+		//The log is plain text, so the question's HTML is removed.
+		String question = "Question " + questionNum + ": (" + currentQuestion.replace("<br>", "")
+						.replace("&lt;", "<").replace("&gt;", ">") + ")";
+		return question + " Student Answer: (" + answer + ")"
+						+ " Correct Answer: (" + currentAnswer + ").";
+	}
+	
+	
+/****************
+ * Enum objects *
+ ****************/
+	
+	/**
+	 * This enum describes the kinds of question that are asked.
+	 */
+	public enum QuestionType{
+		EQUIVALENT, COMPARE_FRACTIONS, SUM, TO_DECIMAL, TO_FRACTION, COMPARE_DECIMALS;
+	}
+	
+	/**
+	 * This enum describes the test modules whose questions are generated: the QuestionTypes that each
+	 *  asks, and the largest denominator of each DifficultyLevel.
+	 */
+	public enum Module{
+		/**
+		 * The Grade 1-2 Fractions test: halves to eighths.
+		 */
+		GRADE_1_FRACTIONS(new int[]{4, 6, 8}, 3, QuestionType.EQUIVALENT, QuestionType.COMPARE_FRACTIONS),
+		/**
+		 * The Grade 3-4 Fractions test: halves to twentieths.
+		 */
+		GRADE_3_FRACTIONS(new int[]{8, 12, 20}, 5, QuestionType.EQUIVALENT, QuestionType.COMPARE_FRACTIONS,
+				QuestionType.SUM),
+		/**
+		 * The Grade 3-4 Decimals test: tenths, and hundredths for the "Hard" difficulty.
+		 */
+		GRADE_3_DECIMALS(new int[]{10, 25, 100}, 2, QuestionType.TO_DECIMAL, QuestionType.TO_FRACTION,
+				QuestionType.COMPARE_DECIMALS);
+		
+		private int[] maxDenominators; //The largest denominator of each DifficultyLevel, by ordinal.
+		private int maxMultiplier;     //The largest multiplier of an equivalent fraction.
+		private QuestionType[] types;  //The QuestionTypes that are asked.
+		
+		/**
+		 * The private Module constructor.
+		 * @param maxDenominators An int array holding the largest denominator of each DifficultyLevel.
+		 * @param maxMultiplier An int. The largest multiplier of an equivalent fraction. At least 2.
+		 * @param types The QuestionTypes that are asked.
+		 */
+		private Module(int[] maxDenominators, int maxMultiplier, QuestionType... types){
+			this.maxDenominators = maxDenominators;
+			this.maxMultiplier   = maxMultiplier;
+			this.types           = types;
+		}
+	}
+}
@@ -0,0 +1,269 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+
+import project.constants.DifficultyLevel;
+import project.interfaces.ModuleSelectButtonInterface;
+import project.interfaces.TestableObserver;
+import project.run.GUIManager;
+import project.screens.RewardScreen;
+import project.tools.MainWindow;
+import project.tools.QuestionPanelText;
+import project.tools.TextFileMaker;
+
+/**
+ * This class is used to test Grade 1-2 and Grade 3-4 students on Fractions skills, and Grade 3-4
+ *  students on Decimals skills: equivalent fractions, comparing fractions & decimals, adding and
+ *  subtracting fractions, and converting between fractions & decimals. No two questions will be the
+ *  same. Students will answer a question via a text box and "Submit" button.
+ *  Questions are generated by a GradeFractionsGenerator.
+ * @author Kenneth Chin
+ */
+public class GradeTestFractions implements TestableObserver{
+	
+	private ModuleSelectButtonInterface testButton; //The ModuleSelectButtonInterface that describes this test.
+	private int maxNumberOfQuestions; //The actual maximum number of questions for this test.
+	private GradeFractionsGenerator generator; //Generates and checks the questions that are asked.
+	private long seed; //The seed of the generator's Random. Recorded with the attempt, so it can be replayed.
+
+	private boolean isPractice = false;   //Used to indicate that this test is a practice test.
+	private long startTime = System.currentTimeMillis(); //The time that this test was started.
+	private DifficultyLevel difficulty;   //The current DifficultyLevel of this test.
+	
+	private int numCorrect = 0; //The number of correctly answered questions.
+	private ArrayList<String> wrongAnswers = new ArrayList<String>(); //Used to track incorrect answers.
+	
+	private QuestionPanelText testPanel; //The QuestionPanelText used to ask questions.
+	private Clip clip; //The audio clip used to play the tutorial sounds.
+	
+	private GUIManager manager;    //The GUIManager that manages mainWindow & all GUI screens.
+	private MainWindow mainWindow; //The MainWindow that is to have questions displayed on.
+	
+	/**
+	 * The GradeTestFractions constructor. Creates and displays a Fractions or Decimals test for Grade 1-2
+	 *  or Grade 3-4 students.
+	 * @param manager The GUIManager that manages the primary MainWindow & all GUI screens.
+	 * @param testButton The ModuleSelectButtonInterface that describes this test. Its grades are recorded.
+	 * @param module The GradeFractionsGenerator.Module that the questions belong to.
+	 * @param isPractice A boolean indicating true if this test is a practice test, false otherwise.
+	 * @param difficulty The DifficultyLevel of this test.
+	 * @throws IOException Thrown if any image file is missing.
+	 */
+	public GradeTestFractions(GUIManager manager, ModuleSelectButtonInterface testButton,
+			GradeFractionsGenerator.Module module, boolean isPractice, DifficultyLevel difficulty) throws IOException{
+		this.manager    = manager;
+		this.testButton = testButton;
+		this.mainWindow = manager.getMainWindow();
+		this.isPractice = isPractice;
+		this.difficulty = difficulty;
+		this.seed       = manager.nextTestSeed();
+		this.generator  = new GradeFractionsGenerator(module, difficulty, new Random(seed));
+		maxNumberOfQuestions = generator.getMaxNumberOfQuestions();
+		
+		testPanel = new QuestionPanelText(mainWindow, maxNumberOfQuestions);
+		testPanel.registerObserver(this);
+		playTutorial();
+		makeAndShowQuestion();
+	}
+	
+	/**
+	 * Used to play an audio tutorial, describing how to use this test.
+	 */
+	public void playTutorial(){
+	    try{
+	    	String filePath = "audio\\Test Tutorials\\Fractions.wav";
+	        AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(new File(filePath).getAbsoluteFile());
+	        clip = AudioSystem.getClip();
+	        clip.open(audioInputStream);
+	        clip.start();
+	    }catch(Exception e) {
+	        manager.handleException(e);
+	    }
+	}
+	
+	/**
+	 * Used to display a question in the MainWindow. Generates an unused question, then displays it.
+	 */
+	private void makeAndShowQuestion(){
+		generator.nextQuestion();
+		testPanel.showQuestion(generator.getQuestion(), generator.getQuestionNumber());
+	}
+	
+	/**
+	 * Used to display a practice test's answer after a user has submitted an answer.
+	 * @param answer A String indicating the user's answer to the current question.
+	 */
+	private void showAnswer(String answer){
+		boolean isCorrect = checkAnswer(answer);
+		String  message;
+		if(isCorrect)
+			message = "\"" + answer + "\"" + " is correct!";
+		else
+			message = "\"" + answer + "\""
+					+ " is incorrect! The correct answer is: " + generator.getCorrectAnswer();
+		try {
+			//The answer is shown as HTML, so a "<" or ">" answer must be escaped.
+			testPanel.showAnswer(message.replace("<", "&lt;").replace(">", "&gt;"), isCorrect);
+		} catch (IOException e) {
+			manager.handleException(e);
+		}
+	}
+	
+	/**
+	 * Used to compare a user's answer to the question's correct answer. Increments
+	 *  numCorrect if the user's answer was correct. If the user's answer was incorrect,
+	 *  the question, the question's answer, and correct answer are added to the
+	 *  wrongAnswers array. Returns true if the user's answer  was correct; false otherwise.
+	 * @param answer A String representing the user's answer.
+	 * @return A boolean indicating true if the user's answer was correct; false otherwise.
+	 */
+	private boolean checkAnswer(String answer){
+		if(generator.checkAnswer(answer)){
+			numCorrect++;
+			return true;
+		}else{
+			wrongAnswers.add(generator.getLogEntry(answer));
+			return false;
+		}
+	}
+	
+	/**
+	 * Used to create a text file containing all questions, user answers, and correct answers
+	 *  for all questions that the user answered incorrectly. If the user did not answer any
+	 *  question incorrectly, no file is created.
+	 * @throws IOException Thrown if there is a problem writing the file.
+	 */
+	private void makeTestDetailFile() throws IOException{
+		if(wrongAnswers.size() > 0){
+			String filePath = manager.getTestFolderPath() + "\\" + testButton.getName() + "\\";
+			String fileName = TextFileMaker.getTimeStamp() + "_(" + difficulty.getName() + ")";
+			String[] textArray = wrongAnswers.toArray(new String[wrongAnswers.size()]);
+			TextFileMaker.writeArray(filePath, fileName, textArray);
+		}
+	}
+	
+	/**
+	 * A helper method, used to obtain an int indicating the user's grade out of 100%.
+	 * @return An int indicating the user's grade out of 100%.
+	 */
+	private int getGrade(){
+		return Math.round((((float)numCorrect / (float)maxNumberOfQuestions) * 100));
+	}
+	
+	/**
+	 * A helper method, used to determine if the user's grade is better than a previously
+	 *  recorded grade.
+	 * @param numCorrect An int describing the user's number of correct answers.
+	 * @return A boolean that is true if the user's current grade is greater than or equal
+	 *  to a previously recorded grade; false otherwise.
+	 */
+	private boolean isBetterGrade(int numCorrect){
+		return (numCorrect >= manager.getPreviousGrade(testButton, difficulty));
+	}
+
+	@Override
+	public void answered(String answer) {
+		if(isPractice){
+			showAnswer(answer);
+		}
+		else if(generator.hasNextQuestion()){
+			checkAnswer(answer);
+			makeAndShowQuestion();
+		}else{
+			checkAnswer(answer);
+			testPanel.tearDown();
+			if(clip.isActive())
+				clip.stop();
+			try{
+				int grade = getGrade();
+				manager.recordAttempt(testButton, difficulty, numCorrect, maxNumberOfQuestions,
+						System.currentTimeMillis() - startTime, seed);
+				boolean isBetter = isBetterGrade(numCorrect);
+				String fileName = testButton.getName() + "(" + difficulty.getName() + ")";
+				if(isBetter)
+					manager.setGrade(testButton, difficulty, numCorrect, maxNumberOfQuestions);
+				makeTestDetailFile();
+				new RewardScreen(manager, testButton, difficulty, grade, isBetter, manager.getRewardsFolderPath());
+			}catch (IOException e) {
+				manager.handleException(e);
+			}
+		}
+	}
+	
+	@Override
+	public void nextClicked() {
+		if(isPractice){
+			if(generator.hasNextQuestion()){
+				makeAndShowQuestion();
+			}else{
+				if(clip.isActive())
+					clip.stop();
+				String message = "All practice questions answered!\n\n"
+							   + "Your grade is: " + getGrade() + "%!\n\n"
+							   + "Click OK to return to the Welcome Screen!";
+		    	JOptionPane.showMessageDialog(null, message, "Practice Complete!", JOptionPane.INFORMATION_MESSAGE);
+		    	testPanel.tearDown();
+		    	try{
+					manager.buildWelcomeScreen();
+		    	}catch (IOException e){
+					manager.handleException(e);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void homeClicked(){
+		//If this is not a practice test, confirm the user wants to quit.
+		int answer = JOptionPane.NO_OPTION;
+		if(!isPractice){
+			String[] options = {"Yes", "No"};
+			String warning = "<p>Warning:</p><br>"
+					+ "        <p>You haven't finished the test!<br>"
+					+ "        If you quit now, your progress<br>"
+					+ "        won't be saved!</p>"
+					+ "        <p><CENTER>Are you sure you want to quit?</CENTER></p>";
+			JLabel warningLabel = new JLabel("<HTML><div>" + warning + "</div></HTML>");
+			answer = JOptionPane.showOptionDialog(mainWindow, warningLabel, "Test not finished!",
+						JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE, null, options, options[1]);
+		}
+		//If this is a practice test or the user confirmed they want to quit, do so. Else, do nothing.
+		if(isPractice || answer == JOptionPane.YES_OPTION){
+			if(clip.isActive())
+				clip.stop();
+			testPanel.tearDown();
+			try {
+				manager.buildWelcomeScreen();
+			} catch (IOException e) {
+				manager.handleException(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,173 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.tests;
+
+import java.util.Random;
+
+import project.constants.DifficultyLevel;
+import project.constants.Operator;
+import project.interfaces.EquationGenerator;
+import project.tools.QuestionSampler;
+import project.tools.QuestionSpace;
+
+/**
+ * This class is used to generate PreK-K Addition and Subtraction questions for integers ranging
+ *  from 0 to 10, without displaying them. No question will result in a negative answer. No two
+ *  questions will be the same. Used by TestArithmetic.
+ * @author Kenneth Chin
+ */
+public class PreKArithmeticGenerator implements EquationGenerator{
+	
+	//Creates the generators of PreK-K Arithmetic tests.
+	public static final EquationGenerator.Factory FACTORY = new EquationGenerator.Factory() {
+		public EquationGenerator newGenerator(DifficultyLevel difficulty, Random rng){
+			return new PreKArithmeticGenerator(difficulty, rng);
+		}
+	};
+	
+	private static final int LOWEST_INT       = 0;      //MUST always be zero!
+	private static final int HIGHEST_INT      = 10;     //The highest value int that may be tested.
+	private static final int NUM_OF_OPERATORS = 2;      //The number of Operators to test.
+	
+	//Difficulty settings. Note: MUST be less than the maximum number of question permutations.
+	private static final int EASY_MAX_QUESTIONS = 10;   //The maximum number of questions for the "Easy" difficulty.
+	private static final int NORM_MAX_QUESTIONS = 15;   //The maximum number of questions for the "Normal" difficulty.
+	private static final int HARD_MAX_QUESTIONS = 20;   //The maximum number of questions for the "Hard" difficulty.
+	
+	//The set of all possible questions {operand1, operand2, operator index}. Questions with negative
+	// answers are left out.
+	private static final QuestionSpace QUESTIONS = new QuestionSpace(new int[]{LOWEST_INT, LOWEST_INT, 0},
+			new int[]{HIGHEST_INT, HIGHEST_INT, NUM_OF_OPERATORS - 1}, new QuestionSpace.Filter() {
+				public boolean isValid(int[] values){
+					return getOperator(values[2]).doAction(values[0], values[1]) >= 0;
+				}
+			});
+	
+	private DifficultyLevel difficulty;   //The DifficultyLevel of the generated questions.
+	private int maxNumberOfQuestions;     //The maximum number of questions for difficulty.
+	private QuestionSampler questions;    //Draws the questions that are asked.
+	
+	private int questionNum = 0;    //The number of questions that have been generated.
+	private int operand1;           //The first operand of the current question.
+	private int operand2;           //The second operand of the current question.
+	private Operator operator;      //The Operator of the current question.
+	private int currentAnswer;      //The answer to the current question.
+	private String currentQuestion; //The current question in String form.
+	
+	/**
+	 * The PreKArithmeticGenerator constructor.
+	 * @param difficulty The DifficultyLevel of the generated questions.
+	 * @param rng The random number generator used to draw questions.
+	 */
+	public PreKArithmeticGenerator(DifficultyLevel difficulty, Random rng){
+		this.difficulty = difficulty;
+		this.questions  = new QuestionSampler(QUESTIONS, rng);
+		switch(difficulty){
+			case EASY:   maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
+			case NORMAL: maxNumberOfQuestions = NORM_MAX_QUESTIONS; break;
+			case HARD:   maxNumberOfQuestions = HARD_MAX_QUESTIONS; break;
+			default:     maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
+		}
+	}
+	
+	/**
+	 * A helper method used to associate a randomly generated int to an Operator type.
+	 * @param operatorIndex The index of an Operator as returned by Operator.values().
+	 * @return The Operator type specified by the given index.
+	 */
+	private static Operator getOperator(int operatorIndex){
+		switch(operatorIndex){
+			case  0: return Operator.ADD;
+			case  1: return Operator.SUBTRACT;
+			//case  2: return Operator.MULTIPLY;
+			//case  3: return Operator.DIVIDE;
+			default: return getOperator((operatorIndex % NUM_OF_OPERATORS));
+		}
+	}
+	
+	@Override
+	public int getOperand1(){
+		return operand1;
+	}
+	
+	@Override
+	public int getOperand2(){
+		return operand2;
+	}
+	
+	@Override
+	public Operator getOperator(){
+		return operator;
+	}
+	
+	@Override
+	public DifficultyLevel getDifficulty(){
+		return difficulty;
+	}
+	
+	@Override
+	public int getMaxNumberOfQuestions(){
+		return maxNumberOfQuestions;
+	}
+	
+	@Override
+	public boolean hasNextQuestion(){
+		return questionNum < maxNumberOfQuestions;
+	}
+	
+	@Override
+	public void nextQuestion(){
+		if(!hasNextQuestion())
+			throw new IllegalStateException("All " + maxNumberOfQuestions + " questions have been asked.");
+		int[] values    = questions.next();
+		operand1        = values[0];
+		operand2        = values[1];
+		operator        = getOperator(values[2]);
+		currentQuestion = operand1 + " " + operator.getSymbol() + " " + operand2;
+		currentAnswer   = operator.doAction(operand1, operand2);
+		questionNum++;
+	}
+	
+	@Override
+	public int getQuestionNumber(){
+		return questionNum;
+	}
+	
+	@Override
+	public String getQuestion(){
+		return currentQuestion;
+	}
+	
+	@Override
+	public String getCorrectAnswer(){
+		return Integer.toString(currentAnswer);
+	}
+	
+	@Override
+	public boolean checkAnswer(String answer){
+		return answer.equals(getCorrectAnswer());
+	}
+	
+	@Override
+	public String getLogEntry(String answer){
+		String question = "Question " + questionNum + ": (" + currentQuestion + ")";
+		return question + " Student Answer: (" + answer + ")"
+						+ " Correct Answer: (" + currentAnswer + ").";
+	}
+}
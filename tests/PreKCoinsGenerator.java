@@ -0,0 +1,237 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.tests;
+
+import java.util.Random;
+
+import project.constants.DifficultyLevel;
+import project.interfaces.QuestionGenerator;
+import project.tools.QuestionPanelSelect;
+import project.tools.QuestionSampler;
+import project.tools.QuestionSpace;
+
+/**
+ * This class is used to generate PreK-K US Coin recognition questions, without displaying them. Each
+ *  question has a left and right panel, each with a US coin, and asks for a coin's name or cent value.
+ *  While a student may be asked to match the same coin multiple times, the combination of images and
+ *  question types will never be used twice. Used by PreKTestCoins.
+ * @author Kenneth Chin
+ */
+public class PreKCoinsGenerator implements QuestionGenerator{
+	
+	private static final int NUM_QUESTION_TYPES = 2;   //The number of question types (name or value).
+	private static final int NAME_TYPE = 0;  //The constant that indicates a question that identifies a coin's name.
+	
+	//Difficulty settings. Note: MUST be less than the maximum number of question permutations.
+	private static final int EASY_MAX_QUESTIONS = 8;    //The maximum number of questions for the "Easy" difficulty.
+	private static final int NORM_MAX_QUESTIONS = 10;   //The maximum number of questions for the "Normal" difficulty.
+	private static final int HARD_MAX_QUESTIONS = 12;   //The maximum number of questions for the "Hard" difficulty.
+	
+	//The set of all possible questions {questionType, correctAnswerIndex, wrongAnswerIndex}. The same
+	//  image is never shown twice in a single question (asked to choose dime, but both panels would show dimes).
+	private static final QuestionSpace QUESTIONS = new QuestionSpace(new int[]{0, 0, 0},
+			new int[]{NUM_QUESTION_TYPES - 1, Coin.values().length - 1, Coin.values().length - 1},
+			new QuestionSpace.Filter() {
+				public boolean isValid(int[] values){
+					return values[1] != values[2];
+				}
+			});
+	
+	private static final Coin[] COINS = Coin.values(); //An array of all Coin enums.
+	
+	private DifficultyLevel difficulty;   //The DifficultyLevel of the generated questions.
+	private int maxNumberOfQuestions;     //The maximum number of questions for difficulty.
+	private QuestionSampler questions;    //Draws the panel images and question type.
+	private Random rng;                   //Used to randomize the panel order.
+	
+	private int questionNum = 0;    //The number of questions that have been generated.
+	private String correctAnswer;   //The name or value of the correct answer's coin.
+	private String wrongAnswer;     //The name or value of the wrong answer's coin.
+	private int questionType;       //Used to indicate a name (0) or value (1) question type.
+	private String answerString;    //The correct answer's panel String ("left" or "right").
+	private String leftImagePath;   //The left panel's image path.
+	private String rightImagePath;  //The right panel's image path.
+	
+	/**
+	 * The PreKCoinsGenerator constructor.
+	 * @param difficulty The DifficultyLevel of the generated questions.
+	 * @param rng The random number generator used to draw questions.
+	 */
+	public PreKCoinsGenerator(DifficultyLevel difficulty, Random rng){
+		this.difficulty = difficulty;
+		this.rng        = rng;
+		this.questions  = new QuestionSampler(QUESTIONS, rng);
+		switch(difficulty){
+			case EASY:   maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
+			case NORMAL: maxNumberOfQuestions = NORM_MAX_QUESTIONS; break;
+			case HARD:   maxNumberOfQuestions = HARD_MAX_QUESTIONS; break;
+			default:     maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
+		}
+	}
+	
+	/**
+	 * Used to obtain the left panel's image path of the current question.
+	 * @return A String describing the left panel's image path.
+	 */
+	public String getLeftImagePath(){
+		return leftImagePath;
+	}
+	
+	/**
+	 * Used to obtain the right panel's image path of the current question.
+	 * @return A String describing the right panel's image path.
+	 */
+	public String getRightImagePath(){
+		return rightImagePath;
+	}
+	
+	@Override
+	public DifficultyLevel getDifficulty(){
+		return difficulty;
+	}
+	
+	@Override
+	public int getMaxNumberOfQuestions(){
+		return maxNumberOfQuestions;
+	}
+	
+	@Override
+	public boolean hasNextQuestion(){
+		return questionNum < maxNumberOfQuestions;
+	}
+	
+	@Override
+	public void nextQuestion(){
+		if(!hasNextQuestion())
+			throw new IllegalStateException("All " + maxNumberOfQuestions + " questions have been asked.");
+		int[] values = questions.next();
+		questionType = values[0];
+		Coin correct = COINS[values[1]];
+		Coin wrong   = COINS[values[2]];
+		if(questionType == NAME_TYPE){
+			correctAnswer = correct.getName().toLowerCase();
+			wrongAnswer   = wrong.getName().toLowerCase();
+		}else{
+			correctAnswer = correct.getCentValue();
+			wrongAnswer   = wrong.getCentValue();
+		}
+		if(rng.nextBoolean()){
+			answerString   = QuestionPanelSelect.Answer.LEFT.getStringValue();
+			leftImagePath  = correct.getFilePath();
+			rightImagePath = wrong.getFilePath();
+		}
+		else{
+			answerString   = QuestionPanelSelect.Answer.RIGHT.getStringValue();
+			leftImagePath  = wrong.getFilePath();
+			rightImagePath = correct.getFilePath();
+		}
+		questionNum++;
+	}
+	
+	@Override
+	public int getQuestionNumber(){
+		return questionNum;
+	}
+	
+	@Override
+	public String getQuestion(){
+		if(questionType == NAME_TYPE)
+			return "Which picture shows a <b><u>" + correctAnswer + "</u></b>?";
+		else
+			return "Which picture shows a <b><u>" + correctAnswer + "&cent;</u></b>?";
+	}
+	
+	@Override
+	public String getCorrectAnswer(){
+		return answerString;
+	}
+	
+	@Override
+	public boolean checkAnswer(String answer){
+		return answer.equals(answerString);
+	}
+	
+	@Override
+	public String getLogEntry(String answer){
+		String question;
+		if(questionType == NAME_TYPE){
+			question = "Question " + questionNum + ": Coin(" + correctAnswer + ")";
+			return question + " Student Answer: (" + wrongAnswer + ")"
+							+ " Correct Answer: (" + correctAnswer + ").";
+		}else{
+			question = "Question " + questionNum + ": Coin(" + correctAnswer + "\u00A2)";
+			return question + " Student Answer: (" + wrongAnswer + "\u00A2)"
+							+ " Correct Answer: (" + correctAnswer + "\u00A2).";
+		}
+	}
+	
+	/**
+	 * This enum is used to define different US coins. Each coin is associated with a name, cent value,
+	 *  and image file name.
+	 * @author Kenneth Chin
+	 */
+	private enum Coin{
+		PENNY  ("Penny"  ,"1" , "penny.png"),
+		NICKEL ("Nickel" ,"5" , "nickel.png"),
+		DIME   ("Dime"   ,"10", "dime.png"),
+		QUARTER("Quarter","25", "quarter.png");
+		
+		private String filePath;
+		private String centValue;
+		private String name;
+		
+		private static final String imagePath = "\\images\\test\\coins\\";
+		
+		/**
+		 * The Coin constructor.
+		 * @param name A String describing this Coin's name.
+		 * @param centValue A String describing this Coin's cent value.
+		 * @param fileName A String describing this Coin's image file name.
+		 */
+		private Coin(String name, String centValue, String fileName){
+			this.name      = name;
+			this.centValue = centValue;
+			this.filePath  = imagePath + fileName;
+		}
+		
+		/**
+		 * Used to obtain a String describing this Coin's name.
+		 * @return A String describing this Coin's name.
+		 */
+		public String getName(){
+			return name;
+		}
+		
+		/**
+		 * Used to obtain a String describing this Coin's cent value.
+		 * @return A String describing this Coin's cent value.
+		 */
+		public String getCentValue(){
+			return centValue;
+		}
+		
+		/**
+		 * Used to obtain a String describing this Coin's image file path from the program's root directory.
+		 * @return A String describing this Coin's image file path from the program's root directory.
+		 */
+		public String getFilePath(){
+			return filePath;
+		}
+	}
+}
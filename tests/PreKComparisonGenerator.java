@@ -0,0 +1,386 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.tests;
+
+import java.util.Random;
+
+import project.constants.AppleBoard;
+import project.constants.DifficultyLevel;
+import project.interfaces.QuestionGenerator;
+import project.tools.QuestionPanelSelect;
+import project.tools.QuestionSampler;
+import project.tools.QuestionSpace;
+
+/**
+ * This class is used to generate PreK-K number Comparison questions, without displaying them. Each
+ *  question has a left and right panel, each with a quantity of apples. There are 8 question types,
+ *  described by the Comparison enum. The combination of panel quantities will never be used twice for
+ *  a question type. Used by PreKTestComparison.
+ * @author Kenneth Chin
+ */
+public class PreKComparisonGenerator implements QuestionGenerator{
+	
+	private static final int LOWEST_INT    = 0;         //MUST be zero.
+	private static final int HIGHEST_INT   = 10;        //The highest value that may be asked in a question.
+	
+	//Difficulty settings. Note: MUST be less than the maximum number of question permutations.
+	private static final int EASY_MAX_QUESTIONS = 10;   //The maximum number of questions for the "Easy" difficulty.
+	private static final int NORM_MAX_QUESTIONS = 15;   //The maximum number of questions for the "Normal" difficulty.
+	private static final int HARD_MAX_QUESTIONS = 20;   //The maximum number of questions for the "Hard" difficulty.
+	
+	private static final AppleBoard[] BOARDS = AppleBoard.values(); //An array of all AppleBoard enums.
+	private static final Comparison[] TYPES  = Comparison.values(); //An array of all Comparison enums.
+	
+	private DifficultyLevel difficulty;   //The DifficultyLevel of the generated questions.
+	private int maxNumberOfQuestions;     //The maximum number of questions for difficulty.
+	//Draws the unused {comparisonPoint, correctAnswer, wrongAnswer} questions. Indexed by Comparison.ordinal().
+	private QuestionSampler[] samplers;
+	private Random rng;                   //Used to pick question types and randomize the panel order.
+	
+	private int questionNum = 0;   //The number of questions that have been generated.
+	private int comparisonPoint;   //The value that correctAnswer and wrongAnswer are compared to. Used to develop a question.
+	private int correctAnswer;     //The value and index of the panel that is correct.
+	private int wrongAnswer;       //The value and index of the panel that is incorrect.
+	private Comparison questionType; //The Comparison that describes this question's type.
+	private String answerString;   //The correct answer's panel String ("left" or "right").
+	private String leftImagePath;  //The left panel's image path.
+	private String rightImagePath; //The right panel's image path.
+	
+	/**
+	 * The PreKComparisonGenerator constructor.
+	 * @param difficulty The DifficultyLevel of the generated questions.
+	 * @param rng The random number generator used to draw questions.
+	 */
+	public PreKComparisonGenerator(DifficultyLevel difficulty, Random rng){
+		this.difficulty = difficulty;
+		this.rng        = rng;
+		switch(difficulty){
+			case EASY:   maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
+			case NORMAL: maxNumberOfQuestions = NORM_MAX_QUESTIONS; break;
+			case HARD:   maxNumberOfQuestions = HARD_MAX_QUESTIONS; break;
+			default:     maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
+		}
+		samplers = new QuestionSampler[TYPES.length];
+		for(int i = 0; i < TYPES.length; i++){
+			samplers[i] = new QuestionSampler(TYPES[i].getQuestionSpace(), rng);
+		}
+	}
+	
+	/**
+	 * Used to obtain an unused combination of panel quantities & question values. The question type
+	 *  is picked at random from the types that still have unused questions.
+	 */
+	private void getValues(){
+		int available = 0;
+		for(QuestionSampler sampler : samplers){
+			if(sampler.hasNext())
+				available++;
+		}
+		int pick = rng.nextInt(available);
+		for(int i = 0; i < samplers.length; i++){
+			if(samplers[i].hasNext() && pick-- == 0){
+				questionType = TYPES[i];
+				break;
+			}
+		}
+		int[] values    = samplers[questionType.ordinal()].next();
+		comparisonPoint = values[0];
+		correctAnswer   = values[1];
+		wrongAnswer     = values[2];
+	}
+	
+	/**
+	 * Used to obtain the left panel's image path of the current question.
+	 * @return A String describing the left panel's image path.
+	 */
+	public String getLeftImagePath(){
+		return leftImagePath;
+	}
+	
+	/**
+	 * Used to obtain the right panel's image path of the current question.
+	 * @return A String describing the right panel's image path.
+	 */
+	public String getRightImagePath(){
+		return rightImagePath;
+	}
+	
+	@Override
+	public DifficultyLevel getDifficulty(){
+		return difficulty;
+	}
+	
+	@Override
+	public int getMaxNumberOfQuestions(){
+		return maxNumberOfQuestions;
+	}
+	
+	@Override
+	public boolean hasNextQuestion(){
+		return questionNum < maxNumberOfQuestions;
+	}
+	
+	@Override
+	public void nextQuestion(){
+		if(!hasNextQuestion())
+			throw new IllegalStateException("All " + maxNumberOfQuestions + " questions have been asked.");
+		getValues();
+		if(rng.nextBoolean()){
+			answerString   = QuestionPanelSelect.Answer.LEFT.getStringValue();
+			leftImagePath  = BOARDS[correctAnswer].getPath();
+			rightImagePath = BOARDS[wrongAnswer].getPath();
+		}
+		else{
+			answerString   = QuestionPanelSelect.Answer.RIGHT.getStringValue();
+			leftImagePath  = BOARDS[wrongAnswer].getPath();
+			rightImagePath = BOARDS[correctAnswer].getPath();
+		}
+		questionNum++;
+	}
+	
+	@Override
+	public int getQuestionNumber(){
+		return questionNum;
+	}
+	
+	@Override
+	public String getQuestion(){
+		//Change the displayed number based on question type.
+		if(questionType == Comparison.NONE)
+			return questionType.getQuestionString(wrongAnswer);
+		else
+			return questionType.getQuestionString(comparisonPoint);
+	}
+	
+	@Override
+	public String getCorrectAnswer(){
+		return answerString;
+	}
+	
+	@Override
+	public boolean checkAnswer(String answer){
+		return answer.equals(answerString);
+	}
+	
+	@Override
+	public String getLogEntry(String answer){
+		return "Question " + questionNum + ": Compare"
+				+ questionType.getLogEntry(comparisonPoint, correctAnswer, wrongAnswer);
+	}
+	
+	/**
+	 * This enum is used as the implementation of the state pattern for PreKComparisonGenerator.
+	 * This enum is used to differentiate question types & their functions. Each question type
+	 *  has its own question format, set of valid values for comparisonPoint, correctAnswer, & wrongAnswer,
+	 *  and entry format for the "wrong answer file". The types that do not display comparisonPoint (MORE,
+	 *  MOST, FEWER, & LEAST) fix it to wrongAnswer, so that a pair of panels is never asked twice.
+	 * @author Kenneth Chin
+	 */
+	private enum Comparison{
+		MORE() {
+			@Override
+			public String getQuestionString(int number) {
+				return "Which picture has <b><u>more</u></b> apples?";
+			}
+
+			@Override
+			protected boolean isValidQuestion(int comparisonPoint, int correctAnswer, int wrongAnswer) {
+				return comparisonPoint == wrongAnswer && correctAnswer > wrongAnswer;
+			}
+
+			@Override
+			protected String getLogEntry(int comparisonPoint, int correctAnswer, int wrongAnswer) {
+				return "(Which is MORE?) Student Answer: (" + wrongAnswer + ")"
+						   + " Correct Answer: (" + correctAnswer + ").";
+			}
+		},
+		GREATER_THAN() {
+			@Override
+			public String getQuestionString(int number) {
+				return "Which picture has a number of apples <b><u>greater than</u></b> " + number + "?";
+			}
+			
+			@Override
+			protected boolean isValidQuestion(int comparisonPoint, int correctAnswer, int wrongAnswer) {
+				return correctAnswer > comparisonPoint && wrongAnswer <= comparisonPoint;
+			}
+			
+			@Override
+			protected String getLogEntry(int comparisonPoint, int correctAnswer, int wrongAnswer) {
+				return "(Greater than " + comparisonPoint + ") Student Answer: (" + wrongAnswer + ")"
+						   + " Correct Answer: (" + correctAnswer + ").";
+			}
+		},
+		MOST() {
+			@Override
+			public String getQuestionString(int number) {
+				return "Which picture has the <b><u>most</u></b> apples?";
+			}
+			@Override
+			protected boolean isValidQuestion(int comparisonPoint, int correctAnswer, int wrongAnswer) {
+				return comparisonPoint == wrongAnswer && correctAnswer > wrongAnswer;
+			}
+			
+			@Override
+			protected String getLogEntry(int comparisonPoint, int correctAnswer, int wrongAnswer) {
+				return "(Which is MOST?) Student Answer: (" + wrongAnswer + ")"
+						   + " Correct Answer: (" + correctAnswer + ").";
+			}
+		},
+		SAME() {
+			@Override
+			public String getQuestionString(int number) {
+				String appleTense = (number == 1) ? "apple" : "apples";
+				return "Which picture is the <b><u>same</u></b> as " + number + " " + appleTense + "?";
+			}
+			
+			@Override
+			protected boolean isValidQuestion(int comparisonPoint, int correctAnswer, int wrongAnswer) {
+				return correctAnswer == comparisonPoint && wrongAnswer != comparisonPoint;
+			}
+			
+			@Override
+			protected String getLogEntry(int comparisonPoint, int correctAnswer, int wrongAnswer) {
+				return "(Which is the SAME as " + correctAnswer + "?) Student Answer: (" + wrongAnswer + ")"
+						   + " Correct Answer: (" + correctAnswer + ").";
+			}
+		},
+		FEWER {
+			@Override
+			public String getQuestionString(int number) {
+				return "Which picture has <b><u>fewer</u></b> apples? ";
+			}
+			
+			@Override
+			protected boolean isValidQuestion(int comparisonPoint, int correctAnswer, int wrongAnswer) {
+				return comparisonPoint == wrongAnswer && correctAnswer < wrongAnswer;
+			}
+			
+			@Override
+			protected String getLogEntry(int comparisonPoint, int correctAnswer, int wrongAnswer) {
+				return "(Which is FEWER?) Student Answer: (" + wrongAnswer + ")"
+						   + " Correct Answer: (" + correctAnswer + ").";
+			}
+		},
+		LESS_THAN {
+			@Override
+			public String getQuestionString(int number) {
+				return "Which picture has a number of apples <b><u>less than</u></b> " + number + "?";
+			}
+			
+			@Override
+			protected boolean isValidQuestion(int comparisonPoint, int correctAnswer, int wrongAnswer) {
+				return correctAnswer < comparisonPoint && wrongAnswer >= comparisonPoint;
+			}
+			
+			@Override
+			protected String getLogEntry(int comparisonPoint, int correctAnswer, int wrongAnswer) {
+				return "(Less than " + comparisonPoint + ") Student Answer: (" + wrongAnswer + ")"
+						   + " Correct Answer: (" + correctAnswer + ").";
+			}
+		},
+		LEAST {
+			@Override
+			public String getQuestionString(int number) {
+				return "Which picture has the <b><u>least</u></b> apples?";
+			}
+			
+			@Override
+			protected boolean isValidQuestion(int comparisonPoint, int correctAnswer, int wrongAnswer) {
+				return comparisonPoint == wrongAnswer && correctAnswer < wrongAnswer;
+			}
+			
+			@Override
+			protected String getLogEntry(int comparisonPoint, int correctAnswer, int wrongAnswer) {
+				return "(Which is LEAST?) Student Answer: (" + wrongAnswer + ")"
+						   + " Correct Answer: (" + correctAnswer + ").";
+			}
+		},
+		NONE {
+			@Override
+			public String getQuestionString(int number) {
+				String appleTense = (number == 1) ? "apple" : "apples";
+				String question = "One picture has " + number + " " + appleTense + ".<br>"
+						+ "The other has none.<br>"
+						+ "Choose the picture that has <b><u>none</u></b>.";
+				return question;
+			}
+			
+			@Override
+			protected boolean isValidQuestion(int comparisonPoint, int correctAnswer, int wrongAnswer) {
+				return comparisonPoint == 0 && correctAnswer == 0 && wrongAnswer != 0;
+			}
+			
+			@Override
+			protected String getLogEntry(int comparisonPoint, int correctAnswer, int wrongAnswer) {
+				return "(Which is NONE?) Student Answer: (" + wrongAnswer + ")"
+						   + " Correct Answer: (" + correctAnswer + ").";
+			}
+		};
+		
+		/**
+		 * Used to obtain a String that describes the question being asked by this Comparison.
+		 * @param number An int. A number that may be displayed. For Comparison.NONE this number is
+		 *  the "wrong panel's" quantity. For all other Comparison enums, this number is the
+		 *  number that the panel quantities are compared to.
+		 * @return A String that describes the question being asked by this Comparison.
+		 */
+		public abstract String getQuestionString(int number);
+		
+		private QuestionSpace questions; //The set of all valid questions. See getQuestionSpace().
+		
+		/**
+		 * Used to determine if a {comparisonPoint, correctAnswer, wrongAnswer} combination may be used
+		 *  to ask a question of this Comparison type.
+		 * @param comparisonPoint The value that correctAnswer and wrongAnswer are compared to.
+		 * @param correctAnswer The value and index of the panel that is correct.
+		 * @param wrongAnswer The value and index of the panel that is incorrect.
+		 * @return A boolean. True if the combination is a valid question; false otherwise.
+		 */
+		protected abstract boolean isValidQuestion(int comparisonPoint, int correctAnswer, int wrongAnswer);
+		
+		/**
+		 * Used to obtain the set of all valid {comparisonPoint, correctAnswer, wrongAnswer} questions
+		 *  for this Comparison. The set is enumerated once, the first time it is needed.
+		 * NOTE: Comparison.NONE only has 10 possible questions, so its set may run out before a test ends.
+		 * @return The QuestionSpace of all valid questions for this Comparison.
+		 */
+		protected synchronized QuestionSpace getQuestionSpace(){
+			if(questions == null){
+				questions = new QuestionSpace(new int[]{LOWEST_INT, LOWEST_INT, LOWEST_INT},
+						new int[]{HIGHEST_INT, HIGHEST_INT, HIGHEST_INT}, new QuestionSpace.Filter() {
+							public boolean isValid(int[] values){
+								return isValidQuestion(values[0], values[1], values[2]);
+							}
+						});
+			}
+			return questions;
+		}
+		
+		/**
+		 * Used to obtain a String that is formatted for getLogEntry()'s array entry.
+		 * The format is "(Abbreviated question) Student Answer: (wrongAnswer) Correct Answer: (correctAnswer).".
+		 * @param comparisonPoint The value that correctAnswer and wrongAnswer are compared to.
+		 * @param correctAnswer The value and index of the panel that is correct.
+		 * @param wrongAnswer The value and index of the panel that is incorrect.
+		 * @return A String that is formatted for getLogEntry()'s array entry.
+		 */
+		protected abstract String getLogEntry(int comparisonPoint, int correctAnswer, int wrongAnswer);
+	}
+}
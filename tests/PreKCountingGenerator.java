@@ -0,0 +1,172 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.tests;
+
+import java.util.Random;
+
+import project.constants.DifficultyLevel;
+import project.interfaces.QuestionGenerator;
+import project.tools.QuestionSampler;
+import project.tools.QuestionSpace;
+
+/**
+ * This class is used to generate PreK-K Counting questions, without displaying them. Each
+ *  question is a sequence of integers between 0 and 20 (inclusive) with one missing number.
+ *  No two questions are the same. Used by PreKTestCounting.
+ * @author Kenneth Chin
+ */
+public class PreKCountingGenerator implements QuestionGenerator{
+	
+	private static final int LOWEST_INT    = 0;  //Must be zero.
+	private static final int HIGHEST_INT   = 20; //The highest integer value to be tested.
+	
+	//Difficulty settings. Note: Settings MUST be less than the maximum number of question permutations.
+	private static final int EASY_SEQUENCE_SIZE = 5;  //The number of integers in a sequence for the "Easy" difficulty.
+	private static final int EASY_MAX_QUESTIONS = 10; //The maximum number of questions for the "Easy" difficulty.
+	private static final int NORM_SEQUENCE_SIZE = 4;  //The number of integers in a sequence for the "Normal" difficulty.
+	private static final int NORM_MAX_QUESTIONS = 15; //The maximum number of questions for the "Normal" difficulty.
+	private static final int HARD_SEQUENCE_SIZE = 3;  //The number of integers in a sequence for the "Hard" difficulty.
+	private static final int HARD_MAX_QUESTIONS = 20; //The maximum number of questions for the "Hard" difficulty.
+	
+	//The sets of all possible questions {startInt, missingNumIndex}, indexed by DifficultyLevel.ordinal().
+	// Each set is enumerated the first time its DifficultyLevel is used.
+	private static final QuestionSpace[] QUESTIONS = new QuestionSpace[DifficultyLevel.values().length];
+	
+	private DifficultyLevel difficulty;   //The DifficultyLevel of the generated questions.
+	private int sequenceSize;             //The sequence size for difficulty.
+	private int maxNumberOfQuestions;     //The maximum number of questions for difficulty.
+	private QuestionSampler questions;    //Draws the questions that are asked.
+	
+	private int questionNum = 0;    //The number of questions that have been generated.
+	private int currentAnswer;      //The answer to the current question.
+	private String currentQuestion; //The current question in String form.
+	
+	/**
+	 * The PreKCountingGenerator constructor.
+	 * @param difficulty The DifficultyLevel of the generated questions.
+	 * @param rng The random number generator used to draw questions.
+	 */
+	public PreKCountingGenerator(DifficultyLevel difficulty, Random rng){
+		this.difficulty = difficulty;
+		switch(difficulty){
+			case EASY:   maxNumberOfQuestions = EASY_MAX_QUESTIONS;
+						 sequenceSize         = EASY_SEQUENCE_SIZE;
+						 break;
+			case NORMAL: maxNumberOfQuestions = NORM_MAX_QUESTIONS;
+			 			 sequenceSize         = NORM_SEQUENCE_SIZE;
+			 			 break;
+			case HARD:   maxNumberOfQuestions = HARD_MAX_QUESTIONS;
+			 			 sequenceSize         = HARD_SEQUENCE_SIZE;
+			 			 break;
+			default:     maxNumberOfQuestions = EASY_MAX_QUESTIONS;
+						 sequenceSize         = EASY_SEQUENCE_SIZE;
+						 break;
+		}
+		this.questions = new QuestionSampler(getQuestionSpace(difficulty, sequenceSize), rng);
+	}
+	
+	/**
+	 * A helper method used to obtain the set of all possible questions for a DifficultyLevel.
+	 * @param difficulty The DifficultyLevel of the questions.
+	 * @param sequenceSize The sequence size for difficulty.
+	 * @return The QuestionSpace of all {startInt, missingNumIndex} questions for difficulty.
+	 */
+	private static synchronized QuestionSpace getQuestionSpace(DifficultyLevel difficulty, int sequenceSize){
+		if(QUESTIONS[difficulty.ordinal()] == null){
+			QUESTIONS[difficulty.ordinal()] = new QuestionSpace(new int[]{LOWEST_INT, 0},
+					new int[]{(HIGHEST_INT - sequenceSize + 1), (sequenceSize - 1)}, null);
+		}
+		return QUESTIONS[difficulty.ordinal()];
+	}
+	
+	/**
+	 * Used to create a sequence of numbers that is to be displayed to the user. One number is
+	 *  missing. The missing number is replaced with an underscore, followed by a space.
+	 * @param startInt An int. The first integer in the sequence.
+	 * @param missingNum An int. The integer in the sequence that is missing.
+	 * @return A String representing the integer sequence, with the missing number represented as "_ ".
+	 */
+	private String getSequenceString(int startInt, int missingNum){
+		StringBuilder sequenceString = new StringBuilder();
+		for(int i=0; i<sequenceSize; i++){
+			int numToAdd = startInt + i;
+			if(numToAdd == missingNum)
+				sequenceString.append("_ ");
+			else
+				sequenceString.append(numToAdd);
+			if(i != (sequenceSize - 1))
+				sequenceString.append(", ");
+		}
+		return sequenceString.toString();
+	}
+	
+	@Override
+	public DifficultyLevel getDifficulty(){
+		return difficulty;
+	}
+	
+	@Override
+	public int getMaxNumberOfQuestions(){
+		return maxNumberOfQuestions;
+	}
+	
+	@Override
+	public boolean hasNextQuestion(){
+		return questionNum < maxNumberOfQuestions;
+	}
+	
+	@Override
+	public void nextQuestion(){
+		if(!hasNextQuestion())
+			throw new IllegalStateException("All " + maxNumberOfQuestions + " questions have been asked.");
+		int[] values    = questions.next();
+		int startInt    = values[0];
+		int missingNum  = startInt + values[1];
+		currentAnswer   = missingNum;
+		currentQuestion = getSequenceString(startInt, missingNum);
+		questionNum++;
+	}
+	
+	@Override
+	public int getQuestionNumber(){
+		return questionNum;
+	}
+	
+	@Override
+	public String getQuestion(){
+		return currentQuestion;
+	}
+	
+	@Override
+	public String getCorrectAnswer(){
+		return Integer.toString(currentAnswer);
+	}
+	
+	@Override
+	public boolean checkAnswer(String answer){
+		return answer.equals(getCorrectAnswer());
+	}
+	
+	@Override
+	public String getLogEntry(String answer){
+		String question = "Question " + questionNum + ": (" + currentQuestion + ")";
+		return question + " Student Answer: (" + answer + ")"
+						+ " Correct Answer: (" + currentAnswer + ").";
+	}
+}
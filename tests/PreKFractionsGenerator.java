@@ -0,0 +1,243 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.tests;
+
+import java.util.Random;
+
+import project.constants.DifficultyLevel;
+import project.interfaces.QuestionGenerator;
+import project.tools.QuestionPanelSelect;
+import project.tools.QuestionSampler;
+import project.tools.QuestionSpace;
+
+/**
+ * This class is used to generate PreK-K Fractions questions (whole vs half), without displaying them.
+ *  Each question has a left and right panel, showing a half and a whole of the same object. Every image
+ *  may be asked once as a "half" question and once as a "whole" question. Used by PreKTestFractions.
+ * @author Kenneth Chin
+ */
+public class PreKFractionsGenerator implements QuestionGenerator{
+	
+	private static String wholePath = "\\images\\test\\fractions\\whole\\";
+	private static String halfPath  = "\\images\\test\\fractions\\half\\";
+	
+	//Difficulty settings. Note: MUST be less than the maximum number of question permutations.
+	private static final int EASY_MAX_QUESTIONS = 8;    //The maximum number of questions for the "Easy" difficulty.
+	private static final int NORM_MAX_QUESTIONS = 10;   //The maximum number of questions for the "Normal" difficulty.
+	private static final int HARD_MAX_QUESTIONS = 12;   //The maximum number of questions for the "Hard" difficulty.
+	
+	private static final int HALF  = 0;    //Representation of the "Half" answer.
+	private static final int WHOLE = 1;    //Representation of the "Whole" answer.
+	
+	//The set of all possible questions {questionType, Images index}.
+	private static final QuestionSpace QUESTIONS = new QuestionSpace(new int[]{HALF, 0},
+			new int[]{WHOLE, Images.values().length - 1}, null);
+	
+	private static final Images[] IMAGES = Images.values(); //An array of all Images enums.
+	
+	private DifficultyLevel difficulty;   //The DifficultyLevel of the generated questions.
+	private int maxNumberOfQuestions;     //The maximum number of questions for difficulty.
+	private QuestionSampler questions;    //Draws the unused {questionType, Images index} questions.
+	private Random rng;                   //Used to randomize the panel order.
+	
+	private int questionNum = 0;    //The number of questions that have been generated.
+	private String leftImagePath;   //Used to store the left panel's image path.
+	private String rightImagePath;  //Used to store the right panel's image path.
+	private String answerString;    //The correct answer's panel String ("left" or "right").
+	private String imageName;       //Used to store this question's image name.
+	private int questionType;       //Used to indicate this question's type; WHOLE or HALF.
+	
+	/**
+	 * The PreKFractionsGenerator constructor.
+	 * @param difficulty The DifficultyLevel of the generated questions.
+	 * @param rng The random number generator used to draw questions.
+	 */
+	public PreKFractionsGenerator(DifficultyLevel difficulty, Random rng){
+		this.difficulty = difficulty;
+		this.rng        = rng;
+		this.questions  = new QuestionSampler(QUESTIONS, rng);
+		switch(difficulty){
+			case EASY:   maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
+			case NORMAL: maxNumberOfQuestions = NORM_MAX_QUESTIONS; break;
+			case HARD:   maxNumberOfQuestions = HARD_MAX_QUESTIONS; break;
+			default:     maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
+		}
+	}
+	
+	/**
+	 * Used to determine if a given word's prefix is "a" or "an".
+	 * @param word A String of the word to be analyzed.
+	 * @return The String "an" if the specified word begins with a vowel, null if the specified word is null
+	 *  or "", or "a" otherwise.
+	 */
+	private String aOrAn(String word){
+		if(word == null || word.equals(""))
+			return null;
+		char firstChar = word.toLowerCase().charAt(0);
+		if(firstChar == 'a' || firstChar == 'e' || firstChar == 'i' || firstChar == 'o' || firstChar == 'u')
+			return "an";
+		else
+			return "a";
+	}
+	
+	/**
+	 * Used to obtain the left panel's image path of the current question.
+	 * @return A String describing the left panel's image path.
+	 */
+	public String getLeftImagePath(){
+		return leftImagePath;
+	}
+	
+	/**
+	 * Used to obtain the right panel's image path of the current question.
+	 * @return A String describing the right panel's image path.
+	 */
+	public String getRightImagePath(){
+		return rightImagePath;
+	}
+	
+	@Override
+	public DifficultyLevel getDifficulty(){
+		return difficulty;
+	}
+	
+	@Override
+	public int getMaxNumberOfQuestions(){
+		return maxNumberOfQuestions;
+	}
+	
+	@Override
+	public boolean hasNextQuestion(){
+		return questionNum < maxNumberOfQuestions;
+	}
+	
+	@Override
+	public void nextQuestion(){
+		if(!hasNextQuestion())
+			throw new IllegalStateException("All " + maxNumberOfQuestions + " questions have been asked.");
+		int[] values    = questions.next();
+		questionType    = values[0];
+		Images image    = IMAGES[values[1]];
+		String fileName = image.getFileName();
+		imageName       = image.getName();
+		
+		String answerPath = (questionType == HALF) ? halfPath  : wholePath;
+		String otherPath  = (questionType == HALF) ? wholePath : halfPath;
+		if(rng.nextBoolean()){
+			answerString   = QuestionPanelSelect.Answer.LEFT.getStringValue();
+			leftImagePath  = answerPath + fileName;
+			rightImagePath = otherPath  + fileName;
+		}else{
+			answerString   = QuestionPanelSelect.Answer.RIGHT.getStringValue();
+			leftImagePath  = otherPath  + fileName;
+			rightImagePath = answerPath + fileName;
+		}
+		questionNum++;
+	}
+	
+	@Override
+	public int getQuestionNumber(){
+		return questionNum;
+	}
+	
+	@Override
+	public String getQuestion(){
+		String typeString = (questionType == HALF) ? "<b><u>half</u></b>" : "a <b><u>whole</u></b>";
+		String question   = "Which picture shows " + typeString + " ";
+		if(questionType == HALF)
+			question += aOrAn(imageName) + " " + imageName + "?";
+		else
+			question += imageName + "?";
+		return question;
+	}
+	
+	@Override
+	public String getCorrectAnswer(){
+		return answerString;
+	}
+	
+	@Override
+	public boolean checkAnswer(String answer){
+		return answer.equals(answerString);
+	}
+	
+	@Override
+	public String getLogEntry(String answer){
+		String question;
+		if(questionType == HALF){
+			question = "Question " + questionNum + ": Fraction(Which is half "
+							+ aOrAn(imageName) + " " + imageName.toLowerCase() + "?)";
+			return question + " Student Answer: (A whole " + imageName.toLowerCase() + ")"
+					    	+ " Correct Answer: (Half " + aOrAn(imageName) + " " + imageName.toLowerCase() + ").";
+		}else{
+			question = "Question " + questionNum + ": Fraction(Which is a whole "
+							+ imageName.toLowerCase() + "?)";
+			return question + " Student Answer: (Half " + aOrAn(imageName) + " " + imageName.toLowerCase()
+						+ ")" + " Correct Answer: (A whole " + imageName.toLowerCase() + ").";
+		}
+	}
+	
+	/**
+	 * This enum is used to associate & store image file names & image names to a constant.
+	 * @author Kenneth Chin
+	 */
+	private enum Images{
+		APPLE   ("Apple"      , "apple.png"),
+		COOKIE  ("Cookie"     , "cookie.png"),
+		DOLLAR  ("Dollar"     , "dollar.png"),
+		QUARTER ("Quarter"    , "quarter.png"),
+		PIZZA   ("Pizza"      , "pizza.png"),
+		RAINBOW ("Rainbow"    , "rainbow.png"),
+		SHIRT   ("Shirt"      , "shirt.png"),
+		BIKE    ("Bicycle"    , "bike.png"),
+		GLASSES ("Eye Glasses", "eye_glasses.png"),
+		SCISSORS("Scissors"   , "scissors.png"),
+		MOON    ("Moon"       , "moon.png"),
+		WATER   ("Water"      , "water.png");
+		
+		private String fileName;
+		private String name;
+		
+		/**
+		 * The Images constructor.
+		 * @param name A String describing the image.
+		 * @param fileName A String describing the image's file name.
+		 */
+		private Images(String name, String fileName){
+			this.fileName = fileName;
+			this.name     = name;
+		}
+		
+		/**
+		 * Used to obtain a String describing this image's file name.
+		 * @return A String describing this image's file name.
+		 */
+		public String getFileName(){
+			return fileName;
+		}
+		
+		/**
+		 * Used to obtain a String describing this image's name.
+		 * @return A String describing this image's name.
+		 */
+		public String getName(){
+			return name;
+		}
+	}
+}
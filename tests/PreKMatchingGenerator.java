@@ -0,0 +1,164 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.tests;
+
+import java.util.Random;
+
+import project.constants.AppleBoard;
+import project.constants.DifficultyLevel;
+import project.interfaces.QuestionGenerator;
+import project.tools.QuestionPanelSelect;
+import project.tools.QuestionSampler;
+import project.tools.QuestionSpace;
+
+/**
+ * This class is used to generate PreK-K number Matching questions, without displaying them. Each
+ *  question has a left and right panel, each with a quantity of apples. While a student may be asked
+ *  to match the same number multiple times, the combination of panel quantities will never be used
+ *  twice. Used by PreKTestMatching.
+ * @author Kenneth Chin
+ */
+public class PreKMatchingGenerator implements QuestionGenerator{
+	
+	private static final int LOWEST_INT    = 0;         //MUST be zero.
+	private static final int HIGHEST_INT   = 10;        //The highest value that may be asked in a question.
+	
+	//Difficulty settings. Note: MUST be less than the maximum number of question permutations.
+	private static final int EASY_MAX_QUESTIONS = 10;   //The maximum number of questions for the "Easy" difficulty.
+	private static final int NORM_MAX_QUESTIONS = 15;   //The maximum number of questions for the "Normal" difficulty.
+	private static final int HARD_MAX_QUESTIONS = 20;   //The maximum number of questions for the "Hard" difficulty.
+	
+	//The set of all possible questions {correctAnswer, wrongAnswer}. Equal number combinations are
+	//  never asked (asked to match 5, but both panels would show 5 objects).
+	private static final QuestionSpace QUESTIONS = new QuestionSpace(new int[]{LOWEST_INT, LOWEST_INT},
+			new int[]{HIGHEST_INT, HIGHEST_INT}, new QuestionSpace.Filter() {
+				public boolean isValid(int[] values){
+					return values[0] != values[1];
+				}
+			});
+	
+	private static final AppleBoard[] BOARDS = AppleBoard.values(); //An array of all AppleBoard enums.
+	
+	private DifficultyLevel difficulty;   //The DifficultyLevel of the generated questions.
+	private int maxNumberOfQuestions;     //The maximum number of questions for difficulty.
+	private QuestionSampler questions;    //Draws the panel quantities.
+	private Random rng;                   //Used to randomize the panel order.
+	
+	private int questionNum = 0;   //The number of questions that have been generated.
+	private int correctAnswer;     //The value and index of the panel that is correct.
+	private int wrongAnswer;       //The value and index of the panel that is incorrect.
+	private String answerString;   //The correct answer's panel String ("left" or "right").
+	private String leftImagePath;  //The left panel's image path.
+	private String rightImagePath; //The right panel's image path.
+	
+	/**
+	 * The PreKMatchingGenerator constructor.
+	 * @param difficulty The DifficultyLevel of the generated questions.
+	 * @param rng The random number generator used to draw questions.
+	 */
+	public PreKMatchingGenerator(DifficultyLevel difficulty, Random rng){
+		this.difficulty = difficulty;
+		this.rng        = rng;
+		this.questions  = new QuestionSampler(QUESTIONS, rng);
+		switch(difficulty){
+			case EASY:   maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
+			case NORMAL: maxNumberOfQuestions = NORM_MAX_QUESTIONS; break;
+			case HARD:   maxNumberOfQuestions = HARD_MAX_QUESTIONS; break;
+			default:     maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
+		}
+	}
+	
+	/**
+	 * Used to obtain the left panel's image path of the current question.
+	 * @return A String describing the left panel's image path.
+	 */
+	public String getLeftImagePath(){
+		return leftImagePath;
+	}
+	
+	/**
+	 * Used to obtain the right panel's image path of the current question.
+	 * @return A String describing the right panel's image path.
+	 */
+	public String getRightImagePath(){
+		return rightImagePath;
+	}
+	
+	@Override
+	public DifficultyLevel getDifficulty(){
+		return difficulty;
+	}
+	
+	@Override
+	public int getMaxNumberOfQuestions(){
+		return maxNumberOfQuestions;
+	}
+	
+	@Override
+	public boolean hasNextQuestion(){
+		return questionNum < maxNumberOfQuestions;
+	}
+	
+	@Override
+	public void nextQuestion(){
+		if(!hasNextQuestion())
+			throw new IllegalStateException("All " + maxNumberOfQuestions + " questions have been asked.");
+		int[] values  = questions.next();
+		correctAnswer = values[0];
+		wrongAnswer   = values[1];
+		if(rng.nextBoolean()){
+			answerString   = QuestionPanelSelect.Answer.LEFT.getStringValue();
+			leftImagePath  = BOARDS[correctAnswer].getPath();
+			rightImagePath = BOARDS[wrongAnswer].getPath();
+		}
+		else{
+			answerString   = QuestionPanelSelect.Answer.RIGHT.getStringValue();
+			leftImagePath  = BOARDS[wrongAnswer].getPath();
+			rightImagePath = BOARDS[correctAnswer].getPath();
+		}
+		questionNum++;
+	}
+	
+	@Override
+	public int getQuestionNumber(){
+		return questionNum;
+	}
+	
+	@Override
+	public String getQuestion(){
+		return "Which picture shows " + correctAnswer + ((correctAnswer == 1) ? " apple?" : " apples?");
+	}
+	
+	@Override
+	public String getCorrectAnswer(){
+		return answerString;
+	}
+	
+	@Override
+	public boolean checkAnswer(String answer){
+		return answer.equals(answerString);
+	}
+	
+	@Override
+	public String getLogEntry(String answer){
+		String question = "Question " + questionNum + ": Match(" + correctAnswer + ")";
+		return question + " Student Answer: (" + wrongAnswer + ")"
+						+ " Correct Answer: (" + correctAnswer + ").";
+	}
+}
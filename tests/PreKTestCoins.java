@@ -44,37 +44,22 @@ import project.tools.TextFileMaker;
  *  selectable panels, each with a US coin. A student is asked to select the panel that matches
  *  the attributes specified in a question, then click the "Submit" button. While a student
  *  may be asked to match the same coin multiple times, the combination of images and question types
- *  (name or vcent value) will never be used twice.
+ *  (name or vcent value) will never be used twice. Questions are generated by a PreKCoinsGenerator.
  * @author Kenneth Chin
  */
 public class PreKTestCoins implements TestableObserver{
 	
 	//The ModuleSelectButtonInterface that describes this test.
 	private static final ModuleSelectButtonInterface TEST_BUTTON = PreKModuleSelectTestButtons.Button.COINS;
-
-	private static final int NUM_QUESTION_TYPES = 2;   //The number of question types (name or value).
-	private static final int NAME_TYPE = 0;  //The constant that indicates a question that identifies a coin's name.
-	
-	//Difficulty settings. Note: MUST be less than the maximum number of question permutations.
-	private static final int EASY_MAX_QUESTIONS = 8;    //The maximum number of questions for the "Easy" difficulty.
-	private static final int NORM_MAX_QUESTIONS = 10;   //The maximum number of questions for the "Normal" difficulty.
-	private static final int HARD_MAX_QUESTIONS = 12;   //The maximum number of questions for the "Hard" difficulty.
-	private int maxNumberOfQuestions = EASY_MAX_QUESTIONS; //The actual maximum number of questions for this test.
 	
-	private Random rng = new Random(System.currentTimeMillis()); //A random number generator.
+	private int maxNumberOfQuestions; //The actual maximum number of questions for this test.
+	private PreKCoinsGenerator generator; //Generates and checks the questions that are asked.
+	private long seed; //The seed of the generator's Random. Recorded with the attempt, so it can be replayed.
 
 	private boolean isPractice = false;   //Used to indicate that this test is a practice test.
+	private long startTime = System.currentTimeMillis(); //The time that this test was started.
 	private DifficultyLevel difficulty;   //The current DifficultyLevel of this test.
 	
-	private int currentQuestionNum = 1;   //The current question number.
-
-	private boolean[][][] isNumberSetUsed = new boolean[Coin.values().length][Coin.values().length][NUM_QUESTION_TYPES];
-	private String correctAnswer;   //The name or value of the correct answer's coin.
-	private String wrongAnswer;     //The name or value of the wrong answer's coin.
-	private int correctAnswerIndex; //The Coin.values() index of the correct answer's coin.
-	private int wrongAnswerIndex;   //The Coin.values() index of the wrong answer's coin.
-	private int questionType;       //Used to indicate a name (0) or value (1) question type.
-	private String answerString;    //The correct answer's panel String ("left" or "right").
 	private int numCorrect = 0;     //The number of correct answers obtained from the user.
 	private ArrayList<String> wrongAnswers = new ArrayList<String>(); //Used to track incorrect answers.
 	
@@ -97,11 +82,12 @@ public class PreKTestCoins implements TestableObserver{
 		this.isPractice = isPractice;
 		this.difficulty = difficulty;
 		
-		setDifficulty();
+		this.seed       = manager.nextTestSeed();
+		this.generator  = new PreKCoinsGenerator(difficulty, new Random(seed));
+		maxNumberOfQuestions = generator.getMaxNumberOfQuestions();
 		testPanel = new QuestionPanelSelect(mainWindow, maxNumberOfQuestions);
 		testPanel.registerObserver(this);
 		
-		initArrays();
 		playTutorial();
 		askQuestion();
 	}
@@ -125,57 +111,10 @@ public class PreKTestCoins implements TestableObserver{
 	 * Used to create and display the next question.
 	 */
 	private void askQuestion(){
-		getValues();
-		makeQuestion();
-		currentQuestionNum++;
-	}
-	
-	/**
-	 * Used to obtain an unused combination of panel images and question type.
-	 */
-	private void getValues(){
-		do{
-			questionType       = getRandomInt(0, NUM_QUESTION_TYPES -1);
-			correctAnswerIndex = getRandomInt(0, Coin.values().length - 1);
-			wrongAnswerIndex   = getRandomInt(0, Coin.values().length - 1);
-		}while(correctAnswerIndex == wrongAnswerIndex
-				|| isNumberSetUsed[correctAnswerIndex][wrongAnswerIndex][questionType]);
-		if(questionType == NAME_TYPE){
-			correctAnswer = Coin.values()[correctAnswerIndex].getName().toLowerCase();
-			wrongAnswer   = Coin.values()[wrongAnswerIndex].getName().toLowerCase();
-		}else{
-			correctAnswer = Coin.values()[correctAnswerIndex].getCentValue();
-			wrongAnswer   = Coin.values()[wrongAnswerIndex].getCentValue();
-		}
-		isNumberSetUsed[correctAnswerIndex][wrongAnswerIndex][questionType] = true;
-	}
-	
-	/**
-	 * Used to generate question text, and randomize the panel order (left or right).
-	 * Displays the question and two panels.
-	 */
-	private void makeQuestion(){
-		String question;
-		if(questionType == NAME_TYPE){
-			question = "Which picture shows a <b><u>" + correctAnswer + "</u></b>?";
-		}else{
-			question = "Which picture shows a <b><u>" + correctAnswer + "&cent;</u></b>?";
-		}
-		String leftImagePath;
-		String rightImagePath;
-		int answerLoc = getRandomInt(0, 1);
-		if(answerLoc == 0){
-			answerString   = QuestionPanelSelect.Answer.LEFT.getStringValue();
-			leftImagePath  = Coin.values()[correctAnswerIndex].getFilePath();
-			rightImagePath = Coin.values()[wrongAnswerIndex].getFilePath();
-		}
-		else{
-			answerString   = QuestionPanelSelect.Answer.RIGHT.getStringValue();
-			leftImagePath  = Coin.values()[wrongAnswerIndex].getFilePath();
-			rightImagePath = Coin.values()[correctAnswerIndex].getFilePath();
-		}
+		generator.nextQuestion();
 		try {
-			testPanel.showQuestion(question, currentQuestionNum, leftImagePath, rightImagePath);
+			testPanel.showQuestion(generator.getQuestion(), generator.getQuestionNumber(),
+					generator.getLeftImagePath(), generator.getRightImagePath());
 		} catch (IOException e) {
 			manager.handleException(e);
 		}
@@ -189,13 +128,13 @@ public class PreKTestCoins implements TestableObserver{
 	private void showAnswer(String answer){
 		boolean isCorrect = checkAnswer(answer);
 		String  message = (isCorrect) ? "Correct!" : "Incorrect! The correct answer does not have an X through it.";
-		if(answerString.equals(QuestionPanelSelect.Answer.LEFT.getStringValue())){
+		if(generator.getCorrectAnswer().equals(QuestionPanelSelect.Answer.LEFT.getStringValue())){
 			try {
 				testPanel.showAnswer(message, QuestionPanelSelect.Answer.LEFT, isCorrect);
 			} catch (IOException e) {
 				manager.handleException(e);
 			}
-		}else if(answerString.equals(QuestionPanelSelect.Answer.RIGHT.getStringValue())){
+		}else if(generator.getCorrectAnswer().equals(QuestionPanelSelect.Answer.RIGHT.getStringValue())){
 			try {
 				testPanel.showAnswer(message, QuestionPanelSelect.Answer.RIGHT, isCorrect);
 			} catch (IOException e) {
@@ -210,46 +149,6 @@ public class PreKTestCoins implements TestableObserver{
 		}
 	}
 	
-	/**
-	 * Used to initialize the  isNumberSetUsed array to prevent the same images being shown
-	 *  in a single question (asked to choose dime, but both panels would show dimes).
-	 */
-	private void initArrays(){
-		for(int i = 0; i < Coin.values().length; i++){
-			isNumberSetUsed[i][i][0] = true;
-			isNumberSetUsed[i][i][1] = true;
-		}
-	}
-	
-	/**
-	 * Used to set maxNumberOfQuestions to the number specified by difficulty.
-	 *  See class difficulty setting constants.
-	 */
-	private void setDifficulty(){
-		switch(difficulty){
-			case EASY:   maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
-			case NORMAL: maxNumberOfQuestions = NORM_MAX_QUESTIONS; break;
-			case HARD:   maxNumberOfQuestions = HARD_MAX_QUESTIONS; break;
-			default:     maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
-		}
-	}
-	
-	/**
-	 * A helper method, used to obtain a random int between lowestValue and highestValue
-	 *  (inclusive).
-	 * @param lowestValue The lowest int value that the random number generator may return.
-	 * @param highestValue The highest int value that the random number generator may return.
-	 * @return A random int between lowestValue and highestValue (inclusive).
-	 */
-	private int getRandomInt(int lowestValue, int highestValue) {
-		if(lowestValue > highestValue){
-			int temp     = highestValue;
-			highestValue = lowestValue;
-			lowestValue  = temp;
-		}
-	    return rng.nextInt((highestValue - lowestValue) + 1) + lowestValue;
-	}
-
 	/**
 	 * Used to compare a user's answer to the question's correct answer. Increments
 	 *  numCorrect if the user's answer was correct. Returns true if the user's answer
@@ -258,34 +157,15 @@ public class PreKTestCoins implements TestableObserver{
 	 * @return A boolean indicating true if the user's answer was correct; false otherwise.
 	 */
 	private boolean checkAnswer(String answer){
-		if(answer.equals(answerString)){
+		if(generator.checkAnswer(answer)){
 			numCorrect++;
 			return true;
 		}else{
-			logWrongAnswer();
+			wrongAnswers.add(generator.getLogEntry(answer));
 			return false;
 		}
 	}
 	
-	/**
-	 * A helper method, used to create a String that describes an incorrectly answered question.
-	 *  Adds the created String to the wrongAnswers ArrayList.
-	 */
-	private void logWrongAnswer(){
-		String question;
-		String entry;
-		if(questionType == NAME_TYPE){
-			question = "Question " + (currentQuestionNum - 1) + ": Coin(" + correctAnswer + ")";
-			entry    = question + " Student Answer: (" + wrongAnswer + ")"
-									   + " Correct Answer: (" + correctAnswer + ").";
-		}else{
-			question = "Question " + (currentQuestionNum - 1) + ": Coin(" + correctAnswer + "\u00A2)";
-			entry    = question + " Student Answer: (" + wrongAnswer + "\u00A2)"
-									   + " Correct Answer: (" + correctAnswer + "\u00A2).";
-		}
-		wrongAnswers.add(entry);
-	}
-	
 	/**
 	 * Used to create a text file containing all questions, user answers, and correct answers
 	 *  for all questions that the user answered incorrectly. If the user did not answer any
@@ -328,7 +208,7 @@ public class PreKTestCoins implements TestableObserver{
 		//If the user didn't answer, do nothing, else check the answer.
 		else if(!(answer.equals(QuestionPanelSelect.Answer.NONE.getStringValue()))){
 			checkAnswer(answer);
-			if(currentQuestionNum <= maxNumberOfQuestions){
+			if(generator.hasNextQuestion()){
 				askQuestion();
 			}else{
 				testPanel.tearDown();
@@ -336,6 +216,8 @@ public class PreKTestCoins implements TestableObserver{
 					clip.stop();
 				try {
 					int grade = getGrade();
+					manager.recordAttempt(TEST_BUTTON, difficulty, numCorrect, maxNumberOfQuestions,
+							System.currentTimeMillis() - startTime, seed);
 					boolean isBetter = isBetterGrade(numCorrect);
 					String fileName = "Coins(" + difficulty.getName() + ")";
 					if(isBetter)
@@ -352,7 +234,7 @@ public class PreKTestCoins implements TestableObserver{
 	@Override
 	public void nextClicked() {
 		if(isPractice){
-			if(currentQuestionNum <= maxNumberOfQuestions){
+			if(generator.hasNextQuestion()){
 				askQuestion();
 			}else{
 				if(clip.isActive())
@@ -398,58 +280,4 @@ public class PreKTestCoins implements TestableObserver{
 			}
 		}
 	}
-	
-	/**
-	 * This enum is used to define different US coins. Each coin is associated with a name, cent value,
-	 *  and image file name.
-	 * @author Kenneth Chin
-	 */
-	private enum Coin{
-		PENNY  ("Penny"  ,"1" , "penny.png"),
-		NICKEL ("Nickel" ,"5" , "nickel.png"),
-		DIME   ("Dime"   ,"10", "dime.png"),
-		QUARTER("Quarter","25", "quarter.png");
-		
-		private String filePath;
-		private String centValue;
-		private String name;
-		
-		private static final String imagePath = "\\images\\test\\coins\\";
-		
-		/**
-		 * The Coin constructor.
-		 * @param name A String describing this Coin's name.
-		 * @param centValue A String describing this Coin's cent value.
-		 * @param fileName A String describing this Coin's image file name.
-		 */
-		private Coin(String name, String centValue, String fileName){
-			this.name      = name;
-			this.centValue = centValue;
-			this.filePath  = imagePath + fileName;
-		}
-		
-		/**
-		 * Used to obtain a String describing this Coin's name.
-		 * @return A String describing this Coin's name.
-		 */
-		public String getName(){
-			return name;
-		}
-		
-		/**
-		 * Used to obtain a String describing this Coin's cent value.
-		 * @return A String describing this Coin's cent value.
-		 */
-		public String getCentValue(){
-			return centValue;
-		}
-		
-		/**
-		 * Used to obtain a String describing this Coin's image file path from the program's root directory.
-		 * @return A String describing this Coin's image file path from the program's root directory.
-		 */
-		public String getFilePath(){
-			return filePath;
-		}
-	}
 }
\ No newline at end of file
@@ -43,7 +43,7 @@ import project.tools.TextFileMaker;
  * This class is used to test PreK-K students on Counting skills. It displays a sequence of
  *  integers between 0 and 20 (inclusive). One number of the sequence is missing. A student
  *  is asked to enter the missing number into a text box, then click a "Submit" button. No two
- *  questions are the same.
+ *  questions are the same. Questions are generated by a PreKCountingGenerator.
  * @author Kenneth Chin
  */
 public class PreKTestCounting implements TestableObserver{
@@ -51,33 +51,16 @@ public class PreKTestCounting implements TestableObserver{
 	//The ModuleSelectButtonInterface that describes this test.
 	private static final ModuleSelectButtonInterface TEST_BUTTON = PreKModuleSelectTestButtons.Button.COUNTING;
 	
-	private static final int LOWEST_INT    = 0;  //Must be zero.
-	private static final int HIGHEST_INT   = 20; //The highest integer value to be tested.
-	
-	//Difficulty settings. Note: Settings MUST be less than the maximum number of question permutations.
-	private static final int EASY_SEQUENCE_SIZE = 5;  //The number of integers in a sequence for the "Easy" difficulty.
-	private static final int EASY_MAX_QUESTIONS = 10; //The maximum number of questions for the "Easy" difficulty.
-	private static final int NORM_SEQUENCE_SIZE = 4;  //The number of integers in a sequence for the "Normal" difficulty.
-	private static final int NORM_MAX_QUESTIONS = 15; //The maximum number of questions for the "Normal" difficulty.
-	private static final int HARD_SEQUENCE_SIZE = 3;  //The number of integers in a sequence for the "Hard" difficulty.
-	private static final int HARD_MAX_QUESTIONS = 20; //The maximum number of questions for the "Hard" difficulty.
-	
-	private int sequenceSize         = EASY_MAX_QUESTIONS; //The actual sequence size for this test.
-	private int maxNumberOfQuestions = EASY_MAX_QUESTIONS; //The actual maximum number of questions for this test.
-	
-	private Random rng = new Random(System.currentTimeMillis()); //A random number generator.
+	private int maxNumberOfQuestions; //The actual maximum number of questions for this test.
+	private PreKCountingGenerator generator; //Generates and checks the questions that are asked.
+	private long seed; //The seed of the generator's Random. Recorded with the attempt, so it can be replayed.
 
 	private boolean isPractice = false;   //Used to indicate that this test is a practice test.
+	private long startTime = System.currentTimeMillis(); //The time that this test was started.
 	private DifficultyLevel difficulty;   //The current DifficultyLevel of this test.
 	
-	private int currentQuestionNum      = 1; //The current question number.
-	//The set of all possible questions that may be asked, associated with a boolean indicating
-	// if the question has been asked. Must be set at instantiation after sequenceSize is set.
-	private boolean[][] isNumberSetUsed;
-	private int currentAnswer;  //The answer to the current question.
 	private int numCorrect = 0; //The number of correct answers received from the user.
 	private ArrayList<String> wrongAnswers = new ArrayList<String>(); //Used to track incorrect answers.
-	private String currentQuestion; //The current question in String form.
 	
 	private QuestionPanelText testPanel; //The QuestionPanelText used to display questions and retrieve answers.
 	private Clip clip; //The audio clip used to play the tutorial sounds.
@@ -97,9 +80,10 @@ public class PreKTestCounting implements TestableObserver{
 		this.mainWindow = manager.getMainWindow();
 		this.isPractice = isPractice;
 		this.difficulty = difficulty;
-		setDifficulty();
+		this.seed       = manager.nextTestSeed();
+		this.generator  = new PreKCountingGenerator(difficulty, new Random(seed));
+		maxNumberOfQuestions = generator.getMaxNumberOfQuestions();
 		
-		isNumberSetUsed = new boolean[(HIGHEST_INT - sequenceSize) + 2][sequenceSize];
 		testPanel = new QuestionPanelText(mainWindow, maxNumberOfQuestions);
 		testPanel.registerObserver(this);
 		playTutorial();
@@ -122,99 +106,13 @@ public class PreKTestCounting implements TestableObserver{
 	    }
 	}
 	
-	/**
-	 * Used to set maxNumberOfQuestions and sequenceSize to the number specified by difficulty.
-	 *  See class difficulty setting constants.
-	 */
-	private void setDifficulty(){
-		switch(difficulty){
-			case EASY:   maxNumberOfQuestions = EASY_MAX_QUESTIONS;
-						 sequenceSize         = EASY_SEQUENCE_SIZE;
-			             break;
-			case NORMAL: maxNumberOfQuestions = NORM_MAX_QUESTIONS;
-			 			 sequenceSize         = NORM_SEQUENCE_SIZE;
-			 			 break;
-			case HARD:   maxNumberOfQuestions = HARD_MAX_QUESTIONS;
-			 			 sequenceSize         = HARD_SEQUENCE_SIZE;
-			 			 break;
-			default:     maxNumberOfQuestions = EASY_MAX_QUESTIONS;
-						 sequenceSize         = EASY_SEQUENCE_SIZE;
-						 break;
-		}
-	}
-	
 	/**
 	 * Used to create and display the next question.
 	 */
 	private void askQuestion(){
-		String question = "What number is missing?<br><br>";
-		currentQuestion = makeQuestion();
-		question += currentQuestion;
-		testPanel.showQuestion(question, (currentQuestionNum));
-		currentQuestionNum++;
-	}
-	
-	/**
-	 * A helper method, used to obtain a random int between lowestValue and highestValue
-	 *  (inclusive).
-	 * @param lowestValue The lowest int value that the random number generator may return.
-	 * @param highestValue The highest int value that the random number generator may return.
-	 * @return A random int between lowestValue and highestValue (inclusive).
-	 */
-	private int getRandomInt(int lowestValue, int highestValue){
-		//Swap the numbers if they are backwards.
-		if(lowestValue > highestValue){
-			int temp     = highestValue;
-			highestValue = lowestValue;
-			lowestValue  = temp;
-		}
-	    return rng.nextInt((highestValue - lowestValue) + 1) + lowestValue;
-	}
-	
-	/**
-	 * Used to create a sequence of numbers that is to be displayed to the user. One number is
-	 *  missing. The missing number is replaced with an underscore, followed by a space.
-	 * @param startInt An int. The first integer in the sequence.
-	 * @param missingNum An int. The integer in the sequence that is missing.
-	 * @return A String representing the integer sequence, with the missing number represented as "_ ".
-	 */
-	private String getSequenceString(int startInt, int missingNum){
-		String sequenceString = "";
-		for(int i=0; i<sequenceSize; i++){
-			int numToAdd = startInt + i;
-			String currentText = (numToAdd == missingNum) ? "_ " : (new Integer(numToAdd).toString());
-			sequenceString += (i == (sequenceSize - 1))  ? currentText : (currentText + ", ");
-		}
-		return sequenceString;
-	}
-	
-	/**
-	 * A helper method used to determine if a particular integer sequence and missing number
-	 *  combination has been used in a question.
-	 * @param sequenceBegin An int representing the first integer in a sequence.
-	 * @param missingNumIndex An int indicating the missing number in a sequence.
-	 * @return A boolean. True if the question has been asked. False otherwise.
-	 */
-	private boolean isUsedQuestion(int sequenceBegin, int missingNumIndex){
-		return isNumberSetUsed[sequenceBegin][missingNumIndex];
-	}
-	
-	/**
-	 * Used to generate a random sequence of sequential integers, with a random missing number.
-	 * @return A String representing the sequence of integers generated, with the missing number
-	 *  represented as "_ ".
-	 */
-	private String makeQuestion(){
-		int startInt;
-		int missingNumIndex;
-		do{
-			startInt        = getRandomInt(LOWEST_INT, (HIGHEST_INT - sequenceSize + 1));
-			missingNumIndex = getRandomInt(0, (sequenceSize-1));
-		}while(isUsedQuestion(startInt, missingNumIndex));
-		int missingNum = startInt + missingNumIndex;
-		currentAnswer  = missingNum;
-		isNumberSetUsed[startInt][missingNumIndex] = true;
-		return getSequenceString(startInt, missingNum);
+		generator.nextQuestion();
+		String question = "What number is missing?<br><br>" + generator.getQuestion();
+		testPanel.showQuestion(question, generator.getQuestionNumber());
 	}
 	
 	/**
@@ -228,7 +126,7 @@ public class PreKTestCounting implements TestableObserver{
 			message = "\"" +answer + "\"" + " is correct!";
 		else
 			message = "\"" + answer + "\""
-					+ " is incorrect! The correct answer is: " + currentAnswer;
+					+ " is incorrect! The correct answer is: " + generator.getCorrectAnswer();
 		try {
 			testPanel.showAnswer(message, isCorrect);
 		} catch (IOException e) {
@@ -244,27 +142,15 @@ public class PreKTestCounting implements TestableObserver{
 	 * @return A boolean indicating true if the user's answer was correct; false otherwise.
 	 */
 	private boolean checkAnswer(String answer){
-		if(answer.equals(new Integer(currentAnswer).toString())){
+		if(generator.checkAnswer(answer)){
 			numCorrect++;
 			return true;
 		}else{
-			logWrongAnswer(answer);
+			wrongAnswers.add(generator.getLogEntry(answer));
 			return false;
 		}
 	}
 	
-	/**
-	 * A helper method, used to create a String that describes an incorrectly answered question.
-	 *  Adds the created String to the wrongAnswers ArrayList.
-	 * @param wrongAnswer A String representing the incorrect answer that a user gave to currentQuestion.
-	 */
-	private void logWrongAnswer(String wrongAnswer){
-		String question = "Question " + (currentQuestionNum-1) + ": (" + currentQuestion + ")";
-		String entry    = question + " Student Answer: (" + wrongAnswer + ")"
-								   + " Correct Answer: (" + currentAnswer + ").";
-		wrongAnswers.add(entry);
-	}
-	
 	/**
 	 * Used to create a text file containing all questions, user answers, and correct answers
 	 *  for all questions that the user answered incorrectly. If the user did not answer any
@@ -304,7 +190,7 @@ public class PreKTestCounting implements TestableObserver{
 		if(isPractice){
 			showAnswer(answer);
 		}
-		else if(currentQuestionNum <= maxNumberOfQuestions){
+		else if(generator.hasNextQuestion()){
 			checkAnswer(answer);
 			askQuestion();
 		}else{
@@ -314,6 +200,8 @@ public class PreKTestCounting implements TestableObserver{
 				clip.stop();
 			try{
 				int grade = getGrade();
+				manager.recordAttempt(TEST_BUTTON, difficulty, numCorrect, maxNumberOfQuestions,
+						System.currentTimeMillis() - startTime, seed);
 				boolean isBetter = isBetterGrade(numCorrect);
 				String fileName = "Counting(" + difficulty.getName() + ")";
 				if(isBetter)
@@ -329,7 +217,7 @@ public class PreKTestCounting implements TestableObserver{
 	@Override
 	public void nextClicked() {
 		if(isPractice){
-			if(currentQuestionNum <= maxNumberOfQuestions){
+			if(generator.hasNextQuestion()){
 				askQuestion();
 			}else{
 				if(clip.isActive())
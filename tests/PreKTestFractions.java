@@ -44,7 +44,7 @@ import project.tools.TextFileMaker;
  *  two selectable panels, each with a half or a whole of some object. A student is asked to select the
  *  panel that displays the question's specified attributes, then click the "Submit" button. While a student
  *  may be the same image set multiple times, the combination of panels and question types will never be
- *  used twice.
+ *  used twice. Questions are generated by a PreKFractionsGenerator.
  * @author Kenneth Chin
  */
 public class PreKTestFractions implements TestableObserver{
@@ -52,33 +52,14 @@ public class PreKTestFractions implements TestableObserver{
 	//The ModuleSelectButtonInterface that describes this test.
 	private static final ModuleSelectButtonInterface TEST_BUTTON = PreKModuleSelectTestButtons.Button.FRACTIONS;
 	
-	private static String wholePath = "\\images\\test\\fractions\\whole\\";
-	private static String halfPath  = "\\images\\test\\fractions\\half\\";
-	
-	//Difficulty settings. Note: MUST be less than the maximum number of question permutations.
-	private static final int EASY_MAX_QUESTIONS = 8;    //The maximum number of questions for the "Easy" difficulty.
-	private static final int NORM_MAX_QUESTIONS = 10;   //The maximum number of questions for the "Normal" difficulty.
-	private static final int HARD_MAX_QUESTIONS = 12;   //The maximum number of questions for the "Hard" difficulty.
-	private int maxNumberOfQuestions = EASY_MAX_QUESTIONS; //The actual maximum number of questions for this test.
-	
-	private Random rng = new Random(System.currentTimeMillis()); //A random number generator.
+	private int maxNumberOfQuestions; //The actual maximum number of questions for this test.
+	private PreKFractionsGenerator generator; //Generates and checks the questions that are asked.
+	private long seed; //The seed of the generator's Random. Recorded with the attempt, so it can be replayed.
 
 	private boolean isPractice = false;   //Used to indicate that this test is a practice test.
+	private long startTime = System.currentTimeMillis(); //The time that this test was started.
 	private DifficultyLevel difficulty;   //The current DifficultyLevel of this test.
 	
-	private int currentQuestionNum = 1;    //The current question number.
-	private ArrayList<String> halfPaths;   //Used to store image file names & track unused "half" questions.
-	private ArrayList<String> wholePaths;  //Used to store image file names & track unused "whole" questions.
-	private String leftImagePath;          //Used to store the left panel's image path.
-	private String rightImagePath;         //Used to store the right panel's image path.
-	private String answerString;           //The correct answer's panel String ("left" or "right").
-
-	private static final int HALF  = 0;    //Representation of the "Half" answer.
-	private static final int WHOLE = 1;    //Representation of the "Whole" answer.
-	
-	private String imageName;    //Used to store this question's image name.
-	private int questionType;    //Used to indicate this question's type; WHOLE or HALF.
-
 	private int numCorrect = 0;  //The number of correct answers obtained from the user.
 	private ArrayList<String> wrongAnswers = new ArrayList<String>(); //Used to track incorrect answers.
 	
@@ -101,11 +82,12 @@ public class PreKTestFractions implements TestableObserver{
 		this.isPractice = isPractice;
 		this.difficulty = difficulty;
 		
-		setDifficulty();
+		this.seed       = manager.nextTestSeed();
+		this.generator  = new PreKFractionsGenerator(difficulty, new Random(seed));
+		maxNumberOfQuestions = generator.getMaxNumberOfQuestions();
 		testPanel = new QuestionPanelSelect(mainWindow, maxNumberOfQuestions);
 		testPanel.registerObserver(this);
 		
-		initArrays();
 		playTutorial();
 		askQuestion();
 	}
@@ -129,101 +111,10 @@ public class PreKTestFractions implements TestableObserver{
 	 * Used to create and display the next question.
 	 */
 	private void askQuestion(){
-		getValues();
-		makeQuestion();
-		currentQuestionNum++;
-	}
-	
-	/**
-	 * Used to obtain and set an unused combination of panel quantities.
-	 * @return A boolean indicating if the values for questionType, imageName, answerString,
-	 *  leftImagePath, and rightImagePath have been set; false otherwise.
-	 */
-	private boolean getValues(){
-		boolean isSet = false;
-		int begin = (halfPaths.size()  > 0) ? 0 : 1;
-		int end   = (wholePaths.size() > 0) ? 1 : 0;
-		questionType  = getRandomInt(begin, end);
-		int answerLoc = getRandomInt(0, 1);
-		
-		if(questionType == HALF && halfPaths.size() > 0){
-			int index = getRandomInt(0, halfPaths.size() - 1);
-			String fileName = halfPaths.get(index);
-			imageName = getImageNameFromFileName(fileName);
-			if(answerLoc == 0){
-				answerString   = QuestionPanelSelect.Answer.LEFT.getStringValue();
-				leftImagePath  = halfPath  + fileName;
-				rightImagePath = wholePath + fileName;
-			}else{
-				answerString   = QuestionPanelSelect.Answer.RIGHT.getStringValue();
-				leftImagePath  = wholePath + fileName;
-				rightImagePath = halfPath  + fileName;
-			}
-			halfPaths.remove(index);
-			isSet = true;
-		}else if(questionType == WHOLE && wholePaths.size() > 0){
-			int index = getRandomInt(0, wholePaths.size() - 1);
-			String fileName = wholePaths.get(index);
-			imageName = getImageNameFromFileName(fileName);
-			if(answerLoc == 0){
-				answerString   = QuestionPanelSelect.Answer.LEFT.getStringValue();
-				leftImagePath  = wholePath + fileName;
-				rightImagePath = halfPath  + fileName;
-			}else{
-				answerString   = QuestionPanelSelect.Answer.RIGHT.getStringValue();
-				leftImagePath  = halfPath + fileName;
-				rightImagePath = wholePath  + fileName;
-			}
-			wholePaths.remove(index);
-			isSet = true;
-		}
-		return isSet;
-	}
-	
-	/**
-	 * A helper method that obtains the image name associated with the specified fileName, according to Images.
-	 * NOTE: Used because I didn't think ahead (implementation)...
-	 * @param fileName The image file name to be matched.
-	 * @return The String name associated with the specified image file name, according to Images. Returns
-	 *  null if the specified file name does not exist.
-	 */
-	private String getImageNameFromFileName(String fileName){
-		for(Images image : Images.values()){
-			if(image.getFileName().equalsIgnoreCase(fileName))
-				return image.getName();
-		}
-		return null;
-	}
-	
-	/**
-	 * Used to determine if a given word's prefix is "a" or "an".
-	 * @param word A String of the word to be analyzed.
-	 * @return The String "an" if the specified word begins with a vowel, null if the specified word is null
-	 *  or "", or "a" otherwise.
-	 */
-	private String aOrAn(String word){
-		if(word == null || word.equals(""))
-			return null;
-		char firstChar = word.toLowerCase().charAt(0);
-		if(firstChar == 'a' || firstChar == 'e' || firstChar == 'i' || firstChar == 'o' || firstChar == 'u')
-			return "an";
-		else
-			return "a";
-	}
-	
-	/**
-	 * Used to generate question text, and randomize the panel order (left or right).
-	 * Displays the question and two panels.
-	 */
-	private void makeQuestion(){
-		String typeString = (questionType == HALF) ? "<b><u>half</u></b>" : "a <b><u>whole</u></b>";
-		String question   = "Which picture shows " + typeString + " ";
-		if(questionType == HALF)
-			question += aOrAn(imageName) + " " + imageName + "?";
-		else
-			question += imageName + "?";
+		generator.nextQuestion();
 		try {
-			testPanel.showQuestion(question, currentQuestionNum, leftImagePath, rightImagePath);
+			testPanel.showQuestion(generator.getQuestion(), generator.getQuestionNumber(),
+					generator.getLeftImagePath(), generator.getRightImagePath());
 		} catch (IOException e) {
 			manager.handleException(e);
 		}
@@ -237,13 +128,13 @@ public class PreKTestFractions implements TestableObserver{
 	private void showAnswer(String answer){
 		boolean isCorrect = checkAnswer(answer);
 		String  message = (isCorrect) ? "Correct!" : "Incorrect! The correct answer does not have an X through it.";
-		if(answerString.equals(QuestionPanelSelect.Answer.LEFT.getStringValue())){
+		if(generator.getCorrectAnswer().equals(QuestionPanelSelect.Answer.LEFT.getStringValue())){
 			try {
 				testPanel.showAnswer(message, QuestionPanelSelect.Answer.LEFT, isCorrect);
 			} catch (IOException e) {
 				manager.handleException(e);
 			}
-		}else if(answerString.equals(QuestionPanelSelect.Answer.RIGHT.getStringValue())){
+		}else if(generator.getCorrectAnswer().equals(QuestionPanelSelect.Answer.RIGHT.getStringValue())){
 			try {
 				testPanel.showAnswer(message, QuestionPanelSelect.Answer.RIGHT, isCorrect);
 			} catch (IOException e) {
@@ -258,47 +149,6 @@ public class PreKTestFractions implements TestableObserver{
 		}
 	}
 	
-	/**
-	 * Used to initialize the halfPaths and wholePaths arrays.
-	 */
-	private void initArrays(){
-		halfPaths       = new ArrayList<String>();
-		wholePaths      = new ArrayList<String>();
-		for(Images image:Images.values()){
-			halfPaths.add(image.getFileName());
-			wholePaths.add(image.getFileName());
-		}
-	}
-	
-	/**
-	 * Used to set maxNumberOfQuestions to the number specified by difficulty.
-	 *  See class difficulty setting constants.
-	 */
-	private void setDifficulty(){
-		switch(difficulty){
-			case EASY:   maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
-			case NORMAL: maxNumberOfQuestions = NORM_MAX_QUESTIONS; break;
-			case HARD:   maxNumberOfQuestions = HARD_MAX_QUESTIONS; break;
-			default:     maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
-		}
-	}
-	
-	/**
-	 * A helper method, used to obtain a random int between lowestValue and highestValue
-	 *  (inclusive).
-	 * @param lowestValue The lowest int value that the random number generator may return.
-	 * @param highestValue The highest int value that the random number generator may return.
-	 * @return A random int between lowestValue and highestValue (inclusive).
-	 */
-	private int getRandomInt(int lowestValue, int highestValue) {
-		if(lowestValue > highestValue){
-			int temp     = highestValue;
-			highestValue = lowestValue;
-			lowestValue  = temp;
-		}
-	    return rng.nextInt((highestValue - lowestValue) + 1) + lowestValue;
-	}
-
 	/**
 	 * Used to compare a user's answer to the question's correct answer. Increments
 	 *  numCorrect if the user's answer was correct. Returns true if the user's answer
@@ -307,36 +157,15 @@ public class PreKTestFractions implements TestableObserver{
 	 * @return A boolean indicating true if the user's answer was correct; false otherwise.
 	 */
 	private boolean checkAnswer(String answer){
-		if(answer.equals(answerString)){
+		if(generator.checkAnswer(answer)){
 			numCorrect++;
 			return true;
 		}else{
-			logWrongAnswer();
+			wrongAnswers.add(generator.getLogEntry(answer));
 			return false;
 		}
 	}
 	
-	/**
-	 * A helper method, used to create a String that describes an incorrectly answered question.
-	 *  Adds the created String to the wrongAnswers ArrayList.
-	 */
-	private void logWrongAnswer(){
-		String entry;
-		String question;
-		if(questionType == HALF){
-			question = "Question " + (currentQuestionNum - 1) + ": Fraction(Which is half "
-							+ aOrAn(imageName) + " " + imageName.toLowerCase() + "?)";
-			entry    = question + " Student Answer: (A whole " + imageName.toLowerCase() + ")"
-					    	+ " Correct Answer: (Half " + aOrAn(imageName) + " " + imageName.toLowerCase() + ").";
-		}else{
-			question = "Question " + (currentQuestionNum - 1) + ": Fraction(Which is a whole "
-							+ imageName.toLowerCase() + "?)";
-			entry    = question + " Student Answer: (Half " + aOrAn(imageName) + " " + imageName.toLowerCase()
-						+ ")" + " Correct Answer: (A whole " + imageName.toLowerCase() + ").";
-		}
-		wrongAnswers.add(entry);
-	}
-	
 	/**
 	 * Used to create a text file containing all questions, user answers, and correct answers
 	 *  for all questions that the user answered incorrectly. If the user did not answer any
@@ -379,7 +208,7 @@ public class PreKTestFractions implements TestableObserver{
 		//If the user didn't answer, do nothing, else check the answer.
 		else if(!(answer.equals(QuestionPanelSelect.Answer.NONE.getStringValue()))){
 			checkAnswer(answer);
-			if(currentQuestionNum <= maxNumberOfQuestions){
+			if(generator.hasNextQuestion()){
 				askQuestion();
 			}else{
 				testPanel.tearDown();
@@ -387,6 +216,8 @@ public class PreKTestFractions implements TestableObserver{
 					clip.stop();
 				try {
 					int grade = getGrade();
+					manager.recordAttempt(TEST_BUTTON, difficulty, numCorrect, maxNumberOfQuestions,
+							System.currentTimeMillis() - startTime, seed);
 					boolean isBetter = isBetterGrade(numCorrect);
 					String fileName = "Fractions(" + difficulty.getName() + ")";
 					if(isBetter)
@@ -403,7 +234,7 @@ public class PreKTestFractions implements TestableObserver{
 	@Override
 	public void nextClicked() {
 		if(isPractice){
-			if(currentQuestionNum <= maxNumberOfQuestions){
+			if(generator.hasNextQuestion()){
 				askQuestion();
 			}else{
 				if(clip.isActive())
@@ -449,52 +280,4 @@ public class PreKTestFractions implements TestableObserver{
 			}
 		}
 	}
-	
-	/**
-	 * This enum is used to associate & store image file names & image names to a constant.
-	 * @author Kenneth Chin
-	 */
-	private enum Images{
-		APPLE   ("Apple"      , "apple.png"),
-		COOKIE  ("Cookie"     , "cookie.png"),
-		DOLLAR  ("Dollar"     , "dollar.png"),
-		QUARTER ("Quarter"    , "quarter.png"),
-		PIZZA   ("Pizza"      , "pizza.png"),
-		RAINBOW ("Rainbow"    , "rainbow.png"),
-		SHIRT   ("Shirt"      , "shirt.png"),
-		BIKE    ("Bicycle"    , "bike.png"),
-		GLASSES ("Eye Glasses", "eye_glasses.png"),
-		SCISSORS("Scissors"   , "scissors.png"),
-		MOON    ("Moon"       , "moon.png"),
-		WATER   ("Water"      , "water.png");
-		
-		private String fileName;
-		private String name;
-		
-		/**
-		 * The Images constructor.
-		 * @param name A String describing the image.
-		 * @param fileName A String describing the image's file name.
-		 */
-		private Images(String name, String fileName){
-			this.fileName = fileName;
-			this.name     = name;
-		}
-		
-		/**
-		 * Used to obtain a String describing this image's file name.
-		 * @return A String describing this image's file name.
-		 */
-		public String getFileName(){
-			return fileName;
-		}
-		
-		/**
-		 * Used to obtain a String describing this image's name.
-		 * @return A String describing this image's name.
-		 */
-		public String getName(){
-			return name;
-		}
-	}
 }
\ No newline at end of file
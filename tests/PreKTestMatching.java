@@ -30,7 +30,6 @@ import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 
 import project.buttons.PreKModuleSelectTestButtons;
-import project.constants.AppleBoard;
 import project.constants.DifficultyLevel;
 import project.interfaces.ModuleSelectButtonInterface;
 import project.interfaces.TestableObserver;
@@ -45,36 +44,22 @@ import project.tools.TextFileMaker;
  *  panels, each with a quantity of some object. A student is asked to select the panel that has the
  *  same number of objects as specified in a question, then click the "Submit" button. While a student
  *  may be asked to match the same number multiple times, the combination of panel quantities will
- *  never be used twice.
+ *  never be used twice. Questions are generated by a PreKMatchingGenerator.
  * @author Kenneth Chin
  */
 public class PreKTestMatching implements TestableObserver{
 	
 	//The ModuleSelectButtonInterface that describes this test.
 	private static final ModuleSelectButtonInterface TEST_BUTTON = PreKModuleSelectTestButtons.Button.MATCHING;
-
-	private static final int LOWEST_INT    = 0;         //MUST be zero.
-	private static final int HIGHEST_INT   = 10;        //The highest value that may be asked in a question.
-	
-	//Difficulty settings. Note: MUST be less than the maximum number of question permutations.
-	private static final int EASY_MAX_QUESTIONS = 10;   //The maximum number of questions for the "Easy" difficulty.
-	private static final int NORM_MAX_QUESTIONS = 15;   //The maximum number of questions for the "Normal" difficulty.
-	private static final int HARD_MAX_QUESTIONS = 20;   //The maximum number of questions for the "Hard" difficulty.
-	private int maxNumberOfQuestions = EASY_MAX_QUESTIONS; //The actual maximum number of questions for this test.
 	
-	private Random rng = new Random(System.currentTimeMillis()); //A random number generator.
+	private int maxNumberOfQuestions; //The actual maximum number of questions for this test.
+	private PreKMatchingGenerator generator; //Generates and checks the questions that are asked.
+	private long seed; //The seed of the generator's Random. Recorded with the attempt, so it can be replayed.
 
 	private boolean isPractice = false;   //Used to indicate that this test is a practice test.
+	private long startTime = System.currentTimeMillis(); //The time that this test was started.
 	private DifficultyLevel difficulty;   //The current DifficultyLevel of this test.
 	
-	private int currentQuestionNum = 1;   //The current question number.
-	private ArrayList<String> imagePaths; //The file paths of all AppleBoard images, in the order of the enum.
-	//The set (correctAnswer, wrongAnswer). Used to determine if a correct answer's panel was used
-	//  with a wrongAnswer's panel.
-	private boolean[][] isNumberSetUsed = new boolean[(HIGHEST_INT + 2)][(HIGHEST_INT + 2)];
-	private int correctAnswer;   //The value and index of the panel that is correct.
-	private int wrongAnswer;     //The value and index of the panel that is incorrect.
-	private String answerString; //The correct answer's panel String ("left" or "right").
 	private int numCorrect = 0;  //The number of correct answers obtained from the user.
 	private ArrayList<String> wrongAnswers = new ArrayList<String>(); //Used to track incorrect answers.
 	
@@ -97,11 +82,12 @@ public class PreKTestMatching implements TestableObserver{
 		this.isPractice = isPractice;
 		this.difficulty = difficulty;
 		
-		setDifficulty();
+		this.seed       = manager.nextTestSeed();
+		this.generator  = new PreKMatchingGenerator(difficulty, new Random(seed));
+		maxNumberOfQuestions = generator.getMaxNumberOfQuestions();
 		testPanel = new QuestionPanelSelect(mainWindow, maxNumberOfQuestions);
 		testPanel.registerObserver(this);
 		
-		initArrays();
 		playTutorial();
 		askQuestion();
 	}
@@ -125,45 +111,10 @@ public class PreKTestMatching implements TestableObserver{
 	 * Used to create and display the next question.
 	 */
 	private void askQuestion(){
-		getValues();
-		makeQuestion();
-		currentQuestionNum++;
-	}
-	
-	/**
-	 * Used to obtain an unused combination of panel quantities.
-	 */
-	private void getValues(){
-		do{
-			correctAnswer = getRandomInt(LOWEST_INT, HIGHEST_INT);
-			wrongAnswer   = getRandomInt(LOWEST_INT, HIGHEST_INT);
-		}while(correctAnswer == wrongAnswer || isUsedQuestion(correctAnswer, wrongAnswer));
-		isNumberSetUsed[correctAnswer][wrongAnswer] = true;
-	}
-	
-	/**
-	 * Used to generate question text, and randomize the panel order (left or right).
-	 * Displays the question and two panels.
-	 */
-	private void makeQuestion(){
-		String question    = "Which picture shows " + correctAnswer;
-		question += (correctAnswer == 1) ? " apple?" : " apples?";
-		AppleBoard[] board = AppleBoard.values();
-		String leftImagePath;
-		String rightImagePath;
-		int answerLoc = getRandomInt(0, 1);
-		if(answerLoc == 0){
-			answerString   = QuestionPanelSelect.Answer.LEFT.getStringValue();
-			leftImagePath  = board[correctAnswer].getPath();
-			rightImagePath = board[wrongAnswer].getPath();
-		}
-		else{
-			answerString   = QuestionPanelSelect.Answer.RIGHT.getStringValue();
-			leftImagePath  = board[wrongAnswer].getPath();
-			rightImagePath = board[correctAnswer].getPath();
-		}
+		generator.nextQuestion();
 		try {
-			testPanel.showQuestion(question, (currentQuestionNum), leftImagePath, rightImagePath);
+			testPanel.showQuestion(generator.getQuestion(), generator.getQuestionNumber(),
+					generator.getLeftImagePath(), generator.getRightImagePath());
 		} catch (IOException e) {
 			manager.handleException(e);
 		}
@@ -177,13 +128,13 @@ public class PreKTestMatching implements TestableObserver{
 	private void showAnswer(String answer){
 		boolean isCorrect = checkAnswer(answer);
 		String  message = (isCorrect) ? "Correct!" : "Incorrect! The correct answer does not have an X through it.";
-		if(answerString.equals(QuestionPanelSelect.Answer.LEFT.getStringValue())){
+		if(generator.getCorrectAnswer().equals(QuestionPanelSelect.Answer.LEFT.getStringValue())){
 			try {
 				testPanel.showAnswer(message, QuestionPanelSelect.Answer.LEFT, isCorrect);
 			} catch (IOException e) {
 				manager.handleException(e);
 			}
-		}else if(answerString.equals(QuestionPanelSelect.Answer.RIGHT.getStringValue())){
+		}else if(generator.getCorrectAnswer().equals(QuestionPanelSelect.Answer.RIGHT.getStringValue())){
 			try {
 				testPanel.showAnswer(message, QuestionPanelSelect.Answer.RIGHT, isCorrect);
 			} catch (IOException e) {
@@ -198,63 +149,6 @@ public class PreKTestMatching implements TestableObserver{
 		}
 	}
 	
-	/**
-	 * Used to determine if the combination of numberToMatch and aDifferentNumber
-	 *  has been used in a previous question.
-	 * @param numberToMatch An int. The number that the user is asked to match.
-	 * @param aDifferentNumber An int. The number of objects on the panel that does not have the
-	 *  quantity that the user is asked to match.
-	 * @return A boolean. True if the combination of numberToMatch and aDifferentNumber
-	 *  has been used in a previous question; false otherwise.
-	 */
-	private boolean isUsedQuestion(int numberToMatch, int aDifferentNumber){
-		return isNumberSetUsed[numberToMatch][aDifferentNumber];
-	}
-	
-	/**
-	 * Used to initialize the imagePaths and isNumberSetUsed arrays. The imagePaths arrays are
-	 *  set to the values specified in the AppleBoard enum. The isNumberSetUsed array is set
-	 *  to prevent equal number combinations from being asked (asked to match 5, but both panels
-	 *  would show 5 objects).
-	 */
-	private void initArrays(){
-		imagePaths       = new ArrayList<String>();
-		AppleBoard[] board = AppleBoard.values();
-		for(int i = 0; i < board.length; i++){
-			imagePaths.add(board[i].getPath());
-			isNumberSetUsed[i][i] = true;
-		}
-	}
-	
-	/**
-	 * Used to set maxNumberOfQuestions to the number specified by difficulty.
-	 *  See class difficulty setting constants.
-	 */
-	private void setDifficulty(){
-		switch(difficulty){
-			case EASY:   maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
-			case NORMAL: maxNumberOfQuestions = NORM_MAX_QUESTIONS; break;
-			case HARD:   maxNumberOfQuestions = HARD_MAX_QUESTIONS; break;
-			default:     maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
-		}
-	}
-	
-	/**
-	 * A helper method, used to obtain a random int between lowestValue and highestValue
-	 *  (inclusive).
-	 * @param lowestValue The lowest int value that the random number generator may return.
-	 * @param highestValue The highest int value that the random number generator may return.
-	 * @return A random int between lowestValue and highestValue (inclusive).
-	 */
-	private int getRandomInt(int lowestValue, int highestValue) {
-		if(lowestValue > highestValue){
-			int temp     = highestValue;
-			highestValue = lowestValue;
-			lowestValue  = temp;
-		}
-	    return rng.nextInt((highestValue - lowestValue) + 1) + lowestValue;
-	}
-
 	/**
 	 * Used to compare a user's answer to the question's correct answer. Increments
 	 *  numCorrect if the user's answer was correct. Returns true if the user's answer
@@ -263,26 +157,15 @@ public class PreKTestMatching implements TestableObserver{
 	 * @return A boolean indicating true if the user's answer was correct; false otherwise.
 	 */
 	private boolean checkAnswer(String answer){
-		if(answer.equals(answerString)){
+		if(generator.checkAnswer(answer)){
 			numCorrect++;
 			return true;
 		}else{
-			logWrongAnswer();
+			wrongAnswers.add(generator.getLogEntry(answer));
 			return false;
 		}
 	}
 	
-	/**
-	 * A helper method, used to create a String that describes an incorrectly answered question.
-	 *  Adds the created String to the wrongAnswers ArrayList.
-	 */
-	private void logWrongAnswer(){
-		String question = "Question " + (currentQuestionNum - 1) + ": Match(" + correctAnswer + ")";
-		String entry    = question + " Student Answer: (" + wrongAnswer + ")"
-								   + " Correct Answer: (" + correctAnswer + ").";
-		wrongAnswers.add(entry);
-	}
-	
 	/**
 	 * Used to create a text file containing all questions, user answers, and correct answers
 	 *  for all questions that the user answered incorrectly. If the user did not answer any
@@ -325,7 +208,7 @@ public class PreKTestMatching implements TestableObserver{
 		//If the user didn't answer, do nothing, else check the answer.
 		else if(!(answer.equals(QuestionPanelSelect.Answer.NONE.getStringValue()))){
 			checkAnswer(answer);
-			if(currentQuestionNum <= maxNumberOfQuestions){
+			if(generator.hasNextQuestion()){
 				askQuestion();
 			}else{
 				testPanel.tearDown();
@@ -333,6 +216,8 @@ public class PreKTestMatching implements TestableObserver{
 					clip.stop();
 				try {
 					int grade = getGrade();
+					manager.recordAttempt(TEST_BUTTON, difficulty, numCorrect, maxNumberOfQuestions,
+							System.currentTimeMillis() - startTime, seed);
 					boolean isBetter = isBetterGrade(numCorrect);
 					String fileName = "Matching(" + difficulty.getName() + ")";
 					if(isBetter)
@@ -349,7 +234,7 @@ public class PreKTestMatching implements TestableObserver{
 	@Override
 	public void nextClicked() {
 		if(isPractice){
-			if(currentQuestionNum <= maxNumberOfQuestions){
+			if(generator.hasNextQuestion()){
 				askQuestion();
 			}else{
 				if(clip.isActive())
@@ -13,7 +13,6 @@ import javax.swing.JOptionPane;
 
 import project.buttons.PreKModuleSelectTestButtons;
 import project.constants.DifficultyLevel;
-import project.constants.SequenceBoard;
 import project.interfaces.ModuleSelectButtonInterface;
 import project.interfaces.TestableObserver;
 import project.run.GUIManager;
@@ -27,31 +26,14 @@ public class PreKTestSequences implements TestableObserver{
 	//The ModuleSelectButtonInterface that describes this test.
 	private static final ModuleSelectButtonInterface TEST_BUTTON = PreKModuleSelectTestButtons.Button.SEQUENCES;
 	
-	//Index representations of 1st, 2nd, 3rd... The lowest and highest sequence position as array indexes.
-	private static final int LOWEST_INT    = 0;        //MUST be zero. The lowest index of the boards array.
-	private static final int HIGHEST_INT   = 4;        //The highest index of the boards array.
-	
-	//Difficulty settings. Note: MUST be less than the maximum number of question permutations.
-	//Since the number of permutations for n=5, r=2, given P(n,r) = n!/(n-r)! is 20, HARD_MAX_QUESTIONS
-	// is set to 15.
-	private static final int EASY_MAX_QUESTIONS = 8;    //The maximum number of questions for the "Easy" difficulty.
-	private static final int NORM_MAX_QUESTIONS = 12;   //The maximum number of questions for the "Normal" difficulty.
-	private static final int HARD_MAX_QUESTIONS = 15;   //The maximum number of questions for the "Hard" difficulty.
-	private int maxNumberOfQuestions = EASY_MAX_QUESTIONS; //The actual maximum number of questions for this test.
-	
-	private Random rng = new Random(System.currentTimeMillis()); //A random number generator.
+	private int maxNumberOfQuestions; //The actual maximum number of questions for this test.
+	private PreKSequencesGenerator generator; //Generates and checks the questions that are asked.
+	private long seed; //The seed of the generator's Random. Recorded with the attempt, so it can be replayed.
 
 	private boolean isPractice = false;   //Used to indicate that this test is a practice test.
+	private long startTime = System.currentTimeMillis(); //The time that this test was started.
 	private DifficultyLevel difficulty;   //The current DifficultyLevel of this test.
 	
-	private int currentQuestionNum = 1;   //The current question number.
-	private SequenceBoard[] boards = SequenceBoard.values(); //An array of all SequenceBoard enums.
-	//The set (correctAnswer, wrongAnswer). Used to determine if a correct answer's panel was used
-	//  with a wrongAnswer's panel.
-	private boolean[][] isNumberSetUsed = new boolean[(HIGHEST_INT + 1)][(HIGHEST_INT + 1)];
-	private int correctAnswer;   //The index of the panel that is correct.
-	private int wrongAnswer;     //The index of the panel that is incorrect.
-	private String answerString; //The correct answer's panel String ("left" or "right").
 	private int numCorrect = 0;  //The number of correct answers obtained from the user.
 	private ArrayList<String> wrongAnswers = new ArrayList<String>(); //Used to track incorrect answers.
 	
@@ -74,11 +56,12 @@ public class PreKTestSequences implements TestableObserver{
 		this.isPractice = isPractice;
 		this.difficulty = difficulty;
 		
-		setDifficulty();
+		this.seed       = manager.nextTestSeed();
+		this.generator  = new PreKSequencesGenerator(difficulty, new Random(seed));
+		maxNumberOfQuestions = generator.getMaxNumberOfQuestions();
 		testPanel = new QuestionPanelSelect(mainWindow, maxNumberOfQuestions);
 		testPanel.registerObserver(this);
 		
-		initArrays();
 		playTutorial();
 		askQuestion();
 	}
@@ -103,45 +86,10 @@ public class PreKTestSequences implements TestableObserver{
 	 * Used to create and display the next question.
 	 */
 	private void askQuestion(){
-		getValues();
-		makeQuestion();
-		currentQuestionNum++;
-	}
-	
-	/**
-	 * Used to obtain an unused combination of panel arrangements.
-	 */
-	private void getValues(){
-		do{
-			correctAnswer = getRandomInt(LOWEST_INT, HIGHEST_INT);
-			wrongAnswer   = getRandomInt(LOWEST_INT, HIGHEST_INT);
-		}while(correctAnswer == wrongAnswer || isUsedQuestion(correctAnswer, wrongAnswer));
-		isNumberSetUsed[correctAnswer][wrongAnswer] = true;
-	}
-	
-	/**
-	 * Used to generate question text, and randomize the panel order (left or right).
-	 * Displays the question and two panels.
-	 */
-	private void makeQuestion(){
-		String question    = "Which picture shows the orange in <b><u>"
-							+ boards[correctAnswer].getName().toLowerCase()
-							+ "</u></b> place, from left to right?";
-		String leftImagePath;
-		String rightImagePath;
-		int answerLoc = getRandomInt(0, 1);
-		if(answerLoc == 0){
-			answerString   = QuestionPanelSelect.Answer.LEFT.getStringValue();
-			leftImagePath  = boards[correctAnswer].getPath();
-			rightImagePath = boards[wrongAnswer].getPath();
-		}
-		else{
-			answerString   = QuestionPanelSelect.Answer.RIGHT.getStringValue();
-			leftImagePath  = boards[wrongAnswer].getPath();
-			rightImagePath = boards[correctAnswer].getPath();
-		}
+		generator.nextQuestion();
 		try {
-			testPanel.showQuestion(question, (currentQuestionNum), leftImagePath, rightImagePath);
+			testPanel.showQuestion(generator.getQuestion(), generator.getQuestionNumber(),
+					generator.getLeftImagePath(), generator.getRightImagePath());
 		} catch (IOException e) {
 			manager.handleException(e);
 		}
@@ -155,13 +103,13 @@ public class PreKTestSequences implements TestableObserver{
 	private void showAnswer(String answer){
 		boolean isCorrect = checkAnswer(answer);
 		String  message = (isCorrect) ? "Correct!" : "Incorrect! The correct answer does not have an X through it.";
-		if(answerString.equals(QuestionPanelSelect.Answer.LEFT.getStringValue())){
+		if(generator.getCorrectAnswer().equals(QuestionPanelSelect.Answer.LEFT.getStringValue())){
 			try {
 				testPanel.showAnswer(message, QuestionPanelSelect.Answer.LEFT, isCorrect);
 			} catch (IOException e) {
 				manager.handleException(e);
 			}
-		}else if(answerString.equals(QuestionPanelSelect.Answer.RIGHT.getStringValue())){
+		}else if(generator.getCorrectAnswer().equals(QuestionPanelSelect.Answer.RIGHT.getStringValue())){
 			try {
 				testPanel.showAnswer(message, QuestionPanelSelect.Answer.RIGHT, isCorrect);
 			} catch (IOException e) {
@@ -176,58 +124,6 @@ public class PreKTestSequences implements TestableObserver{
 		}
 	}
 	
-	/**
-	 * Used to determine if the combination of panelToMatch and aDifferentpanel
-	 *  has been used in a previous question.
-	 * @param panelToMatch An int. The index of the "boards" array that the user is asked to match.
-	 * @param aDifferentpanel An int. The index of the "boards" array that represents a "wrong" answer.
-	 * @return A boolean. True if the combination of panelToMatch and aDifferentpanel
-	 *  has been used in a previous question; false otherwise.
-	 */
-	private boolean isUsedQuestion(int panelToMatch, int aDifferentpanel){
-		return isNumberSetUsed[panelToMatch][aDifferentpanel];
-	}
-	
-	/**
-	 * Used to initialize the isNumberSetUsed array. The isNumberSetUsed array is set
-	 *  to prevent the same panel from being shown as both a correct and incorrect answer
-	 *  (asked to match 5th, but both panels would show images with objects in the 5th position).
-	 */
-	private void initArrays(){
-		for(int i = 0; i < boards.length; i++){
-			isNumberSetUsed[i][i] = true;
-		}
-	}
-	
-	/**
-	 * Used to set maxNumberOfQuestions to the number specified by difficulty.
-	 *  See class difficulty setting constants.
-	 */
-	private void setDifficulty(){
-		switch(difficulty){
-			case EASY:   maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
-			case NORMAL: maxNumberOfQuestions = NORM_MAX_QUESTIONS; break;
-			case HARD:   maxNumberOfQuestions = HARD_MAX_QUESTIONS; break;
-			default:     maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
-		}
-	}
-	
-	/**
-	 * A helper method, used to obtain a random int between lowestValue and highestValue
-	 *  (inclusive).
-	 * @param lowestValue The lowest int value that the random number generator may return.
-	 * @param highestValue The highest int value that the random number generator may return.
-	 * @return A random int between lowestValue and highestValue (inclusive).
-	 */
-	private int getRandomInt(int lowestValue, int highestValue) {
-		if(lowestValue > highestValue){
-			int temp     = highestValue;
-			highestValue = lowestValue;
-			lowestValue  = temp;
-		}
-	    return rng.nextInt((highestValue - lowestValue) + 1) + lowestValue;
-	}
-
 	/**
 	 * Used to compare a user's answer to the question's correct answer. Increments
 	 *  numCorrect if the user's answer was correct. Returns true if the user's answer
@@ -236,27 +132,15 @@ public class PreKTestSequences implements TestableObserver{
 	 * @return A boolean indicating true if the user's answer was correct; false otherwise.
 	 */
 	private boolean checkAnswer(String answer){
-		if(answer.equals(answerString)){
+		if(generator.checkAnswer(answer)){
 			numCorrect++;
 			return true;
 		}else{
-			logWrongAnswer();
+			wrongAnswers.add(generator.getLogEntry(answer));
 			return false;
 		}
 	}
 	
-	/**
-	 * A helper method, used to create a String that describes an incorrectly answered question.
-	 *  Adds the created String to the wrongAnswers ArrayList.
-	 */
-	private void logWrongAnswer(){
-		String question = "Question " + (currentQuestionNum - 1) + ": Find the image that shows (" 
-									 + boards[correctAnswer].getName() + ") place.";
-		String entry    = question + " Student Answer: (" + boards[wrongAnswer].getName() + ")"
-								   + " Correct Answer: (" + boards[correctAnswer].getName() + ").";
-		wrongAnswers.add(entry);
-	}
-	
 	/**
 	 * Used to create a text file containing all questions, user answers, and correct answers
 	 *  for all questions that the user answered incorrectly. If the user did not answer any
@@ -299,7 +183,7 @@ public class PreKTestSequences implements TestableObserver{
 		//If the user didn't answer, do nothing, else check the answer.
 		else if(!(answer.equals(QuestionPanelSelect.Answer.NONE.getStringValue()))){
 			checkAnswer(answer);
-			if(currentQuestionNum <= maxNumberOfQuestions){
+			if(generator.hasNextQuestion()){
 				askQuestion();
 			}else{
 				testPanel.tearDown();
@@ -307,6 +191,8 @@ public class PreKTestSequences implements TestableObserver{
 					clip.stop();
 				try {
 					int grade = getGrade();
+					manager.recordAttempt(TEST_BUTTON, difficulty, numCorrect, maxNumberOfQuestions,
+							System.currentTimeMillis() - startTime, seed);
 					boolean isBetter = isBetterGrade(numCorrect);
 					String fileName = "Sequences(" + difficulty.getName() + ")";
 					if(isBetter)
@@ -323,7 +209,7 @@ public class PreKTestSequences implements TestableObserver{
 	@Override
 	public void nextClicked() {
 		if(isPractice){
-			if(currentQuestionNum <= maxNumberOfQuestions){
+			if(generator.hasNextQuestion()){
 				askQuestion();
 			}else{
 				if(clip.isActive())
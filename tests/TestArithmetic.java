@@ -29,9 +29,8 @@ import javax.sound.sampled.Clip;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 
-import project.buttons.PreKModuleSelectTestButtons;
 import project.constants.DifficultyLevel;
-import project.constants.Operator;
+import project.interfaces.EquationGenerator;
 import project.interfaces.ModuleSelectButtonInterface;
 import project.interfaces.TestableObserver;
 import project.run.GUIManager;
@@ -41,40 +40,26 @@ import project.tools.QuestionPanelText;
 import project.tools.TextFileMaker;
 
 /**
- * This class is used to test PreK-K students on Addition and Subtraction skills for integers
- *  ranging from 0 to 10. No question will result in a negative answer. No two questions will
- *  be the same. Students will answer a question via a text box and "Submit" button.
+ * This class is used to test students on Addition and Subtraction skills. No question will result in
+ *  a negative answer. No two questions will be the same. Students will answer a question via a text
+ *  box and "Submit" button. Questions are generated by an EquationGenerator: a PreKArithmeticGenerator
+ *  for PreK-K students (integers ranging from 0 to 10), or a GradeArithmeticGenerator for Grade 1-2 and
+ *  Grade 3-4 students (multi-digit integers of up to 9999).
  * @author Kenneth Chin
  */
-public class PreKTestArithmetic implements TestableObserver{
+public class TestArithmetic implements TestableObserver{
 	
-	//The ModuleSelectButtonInterface that describes this test.
-	private static final ModuleSelectButtonInterface TEST_BUTTON = PreKModuleSelectTestButtons.Button.ARITHMETIC;
-	
-	private static final int LOWEST_INT       = 0;      //MUST always be zero!
-	private static final int HIGHEST_INT      = 10;     //The highest value int that may be tested.
-	private static final int NUM_OF_OPERATORS = 2;      //The number of Operators to test. See TODO in constructor.
-	
-	//Difficulty settings. Note: MUST be less than the maximum number of question permutations.
-	private static final int EASY_MAX_QUESTIONS = 10;   //The maximum number of questions for the "Easy" difficulty.
-	private static final int NORM_MAX_QUESTIONS = 15;   //The maximum number of questions for the "Normal" difficulty.
-	private static final int HARD_MAX_QUESTIONS = 20;   //The maximum number of questions for the "Hard" difficulty.
-	private int maxNumberOfQuestions = EASY_MAX_QUESTIONS; //The actual maximum number of questions for this test.
-	
-	private Random rng = new Random(System.currentTimeMillis()); //A random number generator.
+	private ModuleSelectButtonInterface testButton; //The ModuleSelectButtonInterface that describes this test.
+	private int maxNumberOfQuestions; //The actual maximum number of questions for this test.
+	private EquationGenerator generator; //Generates and checks the questions that are asked.
+	private long seed; //The seed of the generator's Random. Recorded with the attempt, so it can be replayed.
 
 	private boolean isPractice = false;   //Used to indicate that this test is a practice test.
+	private long startTime = System.currentTimeMillis(); //The time that this test was started.
 	private DifficultyLevel difficulty;   //The current DifficultyLevel of this test.
 	
-	private int currentQuestionNum = 1;   //The current number of questions that have been asked.
-	
-	//The set of all possible questions that may be asked, associated with a boolean indicating if
-	// the question has been asked.
-	private boolean[][][] isNumberSetUsed = new boolean[(HIGHEST_INT + 2)][(HIGHEST_INT + 2)][NUM_OF_OPERATORS];
-	private int currentAnswer;  //The answer to the current question.
 	private int numCorrect = 0; //The number of correctly answered questions.
 	private ArrayList<String> wrongAnswers = new ArrayList<String>(); //Used to track incorrect answers.
-	private String currentQuestion; //The current question in String form.
 	
 	private QuestionPanelText testPanel; //The QuestionPanelText used to ask questions.
 	private Clip clip; //The audio clip used to play the tutorial sounds.
@@ -83,22 +68,26 @@ public class PreKTestArithmetic implements TestableObserver{
 	private MainWindow mainWindow; //The MainWindow that is to have questions displayed on.
 	
 	/**
-	 * The PreKTestAritmetic constructor. Creates and displays an Arithmetic test for PreK-K students.
+	 * The TestArithmetic constructor. Creates and displays an Arithmetic test.
 	 * @param manager The GUIManager that manages the primary MainWindow & all GUI screens.
+	 * @param testButton The ModuleSelectButtonInterface that describes this test. Its grades are recorded.
+	 * @param generators The EquationGenerator.Factory that creates the generator of this test's questions,
+	 *  ex. PreKArithmeticGenerator.FACTORY or GradeArithmeticGenerator.factory(gradeLevel).
 	 * @param isPractice A boolean indicating true if this test is a practice test, false otherwise.
 	 * @param difficulty The DifficultyLevel of this test.
 	 * @throws IOException Thrown if any image file is missing.
 	 */
-	public PreKTestArithmetic(GUIManager manager, boolean isPractice, DifficultyLevel difficulty) throws IOException{
+	public TestArithmetic(GUIManager manager, ModuleSelectButtonInterface testButton,
+			EquationGenerator.Factory generators, boolean isPractice, DifficultyLevel difficulty) throws IOException{
 		this.manager    = manager;
+		this.testButton = testButton;
 		this.mainWindow = manager.getMainWindow();
 		this.isPractice = isPractice;
 		this.difficulty = difficulty;
-		setDifficulty();
+		this.seed       = manager.nextTestSeed();
+		this.generator  = generators.newGenerator(difficulty, new Random(seed));
+		maxNumberOfQuestions = generator.getMaxNumberOfQuestions();
 		
-		//TODO enable this if(NUM_OF_OPERATORS >= 4. May implement if Division is to be supported.
-		//if(NUM_OF_OPERATORS >= 4)
-		//	initSetUsed();
 		testPanel = new QuestionPanelText(mainWindow, maxNumberOfQuestions);
 		testPanel.registerObserver(this);
 		playTutorial();
@@ -120,100 +109,15 @@ public class PreKTestArithmetic implements TestableObserver{
 	    }
 	}
 	
-	/**
-	 * Used to set maxNumberOfQuestions to the number specified by difficulty.
-	 *  See class difficulty setting constants.
-	 */
-	private void setDifficulty(){
-		switch(difficulty){
-			case EASY:   maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
-			case NORMAL: maxNumberOfQuestions = NORM_MAX_QUESTIONS; break;
-			case HARD:   maxNumberOfQuestions = HARD_MAX_QUESTIONS; break;
-			default:     maxNumberOfQuestions = EASY_MAX_QUESTIONS; break;
-		}
-	}
-	
-	/**
-	 * A helper method, used to obtain a random int between lowestValue and highestValue
-	 *  (inclusive).
-	 * @param lowestValue The lowest int value that the random number generator may return.
-	 * @param highestValue The highest int value that the random number generator may return.
-	 * @return A random int between lowestValue and highestValue (inclusive).
-	 */
-	private int getRandomInt(int lowestValue, int highestValue){
-		//Swap the numbers if they are backwards.
-		if(lowestValue > highestValue){
-			int temp     = highestValue;
-			highestValue = lowestValue;
-			lowestValue  = temp;
-		}
-	    return rng.nextInt((highestValue - lowestValue) + 1) + lowestValue;
-	}
-	
-	/**
-	 * A helper method used to determine if a number set has been used in a question.
-	 * (Honestly, it's just to help the writer to remember what the indexes are supposed to represent.)
-	 * @param operandIndex1 The index of the first operand in the question.
-	 * @param operandIndex2 The index of the second operand in the question.
-	 * @param operatorIndex The index of the operator, equal to its index in Operator.values().
-	 * @return A boolean indicating true if this number set has been asked in a question. False otherwise.
-	 */
-	private boolean isUsedQuestion(int operandIndex1, int operandIndex2, int operatorIndex){
-		return isNumberSetUsed[operandIndex1][operandIndex2][operatorIndex];
-	}
-	
 	/**
 	 * Used to display a question in the MainWindow. Generates an unused set of two operands and an
 	 *  operator (Addition or Subtraction), then displays the question.
 	 */
 	private void makeAndShowQuestion(){
-		int operand1;
-		int operand2;
-		int operatorIndex;
-		Operator operator;
-		int tempAnswer;
-		do{
-			operand1      = getRandomInt(LOWEST_INT, HIGHEST_INT);
-			operand2      = getRandomInt(LOWEST_INT, HIGHEST_INT);
-			operatorIndex = getRandomInt(LOWEST_INT, (NUM_OF_OPERATORS - 1));
-			operator      = getOperator(operatorIndex);
-			tempAnswer    = operator.doAction(operand1, operand2);
-			//Prevent negative answers.
-			if(tempAnswer < 0)
-				isNumberSetUsed[operand1][operand2][operatorIndex] = true;
-		}while(isUsedQuestion(operand1, operand2, operatorIndex));
-		
-		currentQuestion   = operand1 + " " + operator.getSymbol() + " " + operand2;
-		currentAnswer     = operator.doAction(operand1, operand2);
-		isNumberSetUsed[operand1][operand2][operatorIndex] = true;
-		showQuestion(operand1, operand2, operator);
-	}
-	
-	/**
-	 * A helper method used to display a question in the MainWindow.
-	 * @param operand1 An int. The first operand.
-	 * @param operand2 An int. The second operand.
-	 * @param operator An Operator, as defined by the Operator enum.
-	 */
-	private void showQuestion(int operand1, int operand2, Operator operator){
+		generator.nextQuestion();
 		String question = "Solve: <br><br>";
-		testPanel.showEquation(question, (currentQuestionNum), operand1, operand2, operator);
-		currentQuestionNum++;
-	}
-	
-	/**
-	 * A helper method used to associate a randomly generated int to an Operator type.
-	 * @param operatorIndex The index of an Operator as returned by Operator.values().
-	 * @return The Operator type specified by the given index.
-	 */
-	private Operator getOperator(int operatorIndex){
-		switch(operatorIndex){
-			case  0: return Operator.ADD;
-			case  1: return Operator.SUBTRACT;
-			//case  2: return Operator.MULTIPLY;
-			//case  3: return Operator.DIVIDE;
-			default: return getOperator((operatorIndex % NUM_OF_OPERATORS));
-		}
+		testPanel.showEquation(question, generator.getQuestionNumber(), generator.getOperand1(),
+				generator.getOperand2(), generator.getOperator());
 	}
 	
 	/**
@@ -229,7 +133,8 @@ public class PreKTestArithmetic implements TestableObserver{
 			message = "\"" + answer + "\""
 					+ " is incorrect! The correct answer is shown above.";
 		try {
-			testPanel.showEquationAnswer("<font color=\"#00FF00\">" + currentAnswer + "</font>", message, isCorrect);
+			testPanel.showEquationAnswer("<font color=\"#00FF00\">" + generator.getCorrectAnswer() + "</font>",
+					message, isCorrect);
 		} catch (IOException e) {
 			manager.handleException(e);
 		}
@@ -244,27 +149,15 @@ public class PreKTestArithmetic implements TestableObserver{
 	 * @return A boolean indicating true if the user's answer was correct; false otherwise.
 	 */
 	private boolean checkAnswer(String answer){
-		if(answer.equals(new Integer(currentAnswer).toString())){
+		if(generator.checkAnswer(answer)){
 			numCorrect++;
 			return true;
 		}else{
-			logWrongAnswer(answer);
+			wrongAnswers.add(generator.getLogEntry(answer));
 			return false;
 		}
 	}
 	
-	/**
-	 * A helper method, used to create a String that describes an incorrectly answered question.
-	 *  Adds the created String to the wrongAnswers ArrayList.
-	 * @param wrongAnswer A String representing the incorrect answer that a user gave to currentQuestion.
-	 */
-	private void logWrongAnswer(String wrongAnswer){
-		String question = "Question " + (currentQuestionNum-1) + ": (" + currentQuestion + ")";
-		String entry    = question + " Student Answer: (" + wrongAnswer + ")"
-								   + " Correct Answer: (" + currentAnswer + ").";
-		wrongAnswers.add(entry);
-	}
-	
 	/**
 	 * Used to create a text file containing all questions, user answers, and correct answers
 	 *  for all questions that the user answered incorrectly. If the user did not answer any
@@ -296,7 +189,7 @@ public class PreKTestArithmetic implements TestableObserver{
 	 *  to a previously recorded grade; false otherwise.
 	 */
 	private boolean isBetterGrade(int numCorrect){
-		return (numCorrect >= manager.getPreviousGrade(TEST_BUTTON, difficulty));
+		return (numCorrect >= manager.getPreviousGrade(testButton, difficulty));
 	}
 
 	@Override
@@ -304,7 +197,7 @@ public class PreKTestArithmetic implements TestableObserver{
 		if(isPractice){
 			showAnswer(answer);
 		}
-		else if(currentQuestionNum <= maxNumberOfQuestions){
+		else if(generator.hasNextQuestion()){
 			checkAnswer(answer);
 			makeAndShowQuestion();
 		}else{
@@ -314,12 +207,14 @@ public class PreKTestArithmetic implements TestableObserver{
 				clip.stop();
 			try{
 				int grade = getGrade();
+				manager.recordAttempt(testButton, difficulty, numCorrect, maxNumberOfQuestions,
+						System.currentTimeMillis() - startTime, seed);
 				boolean isBetter = isBetterGrade(numCorrect);
 				String fileName = "Arithmetic(" + difficulty.getName() + ")";
 				if(isBetter)
-					manager.setGrade(TEST_BUTTON, difficulty, numCorrect, maxNumberOfQuestions);
+					manager.setGrade(testButton, difficulty, numCorrect, maxNumberOfQuestions);
 				makeTestDetailFile();
-				new RewardScreen(manager, TEST_BUTTON, difficulty, grade, isBetter, manager.getRewardsFolderPath());
+				new RewardScreen(manager, testButton, difficulty, grade, isBetter, manager.getRewardsFolderPath());
 			}catch (IOException e) {
 				manager.handleException(e);
 			}
@@ -329,7 +224,7 @@ public class PreKTestArithmetic implements TestableObserver{
 	@Override
 	public void nextClicked() {
 		if(isPractice){
-			if(currentQuestionNum <= maxNumberOfQuestions){
+			if(generator.hasNextQuestion()){
 				makeAndShowQuestion();
 			}else{
 				if(clip.isActive())
@@ -0,0 +1,285 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.tools;
+
+import java.math.BigDecimal;
+
+/**
+ * This class describes an exact rational number, as a numerator and a denominator, always in lowest
+ *  terms, with a positive denominator. It is used by the Fractions and Decimals tests, where ints can
+ *  not describe the questions or their answers, and doubles can not compare them exactly.
+ * Fractions are interned: every Fraction with a denominator of up to MAX_CACHED_DENOMINATOR, from 0 to
+ *  MAX_CACHED_WHOLE, is created once, when the class is loaded, and valueOf() and the arithmetic methods
+ *  return the cached instance instead of allocating one. Every fraction that a test asks about is cached,
+ *  so generating and checking questions does not allocate Fractions. Fractions outside the cache are
+ *  created as needed, so equals(Object), not ==, must be used to compare Fractions.
+ * @author Kenneth Chin
+ */
+public final class Fraction implements Comparable<Fraction> {
+
+	public static final int MAX_CACHED_DENOMINATOR = 100; //The largest denominator of a cached Fraction.
+	public static final int MAX_CACHED_WHOLE       = 2;   //The largest value of a cached Fraction.
+	
+	//The position of the first Fraction of each denominator in CACHE. Index 0 is unused.
+	private static final int[] CACHE_OFFSETS = new int[MAX_CACHED_DENOMINATOR + 1];
+	//Every Fraction from 0 to MAX_CACHED_WHOLE with a denominator of up to MAX_CACHED_DENOMINATOR,
+	// indexed by CACHE_OFFSETS[denominator] + numerator. Positions that are not in lowest terms are null.
+	private static final Fraction[] CACHE;
+	static{
+		int size = 0;
+		for(int denominator = 1; denominator <= MAX_CACHED_DENOMINATOR; denominator++){
+			CACHE_OFFSETS[denominator] = size;
+			size += MAX_CACHED_WHOLE * denominator + 1;
+		}
+		CACHE = new Fraction[size];
+		for(int denominator = 1; denominator <= MAX_CACHED_DENOMINATOR; denominator++){
+			for(int numerator = 0; numerator <= MAX_CACHED_WHOLE * denominator; numerator++){
+				if(gcd(numerator, denominator) == 1)
+					CACHE[CACHE_OFFSETS[denominator] + numerator] = new Fraction(numerator, denominator);
+			}
+		}
+	}
+	
+	public static final Fraction ZERO = valueOf(0, 1);
+	public static final Fraction ONE  = valueOf(1, 1);
+
+	private final int numerator;   //The numerator, in lowest terms. Negative if the Fraction is negative.
+	private final int denominator; //The denominator, in lowest terms. Always positive.
+
+	/**
+	 * A helper constructor used to create a Fraction that is already in lowest terms.
+	 * @param numerator An int. The numerator.
+	 * @param denominator An int. The denominator. Must be positive.
+	 */
+	private Fraction(int numerator, int denominator){
+		this.numerator   = numerator;
+		this.denominator = denominator;
+	}
+
+	/**
+	 * Used to obtain the Fraction numerator / denominator, in lowest terms. A cached Fraction is returned
+	 *  if there is one.
+	 * @param numerator A long. The numerator.
+	 * @param denominator A long. The denominator. Must not be zero.
+	 * @return The Fraction, in lowest terms.
+	 * @throws ArithmeticException Thrown if the denominator is zero, either argument is Long.MIN_VALUE
+	 *  (which can not be negated), or the Fraction, in lowest terms, does not fit in ints.
+	 */
+	public static Fraction valueOf(long numerator, long denominator){
+		if(denominator == 0)
+			throw new ArithmeticException("Fraction: The denominator is zero.");
+		if(numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE)
+			throw new ArithmeticException("Fraction: " + numerator + "/" + denominator + " is too large.");
+		if(denominator < 0){
+			numerator   = -numerator;
+			denominator = -denominator;
+		}
+		long divisor = gcd(Math.abs(numerator), denominator);
+		numerator   /= divisor;
+		denominator /= divisor;
+		if(denominator <= MAX_CACHED_DENOMINATOR && numerator >= 0 && numerator <= MAX_CACHED_WHOLE * denominator)
+			return CACHE[CACHE_OFFSETS[(int)denominator] + (int)numerator];
+		if(numerator < Integer.MIN_VALUE || numerator > Integer.MAX_VALUE || denominator > Integer.MAX_VALUE)
+			throw new ArithmeticException("Fraction: " + numerator + "/" + denominator + " is too large.");
+		return new Fraction((int)numerator, (int)denominator);
+	}
+
+	/**
+	 * Used to read a Fraction that was typed by a student: a fraction ("3/4"), a decimal ("0.75" or ".75"),
+	 *  or a whole number ("3"). Spaces around the text & around the "/" are ignored.
+	 * @param text The String to be read.
+	 * @return The Fraction, in lowest terms.
+	 * @throws NumberFormatException Thrown if the text is not a fraction, decimal, or whole number, or
+	 *  has a zero denominator.
+	 */
+	public static Fraction parse(String text){
+		String s = text.trim();
+		int slash = s.indexOf('/');
+		if(slash >= 0){
+			int denominator = Integer.parseInt(s.substring(slash + 1).trim());
+			if(denominator == 0)
+				throw new NumberFormatException("Fraction: \"" + text + "\" has a zero denominator.");
+			return valueOf(Integer.parseInt(s.substring(0, slash).trim()), denominator);
+		}
+		int point = s.indexOf('.');
+		if(point < 0)
+			return valueOf(Integer.parseInt(s), 1);
+		String whole  = s.substring(0, point);
+		String digits = s.substring(point + 1);
+		boolean isNegative = whole.startsWith("-");
+		if(isNegative)
+			whole = whole.substring(1);
+		if((whole.isEmpty() && digits.isEmpty()) || digits.length() > 9 || !isDigits(whole) || !isDigits(digits))
+			throw new NumberFormatException("Fraction: \"" + text + "\" is not a decimal.");
+		long scale = 1;
+		for(int i = 0; i < digits.length(); i++)
+			scale *= 10;
+		long value = (whole.isEmpty() ? 0 : Integer.parseInt(whole)) * scale
+				   + (digits.isEmpty() ? 0 : Long.parseLong(digits));
+		return valueOf(isNegative ? -value : value, scale);
+	}
+
+	/**
+	 * A helper method used to check that a String holds only the digits 0 to 9.
+	 * @param s The String to be checked.
+	 * @return A boolean indicating true if every char of s is a digit; false otherwise.
+	 */
+	private static boolean isDigits(String s){
+		for(int i = 0; i < s.length(); i++){
+			if(s.charAt(i) < '0' || s.charAt(i) > '9')
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * A helper method used to find the greatest common divisor of two longs.
+	 * @param a A long. Must not be negative.
+	 * @param b A long. Must not be negative.
+	 * @return A long. The greatest common divisor of a and b, or the other value if either is zero.
+	 */
+	private static long gcd(long a, long b){
+		while(b != 0){
+			long remainder = a % b;
+			a = b;
+			b = remainder;
+		}
+		return a;
+	}
+
+	public int getNumerator(){
+		return numerator;
+	}
+
+	public int getDenominator(){
+		return denominator;
+	}
+
+
+/**********************
+ * Arithmetic methods *
+ **********************/
+
+	/**
+	 * Used to add a Fraction to this Fraction.
+	 * @param other The Fraction to be added.
+	 * @return The sum, in lowest terms.
+	 */
+	public Fraction add(Fraction other){
+		return valueOf((long)numerator * other.denominator + (long)other.numerator * denominator,
+				(long)denominator * other.denominator);
+	}
+
+	/**
+	 * Used to subtract a Fraction from this Fraction.
+	 * @param other The Fraction to be subtracted.
+	 * @return The difference, in lowest terms.
+	 */
+	public Fraction subtract(Fraction other){
+		return valueOf((long)numerator * other.denominator - (long)other.numerator * denominator,
+				(long)denominator * other.denominator);
+	}
+
+	/**
+	 * Used to multiply this Fraction by a Fraction.
+	 * @param other The Fraction to multiply by.
+	 * @return The product, in lowest terms.
+	 */
+	public Fraction multiply(Fraction other){
+		return valueOf((long)numerator * other.numerator, (long)denominator * other.denominator);
+	}
+
+	/**
+	 * Used to divide this Fraction by a Fraction.
+	 * @param other The Fraction to divide by.
+	 * @return The quotient, in lowest terms.
+	 * @throws ArithmeticException Thrown if other is zero.
+	 */
+	public Fraction divide(Fraction other){
+		if(other.numerator == 0)
+			throw new ArithmeticException("Fraction: Can not divide by zero.");
+		return valueOf((long)numerator * other.denominator, (long)denominator * other.numerator);
+	}
+
+	@Override
+	public int compareTo(Fraction other){
+		return Long.compare((long)numerator * other.denominator, (long)other.numerator * denominator);
+	}
+
+
+/*****************
+ * Decimal forms *
+ *****************/
+
+	/**
+	 * Used to check if this Fraction can be written as a decimal with a finite number of digits, which
+	 *  is true if its denominator has no prime factors other than 2 and 5.
+	 * @return A boolean indicating true if toDecimalString() may be used; false otherwise.
+	 */
+	public boolean isTerminatingDecimal(){
+		int d = denominator;
+		while(d % 2 == 0)
+			d /= 2;
+		while(d % 5 == 0)
+			d /= 5;
+		return d == 1;
+	}
+
+	/**
+	 * Used to obtain this Fraction as a decimal, without trailing zeros (ex. "0.75", "2", "-0.5").
+	 * @return A String holding the exact decimal value.
+	 * @throws ArithmeticException Thrown if the decimal does not terminate. See isTerminatingDecimal().
+	 */
+	public String toDecimalString(){
+		if(!isTerminatingDecimal())
+			throw new ArithmeticException("Fraction: " + this + " is not a terminating decimal.");
+		BigDecimal value = new BigDecimal(numerator).divide(new BigDecimal(denominator));
+		return (value.signum() == 0) ? "0" : value.stripTrailingZeros().toPlainString();
+	}
+
+
+/******************
+ * Object methods *
+ ******************/
+
+	@Override
+	public boolean equals(Object obj){
+		if(this == obj)
+			return true;
+		if(!(obj instanceof Fraction))
+			return false;
+		Fraction other = (Fraction)obj;
+		return numerator == other.numerator && denominator == other.denominator;
+	}
+
+	@Override
+	public int hashCode(){
+		return 31 * numerator + denominator;
+	}
+
+	/**
+	 * Used to obtain this Fraction as text: "numerator/denominator", or only the numerator if the
+	 *  denominator is 1.
+	 * @return A String describing this Fraction, in lowest terms.
+	 */
+	@Override
+	public String toString(){
+		return (denominator == 1) ? Integer.toString(numerator) : numerator + "/" + denominator;
+	}
+}
@@ -0,0 +1,94 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.tools;
+
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * This class draws the questions of a QuestionSpace in random order, without replacement, so no question
+ *  is asked twice. Each draw takes constant time, however many questions have already been asked: it is
+ *  one step of a Fisher-Yates shuffle, made only when a question is drawn. The QuestionSpace is not
+ *  copied; only the positions moved by earlier draws are remembered, so a sampler costs memory in
+ *  proportion to the number of questions drawn, not the size of the QuestionSpace.
+ * @author Kenneth Chin
+ */
+public class QuestionSampler {
+
+	private final QuestionSpace space; //The questions that are drawn.
+	private final Random rng;          //The random number generator used for each draw.
+	private int remaining;             //The number of questions that have not been drawn.
+	//The position that each moved position now holds. A position that is not a key holds itself.
+	private HashMap<Integer, Integer> moved = new HashMap<Integer, Integer>();
+
+	/**
+	 * Creates a QuestionSampler from which no question has been drawn.
+	 * @param space The QuestionSpace whose questions are drawn.
+	 * @param rng The Random number generator used for each draw.
+	 */
+	public QuestionSampler(QuestionSpace space, Random rng){
+		this.space     = space;
+		this.rng       = rng;
+		this.remaining = space.size();
+	}
+
+	/**
+	 * Used to check if any question has not been drawn.
+	 * @return A boolean indicating true if a question remains; false otherwise.
+	 */
+	public boolean hasNext(){
+		return remaining > 0;
+	}
+
+	/**
+	 * Used to obtain the number of questions that have not been drawn.
+	 * @return An int indicating the number of remaining questions.
+	 */
+	public int getRemaining(){
+		return remaining;
+	}
+
+	/**
+	 * Used to draw a random question that has not been drawn before. Every remaining question is equally
+	 *  likely to be drawn.
+	 * @return A new int array holding the values of the question's tuple. See QuestionSpace.getQuestion(int).
+	 * @throws IllegalStateException Thrown if every question has been drawn.
+	 */
+	public int[] next(){
+		if(remaining == 0)
+			throw new IllegalStateException("QuestionSampler: Every question has been drawn.");
+		int drawn = rng.nextInt(remaining);
+		int last  = --remaining;
+		int position = getPosition(drawn);
+		//The last undrawn position takes the drawn position's place.
+		moved.put(drawn, getPosition(last));
+		moved.remove(last);
+		return space.getQuestion(position);
+	}
+
+	/**
+	 * A helper method used to obtain the QuestionSpace position that is held at a shuffled position.
+	 * @param shuffled An int indicating the shuffled position.
+	 * @return An int indicating the QuestionSpace position.
+	 */
+	private int getPosition(int shuffled){
+		Integer position = moved.get(shuffled);
+		return (position == null) ? shuffled : position;
+	}
+}
@@ -0,0 +1,116 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.tools;
+
+import java.util.Arrays;
+
+/**
+ * This class describes every valid question of a test, as a set of int tuples. Each tuple holds one
+ *  value per dimension (ex. {operand1, operand2, operator index}), and each dimension ranges over the
+ *  ints from its lowest to its highest value (inclusive). Every tuple is checked by a Filter once, when
+ *  the QuestionSpace is created, and only the valid tuples are kept, so questions that can never be asked
+ *  (ex. those with negative answers) are never drawn.
+ * A QuestionSpace is never changed once created, so one may be shared by every test of the same kind.
+ *  Questions are drawn from it, without replacement, by a QuestionSampler.
+ * @author Kenneth Chin
+ */
+public class QuestionSpace {
+
+	private final int[] lowest; //The lowest value of each dimension.
+	private final int[] sizes;  //The number of values of each dimension.
+	private final int[] valid;  //The index of every valid tuple, in ascending order.
+
+	/**
+	 * Creates a QuestionSpace holding every tuple that the filter accepts.
+	 * @param lowest An int array holding the lowest value of each dimension.
+	 * @param highest An int array holding the highest value of each dimension. Must be the same length
+	 *  as lowest, and no value may be less than the matching lowest value.
+	 * @param filter The Filter that decides which tuples are valid questions, or null if every tuple is valid.
+	 */
+	public QuestionSpace(int[] lowest, int[] highest, Filter filter){
+		if(lowest.length != highest.length || lowest.length == 0)
+			throw new IllegalArgumentException("QuestionSpace: Every dimension needs a lowest and a highest value.");
+		this.lowest = lowest.clone();
+		this.sizes  = new int[lowest.length];
+		long tuples = 1;
+		for(int i = 0; i < sizes.length; i++){
+			if(highest[i] < lowest[i])
+				throw new IllegalArgumentException("QuestionSpace: Dimension " + i + " has no values.");
+			sizes[i] = highest[i] - lowest[i] + 1;
+			tuples  *= sizes[i];
+		}
+		if(tuples > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("QuestionSpace: There are too many tuples to enumerate.");
+		int[] found  = new int[(int)tuples];
+		int count    = 0;
+		int[] values = this.lowest.clone();
+		for(int index = 0; index < found.length; index++){
+			if(filter == null || filter.isValid(values))
+				found[count++] = index;
+			//Step to the next tuple, with the last dimension changing fastest.
+			for(int i = values.length - 1; i >= 0; i--){
+				if(++values[i] < lowest[i] + sizes[i])
+					break;
+				values[i] = lowest[i];
+			}
+		}
+		valid = Arrays.copyOf(found, count);
+	}
+
+	/**
+	 * Used to obtain the number of valid questions.
+	 * @return An int indicating the number of valid tuples.
+	 */
+	public int size(){
+		return valid.length;
+	}
+
+	/**
+	 * Used to obtain a valid question.
+	 * @param position An int indicating the position of the question, from 0 to size() - 1.
+	 * @return A new int array holding the values of the question's tuple, one per dimension.
+	 */
+	public int[] getQuestion(int position){
+		int index = valid[position];
+		int[] values = new int[sizes.length];
+		for(int i = values.length - 1; i >= 0; i--){
+			values[i] = lowest[i] + index % sizes[i];
+			index    /= sizes[i];
+		}
+		return values;
+	}
+
+
+/*****************
+ * Filter object *
+ *****************/
+
+	/**
+	 * Decides which tuples of a QuestionSpace are valid questions. Called once per tuple, when the
+	 *  QuestionSpace is created.
+	 */
+	public interface Filter {
+		/**
+		 * Used to check if a tuple is a valid question.
+		 * @param values An int array holding the tuple's values, one per dimension. It must not be changed.
+		 * @return A boolean indicating true if the tuple may be asked as a question; false otherwise.
+		 */
+		boolean isValid(int[] values);
+	}
+}
@@ -0,0 +1,122 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.tools;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class produces a stream of well-mixed 64 bit seeds, one for each test's random number generator,
+ *  so that a test can be replayed exactly from the seed that is recorded with its attempt. A SeedStream
+ *  may be split into an independent child stream, so that each thread of a parallel job draws its seeds
+ *  without sharing (and contending for) a single generator.
+ * The algorithm is SplitMix64, the algorithm of Java 8's SplittableRandom, which this project can not use.
+ *  A SeedStream is not thread safe. A thread should split its own SeedStream instead.
+ * @author Kenneth Chin
+ */
+public class SeedStream {
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L; //The odd integer closest to 2^64 / phi.
+	
+	//Seeds the next SeedStream that is created without a seed. Advanced by each, so no two are the same.
+	private static final AtomicLong defaultSeeds = new AtomicLong(mix64(System.currentTimeMillis())
+																	^ mix64(System.nanoTime()));
+
+	private long seed;        //The state of the stream. Advanced by gamma for each seed.
+	private final long gamma; //An odd long. The step between states. Distinct for each split stream.
+
+	/**
+	 * Creates a SeedStream whose seeds differ from every other SeedStream created without a seed, during
+	 *  this run and (most likely) any other run.
+	 */
+	public SeedStream(){
+		long s = defaultSeeds.getAndAdd(2 * GOLDEN_GAMMA);
+		this.seed  = mix64(s);
+		this.gamma = mixGamma(s + GOLDEN_GAMMA);
+	}
+
+	/**
+	 * Creates a SeedStream that always produces the same seeds for the same seed.
+	 * @param seed A long. The seed of the stream.
+	 */
+	public SeedStream(long seed){
+		this(seed, GOLDEN_GAMMA);
+	}
+
+	/**
+	 * A helper constructor used to create a SeedStream with a specified step.
+	 * @param seed A long. The initial state of the stream.
+	 * @param gamma An odd long. The step between states.
+	 */
+	private SeedStream(long seed, long gamma){
+		this.seed  = seed;
+		this.gamma = gamma;
+	}
+
+	/**
+	 * Used to obtain the next seed of this stream.
+	 * @return A long. The next seed.
+	 */
+	public long nextSeed(){
+		return mix64(seed += gamma);
+	}
+
+	/**
+	 * Used to obtain a random number generator seeded by the next seed of this stream.
+	 * @return A new Random, seeded by nextSeed().
+	 */
+	public Random nextRandom(){
+		return new Random(nextSeed());
+	}
+
+	/**
+	 * Used to split off a new SeedStream, whose seeds are independent of the seeds of this stream. This
+	 *  stream is advanced, so the same stream always splits off the same children, in the same order.
+	 * @return A new SeedStream.
+	 */
+	public SeedStream split(){
+		long childSeed = nextSeed();
+		return new SeedStream(childSeed, mixGamma(seed += gamma));
+	}
+
+	/**
+	 * A helper method used to mix a state into a seed (the variant 13 finalizer of MurmurHash3).
+	 * @param z The long to be mixed.
+	 * @return The mixed long.
+	 */
+	private static long mix64(long z){
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * A helper method used to make the step of a new stream. The step must be odd, and is rejected if too
+	 *  few of its neighbouring bits differ, since such a step gives poorly mixed states.
+	 * @param z The long to be mixed.
+	 * @return An odd long.
+	 */
+	private static long mixGamma(long z){
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		int transitions = Long.bitCount(z ^ (z >>> 1));
+		return (transitions < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+	}
+}
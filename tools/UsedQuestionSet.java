@@ -0,0 +1,146 @@
+/**
+ * Name:         Math Helper
+ * Version:      0.11.2
+ * Version Date: 04/20/2015
+ * Team:         "Cool Math" - Consists of Kenneth Chin, Chris Moraal, Elena Eroshkina, and Austin Clark
+ * Purpose:      The "Math Helper" software is used to aid parents and teachers with the teaching and testing
+ *                 of students, grades PreK through Grade 4, in the subject of Mathematics. The lessons and
+ *                 tests provided cover a subset of skills as specified by the Massachusetts Department of
+ *                 Education's (DOE) website, found at:
+ *                              http://www.doe.mass.edu/frameworks/math/2000/toc.html
+ *                 The DOE category, Number Sense and Operations for Grades Pre-K through Grade 4,
+ *                 is the subset that the "Math Helper" software covers.
+ *                 
+ *               Features and services of the "Math Helper" software include, Login/Logout mechanics,
+ *                 practice and formal testing, and tutorials of the above-specified skills. Additional
+ *                 features include test completion results, test completion summaries, and test
+ *                 completion rewards.
+ */
+package project.tools;
+
+import java.util.Arrays;
+
+/**
+ * This class remembers which questions of a test have already been asked, when there are too many
+ *  possible questions for a QuestionSpace to enumerate (ex. two operands up to 9999). Each question is
+ *  packed into a long key by its test, and the keys are kept in a single long array by open addressing
+ *  with linear probing, so each question takes 16 to 32 bytes, however large the operands are,
+ *  and no object is created per question.
+ * @author Kenneth Chin
+ */
+public class UsedQuestionSet {
+
+	private static final int DEFAULT_CAPACITY = 32;  //The initial number of slots. Always a power of two.
+	private static final long EMPTY = Long.MIN_VALUE; //Marks an empty slot. Stored separately if added.
+
+	private long[] slots;              //The keys, each in the first empty slot from its hash.
+	private int size = 0;              //The number of keys in slots, not counting EMPTY.
+	private boolean hasEmptyKey = false; //Set if the key EMPTY has been added.
+
+	/**
+	 * Creates an empty UsedQuestionSet.
+	 */
+	public UsedQuestionSet(){
+		slots = newSlots(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Used to mark a question as asked.
+	 * @param key A long that identifies the question.
+	 * @return A boolean indicating true if the question had not been asked; false if it already had.
+	 */
+	public boolean add(long key){
+		if(key == EMPTY){
+			boolean isNew = !hasEmptyKey;
+			hasEmptyKey = true;
+			return isNew;
+		}
+		int mask = slots.length - 1;
+		int slot = hash(key) & mask;
+		while(slots[slot] != EMPTY){
+			if(slots[slot] == key)
+				return false;
+			slot = (slot + 1) & mask;
+		}
+		slots[slot] = key;
+		//Keep at least half of the slots empty, so probes stay short.
+		if(++size * 2 > slots.length)
+			grow();
+		return true;
+	}
+
+	/**
+	 * Used to check if a question has been asked.
+	 * @param key A long that identifies the question.
+	 * @return A boolean indicating true if the question has been asked; false otherwise.
+	 */
+	public boolean contains(long key){
+		if(key == EMPTY)
+			return hasEmptyKey;
+		int mask = slots.length - 1;
+		int slot = hash(key) & mask;
+		while(slots[slot] != EMPTY){
+			if(slots[slot] == key)
+				return true;
+			slot = (slot + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * Used to obtain the number of questions that have been asked.
+	 * @return An int indicating the number of keys in this set.
+	 */
+	public int size(){
+		return size + (hasEmptyKey ? 1 : 0);
+	}
+
+	/**
+	 * Used to forget every question, so that this set may be reused by a new test.
+	 */
+	public void clear(){
+		slots       = newSlots(DEFAULT_CAPACITY);
+		size        = 0;
+		hasEmptyKey = false;
+	}
+
+	/**
+	 * A helper method used to double the number of slots, moving every key to its slot in the new array.
+	 */
+	private void grow(){
+		long[] old = slots;
+		slots    = newSlots(old.length * 2);
+		int mask = slots.length - 1;
+		for(long key: old){
+			if(key == EMPTY)
+				continue;
+			int slot = hash(key) & mask;
+			while(slots[slot] != EMPTY)
+				slot = (slot + 1) & mask;
+			slots[slot] = key;
+		}
+	}
+
+	/**
+	 * A helper method used to create an array of empty slots.
+	 * @param capacity An int. The number of slots.
+	 * @return A new long array, filled with EMPTY.
+	 */
+	private static long[] newSlots(int capacity){
+		long[] array = new long[capacity];
+		Arrays.fill(array, EMPTY);
+		return array;
+	}
+
+	/**
+	 * A helper method used to spread a key's bits (the finalizer of the MurmurHash3 hash), since packed
+	 *  questions differ mostly in their low bits.
+	 * @param key The long to be hashed.
+	 * @return An int. The hash of the key.
+	 */
+	private static int hash(long key){
+		key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+		key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return (int)(key ^ (key >>> 33));
+	}
+}